@@ -71,6 +71,16 @@ public interface CourseClient extends BaseClient<CourseDto, Long> {
     @PostMapping("/course/existId")
     ResponseResult<Boolean> existId(@RequestParam("courseId") Long courseId);
 
+    /**
+     * 批量校验多个字段的数据值是否存在，返回其中不存在的数据值。
+     *
+     * @param fieldValueMap key为待校验的字段名，value为待校验的数据值集合。
+     * @return 应答结果对象，仅包含存在不合法数据的字段，key为字段名，value为其中不存在的数据值集合。
+     */
+    @Override
+    @PostMapping("/course/listNotExistValues")
+    ResponseResult<Map<String, Set<Object>>> listNotExistValues(@RequestBody Map<String, Set<Object>> fieldValueMap);
+
     /**
      * 获取远程主对象中符合查询条件的数据列表。
      *
@@ -148,6 +158,11 @@ public interface CourseClient extends BaseClient<CourseDto, Long> {
             return ResponseResult.error(ErrorCodeEnum.RPC_DATA_ACCESS_FAILED);
         }
 
+        @Override
+        public ResponseResult<Map<String, Set<Object>>> listNotExistValues(Map<String, Set<Object>> fieldValueMap) {
+            return ResponseResult.error(ErrorCodeEnum.RPC_DATA_ACCESS_FAILED);
+        }
+
         @Override
         public ResponseResult<List<CourseDto>> listBy(MyQueryParam queryParam) {
             return ResponseResult.error(ErrorCodeEnum.RPC_DATA_ACCESS_FAILED);
@@ -2,11 +2,13 @@ package com.orange.demo.courseclassservice.controller;
 
 import cn.jimmyshi.beanquery.BeanQuery;
 import cn.hutool.core.util.ReflectUtil;
+import com.orange.demo.common.core.export.ExportJob;
+import com.orange.demo.common.core.export.ExportJobManager;
+import com.orange.demo.common.core.export.ExportJobStatusEnum;
 import com.orange.demo.common.core.upload.BaseUpDownloader;
 import com.orange.demo.common.core.upload.UpDownloaderFactory;
 import com.orange.demo.common.core.upload.UploadResponseInfo;
 import com.orange.demo.common.core.upload.UploadStoreInfo;
-import com.github.pagehelper.Page;
 import com.github.pagehelper.page.PageMethod;
 import com.orange.demo.courseclassservice.model.*;
 import com.orange.demo.courseclassservice.service.*;
@@ -30,7 +32,9 @@ import org.springframework.web.multipart.MultipartFile;
 
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.groups.Default;
+import java.io.IOException;
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * 课程数据操作控制器类。
@@ -52,6 +56,24 @@ public class CourseController extends BaseController<Course, CourseDto, Long> {
     private SessionCacheHelper cacheHelper;
     @Autowired
     private UpDownloaderFactory upDownloaderFactory;
+    @Autowired
+    private ExportJobManager exportJobManager;
+
+    /**
+     * 异步导出的数据字段，key为对象字段名称，value为中文标题名称。
+     */
+    private static final Map<String, String> EXPORT_FIELD_MAP = new LinkedHashMap<>();
+
+    static {
+        EXPORT_FIELD_MAP.put("courseId", "主键Id");
+        EXPORT_FIELD_MAP.put("courseName", "课程名称");
+        EXPORT_FIELD_MAP.put("price", "课程价格");
+        EXPORT_FIELD_MAP.put("difficultyDictMap.name", "课程难度");
+        EXPORT_FIELD_MAP.put("gradeIdDictMap.name", "所属年级");
+        EXPORT_FIELD_MAP.put("subjectIdDictMap.name", "所属学科");
+        EXPORT_FIELD_MAP.put("classHour", "课时数量");
+        EXPORT_FIELD_MAP.put("updateTime", "最后修改时间");
+    }
 
     @Override
     protected BaseService<Course, CourseDto, Long> service() {
@@ -166,21 +188,31 @@ public class CourseController extends BaseController<Course, CourseDto, Long> {
             @MyRequestBody("courseFilter") CourseDto courseDtoFilter,
             @MyRequestBody MyOrderParam orderParam,
             @MyRequestBody MyPageParam pageParam) {
+        Course courseFilter = Course.INSTANCE.toModel(courseDtoFilter);
+        MyPageCursor<Course> pageCursor = courseService.makePageCursor(pageParam, orderParam);
+        if (pageCursor != null) {
+            pageCursor.startPage();
+            List<Course> courseList = courseService.getCourseListWithRelation(courseFilter, pageCursor);
+            MyPageData<CourseDto> pageData = pageCursor.makeResponseData(courseList, Course.INSTANCE::fromModelList);
+            if (pageCursor.isTotalCountRequired()) {
+                MyPageUtil.setTotalCount(pageData,
+                        courseService.getCourseCount(courseFilter, pageParam.getEstimatedCount()));
+            }
+            return ResponseResult.success(pageData);
+        }
         if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
+            // 数据总数量不再由PageHelper同步计算，而是通过带有缓存的计数方法获取。
+            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize(), false);
         }
-        Course courseFilter = Course.INSTANCE.toModel(courseDtoFilter);
         String orderBy = MyOrderParam.buildOrderBy(orderParam, Course.class);
         List<Course> courseList =
                 courseService.getCourseListWithRelation(courseFilter, orderBy);
-        long totalCount = 0L;
-        if (courseList instanceof Page) {
-            totalCount = ((Page<Course>) courseList).getTotal();
+        Tuple2<Long, String> totalCount = null;
+        if (pageParam != null && pageParam.getWithTotalCount()) {
+            totalCount = courseService.getCourseCount(courseFilter, pageParam.getEstimatedCount());
         }
-        // 分页连同对象数据转换copy工作，下面的方法一并完成。
-        Tuple2<List<CourseDto>, Long> responseData =
-                new Tuple2<>(Course.INSTANCE.fromModelList(courseList), totalCount);
-        return ResponseResult.success(MyPageUtil.makeResponseData(responseData));
+        return ResponseResult.success(
+                MyPageUtil.makeResponseData(Course.INSTANCE.fromModelList(courseList), totalCount));
     }
 
     /**
@@ -296,6 +328,91 @@ public class CourseController extends BaseController<Course, CourseDto, Long> {
         ResponseResult.output(ResponseResult.success(responseInfo));
     }
 
+    /**
+     * 提交课程数据的异步导出任务。过滤条件和排序参数相同的导出请求，在去重时间内共享同一个任务及其结果文件。
+     * 之后可通过exportStatus接口查询任务状态，任务完成后再通过exportDownload接口下载结果文件。
+     *
+     * @param courseDtoFilter 过滤对象。
+     * @param orderParam 排序参数。
+     * @param filename 导出文件名，目前仅支持xlsx和csv。
+     * @return 应答结果对象，包含导出任务对象。
+     */
+    @PostMapping("/exportAsync")
+    public ResponseResult<ExportJob> exportAsync(
+            @MyRequestBody("courseFilter") CourseDto courseDtoFilter,
+            @MyRequestBody MyOrderParam orderParam,
+            @MyRequestBody(required = true) String filename) {
+        if (MyCommonUtil.existBlankArgument(filename)) {
+            return ResponseResult.error(ErrorCodeEnum.ARGUMENT_NULL_EXIST);
+        }
+        Course courseFilter = Course.INSTANCE.toModel(courseDtoFilter);
+        // 导出任务逐页读取数据，这里先创建第一页的游标，以便在提交之前验证排序参数是否支持游标分页。
+        MyPageParam pageParam = new MyPageParam();
+        pageParam.setPageSize(MyPageParam.DEFAULT_MAX_SIZE);
+        pageParam.setWithTotalCount(false);
+        pageParam.setCursor("");
+        courseService.makePageCursor(pageParam, orderParam);
+        Map<String, Object> filterKey = new HashMap<>(2);
+        filterKey.put("courseFilter", courseFilter);
+        filterKey.put("orderParam", orderParam);
+        ExportJob job = exportJobManager.submit(Course.class.getSimpleName(), filename, EXPORT_FIELD_MAP, filterKey,
+                (ExportWriter<Course> writer) -> {
+                    do {
+                        MyPageCursor<Course> pageCursor = courseService.makePageCursor(pageParam, orderParam);
+                        pageCursor.startPage();
+                        List<Course> courseList = courseService.getCourseListWithRelation(courseFilter, pageCursor);
+                        MyPageData<Course> pageData = pageCursor.makeResponseData(courseList, Function.identity());
+                        writer.write(pageData.getDataList());
+                        pageParam.setCursor(pageData.getNextCursor());
+                    } while (pageParam.getCursor() != null);
+                });
+        if (job.getStatus() == ExportJobStatusEnum.FAILED) {
+            return ResponseResult.error(ErrorCodeEnum.EXPORT_JOB_FAILED, job.getErrorMessage());
+        }
+        return ResponseResult.success(job);
+    }
+
+    /**
+     * 查询课程数据异步导出任务的状态。
+     *
+     * @param jobId 导出任务Id。
+     * @return 应答结果对象，包含导出任务对象。
+     */
+    @GetMapping("/exportStatus")
+    public ResponseResult<ExportJob> exportStatus(@RequestParam String jobId) {
+        ExportJob job = exportJobManager.getJob(jobId);
+        if (job == null || !Course.class.getSimpleName().equals(job.getModelName())) {
+            return ResponseResult.error(ErrorCodeEnum.DATA_NOT_EXIST);
+        }
+        return ResponseResult.success(job);
+    }
+
+    /**
+     * 下载课程数据异步导出任务的结果文件。
+     *
+     * @param jobId 导出任务Id。
+     * @param response Http 应答对象。
+     */
+    @GetMapping("/exportDownload")
+    public void exportDownload(@RequestParam String jobId, HttpServletResponse response) throws IOException {
+        ExportJob job = exportJobManager.getJob(jobId);
+        if (job == null || !Course.class.getSimpleName().equals(job.getModelName())) {
+            ResponseResult.output(HttpServletResponse.SC_NOT_FOUND, ResponseResult.error(ErrorCodeEnum.DATA_NOT_EXIST));
+            return;
+        }
+        if (job.getStatus() != ExportJobStatusEnum.FINISHED) {
+            ResponseResult.output(HttpServletResponse.SC_BAD_REQUEST,
+                    ResponseResult.error(ErrorCodeEnum.EXPORT_JOB_NOT_FINISHED));
+            return;
+        }
+        try {
+            exportJobManager.doDownload(job, response);
+        } catch (Exception e) {
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            log.error(e.getMessage(), e);
+        }
+    }
+
     /**
      * 以字典形式返回全部课程数据数据集合。字典的键值为[courseId, courseName]。
      * 白名单接口，登录用户均可访问。
@@ -362,6 +479,19 @@ public class CourseController extends BaseController<Course, CourseDto, Long> {
         return super.baseExistId(courseId);
     }
 
+    /**
+     * 批量校验多个字段的数据值是否存在，返回其中不存在的数据值。仅限于微服务间远程接口调用。
+     *
+     * @param fieldValueMap key为待校验的字段名，value为待校验的数据值集合。
+     * @return 应答结果对象，仅包含存在不合法数据的字段，key为字段名，value为其中不存在的数据值集合。
+     */
+    @ApiOperation(hidden = true, value = "listNotExistValues")
+    @PostMapping("/listNotExistValues")
+    public ResponseResult<Map<String, Set<Object>>> listNotExistValues(
+            @RequestBody Map<String, Set<Object>> fieldValueMap) {
+        return super.baseListNotExistValues(fieldValueMap);
+    }
+
     /**
      * 复杂的查询调用，包括(in list)过滤，对象条件过滤，分组和排序等。主要用于微服务间远程过程调用。
      *
@@ -499,6 +499,19 @@ public class StudentClassController extends BaseController<StudentClass, Student
         return super.baseExistId(classId);
     }
 
+    /**
+     * 批量校验多个字段的数据值是否存在，返回其中不存在的数据值。仅限于微服务间远程接口调用。
+     *
+     * @param fieldValueMap key为待校验的字段名，value为待校验的数据值集合。
+     * @return 应答结果对象，仅包含存在不合法数据的字段，key为字段名，value为其中不存在的数据值集合。
+     */
+    @ApiOperation(hidden = true, value = "listNotExistValues")
+    @PostMapping("/listNotExistValues")
+    public ResponseResult<Map<String, Set<Object>>> listNotExistValues(
+            @RequestBody Map<String, Set<Object>> fieldValueMap) {
+        return super.baseListNotExistValues(fieldValueMap);
+    }
+
     /**
      * 复杂的查询调用，包括(in list)过滤，对象条件过滤，分组和排序等。主要用于微服务间远程过程调用。
      *
@@ -141,11 +141,11 @@ public class StudentController extends BaseController<Student, StudentDto, Long>
      *
      * @param studentDtoFilter 过滤对象。
      * @param orderParam 排序参数。
-     * @param pageParam 分页参数。
+     * @param pageParam 分页参数，其中的includeFields可以指定列表中需要返回的字段。
      * @return 应答结果对象，包含查询结果集。
      */
     @PostMapping("/list")
-    public ResponseResult<MyPageData<StudentDto>> list(
+    public ResponseResult<MyPageData<?>> list(
             @MyRequestBody("studentFilter") StudentDto studentDtoFilter,
             @MyRequestBody MyOrderParam orderParam,
             @MyRequestBody MyPageParam pageParam) {
@@ -163,7 +163,9 @@ public class StudentController extends BaseController<Student, StudentDto, Long>
         // 分页连同对象数据转换copy工作，下面的方法一并完成。
         Tuple2<List<StudentDto>, Long> responseData =
                 new Tuple2<>(Student.INSTANCE.fromModelList(studentList), totalCount);
-        return ResponseResult.success(MyPageUtil.makeResponseData(responseData));
+        String includeFields = pageParam == null ? null : pageParam.getIncludeFields();
+        return ResponseResult.success(
+                MyPageUtil.makeResponseData(MyPageUtil.makeResponseData(responseData), includeFields));
     }
 
     /**
@@ -252,6 +254,19 @@ public class StudentController extends BaseController<Student, StudentDto, Long>
         return super.baseExistId(studentId);
     }
 
+    /**
+     * 批量校验多个字段的数据值是否存在，返回其中不存在的数据值。仅限于微服务间远程接口调用。
+     *
+     * @param fieldValueMap key为待校验的字段名，value为待校验的数据值集合。
+     * @return 应答结果对象，仅包含存在不合法数据的字段，key为字段名，value为其中不存在的数据值集合。
+     */
+    @ApiOperation(hidden = true, value = "listNotExistValues")
+    @PostMapping("/listNotExistValues")
+    public ResponseResult<Map<String, Set<Object>>> listNotExistValues(
+            @RequestBody Map<String, Set<Object>> fieldValueMap) {
+        return super.baseListNotExistValues(fieldValueMap);
+    }
+
     /**
      * 复杂的查询调用，包括(in list)过滤，对象条件过滤，分组和排序等。主要用于微服务间远程过程调用。
      *
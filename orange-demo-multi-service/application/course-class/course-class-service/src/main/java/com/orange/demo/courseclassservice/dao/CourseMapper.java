@@ -1,6 +1,7 @@
 package com.orange.demo.courseclassservice.dao;
 
 import com.orange.demo.common.core.base.dao.BaseDaoMapper;
+import com.orange.demo.common.core.object.MyWhereClause;
 import com.orange.demo.courseclassservice.model.Course;
 import org.apache.ibatis.annotations.Param;
 
@@ -21,13 +22,15 @@ public interface CourseMapper extends BaseDaoMapper<Course> {
      * @param inFilterValues 参与(In-list)过滤的数据表列值集合。
      * @param courseFilter 过滤对象。
      * @param orderBy 排序字符串，order by从句的参数。
+     * @param seekClause 游标分页的定位条件从句，可以为null。
      * @return 对象列表。
      */
     <M> List<Course> getCourseList(
             @Param("inFilterColumn") String inFilterColumn,
             @Param("inFilterValues") Set<M> inFilterValues,
             @Param("courseFilter") Course courseFilter,
-            @Param("orderBy") String orderBy);
+            @Param("orderBy") String orderBy,
+            @Param(MyWhereClause.PARAM_NAME) MyWhereClause seekClause);
 
     /**
      * 获取对象列表，过滤条件中包含like和between条件，以及指定属性的(in list)过滤条件。
@@ -8,6 +8,8 @@ import com.orange.demo.common.core.object.MyRelationParam;
 import com.orange.demo.common.core.object.CallResult;
 import com.orange.demo.common.core.object.TokenData;
 import com.orange.demo.common.core.object.MyWhereCriteria;
+import com.orange.demo.common.core.object.MyPageCursor;
+import com.orange.demo.common.core.object.Tuple2;
 import com.orange.demo.common.core.base.dao.BaseDaoMapper;
 import com.orange.demo.common.core.base.service.BaseService;
 import com.orange.demo.common.sequence.wrapper.IdGeneratorWrapper;
@@ -108,7 +110,7 @@ public class CourseService extends BaseService<Course, CourseDto, Long> {
      * @return 查询结果集。
      */
     public List<Course> getCourseList(Course filter, String orderBy) {
-        return courseMapper.getCourseList(null, null, filter, orderBy);
+        return courseMapper.getCourseList(null, null, filter, orderBy, null);
     }
 
     /**
@@ -125,7 +127,7 @@ public class CourseService extends BaseService<Course, CourseDto, Long> {
     public <M> List<Course> getCourseList(
             String inFilterField, Set<M> inFilterValues, Course filter, String orderBy) {
         String inFilterColumn = MyModelUtil.mapToColumnName(inFilterField, Course.class);
-        return courseMapper.getCourseList(inFilterColumn, inFilterValues, filter, orderBy);
+        return courseMapper.getCourseList(inFilterColumn, inFilterValues, filter, orderBy, null);
     }
 
     /**
@@ -137,12 +139,40 @@ public class CourseService extends BaseService<Course, CourseDto, Long> {
      * @return 查询结果集。
      */
     public List<Course> getCourseListWithRelation(Course filter, String orderBy) {
-        List<Course> resultList = courseMapper.getCourseList(null, null, filter, orderBy);
+        List<Course> resultList = courseMapper.getCourseList(null, null, filter, orderBy, null);
         Map<String, List<MyWhereCriteria>> criteriaMap = buildAggregationAdditionalWhereCriteria();
         this.buildRelationForDataList(resultList, MyRelationParam.normal(), criteriaMap);
         return resultList;
     }
 
+    /**
+     * 以游标分页的方式，获取主表的查询结果，以及主表关联的字典数据和一对一从表数据，以及一对一从表的字典数据。
+     * 调用前需先执行pageCursor.startPage()。
+     *
+     * @param filter 主表过滤对象。
+     * @param pageCursor 游标分页对象，查询将使用其中的定位条件从句和排序字符串。
+     * @return 查询结果集。
+     */
+    public List<Course> getCourseListWithRelation(Course filter, MyPageCursor<Course> pageCursor) {
+        List<Course> resultList = courseMapper.getCourseList(
+                null, null, filter, pageCursor.getOrderBy(), pageCursor.getSeekClause());
+        Map<String, List<MyWhereCriteria>> criteriaMap = buildAggregationAdditionalWhereCriteria();
+        this.buildRelationForDataList(resultList, MyRelationParam.normal(), criteriaMap);
+        return resultList;
+    }
+
+    /**
+     * 获取过滤后的数据总数量。数量会按照过滤条件缓存，直到zz_course表发生写操作。
+     *
+     * @param filter 过滤对象。
+     * @param estimated 是否允许立即返回估算数量，并在后台异步计算精确数量。
+     * @return 第一个值为数据总数量，第二个值为TotalCountType中定义的数量来源类型。
+     */
+    public Tuple2<Long, String> getCourseCount(Course filter, boolean estimated) {
+        return this.getTotalCount(filter,
+                () -> courseMapper.getCourseCount(null, null, filter).longValue(), estimated);
+    }
+
     /**
      * 获取主表的查询结果，查询条件中包括主表过滤对象和指定字段的(in list)过滤。
      * 同时还包含主表关联的字典数据和一对一从表数据，以及一对一从表的字典数据。
@@ -157,7 +187,7 @@ public class CourseService extends BaseService<Course, CourseDto, Long> {
     public <M> List<Course> getCourseListWithRelation(
             String inFilterField, Set<M> inFilterValues, Course filter, String orderBy) {
         List<Course> resultList =
-                courseMapper.getCourseList(inFilterField, inFilterValues, filter, orderBy);
+                courseMapper.getCourseList(inFilterField, inFilterValues, filter, orderBy, null);
         this.buildRelationForDataList(resultList, MyRelationParam.dictOnly(), null);
         return resultList;
     }
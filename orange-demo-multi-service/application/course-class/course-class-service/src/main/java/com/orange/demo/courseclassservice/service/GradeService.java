@@ -1,6 +1,6 @@
 package com.orange.demo.courseclassservice.service;
 
-import com.orange.demo.common.redis.cache.RedisDictionaryCache;
+import com.orange.demo.common.redis.cache.TwoLevelDictionaryCache;
 import com.orange.demo.common.core.base.service.BaseDictService;
 import com.orange.demo.common.core.base.dao.BaseDaoMapper;
 import com.orange.demo.common.core.constant.GlobalDeletedFlag;
@@ -13,6 +13,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.PostConstruct;
+import java.util.Collections;
 
 /**
  * 年级数据操作服务类。
@@ -34,7 +35,7 @@ public class GradeService extends BaseDictService<Grade, GradeDto, Integer> {
 
     @PostConstruct
     public void init() {
-        this.dictionaryCache = RedisDictionaryCache.create(
+        this.dictionaryCache = TwoLevelDictionaryCache.create(
                 redissonClient, "Grade", Grade.class, Grade::getGradeId);
     }
 
@@ -59,6 +60,7 @@ public class GradeService extends BaseDictService<Grade, GradeDto, Integer> {
         grade.setStatus(GlobalDeletedFlag.NORMAL);
         gradeMapper.insert(grade);
         dictionaryCache.put(grade.getGradeId(), grade);
+        this.publishDictChange(Collections.singletonList(grade.getGradeId()));
         return grade;
     }
 
@@ -76,6 +78,7 @@ public class GradeService extends BaseDictService<Grade, GradeDto, Integer> {
             return false;
         }
         dictionaryCache.put(grade.getGradeId(), grade);
+        this.publishDictChange(Collections.singletonList(grade.getGradeId()));
         return true;
     }
 
@@ -94,6 +97,7 @@ public class GradeService extends BaseDictService<Grade, GradeDto, Integer> {
             return false;
         }
         dictionaryCache.invalidate(gradeId);
+        this.publishDictChange(Collections.singletonList(gradeId));
         return true;
     }
 }
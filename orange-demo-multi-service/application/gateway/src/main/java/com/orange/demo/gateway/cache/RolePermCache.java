@@ -0,0 +1,169 @@
+package com.orange.demo.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orange.demo.common.core.constant.ApplicationConstant;
+import com.orange.demo.common.core.util.RedisKeyUtil;
+import com.orange.demo.gateway.config.ApplicationConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 网关本地的角色权限位图缓存。
+ * upms服务为每个权限资源url分配不再改变的整型Id，并将每个角色的权限资源以位图形式存储于Redis中。
+ * 网关缓存url到整型Id的映射，以及角色和白名单的位图数据，鉴权时只需对用户的各角色位图和白名单位图做一次位测试。
+ * upms服务重建位图后会发布ROLE_PERM_CHANGED_TOPIC消息，所有网关实例同时失效对应的缓存数据。
+ * 失效消息可能在Redis读取完成之前到达，因此读取前记录失效版本号，版本号发生变化时不再缓存读取的数据。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+@Component
+public class RolePermCache {
+
+    private static final String CACHE_NAME = "gatewayRolePermCache";
+    private static final String URL_ID_CACHE_NAME = "gatewayPermUrlIdCache";
+    private static final byte[] EMPTY_BITMAP = new byte[0];
+
+    @Autowired
+    private ApplicationConfig appConfig;
+    @Autowired
+    private RedissonClient redissonClient;
+    @Autowired
+    private RedissonReactiveClient redissonReactiveClient;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 位图Redis键到位图数据的缓存，位图数据与Redis中的存储格式一致，第N位对应第N/8个字节的(0x80 >>> N%8)位。
+     */
+    private Cache<String, byte[]> bitmapCache;
+    /**
+     * 权限资源url到整型Id的缓存。Id一旦分配不再改变，因此只缓存已分配Id的url。
+     */
+    private Cache<String, Integer> urlIdCache;
+    /**
+     * 缓存失效的版本号，每次收到ROLE_PERM_CHANGED_TOPIC消息后递增。
+     */
+    private final AtomicLong invalidationVersion = new AtomicLong();
+    private RTopic changedTopic;
+    private int changedListenerId;
+
+    @PostConstruct
+    public void init() {
+        bitmapCache = Caffeine.newBuilder()
+                .maximumSize(appConfig.getRolePermCacheMaxSize())
+                .expireAfterWrite(appConfig.getRolePermCacheExpiredSeconds(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        urlIdCache = Caffeine.newBuilder()
+                .maximumSize(appConfig.getPermUrlIdCacheMaxSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, bitmapCache, CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, urlIdCache, URL_ID_CACHE_NAME);
+        changedTopic = redissonClient.getTopic(ApplicationConstant.ROLE_PERM_CHANGED_TOPIC, StringCodec.INSTANCE);
+        changedListenerId = changedTopic.addListener(String.class, (channel, roleId) -> {
+            invalidationVersion.incrementAndGet();
+            if (ApplicationConstant.ALL_ROLE_PERM_CHANGED.equals(roleId)) {
+                bitmapCache.invalidateAll();
+                // 全部重建时可能伴随Redis数据的清空，url的Id会被重新分配，因此一并失效。
+                urlIdCache.invalidateAll();
+            } else {
+                bitmapCache.invalidate(RedisKeyUtil.makeRolePermBitmapKeyForRedis(roleId));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        changedTopic.removeListener(changedListenerId);
+    }
+
+    /**
+     * 判断拥有指定角色的用户，是否可以访问参数url。白名单中的url，所有用户均可访问。
+     * 缓存全部命中时不会访问Redis，未命中的数据通过响应式客户端获取，不会阻塞事件循环线程。
+     *
+     * @param roleIdList 用户的角色Id列表。
+     * @param url        请求的url。
+     * @return 有权限返回true，否则false。
+     */
+    public Mono<Boolean> hasPermission(List<String> roleIdList, String url) {
+        List<String> keyList = new ArrayList<>(roleIdList.size() + 1);
+        keyList.add(RedisKeyUtil.makePermWhitelistBitmapKeyForRedis());
+        roleIdList.forEach(roleId -> keyList.add(RedisKeyUtil.makeRolePermBitmapKeyForRedis(roleId)));
+        return this.getUrlId(url)
+                .flatMap(urlId -> Flux.fromIterable(keyList)
+                        .concatMap(this::getBitmap)
+                        .any(bitmap -> testBit(bitmap, urlId)))
+                .defaultIfEmpty(false);
+    }
+
+    private Mono<Integer> getUrlId(String url) {
+        Integer urlId = urlIdCache.getIfPresent(url);
+        if (urlId != null) {
+            return Mono.just(urlId);
+        }
+        // 没有分配Id的url不做缓存，在任何角色中均没有访问权限。
+        long loadVersion = invalidationVersion.get();
+        return redissonReactiveClient.<String, String>getMap(RedisKeyUtil.makePermUrlIdKeyForRedis(), StringCodec.INSTANCE)
+                .get(url)
+                .map(id -> {
+                    Integer newUrlId = Integer.valueOf(id);
+                    this.fillCache(urlIdCache, url, newUrlId, loadVersion);
+                    return newUrlId;
+                });
+    }
+
+    private Mono<byte[]> getBitmap(String key) {
+        byte[] bitmap = bitmapCache.getIfPresent(key);
+        if (bitmap != null) {
+            return Mono.just(bitmap);
+        }
+        long loadVersion = invalidationVersion.get();
+        return redissonReactiveClient.getBitSet(key)
+                .toByteArray()
+                .defaultIfEmpty(EMPTY_BITMAP)
+                .doOnNext(data -> this.fillCache(bitmapCache, key, data, loadVersion));
+    }
+
+    /**
+     * 将从Redis读取的数据存入本地缓存。读取期间收到失效消息时，读取的数据可能已过期，不再存入缓存。
+     *
+     * @param cache       本地缓存。
+     * @param key         缓存键。
+     * @param value       从Redis读取的数据。
+     * @param loadVersion 读取数据之前记录的失效版本号。
+     */
+    private <V> void fillCache(Cache<String, V> cache, String key, V value, long loadVersion) {
+        if (loadVersion != invalidationVersion.get()) {
+            return;
+        }
+        cache.put(key, value);
+        if (loadVersion != invalidationVersion.get()) {
+            cache.invalidate(key);
+        }
+    }
+
+    private static boolean testBit(byte[] bitmap, int bitIndex) {
+        int byteIndex = bitIndex >>> 3;
+        return byteIndex < bitmap.length && (bitmap[byteIndex] & (0x80 >>> (bitIndex & 7))) != 0;
+    }
+}
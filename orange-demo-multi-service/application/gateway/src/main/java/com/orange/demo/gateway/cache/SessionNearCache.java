@@ -0,0 +1,199 @@
+package com.orange.demo.gateway.cache;
+
+import com.alibaba.fastjson.JSONObject;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orange.demo.gateway.config.ApplicationConfig;
+import com.orange.demo.gateway.constant.GatewayConstant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.redisson.api.RPatternTopic;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 网关本地的会话近端缓存。以sessionId为键，缓存从Redis中读取并解码后的会话数据，
+ * 命中缓存的请求在鉴权时无需再访问Redis。
+ * 会话中仅包含用户的角色Id列表，角色的权限位图由RolePermCache单独缓存，因此角色权限的变化无需失效会话缓存。
+ * 缓存数据通过以下方式失效：
+ * 1. AuthenticationPostFilter处理登出请求时，发布SESSION_INVALIDATION_TOPIC消息，所有网关实例同时失效该会话。
+ * 2. 订阅Redis的过期事件(需Redis开启notify-keyspace-events Ex)，会话数据过期时失效该会话。
+ * 3. 缓存数据自身的过期时间，用于兜底。
+ * 失效操作可能发生在Redis读取会话数据之后、存入缓存之前，为避免将已失效的会话重新存入缓存，
+ * 读取前需通过currentVersion获取失效版本号，并在put时传入，版本号发生变化时不再存入缓存。
+ * 命中、未命中和驱逐的统计数据通过actuator的metrics端点暴露(gatewaySessionNearCache)，
+ * 主动失效的次数为gateway.session.near.cache.invalidations。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+@Component
+public class SessionNearCache {
+
+    private static final String CACHE_NAME = "gatewaySessionNearCache";
+    private static final String KEY_EXPIRED_EVENT_PATTERN = "__keyevent@*__:expired";
+    private static final String SESSION_ID_KEY_PREFIX = "SESSIONID__";
+
+    @Autowired
+    private ApplicationConfig appConfig;
+    @Autowired
+    private RedissonClient redissonClient;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, CachedSession> cache;
+    /**
+     * 会话失效的版本号，每次失效操作后递增。
+     */
+    private final AtomicLong invalidationVersion = new AtomicLong();
+    private Counter invalidationCounter;
+    private RTopic invalidationTopic;
+    private RPatternTopic expiredEventTopic;
+    private int invalidationListenerId;
+    private int expiredEventListenerId;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(appConfig.getSessionNearCacheMaxSize())
+                .expireAfterWrite(appConfig.getSessionNearCacheExpiredSeconds(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        invalidationCounter = meterRegistry.counter("gateway.session.near.cache.invalidations");
+        invalidationTopic = redissonClient.getTopic(GatewayConstant.SESSION_INVALIDATION_TOPIC, StringCodec.INSTANCE);
+        invalidationListenerId = invalidationTopic.addListener(String.class, (channel, sessionId) -> invalidate(sessionId));
+        expiredEventTopic = redissonClient.getPatternTopic(KEY_EXPIRED_EVENT_PATTERN, StringCodec.INSTANCE);
+        expiredEventListenerId = expiredEventTopic.addListener(String.class, (pattern, channel, key) -> {
+            if (key.startsWith(SESSION_ID_KEY_PREFIX)) {
+                invalidate(key.substring(SESSION_ID_KEY_PREFIX.length()));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        invalidationTopic.removeListener(invalidationListenerId);
+        expiredEventTopic.removeListener(expiredEventListenerId);
+    }
+
+    /**
+     * 获取缓存的会话数据。
+     *
+     * @param sessionId 会话Id。
+     * @return 缓存的会话数据，没有命中时返回null。
+     */
+    public CachedSession get(String sessionId) {
+        return cache.getIfPresent(sessionId);
+    }
+
+    /**
+     * 获取当前的失效版本号，需在从Redis读取会话数据之前调用，并将结果传入put方法。
+     *
+     * @return 当前的失效版本号。
+     */
+    public long currentVersion() {
+        return invalidationVersion.get();
+    }
+
+    /**
+     * 根据从Redis中读取的会话数据，构建缓存对象。仅当会话数据有效，并且读取期间没有发生失效操作时，才会存入缓存。
+     *
+     * @param sessionId   会话Id。
+     * @param userMap     Redis中会话Hash的全部数据。
+     * @param loadVersion 读取会话数据之前获取的失效版本号。
+     * @return 构建后的会话对象。如果会话数据为空，返回null。
+     */
+    public CachedSession put(String sessionId, Map<String, String> userMap, long loadVersion) {
+        if (userMap == null || userMap.isEmpty()) {
+            return null;
+        }
+        CachedSession session = new CachedSession(sessionId, userMap);
+        if (StringUtils.isBlank(session.getUserId()) || loadVersion != invalidationVersion.get()) {
+            return session;
+        }
+        cache.put(sessionId, session);
+        // 存入期间发生了失效操作时，失效操作可能先于存入完成，因此这里需要再次移除。
+        if (loadVersion != invalidationVersion.get()) {
+            cache.invalidate(sessionId);
+        }
+        return session;
+    }
+
+    /**
+     * 失效本地缓存中的指定会话。
+     *
+     * @param sessionId 会话Id。
+     */
+    public void invalidate(String sessionId) {
+        invalidationVersion.incrementAndGet();
+        if (cache.asMap().remove(sessionId) != null) {
+            invalidationCounter.increment();
+        }
+    }
+
+    /**
+     * 解码后的会话数据。
+     */
+    @Getter
+    public static final class CachedSession {
+        private final String userId;
+        private final boolean isAdmin;
+        /**
+         * URL编码后的用户显示名。
+         */
+        private final String showName;
+        /**
+         * 转发给业务服务的TokenData请求头数据，构建缓存时一次性完成序列化。
+         */
+        private final String tokenDataHeader;
+        /**
+         * 用户的角色Id列表，管理员为空列表。
+         */
+        private final List<String> roleIdList;
+
+        private CachedSession(String sessionId, Map<String, String> userMap) {
+            this.userId = userMap.get("userId");
+            this.isAdmin = Boolean.parseBoolean(userMap.get("isAdmin"));
+            String encodedShowName = userMap.get("showName");
+            // 因为http header中不支持中文传输，所以需要编码。
+            try {
+                if (encodedShowName != null) {
+                    encodedShowName = URLEncoder.encode(encodedShowName, StandardCharsets.UTF_8.name());
+                }
+            } catch (UnsupportedEncodingException e) {
+                log.error("Failed to encode showName in SessionNearCache.", e);
+            }
+            this.showName = encodedShowName;
+            JSONObject tokenData = new JSONObject();
+            tokenData.putAll(userMap);
+            tokenData.remove(GatewayConstant.ROLE_IDS_KEY_NAME);
+            tokenData.put("showName", encodedShowName);
+            tokenData.put("sessionId", sessionId);
+            this.tokenDataHeader = tokenData.toJSONString();
+            String roleIds = userMap.get(GatewayConstant.ROLE_IDS_KEY_NAME);
+            this.roleIdList = StringUtils.isBlank(roleIds)
+                    ? Collections.emptyList() : Arrays.asList(StringUtils.split(roleIds, ','));
+        }
+    }
+}
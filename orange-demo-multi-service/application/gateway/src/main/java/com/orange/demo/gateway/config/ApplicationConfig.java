@@ -45,12 +45,29 @@ public class ApplicationConfig {
      */
     private int sessionIdRedisExpiredSeconds = 86460;
     /**
-     * Session的用户权限在Redis中的过期时间(秒)。
-     * 缺省值是 one day
+     * 网关本地会话缓存的最大会话数量。
      */
-    private int permRedisExpiredSeconds = 86400;
+    private int sessionNearCacheMaxSize = 10000;
     /**
-     * 基于完全等于(equals)判定规则的白名单地址集合，过滤效率高于whitelistUrlPattern。
+     * 网关本地会话缓存的过期时间(秒)。
+     * 会话登出和过期时会通过Redis消息主动失效，该值仅用于兜底，限制本地数据与Redis数据不一致的最长时间。
+     */
+    private int sessionNearCacheExpiredSeconds = 60;
+    /**
+     * 网关本地角色权限位图缓存的过期时间(秒)。
+     * 角色权限变化时会通过Redis消息主动失效，该值仅用于兜底。
+     */
+    private int rolePermCacheExpiredSeconds = 300;
+    /**
+     * 网关本地角色权限位图缓存的最大位图数量，包括全部角色的位图和一个白名单位图。
+     */
+    private int rolePermCacheMaxSize = 1000;
+    /**
+     * 网关本地权限资源url到整型Id缓存的最大数量。
+     */
+    private int permUrlIdCacheMaxSize = 10000;
+    /**
+     * 基于完全等于(equals)判定规则的白名单地址集合。
      */
     private Set<String> whitelistUrl;
     /**
@@ -28,6 +28,16 @@ public final class GatewayConstant {
      */
     public static final String SESSION_ID_KEY_NAME = "sessionId";
 
+    /**
+     * 会话数据中，逗号分隔的角色Id列表的键名称。
+     */
+    public static final String ROLE_IDS_KEY_NAME = "roleIds";
+
+    /**
+     * 会话失效通知的Redis消息主题，消息内容为失效的sessionId。
+     */
+    public static final String SESSION_INVALIDATION_TOPIC = "GATEWAY_SESSION_INVALIDATION";
+
     /**
      * 私有构造函数，明确标识该常量类的作用。
      */
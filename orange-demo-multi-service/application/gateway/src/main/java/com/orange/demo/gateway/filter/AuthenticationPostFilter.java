@@ -167,7 +167,8 @@ public class AuthenticationPostFilter implements GlobalFilter, Ordered {
                 try (Jedis jedis = jedisPool.getResource()) {
                     Pipeline pipeline = jedis.pipelined();
                     pipeline.del(RedisKeyUtil.makeSessionIdKeyForRedis(sessionId));
-                    pipeline.del(RedisKeyUtil.makeSessionPermIdKeyForRedis(sessionId));
+                    // 通知所有网关实例，失效本地缓存中的该会话数据。
+                    pipeline.publish(GatewayConstant.SESSION_INVALIDATION_TOPIC, sessionId);
                     pipeline.sync();
                 }
             }
@@ -212,30 +213,24 @@ public class AuthenticationPostFilter implements GlobalFilter, Ordered {
         // 3. 更新缓存
         // 3.1 sessionId -> userId 是hash结构的缓存
         String sessionIdKey = RedisKeyUtil.makeSessionIdKeyForRedis(sessionId);
-        String sessionPermKey = null;
-        JSONArray permSet = null;
-        if (Boolean.FALSE.equals(isAdmin)) {
-            // 3.2 sessionId -> permList 是set结构的缓存
-            sessionPermKey = RedisKeyUtil.makeSessionPermIdKeyForRedis(sessionId);
-            permSet = loginData.getJSONArray("permSet");
+        Map<String, String> sessionData = new HashMap<>(tokenData.size() + 1);
+        for (String tokenKey : tokenData.keySet()) {
+            sessionData.put(tokenKey, tokenData.getString(tokenKey));
+        }
+        // 3.2 会话中仅保存用户的角色Id列表，权限数据由upms服务以角色位图的形式统一存储，所有会话共享。
+        JSONArray roleIdList = loginData.getJSONArray("roleIdList");
+        if (Boolean.FALSE.equals(isAdmin) && roleIdList != null) {
+            sessionData.put(GatewayConstant.ROLE_IDS_KEY_NAME, StringUtils.join(roleIdList, ','));
         }
         try (Jedis jedis = jedisPool.getResource()) {
             Transaction t = jedis.multi();
-            for (String tokenKey : tokenData.keySet()) {
-                t.hset(sessionIdKey, tokenKey, tokenData.getString(tokenKey));
-            }
+            t.hmset(sessionIdKey, sessionData);
             t.expire(sessionIdKey, appConfig.getSessionIdRedisExpiredSeconds());
-            if (permSet != null) {
-                for (int i = 0; i < permSet.size(); ++i) {
-                    String perm = permSet.getString(i);
-                    t.sadd(sessionPermKey, perm);
-                }
-                t.expire(sessionPermKey, appConfig.getPermRedisExpiredSeconds());
-            }
             t.exec();
         }
         // 4. 构造返回给用户的应答，将加密后的令牌返回给前端。
         loginData.put(TokenData.REQUEST_ATTRIBUTE_NAME, token);
+        loginData.remove("roleIdList");
         // 如果是管理员，不用返回权限字列表。
         if (Boolean.TRUE.equals(isAdmin)) {
             loginData.remove("permCodeList");
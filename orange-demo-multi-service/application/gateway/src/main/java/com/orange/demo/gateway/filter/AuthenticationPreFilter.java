@@ -1,19 +1,22 @@
 package com.orange.demo.gateway.filter;
 
 import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONObject;
 import com.orange.demo.common.core.constant.ErrorCodeEnum;
 import com.orange.demo.common.core.object.ResponseResult;
 import com.orange.demo.common.core.object.TokenData;
 import com.orange.demo.common.core.util.JwtUtil;
 import com.orange.demo.common.core.util.RedisKeyUtil;
 import com.orange.demo.common.core.util.IpUtil;
+import com.orange.demo.gateway.cache.RolePermCache;
+import com.orange.demo.gateway.cache.SessionNearCache;
 import com.orange.demo.gateway.config.ApplicationConfig;
 import com.orange.demo.gateway.constant.GatewayConstant;
+import com.orange.demo.gateway.matcher.WhitelistUrlMatcher;
 import io.jsonwebtoken.Claims;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.StringCodec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
@@ -22,17 +25,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import redis.clients.jedis.Jedis;
-import redis.clients.jedis.JedisPool;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.Map;
 
 /**
  * 全局前处理过滤器。主要用于用户操作权限验证。
@@ -46,11 +43,13 @@ public class AuthenticationPreFilter implements GlobalFilter, Ordered {
     @Autowired
     private ApplicationConfig appConfig;
     @Autowired
-    private JedisPool jedisPool;
-    /**
-     * Ant Pattern模式的白名单地址匹配器。
-     */
-    private AntPathMatcher antMatcher = new AntPathMatcher();
+    private RedissonReactiveClient redissonReactiveClient;
+    @Autowired
+    private SessionNearCache sessionNearCache;
+    @Autowired
+    private RolePermCache rolePermCache;
+    @Autowired
+    private WhitelistUrlMatcher whitelistUrlMatcher;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -65,72 +64,86 @@ public class AuthenticationPreFilter implements GlobalFilter, Ordered {
         Claims c = JwtUtil.parseToken(token, appConfig.getTokenSigningKey());
         if (JwtUtil.isNullOrExpired(c)) {
             log.warn("EXPIRED request [{}] from REMOTE-IP [{}].", url, IpUtil.getRemoteIpAddress(request));
-            response.setStatusCode(HttpStatus.UNAUTHORIZED);
-            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-            byte[] responseBody = JSON.toJSONString(ResponseResult.error(ErrorCodeEnum.UNAUTHORIZED_LOGIN,
-                    "用户登录已过期或尚未登录，请重新登录！")).getBytes(StandardCharsets.UTF_8);
-            return response.writeWith(Flux.just(response.bufferFactory().wrap(responseBody)));
+            return this.writeErrorResponse(response, HttpStatus.UNAUTHORIZED,
+                    ErrorCodeEnum.UNAUTHORIZED_LOGIN, "用户登录已过期或尚未登录，请重新登录！");
         }
         // 这里判断是否需要定时刷新token
         if (JwtUtil.needToRefresh(c)) {
             exchange.getAttributes().put(appConfig.getRefreshedTokenHeaderKey(),
                     JwtUtil.generateToken(c, appConfig.getExpiration(), appConfig.getTokenSigningKey()));
         }
-        try (Jedis jedis = jedisPool.getResource()) {
-            // 先基于sessionId获取userInfo
-            String sessionId = (String) c.get(GatewayConstant.SESSION_ID_KEY_NAME);
-            Map<String, String> userMap = jedis.hgetAll(RedisKeyUtil.makeSessionIdKeyForRedis(sessionId));
-            if (userMap == null) {
-                log.warn("UNAUTHORIZED request [{}] from REMOTE-IP [{}] because no sessionId exists in redis.",
-                        url, IpUtil.getRemoteIpAddress(request));
-                response.setStatusCode(HttpStatus.UNAUTHORIZED);
-                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-                byte[] responseBody = JSON.toJSONString(ResponseResult.error(ErrorCodeEnum.UNAUTHORIZED_LOGIN,
-                        "用户会话已失效，请重新登录！")).getBytes(StandardCharsets.UTF_8);
-                return response.writeWith(Flux.just(response.bufferFactory().wrap(responseBody)));
-            }
-            String userId = userMap.get("userId");
-            if (StringUtils.isBlank(userId)) {
-                log.warn("UNAUTHORIZED request [{}] from REMOTE-IP [{}] because userId is empty in redis.",
-                        url, IpUtil.getRemoteIpAddress(request));
-                response.setStatusCode(HttpStatus.UNAUTHORIZED);
-                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-                byte[] responseBody = JSON.toJSONString(ResponseResult.error(ErrorCodeEnum.UNAUTHORIZED_LOGIN,
-                        "用户登录验证信息已过期，请重新登录！")).getBytes(StandardCharsets.UTF_8);
-                return response.writeWith(Flux.just(response.bufferFactory().wrap(responseBody)));
-            }
-            boolean isAdmin = false;
-            String isAdminString = userMap.get("isAdmin");
-            if (Boolean.parseBoolean(isAdminString)) {
-                isAdmin = true;
-            }
-            String showName = userMap.get("showName");
-            // 因为http header中不支持中文传输，所以需要编码。
-            try {
-                showName = URLEncoder.encode(showName, StandardCharsets.UTF_8.name());
-                userMap.put("showName", showName);
-            } catch (UnsupportedEncodingException e) {
-                log.error("Failed to call AuthenticationPreFilter.filter.", e);
-            }
-            if (Boolean.FALSE.equals(isAdmin) && !this.hasPermission(jedis, sessionId, url)) {
+        String sessionId = (String) c.get(GatewayConstant.SESSION_ID_KEY_NAME);
+        // 优先使用网关本地缓存的会话数据，命中时无需访问Redis。
+        SessionNearCache.CachedSession session = sessionNearCache.get(sessionId);
+        if (session != null) {
+            return this.doFilter(exchange, chain, sessionId, session);
+        }
+        // 使用响应式客户端获取会话数据，不会阻塞事件循环线程。
+        long loadVersion = sessionNearCache.currentVersion();
+        return redissonReactiveClient.<String, String>getMap(
+                RedisKeyUtil.makeSessionIdKeyForRedis(sessionId), StringCodec.INSTANCE)
+                .readAllMap()
+                .flatMap(userMap -> this.doFilter(
+                        exchange, chain, sessionId, sessionNearCache.put(sessionId, userMap, loadVersion)));
+    }
+
+    private Mono<Void> doFilter(
+            ServerWebExchange exchange,
+            GatewayFilterChain chain,
+            String sessionId,
+            SessionNearCache.CachedSession session) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        String url = request.getURI().getPath();
+        if (session == null) {
+            log.warn("UNAUTHORIZED request [{}] from REMOTE-IP [{}] because no sessionId exists in redis.",
+                    url, IpUtil.getRemoteIpAddress(request));
+            return this.writeErrorResponse(response, HttpStatus.UNAUTHORIZED,
+                    ErrorCodeEnum.UNAUTHORIZED_LOGIN, "用户会话已失效，请重新登录！");
+        }
+        String userId = session.getUserId();
+        if (StringUtils.isBlank(userId)) {
+            log.warn("UNAUTHORIZED request [{}] from REMOTE-IP [{}] because userId is empty in redis.",
+                    url, IpUtil.getRemoteIpAddress(request));
+            return this.writeErrorResponse(response, HttpStatus.UNAUTHORIZED,
+                    ErrorCodeEnum.UNAUTHORIZED_LOGIN, "用户登录验证信息已过期，请重新登录！");
+        }
+        // 对于退出登录操作，不需要进行权限验证，仅仅确认是已经登录的合法用户即可。
+        if (session.isAdmin() || url.equals(GatewayConstant.ADMIN_LOGOUT_URL)) {
+            return this.forward(exchange, chain, sessionId, session);
+        }
+        // 权限验证只需对用户各角色的权限位图和白名单位图做位测试，位图数据由网关本地缓存。
+        return rolePermCache.hasPermission(session.getRoleIdList(), url).flatMap(hasPermission -> {
+            if (!hasPermission) {
                 log.warn("FORBIDDEN request [{}] from REMOTE-IP [{}] for USER [{} -- {}] no perm!",
-                        url, IpUtil.getRemoteIpAddress(request), userId, showName);
-                response.setStatusCode(HttpStatus.FORBIDDEN);
-                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-                byte[] responseBody = JSON.toJSONString(ResponseResult.error(ErrorCodeEnum.NO_OPERATION_PERMISSION,
-                        "用户对该URL没有访问权限，请核对！")).getBytes(StandardCharsets.UTF_8);
-                return response.writeWith(Flux.just(response.bufferFactory().wrap(responseBody)));
+                        url, IpUtil.getRemoteIpAddress(request), userId, session.getShowName());
+                return this.writeErrorResponse(response, HttpStatus.FORBIDDEN,
+                        ErrorCodeEnum.NO_OPERATION_PERMISSION, "用户对该URL没有访问权限，请核对！");
             }
-            // 将session中关联的用户信息，添加到当前的Request中。转发后，业务服务可以根据需要自定读取。
-            JSONObject tokenData = new JSONObject();
-            tokenData.putAll(userMap);
-            tokenData.put("sessionId", sessionId);
-            exchange.getAttributes().put(GatewayConstant.SESSION_ID_KEY_NAME, sessionId);
-            ServerHttpRequest mutableReq = exchange.getRequest().mutate().header(
-                    TokenData.REQUEST_ATTRIBUTE_NAME, tokenData.toJSONString()).build();
-            ServerWebExchange mutableExchange = exchange.mutate().request(mutableReq).build();
-            return chain.filter(mutableExchange);
-        }
+            return this.forward(exchange, chain, sessionId, session);
+        });
+    }
+
+    private Mono<Void> forward(
+            ServerWebExchange exchange,
+            GatewayFilterChain chain,
+            String sessionId,
+            SessionNearCache.CachedSession session) {
+        // 将session中关联的用户信息，添加到当前的Request中。转发后，业务服务可以根据需要自定读取。
+        exchange.getAttributes().put(GatewayConstant.SESSION_ID_KEY_NAME, sessionId);
+        ServerHttpRequest mutableReq = exchange.getRequest().mutate().header(
+                TokenData.REQUEST_ATTRIBUTE_NAME, session.getTokenDataHeader()).build();
+        ServerWebExchange mutableExchange = exchange.mutate().request(mutableReq).build();
+        return chain.filter(mutableExchange);
+    }
+
+    private Mono<Void> writeErrorResponse(
+            ServerHttpResponse response, HttpStatus httpStatus, ErrorCodeEnum errorCode, String errorMessage) {
+        response.setStatusCode(httpStatus);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] responseBody = JSON.toJSONString(
+                ResponseResult.error(errorCode, errorMessage)).getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Flux.just(response.bufferFactory().wrap(responseBody)));
     }
 
     /**
@@ -151,12 +164,6 @@ public class AuthenticationPreFilter implements GlobalFilter, Ordered {
         return token;
     }
 
-    private boolean hasPermission(Jedis jedis, String sessionId, String url) {
-        // 对于退出登录操作，不需要进行权限验证，仅仅确认是已经登录的合法用户即可。
-        return url.equals(GatewayConstant.ADMIN_LOGOUT_URL)
-                || Boolean.TRUE.equals(jedis.sismember(RedisKeyUtil.makeSessionPermIdKeyForRedis(sessionId), url));
-    }
-
     /**
      * 判断当前请求的url是否为配置中的白名单地址。以及一些内置的不需要登录即可访问的url。
      * @param url 请求的url。
@@ -170,20 +177,7 @@ public class AuthenticationPreFilter implements GlobalFilter, Ordered {
         if (url.equals(GatewayConstant.ADMIN_LOGIN_URL)) {
             return true;
         }
-        // 先过滤直接匹配的白名单url。
-        if (CollectionUtils.isNotEmpty(appConfig.getWhitelistUrl())) {
-            if (appConfig.getWhitelistUrl().contains(url)) {
-                return true;
-            }
-        }
-        // 过滤ant pattern模式的白名单url。
-        if (CollectionUtils.isNotEmpty(appConfig.getWhitelistUrlPattern())) {
-            for (String urlPattern : appConfig.getWhitelistUrlPattern()) {
-                if (antMatcher.match(urlPattern, url)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        // 直接匹配和ant pattern模式的白名单url，均已预编译到同一棵路径段前缀树中，只需遍历一次。
+        return whitelistUrlMatcher.match(url);
     }
 }
@@ -0,0 +1,340 @@
+package com.orange.demo.gateway.matcher;
+
+import com.orange.demo.gateway.config.ApplicationConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 预编译的白名单url匹配器。
+ * whitelistUrl中的地址仍然按照完全等于(equals)的规则判定，只需一次哈希查找。
+ * whitelistUrlPattern中的全部模式，按照"/"分隔的路径段编译为一棵前缀树，
+ * 匹配时只需沿请求url的路径段遍历一次前缀树，无需逐个模式调用AntPathMatcher。
+ * Nacos配置变化时，会重新编译地址集合和前缀树并原子替换，正在进行中的匹配不受影响。
+ * 支持的Ant Pattern语法包括：?(匹配一个字符)、*(匹配段内零到多个字符)、**(匹配零到多个路径段)、
+ * {name}(匹配段内零到多个字符)和{name:regex}(匹配段内与正则表达式相符的字符)。
+ * 匹配结果与AntPathMatcher.match完全一致，包括其对起始和末尾"/"的处理：起始"/"必须同时存在或同时不存在；
+ * 不包含**的模式，末尾"/"也必须同时存在或同时不存在，如/a/b不能匹配/a/b/。
+ * 正则表达式无法编译的模式会被忽略，并记录错误日志。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+@Component
+public class WhitelistUrlMatcher {
+
+    private static final char PATH_SEPARATOR = '/';
+    private static final String ANY_SEGMENTS = "**";
+    private static final String ANY_SEGMENT = "*";
+    /**
+     * 与AntPathMatcher.AntPathStringMatcher相同的段内通配符表达式。
+     */
+    private static final Pattern GLOB_PATTERN = Pattern.compile("\\?|\\*|\\{((?:\\{[^/]+?\\}|[^/{}]|\\\\[{}])+?)\\}");
+
+    @Autowired
+    private ApplicationConfig appConfig;
+
+    private volatile CompiledWhitelist whitelist = new CompiledWhitelist(Collections.emptySet(), new Node(), new Node());
+
+    @PostConstruct
+    public void init() {
+        this.rebuild();
+    }
+
+    /**
+     * Nacos配置刷新后，RefreshScope中的ApplicationConfig已包含最新的白名单，此时重新编译前缀树。
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        this.rebuild();
+    }
+
+    /**
+     * 判断参数url是否与白名单中的任意地址或模式匹配。
+     *
+     * @param url 请求的url。
+     * @return 匹配返回true，否则false。
+     */
+    public boolean match(String url) {
+        CompiledWhitelist current = whitelist;
+        if (current.urlSet.contains(url)) {
+            return true;
+        }
+        Node root = isAbsolute(url) ? current.absolutePatternRoot : current.relativePatternRoot;
+        return root.match(tokenize(url), 0, endsWithSeparator(url));
+    }
+
+    private void rebuild() {
+        Set<String> whitelistUrl = appConfig.getWhitelistUrl();
+        Set<String> urlSet = CollectionUtils.isEmpty(whitelistUrl)
+                ? Collections.emptySet() : new HashSet<>(whitelistUrl);
+        Node newAbsoluteRoot = new Node();
+        Node newRelativeRoot = new Node();
+        Set<String> whitelistUrlPattern = appConfig.getWhitelistUrlPattern();
+        int patternCount = 0;
+        if (CollectionUtils.isNotEmpty(whitelistUrlPattern)) {
+            for (String pattern : whitelistUrlPattern) {
+                String[] segments = tokenize(pattern);
+                SegmentPattern[] segmentPatterns;
+                try {
+                    segmentPatterns = compileSegments(segments);
+                } catch (PatternSyntaxException e) {
+                    log.error("Whitelist url pattern [{}] is ignored, invalid regex [{}].", pattern, e.getPattern());
+                    continue;
+                }
+                Node root = isAbsolute(pattern) ? newAbsoluteRoot : newRelativeRoot;
+                root.add(segments, segmentPatterns, 0,
+                        Arrays.asList(segments).contains(ANY_SEGMENTS), endsWithSeparator(pattern));
+                patternCount++;
+            }
+        }
+        whitelist = new CompiledWhitelist(urlSet, newAbsoluteRoot, newRelativeRoot);
+        log.info("Whitelist url matcher is rebuilt with [{}] urls and [{}] patterns.",
+                whitelistUrl == null ? 0 : whitelistUrl.size(), patternCount);
+    }
+
+    private static boolean isAbsolute(String path) {
+        return !path.isEmpty() && path.charAt(0) == PATH_SEPARATOR;
+    }
+
+    private static boolean endsWithSeparator(String path) {
+        return !path.isEmpty() && path.charAt(path.length() - 1) == PATH_SEPARATOR;
+    }
+
+    private static String[] tokenize(String path) {
+        List<String> segmentList = new ArrayList<>();
+        int start = 0;
+        int length = path.length();
+        for (int i = 0; i <= length; i++) {
+            if (i == length || path.charAt(i) == PATH_SEPARATOR) {
+                if (i > start) {
+                    segmentList.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return segmentList.toArray(new String[0]);
+    }
+
+    private static boolean isPatternSegment(String segment) {
+        return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0;
+    }
+
+    /**
+     * 预先编译全部段内通配的路径段，精确匹配的路径段、*和**在数组中对应的元素为null。
+     * 包含无效正则表达式的模式会在加入前缀树之前被拒绝，不会留下部分插入的节点。
+     */
+    private static SegmentPattern[] compileSegments(String[] segments) {
+        SegmentPattern[] segmentPatterns = new SegmentPattern[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (isPatternSegment(segment) && !ANY_SEGMENTS.equals(segment) && !ANY_SEGMENT.equals(segment)) {
+                segmentPatterns[i] = SegmentPattern.compile(segment);
+            }
+        }
+        return segmentPatterns;
+    }
+
+    /**
+     * 段内的通配符匹配，仅支持?和*，不使用正则表达式。
+     */
+    private static boolean matchSegment(String pattern, String segment) {
+        int p = 0;
+        int s = 0;
+        int starIndex = -1;
+        int starMatch = 0;
+        while (s < segment.length()) {
+            if (p < pattern.length()
+                    && (pattern.charAt(p) == '?' || pattern.charAt(p) == segment.charAt(s))) {
+                p++;
+                s++;
+            } else if (p < pattern.length() && pattern.charAt(p) == '*') {
+                starIndex = p++;
+                starMatch = s;
+            } else if (starIndex != -1) {
+                p = starIndex + 1;
+                s = ++starMatch;
+            } else {
+                return false;
+            }
+        }
+        while (p < pattern.length() && pattern.charAt(p) == '*') {
+            p++;
+        }
+        return p == pattern.length();
+    }
+
+    /**
+     * 编译后的白名单，地址集合和模式前缀树总是同时替换。以"/"开头和不以"/"开头的模式分别位于两棵前缀树中。
+     */
+    private static final class CompiledWhitelist {
+        private final Set<String> urlSet;
+        private final Node absolutePatternRoot;
+        private final Node relativePatternRoot;
+
+        private CompiledWhitelist(Set<String> urlSet, Node absolutePatternRoot, Node relativePatternRoot) {
+            this.urlSet = urlSet;
+            this.absolutePatternRoot = absolutePatternRoot;
+            this.relativePatternRoot = relativePatternRoot;
+        }
+    }
+
+    /**
+     * 编译后的段内通配路径段。只包含?和*时使用matchSegment，包含{name}或{name:regex}时，
+     * 按照与AntPathMatcher相同的规则转换为正则表达式，其中整段为{name}的路径段可以匹配任意路径段。
+     */
+    private static final class SegmentPattern {
+        private final String glob;
+        private final Pattern regex;
+        private final boolean any;
+
+        private SegmentPattern(String glob, Pattern regex, boolean any) {
+            this.glob = glob;
+            this.regex = regex;
+            this.any = any;
+        }
+
+        private static SegmentPattern compile(String segment) {
+            if (segment.indexOf('{') < 0) {
+                return new SegmentPattern(segment, null, false);
+            }
+            StringBuilder sb = new StringBuilder();
+            Matcher matcher = GLOB_PATTERN.matcher(segment);
+            int end = 0;
+            while (matcher.find()) {
+                if (matcher.start() > end) {
+                    sb.append(Pattern.quote(segment.substring(end, matcher.start())));
+                }
+                String match = matcher.group();
+                if ("?".equals(match)) {
+                    sb.append('.');
+                } else if ("*".equals(match)) {
+                    sb.append(".*");
+                } else {
+                    int colonIndex = match.indexOf(':');
+                    sb.append(colonIndex == -1 ? "(.*)" : "(" + match.substring(colonIndex + 1, match.length() - 1) + ")");
+                }
+                end = matcher.end();
+            }
+            if (end < segment.length()) {
+                sb.append(Pattern.quote(segment.substring(end)));
+            }
+            String regex = sb.toString();
+            return new SegmentPattern(null, Pattern.compile(regex), "(.*)".equals(regex));
+        }
+
+        private boolean matches(String segment) {
+            if (any) {
+                return true;
+            }
+            return regex == null ? matchSegment(glob, segment) : regex.matcher(segment).matches();
+        }
+    }
+
+    /**
+     * 前缀树节点。每个节点对应一个路径段，子节点按照匹配代价从低到高依次为：
+     * 精确匹配的路径段、段内通配的路径段、匹配任意单个路径段的*，以及匹配零到多个路径段的**。
+     * 与AntPathMatcher一致，不包含**的模式需要区分末尾的"/"，因此节点的结束标记分为三种。
+     */
+    private static final class Node {
+        private final Map<String, Node> literalChildren = new HashMap<>();
+        private final Map<String, GlobChild> globChildren = new LinkedHashMap<>();
+        private Node anySegmentChild;
+        private Node anySegmentsChild;
+        /**
+         * 包含**的模式在此结束，无论请求url是否以"/"结尾均可匹配。
+         */
+        private boolean terminalIgnoringSlash;
+        /**
+         * 不包含**且以"/"结尾的模式在此结束。
+         */
+        private boolean terminalWithSlash;
+        /**
+         * 不包含**且不以"/"结尾的模式在此结束。
+         */
+        private boolean terminalWithoutSlash;
+
+        private void add(String[] segments, SegmentPattern[] segmentPatterns,
+                         int index, boolean hasAnySegments, boolean endsWithSlash) {
+            if (index == segments.length) {
+                if (hasAnySegments) {
+                    terminalIgnoringSlash = true;
+                } else if (endsWithSlash) {
+                    terminalWithSlash = true;
+                } else {
+                    terminalWithoutSlash = true;
+                }
+                return;
+            }
+            String segment = segments[index];
+            Node child;
+            if (!isPatternSegment(segment)) {
+                child = literalChildren.computeIfAbsent(segment, k -> new Node());
+            } else if (ANY_SEGMENTS.equals(segment)) {
+                if (anySegmentsChild == null) {
+                    anySegmentsChild = new Node();
+                }
+                child = anySegmentsChild;
+            } else if (ANY_SEGMENT.equals(segment)) {
+                if (anySegmentChild == null) {
+                    anySegmentChild = new Node();
+                }
+                child = anySegmentChild;
+            } else {
+                child = globChildren.computeIfAbsent(segment, k -> new GlobChild(segmentPatterns[index])).node;
+            }
+            child.add(segments, segmentPatterns, index + 1, hasAnySegments, endsWithSlash);
+        }
+
+        private boolean match(String[] segments, int index, boolean endsWithSlash) {
+            if (anySegmentsChild != null && anySegmentsChild.matchAnySegments(segments, index, endsWithSlash)) {
+                return true;
+            }
+            if (index == segments.length) {
+                // 与AntPathMatcher一致，以"/"结尾的url，可以匹配末尾只剩一个*路径段且不包含**的模式，如/a/可以匹配/a/*。
+                return terminalIgnoringSlash || (endsWithSlash ? terminalWithSlash : terminalWithoutSlash)
+                        || (endsWithSlash && anySegmentChild != null
+                        && (anySegmentChild.terminalWithSlash || anySegmentChild.terminalWithoutSlash));
+            }
+            String segment = segments[index];
+            Node child = literalChildren.get(segment);
+            if (child != null && child.match(segments, index + 1, endsWithSlash)) {
+                return true;
+            }
+            for (GlobChild globChild : globChildren.values()) {
+                if (globChild.pattern.matches(segment) && globChild.node.match(segments, index + 1, endsWithSlash)) {
+                    return true;
+                }
+            }
+            return anySegmentChild != null && anySegmentChild.match(segments, index + 1, endsWithSlash);
+        }
+
+        private boolean matchAnySegments(String[] segments, int index, boolean endsWithSlash) {
+            for (int i = index; i <= segments.length; i++) {
+                if (this.match(segments, i, endsWithSlash)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class GlobChild {
+        private final SegmentPattern pattern;
+        private final Node node = new Node();
+
+        private GlobChild(SegmentPattern pattern) {
+            this.pattern = pattern;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.orange.demo.gateway.benchmark;
+
+import cn.hutool.core.util.ReflectUtil;
+import com.orange.demo.gateway.config.ApplicationConfig;
+import com.orange.demo.gateway.matcher.WhitelistUrlMatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关白名单匹配方式的基准测试。
+ * 白名单包含100个精确地址和300个Ant Pattern模式，请求url中绝大多数不在白名单中，与实际的网关流量一致。
+ * 分别比较原有的精确地址集合查找加逐个模式调用AntPathMatcher，以及预编译的WhitelistUrlMatcher。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WhitelistUrlMatcherBenchmark {
+
+    private static final int URL_COUNT = 100;
+    private static final int PATTERN_GROUP_COUNT = 100;
+
+    private final AntPathMatcher antMatcher = new AntPathMatcher();
+    private Set<String> whitelistUrl;
+    private Set<String> whitelistUrlPattern;
+    private WhitelistUrlMatcher whitelistUrlMatcher;
+    private String[] requestUrls;
+
+    @Setup
+    public void setup() {
+        whitelistUrl = new HashSet<>();
+        for (int i = 0; i < URL_COUNT; i++) {
+            whitelistUrl.add("/admin/open/module" + i + "/info");
+        }
+        whitelistUrlPattern = new LinkedHashSet<>();
+        for (int i = 0; i < PATTERN_GROUP_COUNT; i++) {
+            whitelistUrlPattern.add("/admin/public" + i + "/**");
+            whitelistUrlPattern.add("/admin/app/open" + i + "/*/view");
+            whitelistUrlPattern.add("/admin/static" + i + "/**/*.js");
+        }
+        ApplicationConfig appConfig = new ApplicationConfig();
+        appConfig.setWhitelistUrl(whitelistUrl);
+        appConfig.setWhitelistUrlPattern(whitelistUrlPattern);
+        whitelistUrlMatcher = new WhitelistUrlMatcher();
+        ReflectUtil.setFieldValue(whitelistUrlMatcher, "appConfig", appConfig);
+        whitelistUrlMatcher.init();
+        requestUrls = new String[]{
+                "/admin/app/student/list",
+                "/admin/upms/sysUser/view",
+                "/admin/app/course/update",
+                "/admin/app/studentActionTrans/list",
+                "/admin/open/module50/info",
+                "/admin/app/open77/item/view",
+                "/admin/static99/lib/vendor/app.js",
+                "/admin/public3/logo.png"
+        };
+    }
+
+    @Benchmark
+    public void antPathMatcherLoop(Blackhole blackhole) {
+        for (String url : requestUrls) {
+            blackhole.consume(this.matchByAntPathMatcher(url));
+        }
+    }
+
+    @Benchmark
+    public void whitelistUrlMatcher(Blackhole blackhole) {
+        for (String url : requestUrls) {
+            blackhole.consume(whitelistUrlMatcher.match(url));
+        }
+    }
+
+    private boolean matchByAntPathMatcher(String url) {
+        if (whitelistUrl.contains(url)) {
+            return true;
+        }
+        for (String urlPattern : whitelistUrlPattern) {
+            if (antMatcher.match(urlPattern, url)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,116 @@
+package com.orange.demo.gateway.matcher;
+
+import cn.hutool.core.util.ReflectUtil;
+import com.orange.demo.gateway.config.ApplicationConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WhitelistUrlMatcher与AntPathMatcher的一致性测试。
+ * 使用相同的模式集合，逐个比较两者对url语料的匹配结果，语料由固定的路径段随机组合而成，
+ * 同时覆盖起始和末尾"/"的各种组合。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class WhitelistUrlMatcherTest {
+
+    private static final List<String> PATTERNS = Arrays.asList(
+            "/a/b",
+            "/a/b/",
+            "/a/*",
+            "/a/**",
+            "/a/**/c",
+            "/c/*/",
+            "/c/*/d",
+            "/c/{name}",
+            "/x/{id:\\d+}",
+            "/x/{id}/detail",
+            "/f/{name}.{ext:json|xml}",
+            "/f/n{suffix}",
+            "/s/*.js",
+            "/s/**/*.css",
+            "/q/?b",
+            "/m/{a}-{b}",
+            "/**/public/**",
+            "/u/**/v/",
+            "relative/**",
+            "relative/a");
+    private static final String[] SEGMENTS = {
+            "a", "b", "c", "d", "x", "123", "abc", "detail", "f", "n.json", "n.xml", "n.txt", "nx",
+            "s", "app.js", "lib", "st.css", "q", "ab", "bb", "m", "l-r", "public", "relative", "u", "v"};
+    private static final int RANDOM_URL_COUNT = 20000;
+    private static final int MAX_SEGMENT_COUNT = 4;
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    @Test
+    public void testMatchSameAsAntPathMatcher() {
+        WhitelistUrlMatcher matcher = createMatcher(Collections.emptySet(), new LinkedHashSet<>(PATTERNS));
+        for (String url : makeUrlCorpus()) {
+            boolean expected = PATTERNS.stream().anyMatch(pattern -> antPathMatcher.match(pattern, url));
+            assertEquals(expected, matcher.match(url), "Url [" + url + "]");
+        }
+    }
+
+    @Test
+    public void testTrailingSlashAndRegexVariable() {
+        WhitelistUrlMatcher matcher = createMatcher(Collections.emptySet(), new LinkedHashSet<>(PATTERNS));
+        assertTrue(matcher.match("/a/b"));
+        assertTrue(matcher.match("/x/123"));
+        assertFalse(matcher.match("/x/abc"));
+        assertTrue(matcher.match("/f/n.json"));
+        assertFalse(matcher.match("/f/m.txt"));
+        matcher = createMatcher(Collections.emptySet(), Collections.singleton("/a/b"));
+        assertTrue(matcher.match("/a/b"));
+        assertFalse(matcher.match("/a/b/"));
+        matcher = createMatcher(Collections.emptySet(), Collections.singleton("/a/b/"));
+        assertFalse(matcher.match("/a/b"));
+        assertTrue(matcher.match("/a/b/"));
+    }
+
+    @Test
+    public void testInvalidRegexPatternIgnored() {
+        Set<String> patterns = new LinkedHashSet<>(Arrays.asList("/x/{id:[}", "/y/*"));
+        WhitelistUrlMatcher matcher = createMatcher(Collections.singleton("/z"), patterns);
+        assertFalse(matcher.match("/x/["));
+        assertTrue(matcher.match("/y/1"));
+        assertTrue(matcher.match("/z"));
+    }
+
+    private static WhitelistUrlMatcher createMatcher(Set<String> whitelistUrl, Set<String> whitelistUrlPattern) {
+        ApplicationConfig appConfig = new ApplicationConfig();
+        appConfig.setWhitelistUrl(whitelistUrl);
+        appConfig.setWhitelistUrlPattern(whitelistUrlPattern);
+        WhitelistUrlMatcher matcher = new WhitelistUrlMatcher();
+        ReflectUtil.setFieldValue(matcher, "appConfig", appConfig);
+        matcher.init();
+        return matcher;
+    }
+
+    private static Set<String> makeUrlCorpus() {
+        Set<String> urlSet = new LinkedHashSet<>(Arrays.asList(
+                "", "/", "//", "/a", "/a/", "/a/b", "/a/b/", "/a//b", "/a/b/c", "/a/b/c/", "/c/d/", "/c//d",
+                "/x/123", "/x/abc", "/x/123/detail", "/f/n.json", "/f/n.txt", "/u/v/", "/u/v", "relative", "relative/"));
+        Random random = new Random(20200808L);
+        while (urlSet.size() < RANDOM_URL_COUNT) {
+            int segmentCount = random.nextInt(MAX_SEGMENT_COUNT + 1);
+            StringBuilder sb = new StringBuilder(64);
+            for (int i = 0; i < segmentCount; i++) {
+                if (i > 0 || random.nextInt(8) > 0) {
+                    sb.append('/');
+                }
+                sb.append(SEGMENTS[random.nextInt(SEGMENTS.length)]);
+            }
+            if (random.nextBoolean()) {
+                sb.append('/');
+            }
+            urlSet.add(sb.toString());
+        }
+        return urlSet;
+    }
+}
@@ -1,6 +1,5 @@
 package com.orange.demo.statsservice.controller;
 
-import com.github.pagehelper.Page;
 import com.github.pagehelper.page.PageMethod;
 import com.orange.demo.statsservice.model.*;
 import com.orange.demo.statsservice.service.*;
@@ -134,29 +133,44 @@ public class StudentActionTransController extends BaseController<StudentActionTr
      *
      * @param studentActionTransDtoFilter 过滤对象。
      * @param orderParam 排序参数。
-     * @param pageParam 分页参数。
+     * @param pageParam 分页参数，其中的includeFields可以指定列表中需要返回的字段。
      * @return 应答结果对象，包含查询结果集。
      */
     @PostMapping("/list")
-    public ResponseResult<MyPageData<StudentActionTransDto>> list(
+    public ResponseResult<MyPageData<?>> list(
             @MyRequestBody("studentActionTransFilter") StudentActionTransDto studentActionTransDtoFilter,
             @MyRequestBody MyOrderParam orderParam,
             @MyRequestBody MyPageParam pageParam) {
+        StudentActionTrans studentActionTransFilter = StudentActionTrans.INSTANCE.toModel(studentActionTransDtoFilter);
+        String includeFields = pageParam == null ? null : pageParam.getIncludeFields();
+        MyPageCursor<StudentActionTrans> pageCursor = studentActionTransService.makePageCursor(pageParam, orderParam);
+        if (pageCursor != null) {
+            pageCursor.startPage();
+            List<StudentActionTrans> studentActionTransList =
+                    studentActionTransService.getStudentActionTransListWithRelation(studentActionTransFilter, pageCursor);
+            MyPageData<StudentActionTransDto> pageData =
+                    pageCursor.makeResponseData(studentActionTransList, StudentActionTrans.INSTANCE::fromModelList);
+            if (pageCursor.isTotalCountRequired()) {
+                MyPageUtil.setTotalCount(pageData, studentActionTransService.getStudentActionTransCount(
+                        studentActionTransFilter, pageParam.getEstimatedCount()));
+            }
+            return ResponseResult.success(MyPageUtil.makeResponseData(pageData, includeFields));
+        }
         if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
+            // 数据总数量不再由PageHelper同步计算，而是通过带有缓存的计数方法获取。
+            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize(), false);
         }
-        StudentActionTrans studentActionTransFilter = StudentActionTrans.INSTANCE.toModel(studentActionTransDtoFilter);
         String orderBy = MyOrderParam.buildOrderBy(orderParam, StudentActionTrans.class);
         List<StudentActionTrans> studentActionTransList =
                 studentActionTransService.getStudentActionTransListWithRelation(studentActionTransFilter, orderBy);
-        long totalCount = 0L;
-        if (studentActionTransList instanceof Page) {
-            totalCount = ((Page<StudentActionTrans>) studentActionTransList).getTotal();
+        Tuple2<Long, String> totalCount = null;
+        if (pageParam != null && pageParam.getWithTotalCount()) {
+            totalCount = studentActionTransService.getStudentActionTransCount(
+                    studentActionTransFilter, pageParam.getEstimatedCount());
         }
-        // 分页连同对象数据转换copy工作，下面的方法一并完成。
-        Tuple2<List<StudentActionTransDto>, Long> responseData =
-                new Tuple2<>(StudentActionTrans.INSTANCE.fromModelList(studentActionTransList), totalCount);
-        return ResponseResult.success(MyPageUtil.makeResponseData(responseData));
+        MyPageData<StudentActionTransDto> pageData =
+                MyPageUtil.makeResponseData(StudentActionTrans.INSTANCE.fromModelList(studentActionTransList), totalCount);
+        return ResponseResult.success(MyPageUtil.makeResponseData(pageData, includeFields));
     }
 
     /**
@@ -231,6 +245,19 @@ public class StudentActionTransController extends BaseController<StudentActionTr
         return super.baseExistId(transId);
     }
 
+    /**
+     * 批量校验多个字段的数据值是否存在，返回其中不存在的数据值。仅限于微服务间远程接口调用。
+     *
+     * @param fieldValueMap key为待校验的字段名，value为待校验的数据值集合。
+     * @return 应答结果对象，仅包含存在不合法数据的字段，key为字段名，value为其中不存在的数据值集合。
+     */
+    @ApiOperation(hidden = true, value = "listNotExistValues")
+    @PostMapping("/listNotExistValues")
+    public ResponseResult<Map<String, Set<Object>>> listNotExistValues(
+            @RequestBody Map<String, Set<Object>> fieldValueMap) {
+        return super.baseListNotExistValues(fieldValueMap);
+    }
+
     /**
      * 复杂的查询调用，包括(in list)过滤，对象条件过滤，分组和排序等。主要用于微服务间远程过程调用。
      *
@@ -157,7 +157,8 @@ public class StudentActionTrans {
             slaveClientClass = GradeClient.class,
             slaveModelClass = GradeDto.class,
             slaveIdField = "gradeId",
-            slaveNameField = "gradeName")
+            slaveNameField = "gradeName",
+            replicated = true)
     @Transient
     private Map<String, Object> gradeIdDictMap;
 
@@ -4,11 +4,16 @@ import com.orange.demo.statsservice.dao.*;
 import com.orange.demo.statsservice.model.*;
 import com.orange.demo.statsinterface.dto.*;
 import com.orange.demo.courseclassinterface.client.*;
+import com.orange.demo.courseclassinterface.dto.*;
 import com.orange.demo.common.core.util.*;
 import com.orange.demo.common.core.object.MyRelationParam;
 import com.orange.demo.common.core.object.ResponseResult;
 import com.orange.demo.common.core.object.CallResult;
 import com.orange.demo.common.core.object.MyWhereCriteria;
+import com.orange.demo.common.core.object.MyPageCursor;
+import com.orange.demo.common.core.object.Tuple2;
+import com.orange.demo.common.core.base.client.BaseClientBatcherFactory;
+import com.orange.demo.common.core.base.client.RemoteRelationVerifier;
 import com.orange.demo.common.core.base.dao.BaseDaoMapper;
 import com.orange.demo.common.core.base.service.BaseService;
 import com.orange.demo.common.sequence.wrapper.IdGeneratorWrapper;
@@ -35,6 +40,8 @@ public class StudentActionTransService extends BaseService<StudentActionTrans, S
     private GradeClient gradeClient;
     @Autowired
     private IdGeneratorWrapper idGenerator;
+    @Autowired
+    private BaseClientBatcherFactory clientBatcherFactory;
 
     /**
      * 返回当前Service的主表Mapper对象。
@@ -92,7 +99,7 @@ public class StudentActionTransService extends BaseService<StudentActionTrans, S
      * @return 查询结果集。
      */
     public List<StudentActionTrans> getStudentActionTransList(StudentActionTrans filter, String orderBy) {
-        return studentActionTransMapper.getStudentActionTransList(null, null, filter, orderBy);
+        return studentActionTransMapper.getStudentActionTransList(null, null, filter, orderBy, null);
     }
 
     /**
@@ -109,7 +116,7 @@ public class StudentActionTransService extends BaseService<StudentActionTrans, S
     public <M> List<StudentActionTrans> getStudentActionTransList(
             String inFilterField, Set<M> inFilterValues, StudentActionTrans filter, String orderBy) {
         String inFilterColumn = MyModelUtil.mapToColumnName(inFilterField, StudentActionTrans.class);
-        return studentActionTransMapper.getStudentActionTransList(inFilterColumn, inFilterValues, filter, orderBy);
+        return studentActionTransMapper.getStudentActionTransList(inFilterColumn, inFilterValues, filter, orderBy, null);
     }
 
     /**
@@ -121,12 +128,40 @@ public class StudentActionTransService extends BaseService<StudentActionTrans, S
      * @return 查询结果集。
      */
     public List<StudentActionTrans> getStudentActionTransListWithRelation(StudentActionTrans filter, String orderBy) {
-        List<StudentActionTrans> resultList = studentActionTransMapper.getStudentActionTransList(null, null, filter, orderBy);
+        List<StudentActionTrans> resultList = studentActionTransMapper.getStudentActionTransList(null, null, filter, orderBy, null);
+        Map<String, List<MyWhereCriteria>> criteriaMap = buildAggregationAdditionalWhereCriteria();
+        this.buildRelationForDataList(resultList, MyRelationParam.normal(), criteriaMap);
+        return resultList;
+    }
+
+    /**
+     * 以游标分页的方式，获取主表的查询结果，以及主表关联的字典数据和一对一从表数据，以及一对一从表的字典数据。
+     * 调用前需先执行pageCursor.startPage()。
+     *
+     * @param filter 主表过滤对象。
+     * @param pageCursor 游标分页对象，查询将使用其中的定位条件从句和排序字符串。
+     * @return 查询结果集。
+     */
+    public List<StudentActionTrans> getStudentActionTransListWithRelation(StudentActionTrans filter, MyPageCursor<StudentActionTrans> pageCursor) {
+        List<StudentActionTrans> resultList = studentActionTransMapper.getStudentActionTransList(
+                null, null, filter, pageCursor.getOrderBy(), pageCursor.getSeekClause());
         Map<String, List<MyWhereCriteria>> criteriaMap = buildAggregationAdditionalWhereCriteria();
         this.buildRelationForDataList(resultList, MyRelationParam.normal(), criteriaMap);
         return resultList;
     }
 
+    /**
+     * 获取过滤后的数据总数量。数量会按照过滤条件缓存，直到zz_student_action_trans表发生写操作。
+     *
+     * @param filter 过滤对象。
+     * @param estimated 是否允许立即返回估算数量，并在后台异步计算精确数量。
+     * @return 第一个值为数据总数量，第二个值为TotalCountType中定义的数量来源类型。
+     */
+    public Tuple2<Long, String> getStudentActionTransCount(StudentActionTrans filter, boolean estimated) {
+        return this.getTotalCount(filter,
+                () -> studentActionTransMapper.getStudentActionTransCount(null, null, filter).longValue(), estimated);
+    }
+
     /**
      * 获取主表的查询结果，查询条件中包括主表过滤对象和指定字段的(in list)过滤。
      * 同时还包含主表关联的字典数据和一对一从表数据，以及一对一从表的字典数据。
@@ -141,7 +176,7 @@ public class StudentActionTransService extends BaseService<StudentActionTrans, S
     public <M> List<StudentActionTrans> getStudentActionTransListWithRelation(
             String inFilterField, Set<M> inFilterValues, StudentActionTrans filter, String orderBy) {
         List<StudentActionTrans> resultList =
-                studentActionTransMapper.getStudentActionTransList(inFilterField, inFilterValues, filter, orderBy);
+                studentActionTransMapper.getStudentActionTransList(inFilterField, inFilterValues, filter, orderBy, null);
         this.buildRelationForDataList(resultList, MyRelationParam.dictOnly(), null);
         return resultList;
     }
@@ -157,18 +192,38 @@ public class StudentActionTransService extends BaseService<StudentActionTrans, S
         String errorMessageFormat = "数据验证失败，关联的%s并不存在，请刷新后重试！";
         if (this.needToVerify(studentActionTrans, originalStudentActionTrans, StudentActionTrans::getSchoolId)) {
             ResponseResult<Boolean> responseResult =
-                    schoolInfoClient.existId(studentActionTrans.getSchoolId());
+                    clientBatcherFactory.get("schoolInfoClient", schoolInfoClient, SchoolInfoDto::getSchoolId)
+                            .existId(studentActionTrans.getSchoolId());
             if (this.hasErrorOfVerifyRemoteRelatedData(responseResult)) {
                 return CallResult.error(String.format(errorMessageFormat, "学生校区"));
             }
         }
         if (this.needToVerify(studentActionTrans, originalStudentActionTrans, StudentActionTrans::getGradeId)) {
             ResponseResult<Boolean> responseResult =
-                    gradeClient.existId(studentActionTrans.getGradeId());
+                    clientBatcherFactory.get("gradeClient", gradeClient, GradeDto::getGradeId)
+                            .existId(studentActionTrans.getGradeId());
             if (this.hasErrorOfVerifyRemoteRelatedData(responseResult)) {
                 return CallResult.error(String.format(errorMessageFormat, "所属年级"));
             }
         }
         return CallResult.ok();
     }
+
+    /**
+     * verifyRemoteRelatedData的批量版本，用于批量导入或批量更新。整批数据中全部需要验证的远程关联字段，
+     * 对每个远程服务只会发起一次验证调用，而不是逐条数据、逐个字段的调用existId。
+     *
+     * @param studentActionTransList         最新数据对象列表。
+     * @param originalStudentActionTransList 原有数据对象列表，与最新数据对象按位置一一对应，全部为新增数据时为null。
+     * @return 数据全部正确返回true，否则false，同时返回具体的错误信息。
+     */
+    public CallResult verifyRemoteRelatedData(
+            List<StudentActionTrans> studentActionTransList, List<StudentActionTrans> originalStudentActionTransList) {
+        return new RemoteRelationVerifier()
+                .add(schoolInfoClient, "schoolId", this.collectToVerify(studentActionTransList,
+                        originalStudentActionTransList, StudentActionTrans::getSchoolId), "学生校区")
+                .add(gradeClient, "gradeId", this.collectToVerify(studentActionTransList,
+                        originalStudentActionTransList, StudentActionTrans::getGradeId), "所属年级")
+                .verify();
+    }
 }
@@ -17,7 +17,6 @@ import com.orange.demo.upmsinterface.constant.SysUserStatus;
 import com.orange.demo.upmsinterface.constant.SysUserType;
 import com.orange.demo.upmsservice.config.ApplicationConfig;
 import com.orange.demo.upmsservice.model.SysMenu;
-import com.orange.demo.upmsservice.model.SysPermWhitelist;
 import com.orange.demo.upmsservice.model.SysUser;
 import com.orange.demo.upmsservice.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,7 +47,7 @@ public class LoginController {
     @Autowired
     private SysMenuService sysMenuService;
     @Autowired
-    private SysPermWhitelistService sysPermWhitelistService;
+    private SysRolePermBitmapService sysRolePermBitmapService;
     @Autowired
     private ApplicationConfig appConfig;
     @Autowired
@@ -152,10 +151,10 @@ public class LoginController {
             menuList = sysMenuService.getMenuListByUserId(user.getUserId());
             List<String> permCodeList = sysPermCodeService.getPermCodeListByUserId(user.getUserId());
             jsonData.put("permCodeList", permCodeList);
-            // 将白名单url列表合并到当前用户的权限资源列表中，便于网关一并处理。
-            Set<String> permSet = sysUserService.getSysPermSetByUserId(user.getUserId());
-            permSet.addAll(sysPermWhitelistService.getAllListWithField(SysPermWhitelist::getPermUrl));
-            jsonData.put("permSet", permSet);
+            // 会话中仅保存用户的角色Id列表，网关根据角色的权限位图和白名单位图进行权限验证。
+            List<Long> roleIdList = sysUserService.getRoleIdListByUserId(user.getUserId());
+            sysRolePermBitmapService.ensureRoleBitmaps(roleIdList);
+            jsonData.put("roleIdList", roleIdList);
         }
         jsonData.put("menuList", menuList);
         return jsonData;
@@ -6,6 +6,7 @@ import org.apache.ibatis.annotations.Param;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 权限资源数据访问操作接口。
@@ -23,6 +24,14 @@ public interface SysPermMapper extends BaseDaoMapper<SysPerm> {
      */
     List<SysPerm> getPermListByUserId(@Param("userId") Long userId);
 
+    /**
+     * 获取角色及其关联的权限资源url列表。
+     *
+     * @param roleIdSet 角色Id集合。为null时返回全部角色的数据。
+     * @return 角色Id(roleId)和权限资源url(url)的映射列表。
+     */
+    List<Map<String, Object>> getRolePermUrlList(@Param("roleIdSet") Set<Long> roleIdSet);
+
     /**
      * 获取指定用户Id的权限列表。
      *
@@ -37,6 +37,8 @@ public class SysMenuService extends BaseService<SysMenu, SysMenuDto, Long> {
     @Autowired
     private SysRoleMenuMapper sysRoleMenuMapper;
     @Autowired
+    private SysRolePermBitmapService sysRolePermBitmapService;
+    @Autowired
     private SysMenuPermCodeMapper sysMenuPermCodeMapper;
     @Autowired
     private SysPermCodeService sysPermCodeService;
@@ -108,6 +110,7 @@ public class SysMenuService extends BaseService<SysMenu, SysMenuDto, Long> {
             }
             sysMenuPermCodeMapper.insertList(sysMenuPermCodeList);
         }
+        sysRolePermBitmapService.refreshAllAfterCommit();
         return true;
     }
 
@@ -131,6 +134,7 @@ public class SysMenuService extends BaseService<SysMenu, SysMenuDto, Long> {
         SysMenuPermCode menuPermCode = new SysMenuPermCode();
         menuPermCode.setMenuId(menuId);
         sysMenuPermCodeMapper.delete(menuPermCode);
+        sysRolePermBitmapService.refreshAllAfterCommit();
         return true;
     }
 
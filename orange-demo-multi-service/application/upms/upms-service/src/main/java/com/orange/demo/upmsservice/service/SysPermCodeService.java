@@ -35,6 +35,8 @@ public class SysPermCodeService extends BaseService<SysPermCode, SysPermCodeDto,
     @Autowired
     private SysPermCodePermMapper sysPermCodePermMapper;
     @Autowired
+    private SysRolePermBitmapService sysRolePermBitmapService;
+    @Autowired
     private SysMenuPermCodeMapper sysMenuPermCodeMapper;
     @Autowired
     private SysPermService sysPermService;
@@ -126,6 +128,7 @@ public class SysPermCodeService extends BaseService<SysPermCode, SysPermCodeDto,
             }
             sysPermCodePermMapper.insertList(sysPermCodePermList);
         }
+        sysRolePermBitmapService.refreshAllAfterCommit();
         return true;
     }
 
@@ -149,6 +152,7 @@ public class SysPermCodeService extends BaseService<SysPermCode, SysPermCodeDto,
         SysPermCodePerm permCodePerm = new SysPermCodePerm();
         permCodePerm.setPermCodeId(permCodeId);
         sysPermCodePermMapper.delete(permCodePerm);
+        sysRolePermBitmapService.refreshAllAfterCommit();
         return true;
     }
 
@@ -37,6 +37,8 @@ public class SysPermService extends BaseService<SysPerm, SysPermDto, Long> {
     @Autowired
     private SysPermCodePermMapper sysPermCodePermMapper;
     @Autowired
+    private SysRolePermBitmapService sysRolePermBitmapService;
+    @Autowired
     private SysPermModuleService sysPermModuleService;
     @Autowired
     private IdGeneratorWrapper idGenerator;
@@ -77,7 +79,13 @@ public class SysPermService extends BaseService<SysPerm, SysPermDto, Long> {
     public boolean update(SysPerm perm, SysPerm originalPerm) {
         perm.setCreateTime(originalPerm.getCreateTime());
         perm.setDeletedFlag(GlobalDeletedFlag.NORMAL);
-        return sysPermMapper.updateByPrimaryKeySelective(perm) != 0;
+        if (sysPermMapper.updateByPrimaryKeySelective(perm) == 0) {
+            return false;
+        }
+        if (perm.getUrl() != null && !perm.getUrl().equals(originalPerm.getUrl())) {
+            sysRolePermBitmapService.refreshAllAfterCommit();
+        }
+        return true;
     }
 
     /**
@@ -97,6 +105,7 @@ public class SysPermService extends BaseService<SysPerm, SysPermDto, Long> {
         Example e = new Example(SysPermCodePerm.class);
         e.createCriteria().andEqualTo("permId", permId);
         sysPermCodePermMapper.deleteByExample(e);
+        sysRolePermBitmapService.refreshAllAfterCommit();
         return true;
     }
 
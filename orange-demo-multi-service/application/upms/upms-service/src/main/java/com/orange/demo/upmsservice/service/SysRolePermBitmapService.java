@@ -0,0 +1,211 @@
+package com.orange.demo.upmsservice.service;
+
+import com.orange.demo.common.core.constant.ApplicationConstant;
+import com.orange.demo.common.core.constant.GlobalDeletedFlag;
+import com.orange.demo.common.core.util.RedisKeyUtil;
+import com.orange.demo.upmsservice.dao.SysPermMapper;
+import com.orange.demo.upmsservice.dao.SysPermWhitelistMapper;
+import com.orange.demo.upmsservice.dao.SysRoleMapper;
+import com.orange.demo.upmsservice.model.SysPermWhitelist;
+import com.orange.demo.upmsservice.model.SysRole;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 角色权限位图服务类。
+ * 每个权限资源url都会被分配一个不再改变的整型Id，每个角色的全部权限资源，以位图的形式在Redis中仅存储一份。
+ * 会话中只保存用户的角色Id列表，网关通过角色位图和白名单位图判断用户是否拥有请求url的访问权限。
+ * 角色、菜单、权限字和权限资源发生变化时，重建受影响的角色位图，并通过ROLE_PERM_CHANGED_TOPIC通知网关失效本地缓存，
+ * 从而使全部在线会话无需重新登录即可生效。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+@Service
+public class SysRolePermBitmapService {
+
+    @Autowired
+    private SysPermMapper sysPermMapper;
+    @Autowired
+    private SysRoleMapper sysRoleMapper;
+    @Autowired
+    private SysPermWhitelistMapper sysPermWhitelistMapper;
+    @Autowired
+    private RedissonClient redissonClient;
+
+    /**
+     * 服务启动后重建全部角色和白名单的权限位图，以保证数据库中的数据被直接修改后，位图数据可以与之同步。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            this.refreshAll();
+        } catch (Exception e) {
+            log.error("Failed to refresh role perm bitmaps while starting.", e);
+        }
+    }
+
+    /**
+     * 确保指定角色的权限位图和白名单位图均已存在于Redis中，不存在的将被立即创建。通常在用户登录时调用。
+     *
+     * @param roleIdList 角色Id列表。
+     */
+    public void ensureRoleBitmaps(List<Long> roleIdList) {
+        if (redissonClient.getKeys().countExists(RedisKeyUtil.makePermWhitelistBitmapKeyForRedis()) == 0) {
+            this.refreshWhitelist();
+        }
+        if (CollectionUtils.isEmpty(roleIdList)) {
+            return;
+        }
+        Set<Long> missingRoleIdSet = new HashSet<>();
+        for (Long roleId : roleIdList) {
+            String key = RedisKeyUtil.makeRolePermBitmapKeyForRedis(roleId.toString());
+            if (redissonClient.getKeys().countExists(key) == 0) {
+                missingRoleIdSet.add(roleId);
+            }
+        }
+        if (!missingRoleIdSet.isEmpty()) {
+            this.refreshRoles(missingRoleIdSet);
+        }
+    }
+
+    /**
+     * 在当前事务提交后，重建指定角色的权限位图。如果当前没有事务，则立即重建。
+     *
+     * @param roleId 角色Id。
+     */
+    public void refreshRoleAfterCommit(Long roleId) {
+        this.runAfterCommit(() -> this.refreshRoles(Collections.singleton(roleId)));
+    }
+
+    /**
+     * 在当前事务提交后，重建全部角色的权限位图。如果当前没有事务，则立即重建。
+     * 菜单、权限字和权限资源的变化可能影响任意角色，由于此类操作很少发生，因此直接全部重建。
+     */
+    public void refreshAllAfterCommit() {
+        this.runAfterCommit(this::refreshAll);
+    }
+
+    /**
+     * 重建全部角色和白名单的权限位图，并通知网关失效全部的本地缓存。
+     */
+    public void refreshAll() {
+        SysRole filter = new SysRole();
+        filter.setDeletedFlag(GlobalDeletedFlag.NORMAL);
+        Set<Long> roleIdSet = sysRoleMapper.select(filter)
+                .stream().map(SysRole::getRoleId).collect(Collectors.toSet());
+        this.writeRoleBitmaps(roleIdSet, sysPermMapper.getRolePermUrlList(null));
+        this.writeWhitelistBitmap();
+        this.publish(ApplicationConstant.ALL_ROLE_PERM_CHANGED);
+    }
+
+    /**
+     * 重建指定角色的权限位图，并通知网关失效这些角色的本地缓存。已删除的角色将被重建为空位图。
+     *
+     * @param roleIdSet 角色Id集合。
+     */
+    public void refreshRoles(Set<Long> roleIdSet) {
+        this.writeRoleBitmaps(roleIdSet, sysPermMapper.getRolePermUrlList(roleIdSet));
+        roleIdSet.forEach(roleId -> this.publish(roleId.toString()));
+    }
+
+    /**
+     * 重建白名单的权限位图，并通知网关失效全部的本地缓存。
+     */
+    public void refreshWhitelist() {
+        this.writeWhitelistBitmap();
+        this.publish(ApplicationConstant.ALL_ROLE_PERM_CHANGED);
+    }
+
+    private void writeRoleBitmaps(Set<Long> roleIdSet, List<Map<String, Object>> rolePermUrlList) {
+        Map<Long, Set<String>> roleUrlMap = new HashMap<>(roleIdSet.size());
+        roleIdSet.forEach(roleId -> roleUrlMap.put(roleId, new HashSet<>()));
+        for (Map<String, Object> rolePermUrl : rolePermUrlList) {
+            Long roleId = ((Number) rolePermUrl.get("roleId")).longValue();
+            roleUrlMap.computeIfAbsent(roleId, k -> new HashSet<>()).add((String) rolePermUrl.get("url"));
+        }
+        Set<String> allUrlSet = new HashSet<>();
+        roleUrlMap.values().forEach(allUrlSet::addAll);
+        Map<String, Integer> urlIdMap = this.internUrls(allUrlSet);
+        for (Map.Entry<Long, Set<String>> entry : roleUrlMap.entrySet()) {
+            String key = RedisKeyUtil.makeRolePermBitmapKeyForRedis(entry.getKey().toString());
+            redissonClient.getBitSet(key).set(this.makeBitmap(entry.getValue(), urlIdMap));
+        }
+    }
+
+    private void writeWhitelistBitmap() {
+        Set<String> urlSet = sysPermWhitelistMapper.selectAll()
+                .stream().map(SysPermWhitelist::getPermUrl).collect(Collectors.toSet());
+        Map<String, Integer> urlIdMap = this.internUrls(urlSet);
+        redissonClient.getBitSet(RedisKeyUtil.makePermWhitelistBitmapKeyForRedis())
+                .set(this.makeBitmap(urlSet, urlIdMap));
+    }
+
+    private BitSet makeBitmap(Set<String> urlSet, Map<String, Integer> urlIdMap) {
+        BitSet bitmap = new BitSet();
+        urlSet.forEach(url -> bitmap.set(urlIdMap.get(url)));
+        return bitmap;
+    }
+
+    /**
+     * 为权限资源url分配整型Id。已经分配过的url直接返回原有Id，Id分配后不再改变，因此网关可以长期缓存。
+     * 并发分配时以最先写入的Id为准，落选的Id被跳过，仅会在位图中留下空位。
+     *
+     * @param urlSet 权限资源url集合。
+     * @return url到整型Id的映射。
+     */
+    private Map<String, Integer> internUrls(Set<String> urlSet) {
+        Map<String, Integer> urlIdMap = new HashMap<>(urlSet.size());
+        if (urlSet.isEmpty()) {
+            return urlIdMap;
+        }
+        RMap<String, String> map = redissonClient.getMap(RedisKeyUtil.makePermUrlIdKeyForRedis(), StringCodec.INSTANCE);
+        Map<String, String> existMap = map.getAll(urlSet);
+        RAtomicLong sequence = redissonClient.getAtomicLong(RedisKeyUtil.makePermUrlIdSequenceKeyForRedis());
+        for (String url : urlSet) {
+            String id = existMap.get(url);
+            if (id == null) {
+                String newId = String.valueOf(sequence.incrementAndGet());
+                String oldId = map.putIfAbsent(url, newId);
+                id = oldId == null ? newId : oldId;
+            }
+            urlIdMap.put(url, Integer.valueOf(id));
+        }
+        return urlIdMap;
+    }
+
+    private void publish(String message) {
+        redissonClient.getTopic(ApplicationConstant.ROLE_PERM_CHANGED_TOPIC, StringCodec.INSTANCE).publish(message);
+    }
+
+    private void runAfterCommit(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                try {
+                    runnable.run();
+                } catch (Exception e) {
+                    log.error("Failed to refresh role perm bitmaps after commit.", e);
+                }
+            }
+        });
+    }
+}
@@ -41,6 +41,8 @@ public class SysRoleService extends BaseService<SysRole, SysRoleDto, Long> {
     @Autowired
     private SysMenuService sysMenuService;
     @Autowired
+    private SysRolePermBitmapService sysRolePermBitmapService;
+    @Autowired
     private IdGeneratorWrapper idGenerator;
 
     /**
@@ -81,6 +83,7 @@ public class SysRoleService extends BaseService<SysRole, SysRoleDto, Long> {
             }
             sysRoleMenuMapper.insertList(roleMenuList);
         }
+        sysRolePermBitmapService.refreshRoleAfterCommit(role.getRoleId());
         return role;
     }
 
@@ -114,6 +117,8 @@ public class SysRoleService extends BaseService<SysRole, SysRoleDto, Long> {
             }
             sysRoleMenuMapper.insertList(roleMenuList);
         }
+        // 角色的权限位图在事务提交后重建，并通知网关，全部持有该角色的在线会话将立即生效。
+        sysRolePermBitmapService.refreshRoleAfterCommit(role.getRoleId());
         return true;
     }
 
@@ -137,6 +142,7 @@ public class SysRoleService extends BaseService<SysRole, SysRoleDto, Long> {
         SysUserRole userRole = new SysUserRole();
         userRole.setRoleId(roleId);
         sysUserRoleMapper.delete(userRole);
+        sysRolePermBitmapService.refreshRoleAfterCommit(roleId);
         return true;
     }
 
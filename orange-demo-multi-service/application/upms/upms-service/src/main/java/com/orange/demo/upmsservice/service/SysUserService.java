@@ -240,6 +240,18 @@ public class SysUserService extends BaseService<SysUser, SysUserDto, Long> {
         return resultList;
     }
 
+    /**
+     * 获取指定用户的角色Id列表。
+     *
+     * @param userId 用户主键Id。
+     * @return 用户的角色Id列表。
+     */
+    public List<Long> getRoleIdListByUserId(Long userId) {
+        SysUserRole filter = new SysUserRole();
+        filter.setUserId(userId);
+        return sysUserRoleMapper.select(filter).stream().map(SysUserRole::getRoleId).collect(Collectors.toList());
+    }
+
     /**
      * 获取指定用户的权限集合。
      *
@@ -0,0 +1,188 @@
+package com.orange.demo.common.benchmark;
+
+import com.orange.demo.common.core.annotation.RelationOneToManyAggregation;
+import com.orange.demo.common.core.base.service.BaseService;
+import com.orange.demo.common.core.constant.AggregationType;
+import com.orange.demo.common.core.constant.GlobalDeletedFlag;
+import com.orange.demo.common.core.object.MyAggregationParam;
+import com.orange.demo.common.core.object.MyWhereClause;
+import com.orange.demo.common.core.object.MyWhereCriteria;
+import com.orange.demo.common.core.object.Tuple2;
+import com.orange.demo.common.core.util.MyModelUtil;
+import lombok.Data;
+import org.openjdk.jmh.annotations.*;
+
+import javax.persistence.Column;
+import javax.persistence.Table;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 聚合关联查询计划的基准测试，只计算每次请求生成SQL参数的开销，不执行SQL。
+ * 分别比较原有每次调用时重新映射表名、列名并拼接Select List、GROUP BY和过滤条件的方式，
+ * 以及BaseService在加载关联结构时预编译的AggregationPlan，每次调用仅需绑定主表关联字段值。
+ * 预编译的查询计划为BaseService的私有内部类，这里通过MethodHandle调用，因此结果中包含了少量的间接调用开销。
+ * 结合 -prof gc 运行时，gc.alloc.rate.norm 即为每次调用的内存分配字节数。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AggregationPlanBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final String DELETED_FLAG_FIELD = "deletedFlag";
+
+    private RelationOneToManyAggregation relation;
+    private Set<Object> masterIdSet;
+    private Object plan;
+    private MethodHandle isSlaveTableRequired;
+    private MethodHandle getTableNames;
+    private MethodHandle makeWhereClause;
+    private MethodHandle selectListGetter;
+    private MethodHandle groupByGetter;
+
+    @Setup
+    public void setup() throws Throwable {
+        relation = Grade.class.getDeclaredField("totalClassHour").getAnnotation(RelationOneToManyAggregation.class);
+        masterIdSet = new HashSet<>();
+        for (long i = 0; i < PAGE_SIZE; i++) {
+            masterIdSet.add(1297402823410139136L + i);
+        }
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Class<?> planClass = Class.forName(BaseService.class.getName() + "$AggregationPlan");
+        Method factory = planClass.getDeclaredMethod(
+                "ofOneToMany", RelationOneToManyAggregation.class, String.class);
+        factory.setAccessible(true);
+        plan = factory.invoke(null, relation, MyModelUtil.mapToColumnName(DELETED_FLAG_FIELD, Course.class));
+        isSlaveTableRequired = lookup.unreflect(accessibleMethod(planClass, "isSlaveTableRequired", List.class));
+        getTableNames = lookup.unreflect(accessibleMethod(planClass, "getTableNames", boolean.class));
+        makeWhereClause = lookup.unreflect(accessibleMethod(
+                planClass, "makeWhereClause", Object.class, boolean.class, List.class));
+        selectListGetter = lookup.unreflectGetter(accessibleField(planClass, "selectList"));
+        groupByGetter = lookup.unreflectGetter(accessibleField(planClass, "groupBy"));
+        System.out.printf("Per-call SQL: %s%nPrecompiled SQL: %s%n",
+                this.perCallPlanning(), this.precompiledPlan());
+    }
+
+    /**
+     * 原有buildOneToManyAggregationForDataList的处理方式，每次调用均重新计算查询的静态部分。
+     */
+    @Benchmark
+    public String perCallPlanning() {
+        String slaveTable = MyModelUtil.mapToTableName(relation.slaveModelClass());
+        String slaveColumnName = MyModelUtil.mapToColumnName(relation.slaveIdField(), relation.slaveModelClass());
+        Tuple2<String, String> selectAndGroupByTuple = makeSelectListAndGroupByClause(
+                slaveTable, slaveColumnName, relation.slaveModelClass(),
+                slaveTable, relation.aggregationField(), relation.aggregationType());
+        List<MyWhereCriteria> criteriaList = new LinkedList<>();
+        MyWhereCriteria inlistFilter = new MyWhereCriteria();
+        inlistFilter.setCriteria(relation.slaveModelClass(),
+                relation.slaveIdField(), MyWhereCriteria.OPERATOR_IN, masterIdSet);
+        criteriaList.add(inlistFilter);
+        MyWhereCriteria deleteFilter = new MyWhereCriteria();
+        deleteFilter.setCriteria(relation.slaveModelClass(),
+                DELETED_FLAG_FIELD, MyWhereCriteria.OPERATOR_EQUAL, GlobalDeletedFlag.NORMAL);
+        criteriaList.add(deleteFilter);
+        MyWhereClause whereClause = MyWhereCriteria.makeWhereClause(criteriaList);
+        return makeSql(slaveTable, selectAndGroupByTuple.getFirst(), whereClause, selectAndGroupByTuple.getSecond());
+    }
+
+    /**
+     * BaseService.getLocalAggregationList的处理方式，查询的静态部分均来自预编译的查询计划。
+     */
+    @Benchmark
+    public String precompiledPlan() throws Throwable {
+        boolean withSlaveTable = (boolean) isSlaveTableRequired.invoke(plan, (List<?>) null);
+        MyWhereClause whereClause =
+                (MyWhereClause) makeWhereClause.invoke(plan, (Object) masterIdSet, withSlaveTable, (List<?>) null);
+        return makeSql((String) getTableNames.invoke(plan, withSlaveTable),
+                (String) selectListGetter.invoke(plan), whereClause, (String) groupByGetter.invoke(plan));
+    }
+
+    /**
+     * 模拟Mapper调用时传入的参数，只有whereClause会在后续生成SQL时展开，这里统一输出为 ? 占位符。
+     */
+    private static String makeSql(String table, String selectList, MyWhereClause whereClause, String groupBy) {
+        return "SELECT " + selectList + "FROM " + table + " WHERE " + whereClause.getSql() + " GROUP BY " + groupBy;
+    }
+
+    /**
+     * BaseService.makeSelectListAndGroupByClause的副本。
+     */
+    private static Tuple2<String, String> makeSelectListAndGroupByClause(
+            String groupTableName,
+            String groupColumnName,
+            Class<?> aggregationModel,
+            String aggregationTableName,
+            String aggregationField,
+            Integer aggregationType) {
+        String aggregationFunc = AggregationType.getAggregationFunction(aggregationType);
+        String aggregationColumn = MyModelUtil.mapToColumnName(aggregationField, aggregationModel);
+        StringBuilder groupedSelectList = new StringBuilder(128);
+        groupedSelectList.append(groupTableName)
+                .append(".")
+                .append(groupColumnName)
+                .append(" ")
+                .append(MyAggregationParam.KEY_NAME)
+                .append(", ")
+                .append(aggregationFunc)
+                .append("(")
+                .append(aggregationTableName)
+                .append(".")
+                .append(aggregationColumn)
+                .append(") ")
+                .append(MyAggregationParam.VALUE_NAME)
+                .append(" ");
+        StringBuilder groupBy = new StringBuilder(64);
+        groupBy.append(groupTableName).append(".").append(groupColumnName);
+        return new Tuple2<>(groupedSelectList.toString(), groupBy.toString());
+    }
+
+    private static Method accessibleMethod(Class<?> clazz, String name, Class<?>... parameterTypes)
+            throws NoSuchMethodException {
+        Method method = clazz.getDeclaredMethod(name, parameterTypes);
+        method.setAccessible(true);
+        return method;
+    }
+
+    private static Field accessibleField(Class<?> clazz, String name) throws NoSuchFieldException {
+        Field field = clazz.getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+    }
+
+    @Data
+    public static class Grade {
+        private Long gradeId;
+        @RelationOneToManyAggregation(
+                masterIdField = "gradeId",
+                slaveModelClass = Course.class,
+                slaveIdField = "gradeId",
+                aggregationType = AggregationType.SUM,
+                aggregationField = "classHour")
+        private Integer totalClassHour;
+    }
+
+    @Data
+    @Table(name = "zz_course")
+    public static class Course {
+        @Column(name = "course_id")
+        private Long courseId;
+        @Column(name = "grade_id")
+        private Long gradeId;
+        @Column(name = "class_hour")
+        private Integer classHour;
+        @Column(name = "deleted_flag")
+        private Integer deletedFlag;
+    }
+}
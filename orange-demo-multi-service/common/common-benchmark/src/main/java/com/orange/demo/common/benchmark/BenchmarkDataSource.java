@@ -0,0 +1,60 @@
+package com.orange.demo.common.benchmark;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+
+/**
+ * 基准测试使用的数据源。
+ * 通过-Djdbc.url=jdbc:mysql://host:port/db指定时，直接使用已有的MySQL数据库，用户名和密码分别通过
+ * -Djdbc.username和-Djdbc.password指定，否则使用MySQL兼容模式的H2内存数据库。
+ * H2与MySQL的执行计划和解析开销均有较大差异，因此内存数据库的结果仅适合比较访问方式之间的差异。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class BenchmarkDataSource {
+
+    private final PooledDataSource dataSource;
+    private final boolean embedded;
+
+    /**
+     * 创建或连接基准测试使用的数据库。
+     *
+     * @param name 内存数据库的名称，同一进程中名称相同的内存数据库为同一个数据库。
+     * @return 数据源对象。
+     */
+    public static BenchmarkDataSource create(String name) {
+        return new BenchmarkDataSource(System.getProperty("jdbc.url"), name);
+    }
+
+    private BenchmarkDataSource(String url, String name) {
+        this.embedded = StringUtils.isBlank(url);
+        if (embedded) {
+            this.dataSource = new PooledDataSource("org.h2.Driver",
+                    "jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        } else {
+            this.dataSource = new PooledDataSource("com.mysql.cj.jdbc.Driver", url,
+                    System.getProperty("jdbc.username"), System.getProperty("jdbc.password"));
+        }
+    }
+
+    public PooledDataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * 是否为内嵌的H2内存数据库。
+     *
+     * @return 内存数据库返回true，否则false。
+     */
+    public boolean isEmbedded() {
+        return embedded;
+    }
+
+    /**
+     * 关闭数据源中的全部连接。
+     */
+    public void close() {
+        dataSource.forceCloseAll();
+    }
+}
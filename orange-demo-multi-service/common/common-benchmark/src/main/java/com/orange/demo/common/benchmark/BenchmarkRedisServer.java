@@ -0,0 +1,80 @@
+package com.orange.demo.common.benchmark;
+
+import org.apache.commons.lang3.StringUtils;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+
+/**
+ * 基准测试使用的Redis服务。
+ * 通过-Dredis.address=redis://host:port指定时，直接使用已有的Redis服务，否则在随机端口启动一个内嵌的Redis服务。
+ * 内嵌服务与基准测试进程运行在同一台机器上，网络往返时间远小于生产环境，因此结果更适合比较访问方式之间的差异。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class BenchmarkRedisServer {
+
+    private final RedisServer redisServer;
+    private final String host;
+    private final int port;
+
+    /**
+     * 启动或连接基准测试使用的Redis服务。
+     *
+     * @return Redis服务对象。
+     */
+    public static BenchmarkRedisServer start() {
+        return new BenchmarkRedisServer(System.getProperty("redis.address"));
+    }
+
+    private BenchmarkRedisServer(String address) {
+        if (StringUtils.isNotBlank(address)) {
+            String hostAndPort = StringUtils.substringAfter(address, "://");
+            this.redisServer = null;
+            this.host = StringUtils.substringBefore(hostAndPort, ":");
+            this.port = Integer.parseInt(StringUtils.substringAfter(hostAndPort, ":"));
+            return;
+        }
+        this.host = "127.0.0.1";
+        this.port = findFreePort();
+        this.redisServer = RedisServer.builder().port(port).setting("save \"\"").build();
+        this.redisServer.start();
+    }
+
+    /**
+     * 获取Redisson格式的服务地址。
+     *
+     * @return 服务地址，如redis://127.0.0.1:6379。
+     */
+    public String getAddress() {
+        return "redis://" + host + ":" + port;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * 停止内嵌的Redis服务，使用已有的Redis服务时不做任何处理。
+     */
+    public void stop() {
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    private static int findFreePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.orange.demo.common.benchmark;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.orange.demo.common.core.config.CompactTransportConfig;
+import com.orange.demo.common.core.object.MyPageData;
+import com.orange.demo.common.core.object.ResponseResult;
+import lombok.Data;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 服务间数据传输格式的基准测试，每次操作包含服务端的序列化、可选的gzip压缩，以及调用端的解压和反序列化。
+ * encoding分别为格式化输出的application/json、不包含空白字符的紧凑格式，以及按字段顺序编码为数组的位置编码，
+ * 序列化选项和SerializeConfig与CompactTransportConfig保持一致。每种格式编码后的字节数和压缩后的字节数在初始化时输出到基准测试日志中。
+ * 测试数据为一页包含500条记录的分页查询结果，每条记录中嵌套的CoursePrice对象的最后一个字段为BigDecimal，
+ * 该对象在位置编码中仍按照字段名编码。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompactTransportBenchmark {
+
+    private static final int PAGE_SIZE = 500;
+    private static final TypeReference<ResponseResult<MyPageData<Course>>> RESULT_TYPE =
+            new TypeReference<ResponseResult<MyPageData<Course>>>() {};
+
+    @Param({"pretty", "compact", "positional"})
+    private String encoding;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private ResponseResult<MyPageData<Course>> responseResult;
+    private SerializeConfig serializeConfig;
+    private SerializerFeature[] serializerFeatures;
+
+    @Setup
+    public void setup() throws IOException {
+        List<Course> courseList = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Course course = new Course();
+            course.setCourseId(1297402823410139136L + i);
+            course.setCourseName("课程名称-" + i);
+            course.setDifficulty(i % 5);
+            course.setGradeId((long) (i % 12));
+            course.setClassHour(i % 40 + 1);
+            course.setCreateUserId(1297402823410139000L);
+            course.setCreateTime(new Date(1596844800000L + i * 1000L));
+            CoursePrice coursePrice = new CoursePrice();
+            coursePrice.setCurrency("CNY");
+            coursePrice.setPrice(BigDecimal.valueOf(i % 1000, 1));
+            course.setCoursePrice(coursePrice);
+            courseList.add(course);
+        }
+        MyPageData<Course> pageData = new MyPageData<>();
+        pageData.setDataList(courseList);
+        pageData.setTotalCount(10000L);
+        responseResult = ResponseResult.success(pageData);
+        serializeConfig = SerializeConfig.globalInstance;
+        switch (encoding) {
+            case "pretty":
+                serializerFeatures = new SerializerFeature[]{
+                        SerializerFeature.DisableCircularReferenceDetect,
+                        SerializerFeature.IgnoreNonFieldGetter,
+                        SerializerFeature.PrettyFormat};
+                break;
+            case "compact":
+                serializerFeatures = new SerializerFeature[]{
+                        SerializerFeature.DisableCircularReferenceDetect,
+                        SerializerFeature.IgnoreNonFieldGetter};
+                break;
+            case "positional":
+                serializeConfig = new CompactTransportConfig.PositionalSerializeConfig();
+                serializerFeatures = new SerializerFeature[]{
+                        SerializerFeature.DisableCircularReferenceDetect,
+                        SerializerFeature.IgnoreNonFieldGetter};
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown encoding [" + encoding + "].");
+        }
+        byte[] data = this.encode(false);
+        System.out.printf("Payload size: %s=%d bytes, gzip=%d bytes.%n",
+                encoding, data.length, this.encode(true).length);
+        // 确认每种格式都可以被完整地解析还原。
+        if (!JSON.toJSONString(this.roundTrip()).equals(JSON.toJSONString(responseResult))) {
+            throw new IllegalStateException("Round trip of [" + encoding + "] changed the payload.");
+        }
+    }
+
+    @Benchmark
+    public ResponseResult<MyPageData<Course>> roundTrip() throws IOException {
+        return this.decode(this.encode(gzip));
+    }
+
+    private byte[] encode(boolean compress) throws IOException {
+        byte[] data = JSON.toJSONBytes(responseResult, serializeConfig,
+                null, CompactTransportConfig.DATE_FORMAT, JSON.DEFAULT_GENERATE_FEATURE, serializerFeatures);
+        if (!compress) {
+            return data;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private ResponseResult<MyPageData<Course>> decode(byte[] data) throws IOException {
+        if (gzip) {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+                data = IOUtils.toByteArray(in);
+            }
+        }
+        return JSON.parseObject(data, RESULT_TYPE.getType(), Feature.SupportArrayToBean);
+    }
+
+    @Data
+    public static class Course {
+        private Long courseId;
+        private String courseName;
+        private Integer difficulty;
+        private Long gradeId;
+        private Integer classHour;
+        private Long createUserId;
+        private Date createTime;
+        private CoursePrice coursePrice;
+    }
+
+    @Data
+    public static class CoursePrice {
+        private String currency;
+        private BigDecimal price;
+    }
+}
@@ -0,0 +1,131 @@
+package com.orange.demo.common.benchmark;
+
+import com.orange.demo.common.core.cache.MapDictionaryCache;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 内存字典缓存在并发读取下的基准测试，64个读线程同时访问同一个字典缓存。
+ * 分别比较原有全部方法均为synchronized、并且每次复制到LinkedList的实现，以及基于不可变快照的MapDictionaryCache。
+ * 每次getInList读取20个键，模拟一页数据的字典关联，getAll模拟下拉列表的全量读取。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(64)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DictionaryCacheContentionBenchmark {
+
+    private static final int DICT_SIZE = 3000;
+    private static final int PAGE_SIZE = 20;
+
+    private SynchronizedDictionaryCache<Long, AreaCode> synchronizedCache;
+    private MapDictionaryCache<Long, AreaCode> snapshotCache;
+
+    @Setup
+    public void setup() {
+        List<AreaCode> dataList = new ArrayList<>(DICT_SIZE);
+        for (long i = 0; i < DICT_SIZE; i++) {
+            dataList.add(new AreaCode(i, "area" + i));
+        }
+        synchronizedCache = new SynchronizedDictionaryCache<>(AreaCode::getAreaId);
+        synchronizedCache.putAll(dataList);
+        snapshotCache = MapDictionaryCache.create(AreaCode::getAreaId);
+        snapshotCache.putAll(dataList);
+    }
+
+    @Benchmark
+    public AreaCode synchronizedGet() {
+        return synchronizedCache.get(randomKey());
+    }
+
+    @Benchmark
+    public AreaCode snapshotGet() {
+        return snapshotCache.get(randomKey());
+    }
+
+    @Benchmark
+    public List<AreaCode> synchronizedGetInList() {
+        return synchronizedCache.getInList(randomKeySet());
+    }
+
+    @Benchmark
+    public List<AreaCode> snapshotGetInList() {
+        return snapshotCache.getInList(randomKeySet());
+    }
+
+    @Benchmark
+    public List<AreaCode> synchronizedGetAll() {
+        return synchronizedCache.getAll();
+    }
+
+    @Benchmark
+    public List<AreaCode> snapshotGetAll() {
+        return snapshotCache.getAll();
+    }
+
+    private static Long randomKey() {
+        return (long) ThreadLocalRandom.current().nextInt(DICT_SIZE);
+    }
+
+    private static Set<Long> randomKeySet() {
+        Set<Long> keys = new HashSet<>(PAGE_SIZE * 2);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            keys.add(randomKey());
+        }
+        return keys;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class AreaCode {
+        private Long areaId;
+        private String areaName;
+    }
+
+    /**
+     * 原有MapDictionaryCache读取路径的实现，全部方法使用同一个对象锁，结果复制到新的LinkedList。
+     */
+    static class SynchronizedDictionaryCache<K, V> {
+        private final LinkedHashMap<K, V> dataMap = new LinkedHashMap<>();
+        private final Function<V, K> idGetter;
+
+        SynchronizedDictionaryCache(Function<V, K> idGetter) {
+            this.idGetter = idGetter;
+        }
+
+        synchronized void putAll(List<V> dataList) {
+            dataList.forEach(dataObj -> dataMap.put(idGetter.apply(dataObj), dataObj));
+        }
+
+        synchronized V get(K id) {
+            return id == null ? null : dataMap.get(id);
+        }
+
+        synchronized List<V> getInList(Set<K> keys) {
+            List<V> resultList = new LinkedList<>();
+            keys.forEach(key -> {
+                V object = dataMap.get(key);
+                if (object != null) {
+                    resultList.add(object);
+                }
+            });
+            return resultList;
+        }
+
+        synchronized List<V> getAll() {
+            return new LinkedList<>(dataMap.values());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.orange.demo.common.benchmark;
+
+import com.orange.demo.common.redis.cache.DictionaryValueCodec;
+import com.orange.demo.common.redis.cache.FstDictionaryValueCodec;
+import com.orange.demo.common.redis.cache.JsonDictionaryValueCodec;
+import lombok.Data;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 字典值编解码方式的基准测试。
+ * 分别比较JsonDictionaryValueCodec和缺省的FstDictionaryValueCodec对同一个字典对象的编码和解码耗时。
+ * 编码后的字节数在初始化时输出到基准测试日志中。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DictionaryValueCodecBenchmark {
+
+    private DictionaryValueCodec<SysDept> jsonCodec;
+    private DictionaryValueCodec<SysDept> fstCodec;
+    private SysDept value;
+    private byte[] jsonData;
+    private byte[] fstData;
+
+    @Setup
+    public void setup() {
+        jsonCodec = new JsonDictionaryValueCodec<>(SysDept.class);
+        fstCodec = new FstDictionaryValueCodec<>(SysDept.class);
+        value = new SysDept();
+        value.setDeptId(1297402823410139136L);
+        value.setDeptName("研发中心第三事业部");
+        value.setShowOrder(12);
+        value.setParentId(1297402823410139100L);
+        value.setDeletedFlag(1);
+        value.setCreateUserId(1297402823410139000L);
+        value.setCreateTime(new Date());
+        value.setUpdateUserId(1297402823410139000L);
+        value.setUpdateTime(new Date());
+        jsonData = jsonCodec.encode(value);
+        fstData = fstCodec.encode(value);
+        System.out.printf("Payload size: json=%d bytes, fst=%d bytes.%n", jsonData.length, fstData.length);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() {
+        return jsonCodec.encode(value);
+    }
+
+    @Benchmark
+    public byte[] fstEncode() {
+        return fstCodec.encode(value);
+    }
+
+    @Benchmark
+    public SysDept jsonDecode() {
+        return jsonCodec.decode(jsonData);
+    }
+
+    @Benchmark
+    public SysDept fstDecode() {
+        return fstCodec.decode(fstData);
+    }
+
+    @Data
+    public static class SysDept {
+        private Long deptId;
+        private String deptName;
+        private Integer showOrder;
+        private Long parentId;
+        private Integer deletedFlag;
+        private Long createUserId;
+        private Date createTime;
+        private Long updateUserId;
+        private Date updateTime;
+    }
+}
@@ -0,0 +1,159 @@
+package com.orange.demo.common.benchmark;
+
+import cn.hutool.poi.excel.ExcelUtil;
+import cn.hutool.poi.excel.ExcelWriter;
+import cn.jimmyshi.beanquery.BeanQuery;
+import com.orange.demo.common.core.util.ExportUtil;
+import com.orange.demo.common.core.util.ExportWriter;
+import lombok.Data;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据导出方式的基准测试，数据行数分别为1万、10万和100万。
+ * 分别比较原有ExportUtil先加载全部数据，再通过BeanQuery转换为Map列表，并使用内存中的ExcelWriter或CSVPrinter写出的方式，
+ * 以及基于迭代器逐行读取数据，并通过ExportWriter流式写出的方式。输出内容均写入只计数的空输出流。
+ * 为了观察内存占用是否随数据行数增长，运行基准测试的JVM限定了-Xmx512m，每次迭代结束时输出本次迭代的堆内存峰值，
+ * 原有方式在数据量较大时会因堆内存不足而失败，该结果同样是基准测试需要观察的结论。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+@State(Scope.Benchmark)
+public class ExportWriterBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rowCount;
+
+    @Param({"xlsx", "csv"})
+    private String format;
+
+    private Map<String, String> selectFieldMap;
+    private List<MemoryPoolMXBean> heapPoolList;
+    private CountingOutputStream out;
+
+    @Setup
+    public void setup() {
+        selectFieldMap = new LinkedHashMap<>();
+        selectFieldMap.put("courseId", "主键Id");
+        selectFieldMap.put("courseName", "课程名称");
+        selectFieldMap.put("price", "课程价格");
+        selectFieldMap.put("difficulty", "课程难度");
+        selectFieldMap.put("gradeId", "所属年级");
+        selectFieldMap.put("classHour", "课时数量");
+        selectFieldMap.put("createTime", "创建时间");
+        heapPoolList = new LinkedList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heapPoolList.add(pool);
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        out = new CountingOutputStream(NullOutputStream.NULL_OUTPUT_STREAM);
+        System.gc();
+        heapPoolList.forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() {
+        long peakUsed = heapPoolList.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        System.out.printf("Peak heap: %d MB, output: %d KB.%n", peakUsed >> 20, out.getByteCount() >> 10);
+    }
+
+    /**
+     * 原有ExportUtil.doExport的实现方式。
+     */
+    @Benchmark
+    public long legacyExport() throws IOException {
+        List<Course> dataList = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            dataList.add(makeCourse(i));
+        }
+        StringBuilder sb = new StringBuilder(128);
+        for (Map.Entry<String, String> e : selectFieldMap.entrySet()) {
+            sb.append(e.getKey()).append(" as ").append(e.getValue()).append(", ");
+        }
+        String selectFieldString = sb.substring(0, sb.length() - 2);
+        List<Map<String, Object>> resultList = BeanQuery.select(selectFieldString).executeFrom(dataList);
+        if ("xlsx".equals(format)) {
+            ExcelWriter writer = ExcelUtil.getWriter(true);
+            writer.setRowHeight(-1, 30);
+            writer.setColumnWidth(-1, 30);
+            writer.setColumnWidth(1, 20);
+            writer.write(resultList);
+            writer.flush(out);
+            writer.close();
+        } else {
+            String[] headerArray = selectFieldMap.values().toArray(new String[0]);
+            try (Writer csvOut = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                 CSVPrinter printer = new CSVPrinter(csvOut, CSVFormat.DEFAULT.withHeader(headerArray))) {
+                for (Map<String, Object> o : resultList) {
+                    for (Map.Entry<String, Object> entry : o.entrySet()) {
+                        printer.print(entry.getValue());
+                    }
+                    printer.println();
+                }
+                printer.flush();
+            }
+        }
+        return out.getByteCount();
+    }
+
+    /**
+     * 基于迭代器和ExportWriter的流式导出方式，数据在写出前才逐行生成，与分批读取数据库的效果一致。
+     */
+    @Benchmark
+    public long streamingExport() throws IOException {
+        try (ExportWriter<Course> writer = ExportUtil.openExport(selectFieldMap, "course." + format, out)) {
+            for (int i = 0; i < rowCount; i++) {
+                writer.write(makeCourse(i));
+            }
+        }
+        return out.getByteCount();
+    }
+
+    private static Course makeCourse(int i) {
+        Course course = new Course();
+        course.setCourseId(1297402823410139136L + i);
+        course.setCourseName("课程名称-" + i);
+        course.setPrice(BigDecimal.valueOf(i % 1000, 1));
+        course.setDifficulty(i % 5);
+        course.setGradeId((long) (i % 12));
+        course.setClassHour(i % 40 + 1);
+        course.setCreateTime(new Date(1596844800000L + i * 1000L));
+        return course;
+    }
+
+    @Data
+    public static class Course {
+        private Long courseId;
+        private String courseName;
+        private BigDecimal price;
+        private Integer difficulty;
+        private Long gradeId;
+        private Integer classHour;
+        private Date createTime;
+    }
+}
@@ -0,0 +1,227 @@
+package com.orange.demo.common.benchmark;
+
+import cn.hutool.poi.excel.sax.Excel07SaxReader;
+import com.orange.demo.common.core.config.ImportPipelineConfig;
+import com.orange.demo.common.core.util.ApplicationContextHolder;
+import com.orange.demo.common.core.util.ExportUtil;
+import com.orange.demo.common.core.util.ExportWriter;
+import com.orange.demo.common.core.util.ImportUtil;
+import lombok.Data;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据导入方式的基准测试，导入文件包含10万行学生数据，每批1000行通过JDBC批量插入数据库。
+ * 分别比较原有ImportUtil在当前线程中逐行解析、构建对象并调用doProcess的同步方式，
+ * 以及ImportUtil.doImport(filename, importer)的流水线方式，两者使用相同的BaseImporter实现。
+ * 原有方式的csv解析同样基于readLine和StringUtils.split，测试数据中不包含需要引号转义的字段值。
+ * 数据库见BenchmarkDataSource，结果为每次导入全部数据的耗时，每秒导入的行数即为ROW_COUNT除以该耗时。
+ * NOTE: 流水线方式的收益来自解析、映射和写入的并行执行，在单核机器上运行时无法体现。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImportPipelineBenchmark {
+
+    private static final int ROW_COUNT = 100000;
+    private static final int BATCH_SIZE = 1000;
+    private static final String INSERT_SQL = "INSERT INTO zz_benchmark_student "
+            + "(student_id, student_name, login_mobile, grade_id, school_id, total_score) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Param({"csv", "xlsx"})
+    private String format;
+
+    private BenchmarkDataSource dataSource;
+    private AnnotationConfigApplicationContext applicationContext;
+    private Map<String, String> headerColumnMap;
+    private File importFile;
+
+    @Setup
+    public void setup() throws IOException, SQLException {
+        dataSource = BenchmarkDataSource.create("import");
+        this.executeUpdate("DROP TABLE IF EXISTS zz_benchmark_student");
+        this.executeUpdate("CREATE TABLE zz_benchmark_student (student_id BIGINT PRIMARY KEY, "
+                + "student_name VARCHAR(64), login_mobile VARCHAR(32), grade_id INT, school_id BIGINT, "
+                + "total_score DECIMAL(10, 1))");
+        // ImportUtil通过ApplicationContextHolder获取流水线配置和线程池，这里只加载与导入相关的Bean。
+        applicationContext = new AnnotationConfigApplicationContext(
+                ApplicationContextHolder.class, ImportPipelineConfig.class);
+        Map<String, String> selectFieldMap = new LinkedHashMap<>();
+        selectFieldMap.put("studentId", "学生Id");
+        selectFieldMap.put("studentName", "学生姓名");
+        selectFieldMap.put("loginMobile", "手机号码");
+        selectFieldMap.put("gradeId", "所属年级");
+        selectFieldMap.put("schoolId", "所属学校");
+        selectFieldMap.put("totalScore", "总积分");
+        headerColumnMap = new HashMap<>(selectFieldMap.size());
+        selectFieldMap.forEach((fieldName, title) -> headerColumnMap.put(title, fieldName));
+        importFile = File.createTempFile("students", "." + format);
+        try (ExportWriter<Student> writer =
+                     ExportUtil.openExport(selectFieldMap, importFile.getName(), new FileOutputStream(importFile))) {
+            for (int i = 0; i < ROW_COUNT; i++) {
+                writer.write(makeStudent(i));
+            }
+        }
+        System.out.printf("Import file: %s, %d KB.%n", importFile, importFile.length() >> 10);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        applicationContext.close();
+        dataSource.close();
+        Files.deleteIfExists(importFile.toPath());
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() throws SQLException {
+        this.executeUpdate("DELETE FROM zz_benchmark_student");
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() throws SQLException {
+        try (Connection conn = dataSource.getDataSource().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM zz_benchmark_student")) {
+            rs.next();
+            if (rs.getInt(1) != ROW_COUNT) {
+                throw new IllegalStateException("Imported " + rs.getInt(1) + " rows, expected " + ROW_COUNT + ".");
+            }
+        }
+    }
+
+    /**
+     * 原有ImportUtil.doImport的处理方式，解析、映射和写入均在当前线程中依次执行。
+     */
+    @Benchmark
+    public void synchronousImport() throws IOException, SQLException {
+        try (StudentImporter importer = new StudentImporter()) {
+            if ("xlsx".equals(format)) {
+                Excel07SaxReader reader = new Excel07SaxReader(
+                        (sheetIndex, rowIndex, rowList) -> importer.doImport(rowIndex, rowList));
+                try (InputStream in = new FileInputStream(importFile)) {
+                    reader.read(in, -1);
+                }
+            } else {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        new FileInputStream(importFile), StandardCharsets.UTF_8))) {
+                    long rowIndex = 0;
+                    String rowData;
+                    while ((rowData = reader.readLine()) != null) {
+                        importer.doImport(rowIndex++, Arrays.asList((Object[]) StringUtils.split(rowData, ",")));
+                    }
+                }
+            }
+            importer.doImport(-1, null);
+        }
+    }
+
+    /**
+     * ImportUtil.doImport(filename, importer)的流水线处理方式。
+     */
+    @Benchmark
+    public void pipelinedImport() throws IOException, SQLException {
+        try (StudentImporter importer = new StudentImporter()) {
+            ImportUtil.doImport(importFile.getPath(), importer);
+        }
+    }
+
+    private void executeUpdate(String sql) throws SQLException {
+        try (Connection conn = dataSource.getDataSource().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+
+    private static Student makeStudent(int i) {
+        Student student = new Student();
+        // xlsx中的数值单元格为double类型，因此主键使用较小的数值，以免损失精度。
+        student.setStudentId(i + 1L);
+        student.setStudentName("学生-" + i);
+        student.setLoginMobile(String.valueOf(13800000000L + i));
+        student.setGradeId(i % 12);
+        student.setSchoolId((long) (i % 50));
+        student.setTotalScore(BigDecimal.valueOf(i % 1000, 1));
+        return student;
+    }
+
+    /**
+     * 每个批次通过JDBC批量插入数据库，并提交一次事务。
+     */
+    private class StudentImporter extends ImportUtil.BaseImporter<Student> implements Closeable {
+        private final Connection conn;
+        private final PreparedStatement stmt;
+
+        StudentImporter() throws SQLException {
+            super(BATCH_SIZE, Student.class, headerColumnMap);
+            conn = dataSource.getDataSource().getConnection();
+            conn.setAutoCommit(false);
+            stmt = conn.prepareStatement(INSERT_SQL);
+        }
+
+        @Override
+        public void doProcess(List<Student> batchRowList) {
+            try {
+                for (Student student : batchRowList) {
+                    stmt.setLong(1, student.getStudentId());
+                    stmt.setString(2, student.getStudentName());
+                    stmt.setString(3, student.getLoginMobile());
+                    stmt.setInt(4, student.getGradeId());
+                    stmt.setLong(5, student.getSchoolId());
+                    stmt.setBigDecimal(6, student.getTotalScore());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void doFinish() {
+            // 每个批次均已提交，这里无需处理。
+        }
+
+        @Override
+        public boolean doInterrupt() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                stmt.close();
+                // 连接池不会重置autoCommit，归还前需要恢复，否则后续的DELETE语句将不会被提交。
+                conn.setAutoCommit(true);
+                conn.close();
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    @Data
+    public static class Student {
+        private Long studentId;
+        private String studentName;
+        private String loginMobile;
+        private Integer gradeId;
+        private Long schoolId;
+        private BigDecimal totalScore;
+    }
+}
@@ -0,0 +1,154 @@
+package com.orange.demo.common.benchmark;
+
+import com.orange.demo.common.core.base.dao.BaseDaoMapper;
+import com.orange.demo.common.core.object.MyAggregationParam;
+import com.orange.demo.common.core.object.MyWhereClause;
+import com.orange.demo.common.core.object.Tuple2;
+import lombok.Data;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.*;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多对多聚合计算方式的基准测试，模拟班级列表页远程统计每个班级课程总课时的场景。
+ * 分别比较原有每个分组键执行一次getGroupedListByCondition的方式，以及将全部分组展开为内联表后，
+ * 通过getGroupedListByKeyIdList一次SQL完成计算的方式。两者均通过MyBatis执行BaseDaoMapper中的SQL。
+ * 数据库见BenchmarkDataSource，缺省的H2内存数据库不包含网络往返的耗时，真实环境中逐个分组执行的差距只会更大。
+ * H2的解析器对多层UNION ALL的内存占用为平方复杂度，无法解析1000个分组的内联表，该档位需通过-Djdbc.url指定MySQL。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ManyToManyAggregationBenchmark {
+
+    private static final int COURSE_COUNT = 2000;
+    private static final int MAX_EMBEDDED_GROUP_COUNT = 100;
+    private static final int COURSE_PER_CLASS = 5;
+    private static final String AGGREGATION_SELECT = "SUM(zz_benchmark_course.class_hour)";
+
+    @Param({"10", "100", "1000"})
+    private int groupCount;
+
+    private BenchmarkDataSource dataSource;
+    private SqlSession sqlSession;
+    private CourseMapper courseMapper;
+    private Map<Object, Set<Object>> groupedInFilterValues;
+
+    @Setup
+    public void setup() throws SQLException {
+        dataSource = BenchmarkDataSource.create("aggregation" + groupCount);
+        if (dataSource.isEmbedded() && groupCount > MAX_EMBEDDED_GROUP_COUNT) {
+            dataSource.close();
+            throw new IllegalStateException("H2 can't parse the inline table of "
+                    + groupCount + " groups, please specify a MySQL database by -Djdbc.url.");
+        }
+        this.prepareData();
+        Configuration configuration = new Configuration(
+                new Environment("benchmark", new JdbcTransactionFactory(), dataSource.getDataSource()));
+        // 避免同一会话中的相同查询直接命中一级缓存。
+        configuration.setLocalCacheScope(LocalCacheScope.STATEMENT);
+        configuration.addMapper(CourseMapper.class);
+        sqlSession = new SqlSessionFactoryBuilder().build(configuration).openSession(true);
+        courseMapper = sqlSession.getMapper(CourseMapper.class);
+        groupedInFilterValues = new LinkedHashMap<>(groupCount);
+        Random random = new Random(groupCount);
+        for (long classId = 1; classId <= groupCount; classId++) {
+            Set<Object> courseIdSet = new HashSet<>();
+            while (courseIdSet.size() < COURSE_PER_CLASS) {
+                courseIdSet.add((long) random.nextInt(COURSE_COUNT) + 1);
+            }
+            groupedInFilterValues.put(classId, courseIdSet);
+        }
+        System.out.printf("Groups: %d, rows: perGroupQueries=%d, singleStatement=%d.%n", groupCount,
+                this.perGroupQueries().size(), this.singleStatement().size());
+    }
+
+    @TearDown
+    public void tearDown() {
+        sqlSession.close();
+        dataSource.close();
+    }
+
+    /**
+     * 原有的实现方式，每个分组键执行一次SQL，分组键以常量的形式拼接到Select List中。
+     */
+    @Benchmark
+    public List<Map<String, Object>> perGroupQueries() {
+        List<Map<String, Object>> resultMapList = new LinkedList<>();
+        for (Map.Entry<Object, Set<Object>> entry : groupedInFilterValues.entrySet()) {
+            String selectList = entry.getKey() + " " + MyAggregationParam.KEY_NAME + ", "
+                    + AGGREGATION_SELECT + " " + MyAggregationParam.VALUE_NAME;
+            MyWhereClause whereClause = new MyWhereClause()
+                    .add("zz_benchmark_course.course_id IN ", entry.getValue())
+                    .and(makeWhereClause());
+            resultMapList.addAll(courseMapper.getGroupedListByCondition("zz_benchmark_course", selectList, whereClause, null));
+        }
+        return resultMapList;
+    }
+
+    /**
+     * BaseService.getGroupedListByInFilterValues的实现方式，全部分组展开为内联表后一次SQL完成计算。
+     */
+    @Benchmark
+    public List<Map<String, Object>> singleStatement() {
+        List<Tuple2<Object, Object>> keyIdList = new ArrayList<>(groupCount * COURSE_PER_CLASS);
+        for (Map.Entry<Object, Set<Object>> entry : groupedInFilterValues.entrySet()) {
+            for (Object id : entry.getValue()) {
+                keyIdList.add(new Tuple2<>(entry.getKey(), id));
+            }
+        }
+        return courseMapper.getGroupedListByKeyIdList("zz_benchmark_course", AGGREGATION_SELECT,
+                "zz_benchmark_course.course_id", keyIdList, true, true, makeWhereClause());
+    }
+
+    private static MyWhereClause makeWhereClause() {
+        return new MyWhereClause().add("zz_benchmark_course.deleted_flag = ", 1);
+    }
+
+    private void prepareData() throws SQLException {
+        try (Connection conn = dataSource.getDataSource().getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP TABLE IF EXISTS zz_benchmark_course");
+                stmt.execute("CREATE TABLE zz_benchmark_course (course_id BIGINT PRIMARY KEY, "
+                        + "class_hour INT NOT NULL, deleted_flag INT NOT NULL)");
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO zz_benchmark_course VALUES (?, ?, ?)")) {
+                for (long courseId = 1; courseId <= COURSE_COUNT; courseId++) {
+                    stmt.setLong(1, courseId);
+                    stmt.setInt(2, (int) (courseId % 40) + 1);
+                    stmt.setInt(3, courseId % 10 == 0 ? -1 : 1);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }
+    }
+
+    public interface CourseMapper extends BaseDaoMapper<Course> {
+    }
+
+    @Data
+    @Table(name = "zz_benchmark_course")
+    public static class Course {
+        @Id
+        private Long courseId;
+        private Integer classHour;
+        private Integer deletedFlag;
+    }
+}
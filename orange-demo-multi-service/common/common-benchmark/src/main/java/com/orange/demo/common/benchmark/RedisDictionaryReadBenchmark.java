@@ -0,0 +1,130 @@
+package com.orange.demo.common.benchmark;
+
+import com.alibaba.fastjson.JSON;
+import com.orange.demo.common.redis.cache.JsonDictionaryValueCodec;
+import com.orange.demo.common.redis.cache.RedisDictionaryCache;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.openjdk.jmh.annotations.*;
+import org.redisson.Redisson;
+import org.redisson.api.RMap;
+import org.redisson.api.RReadWriteLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Redis字典缓存读取方式的基准测试。
+ * 分别比较原有每次读取均需获取和释放Redisson分布式读锁的方式，以及先解析版本号再直接读取该版本数据的RedisDictionaryCache。
+ * 两种方式均使用JSON格式的字典值，以便只比较加锁方式的差异，编码格式的差异见DictionaryValueCodecBenchmark。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RedisDictionaryReadBenchmark {
+
+    private static final int DICT_SIZE = 1000;
+    private static final int PAGE_SIZE = 20;
+    private static final long TIMEOUT = 2000L;
+
+    private BenchmarkRedisServer redisServer;
+    private RedissonClient redissonClient;
+    private RMap<Long, String> lockedDataMap;
+    private RReadWriteLock lock;
+    private RedisDictionaryCache<Long, AreaCode> versionedCache;
+
+    @Setup
+    public void setup() {
+        redisServer = BenchmarkRedisServer.start();
+        Config config = new Config();
+        config.useSingleServer().setAddress(redisServer.getAddress());
+        redissonClient = Redisson.create(config);
+        List<AreaCode> dataList = new ArrayList<>(DICT_SIZE);
+        for (long i = 0; i < DICT_SIZE; i++) {
+            dataList.add(new AreaCode(i, "area" + i, i / 100));
+        }
+        lockedDataMap = redissonClient.getMap("benchmarkLocked-DICT");
+        lockedDataMap.putAll(dataList.stream().collect(Collectors.toMap(AreaCode::getAreaId, JSON::toJSONString)));
+        lock = redissonClient.getReadWriteLock("benchmarkLocked-DICT-LOCK");
+        versionedCache = new RedisDictionaryCache<>(redissonClient, "benchmarkVersioned",
+                AreaCode.class, AreaCode::getAreaId, new JsonDictionaryValueCodec<>(AreaCode.class));
+        versionedCache.reload(dataList, true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        redissonClient.shutdown();
+        redisServer.stop();
+    }
+
+    @Benchmark
+    public AreaCode lockedGet() throws InterruptedException {
+        String data = this.readWithLock(() -> lockedDataMap.get(randomKey()));
+        return data == null ? null : JSON.parseObject(data, AreaCode.class);
+    }
+
+    @Benchmark
+    public AreaCode versionedGet() {
+        return versionedCache.get(randomKey());
+    }
+
+    @Benchmark
+    public List<AreaCode> lockedGetInList() throws InterruptedException {
+        Set<Long> keys = randomKeySet();
+        Collection<String> dataList = this.readWithLock(() -> lockedDataMap.getAll(keys).values());
+        return dataList.stream().map(data -> JSON.parseObject(data, AreaCode.class)).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<AreaCode> versionedGetInList() {
+        return versionedCache.getInList(randomKeySet());
+    }
+
+    /**
+     * 原有RedisDictionaryCache的读取方式，每次读取前获取分布式读锁，读取后释放。
+     */
+    private <T> T readWithLock(Supplier<T> reader) throws InterruptedException {
+        if (!lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Failed to acquire dictionary read lock.");
+        }
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Long randomKey() {
+        return (long) ThreadLocalRandom.current().nextInt(DICT_SIZE);
+    }
+
+    private static Set<Long> randomKeySet() {
+        Set<Long> keys = new HashSet<>(PAGE_SIZE * 2);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            keys.add(randomKey());
+        }
+        return keys;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AreaCode {
+        private Long areaId;
+        private String areaName;
+        private Long parentId;
+    }
+}
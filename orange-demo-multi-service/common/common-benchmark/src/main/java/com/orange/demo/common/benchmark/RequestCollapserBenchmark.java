@@ -0,0 +1,92 @@
+package com.orange.demo.common.benchmark;
+
+import com.orange.demo.common.core.base.client.RequestCollapser;
+import com.orange.demo.common.core.object.ResponseResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 远程调用请求合并的基准测试，32个线程并发发起单键查询，远程批量查询以固定的2毫秒延迟模拟一次RPC。
+ * windowMillis为0时不进行合并，即每次单键查询都执行一次RPC。callerCount为调用者标识(令牌)的数量，
+ * 线程按照序号平均分配到各个调用者，由于只有同一调用者的请求才会被合并，调用者越多，每个批次包含的键越少。
+ * 每次迭代结束时输出RPC次数和平均批次大小。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(32)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestCollapserBenchmark {
+
+    private static final long RPC_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final int MAX_BATCH_SIZE = 100;
+
+    @Param({"0", "2"})
+    private long windowMillis;
+
+    @Param({"1", "8", "32"})
+    private int callerCount;
+
+    private final AtomicInteger threadIndex = new AtomicInteger();
+    private final AtomicLong rpcCount = new AtomicLong();
+    private final AtomicLong keyCount = new AtomicLong();
+    private final ThreadLocal<Object> callerToken = new ThreadLocal<>();
+    private RequestCollapser<Long, String> collapser;
+
+    @Setup
+    public void setup() {
+        collapser = new RequestCollapser<>(windowMillis, MAX_BATCH_SIZE,
+                this::loadBatch, null, null, callerToken::get);
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        rpcCount.set(0);
+        keyCount.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() {
+        long rpc = rpcCount.get();
+        System.out.printf("RPC calls: %d, average batch size: %.1f.%n",
+                rpc, rpc == 0 ? 0.0 : (double) keyCount.get() / rpc);
+    }
+
+    @State(Scope.Thread)
+    public static class CallerState {
+        @Setup
+        public void setup(RequestCollapserBenchmark benchmark) {
+            int index = benchmark.threadIndex.getAndIncrement();
+            benchmark.callerToken.set("token-" + index % benchmark.callerCount);
+        }
+    }
+
+    @Benchmark
+    public ResponseResult<String> get(CallerState callerState) {
+        return collapser.get(ThreadLocalRandom.current().nextLong(100000L));
+    }
+
+    private ResponseResult<Map<Long, String>> loadBatch(Set<Long> keySet) {
+        rpcCount.incrementAndGet();
+        keyCount.addAndGet(keySet.size());
+        LockSupport.parkNanos(RPC_NANOS);
+        Map<Long, String> dataMap = new HashMap<>(keySet.size() * 2);
+        for (Long key : keySet) {
+            dataMap.put(key, "value" + key);
+        }
+        return ResponseResult.success(dataMap);
+    }
+}
@@ -0,0 +1,119 @@
+package com.orange.demo.common.benchmark;
+
+import com.orange.demo.common.core.util.RedisKeyUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.redisson.Redisson;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.BatchResult;
+import org.redisson.api.RBatchReactive;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关会话和权限查询方式的基准测试。
+ * 每个基准线程模拟一个网关事件循环线程，每次操作处理该线程上同时到达的BURST_SIZE个请求，
+ * 分别比较原有过滤器在事件循环线程中同步执行Jedis的hgetAll和sismember，
+ * 以及Redisson响应式客户端将两个命令放入同一批量请求，所有请求并发等待应答的方式。
+ * 吞吐量模式中每个操作对应一批请求，采样模式可直接观察一批请求全部完成时间的p99。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionLookupBenchmark {
+
+    private static final int SESSION_COUNT = 1000;
+    private static final int BURST_SIZE = 32;
+    private static final int POOL_SIZE = 8;
+    private static final String URL = "/admin/app/student/list";
+
+    private BenchmarkRedisServer redisServer;
+    private JedisPool jedisPool;
+    private RedissonReactiveClient redissonReactiveClient;
+
+    @Setup
+    public void setup() {
+        redisServer = BenchmarkRedisServer.start();
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(POOL_SIZE);
+        poolConfig.setMaxIdle(POOL_SIZE);
+        jedisPool = new JedisPool(poolConfig, redisServer.getHost(), redisServer.getPort());
+        Config config = new Config();
+        config.useSingleServer()
+                .setAddress(redisServer.getAddress())
+                .setConnectionPoolSize(POOL_SIZE)
+                .setConnectionMinimumIdleSize(POOL_SIZE);
+        redissonReactiveClient = Redisson.createReactive(config);
+        try (Jedis jedis = jedisPool.getResource()) {
+            for (int i = 0; i < SESSION_COUNT; i++) {
+                String sessionId = String.valueOf(i);
+                Map<String, String> userMap = new HashMap<>(8);
+                userMap.put("userId", sessionId);
+                userMap.put("showName", "user" + sessionId);
+                userMap.put("isAdmin", "false");
+                userMap.put("roleIds", "1,2");
+                jedis.hmset(RedisKeyUtil.makeSessionIdKeyForRedis(sessionId), userMap);
+                jedis.sadd(makeSessionPermKey(sessionId), URL, "/admin/app/student/view");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        redissonReactiveClient.shutdown();
+        jedisPool.close();
+        redisServer.stop();
+    }
+
+    @Benchmark
+    public void blockingJedis(Blackhole blackhole) {
+        for (int i = 0; i < BURST_SIZE; i++) {
+            String sessionId = randomSessionId();
+            try (Jedis jedis = jedisPool.getResource()) {
+                blackhole.consume(jedis.hgetAll(RedisKeyUtil.makeSessionIdKeyForRedis(sessionId)));
+                blackhole.consume(jedis.sismember(makeSessionPermKey(sessionId), URL));
+            }
+        }
+    }
+
+    @Benchmark
+    public void reactiveRedissonBatch(Blackhole blackhole) {
+        Flux.range(0, BURST_SIZE)
+                .flatMap(i -> this.lookup(randomSessionId()))
+                .doOnNext(blackhole::consume)
+                .blockLast();
+    }
+
+    private Mono<BatchResult<?>> lookup(String sessionId) {
+        RBatchReactive batch = redissonReactiveClient.createBatch(BatchOptions.defaults());
+        batch.getMap(RedisKeyUtil.makeSessionIdKeyForRedis(sessionId), StringCodec.INSTANCE).readAllMap();
+        batch.getSet(makeSessionPermKey(sessionId), StringCodec.INSTANCE).contains(URL);
+        return batch.execute();
+    }
+
+    private static String randomSessionId() {
+        return String.valueOf(ThreadLocalRandom.current().nextInt(SESSION_COUNT));
+    }
+
+    private static String makeSessionPermKey(String sessionId) {
+        return "SESSION_PERM_ID__" + sessionId;
+    }
+}
@@ -0,0 +1,190 @@
+package com.orange.demo.common.benchmark;
+
+import com.orange.demo.common.core.base.dao.BaseDaoMapper;
+import com.orange.demo.common.core.object.MyWhereClause;
+import lombok.Data;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.*;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 过滤条件SQL在数据库端执行的基准测试，是WhereClauseSqlBenchmark的补充。
+ * 分别比较原有将条件值以常量形式拼接到SQL的方式，以及BaseDaoMapper中MyWhereClause绑定变量的方式，
+ * 每次请求的IN列表长度和条件值均随机生成，两者均通过MyBatis执行。
+ * 数据库见BenchmarkDataSource，只有连接MySQL时的结果才包含真实的解析开销，此时建议在jdbc.url中指定
+ * useServerPrepStmts=true和cachePrepStmts=true，结束时会输出测试期间服务端的预编译和执行次数，
+ * 二者之差即为预编译语句缓存的命中次数。由于驱动缺省只缓存不超过256个字符的SQL，IN列表较长时，
+ * 还需要同时指定prepStmtCacheSqlLimit=2048，否则长SQL每次执行时仍会重新预编译。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WhereClauseExecuteBenchmark {
+
+    private static final int STUDENT_COUNT = 10000;
+    private static final int GRADE_COUNT = 1000;
+    private static final int MAX_IN_LIST_SIZE = 50;
+    private static final String TABLE_NAME = "zz_benchmark_student";
+    private static final String SELECT_FIELDS = "COUNT(*) student_count";
+    private static final String[] STATUS_NAMES = {"Com_stmt_prepare", "Com_stmt_execute", "Com_stmt_close", "Com_select"};
+
+    private BenchmarkDataSource dataSource;
+    private SqlSession sqlSession;
+    private StudentMapper studentMapper;
+    private Map<String, Long> startStatus;
+
+    @Setup
+    public void setup() throws SQLException {
+        dataSource = BenchmarkDataSource.create("whereClause");
+        this.prepareData();
+        Configuration configuration = new Configuration(
+                new Environment("benchmark", new JdbcTransactionFactory(), dataSource.getDataSource()));
+        // 避免同一会话中的相同查询直接命中一级缓存。
+        configuration.setLocalCacheScope(LocalCacheScope.STATEMENT);
+        configuration.addMapper(StudentMapper.class);
+        sqlSession = new SqlSessionFactoryBuilder().build(configuration).openSession(true);
+        studentMapper = sqlSession.getMapper(StudentMapper.class);
+        startStatus = this.readServerStatus();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        Map<String, Long> endStatus = this.readServerStatus();
+        for (Map.Entry<String, Long> entry : endStatus.entrySet()) {
+            System.out.printf("%s: %d%n", entry.getKey(), entry.getValue() - startStatus.get(entry.getKey()));
+        }
+        sqlSession.close();
+        dataSource.close();
+    }
+
+    /**
+     * 原有的实现方式，条件值以常量的形式拼接到SQL中，几乎每次请求的SQL文本都不相同。
+     */
+    @Benchmark
+    public List<Map<String, Object>> literalSql() {
+        List<Long> gradeIds = randomIdList();
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(TABLE_NAME).append(".grade_id IN (");
+        for (int i = 0; i < gradeIds.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(gradeIds.get(i));
+        }
+        sb.append(") AND ").append(TABLE_NAME).append(".status = ").append(randomStatus());
+        return studentMapper.getGroupedListByLiteralCondition(TABLE_NAME, SELECT_FIELDS, sb.toString());
+    }
+
+    /**
+     * BaseDaoMapper的实现方式，条件值均为绑定变量，同一结构的请求生成相同的SQL文本。
+     */
+    @Benchmark
+    public List<Map<String, Object>> boundSql() {
+        MyWhereClause whereClause = new MyWhereClause()
+                .add(TABLE_NAME + ".grade_id IN ", randomIdList())
+                .add(TABLE_NAME + ".status = ", randomStatus());
+        return studentMapper.getGroupedListByCondition(TABLE_NAME, SELECT_FIELDS, whereClause, null);
+    }
+
+    private Map<String, Long> readServerStatus() throws SQLException {
+        Map<String, Long> statusMap = new LinkedHashMap<>(STATUS_NAMES.length);
+        if (dataSource.isEmbedded()) {
+            return statusMap;
+        }
+        try (Connection conn = dataSource.getDataSource().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SHOW GLOBAL STATUS LIKE 'Com\\_%'")) {
+            Map<String, Long> allStatusMap = new HashMap<>(256);
+            while (rs.next()) {
+                allStatusMap.put(rs.getString(1), rs.getLong(2));
+            }
+            for (String name : STATUS_NAMES) {
+                statusMap.put(name, allStatusMap.getOrDefault(name, 0L));
+            }
+        }
+        return statusMap;
+    }
+
+    private void prepareData() throws SQLException {
+        try (Connection conn = dataSource.getDataSource().getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP TABLE IF EXISTS " + TABLE_NAME);
+                stmt.execute("CREATE TABLE " + TABLE_NAME + " (student_id BIGINT PRIMARY KEY, "
+                        + "grade_id BIGINT NOT NULL, status INT NOT NULL)");
+                stmt.execute("CREATE INDEX idx_grade_id ON " + TABLE_NAME + " (grade_id)");
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO " + TABLE_NAME + " VALUES (?, ?, ?)")) {
+                for (long studentId = 1; studentId <= STUDENT_COUNT; studentId++) {
+                    stmt.setLong(1, studentId);
+                    stmt.setLong(2, studentId % GRADE_COUNT);
+                    stmt.setInt(3, (int) (studentId % 3));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }
+    }
+
+    private static List<Long> randomIdList() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int size = random.nextInt(MAX_IN_LIST_SIZE) + 1;
+        List<Long> idList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            idList.add((long) random.nextInt(GRADE_COUNT));
+        }
+        return idList;
+    }
+
+    private static int randomStatus() {
+        return ThreadLocalRandom.current().nextInt(3);
+    }
+
+    public interface StudentMapper extends BaseDaoMapper<Student> {
+
+        /**
+         * 原有BaseDaoMapper.getGroupedListByCondition的实现方式，过滤条件以常量的形式直接拼接。
+         *
+         * @param selectTable  表名称。
+         * @param selectFields 返回字段列表，逗号分隔。
+         * @param whereClause  SQL条件从句。
+         * @return 对象可选字段Map列表。
+         */
+        @Select("<script>"
+                + "SELECT ${selectFields} FROM ${selectTable}"
+                + "<where>"
+                + "    <if test=\"whereClause != null and whereClause != ''\">"
+                + "        AND ${whereClause}"
+                + "    </if>"
+                + "</where>"
+                + "</script>")
+        List<Map<String, Object>> getGroupedListByLiteralCondition(
+                @Param("selectTable") String selectTable,
+                @Param("selectFields") String selectFields,
+                @Param("whereClause") String whereClause);
+    }
+
+    @Data
+    @Table(name = TABLE_NAME)
+    public static class Student {
+        @Id
+        private Long studentId;
+        private Long gradeId;
+        private Integer status;
+    }
+}
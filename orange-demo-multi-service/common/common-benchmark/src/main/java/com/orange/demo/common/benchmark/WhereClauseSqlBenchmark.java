@@ -0,0 +1,127 @@
+package com.orange.demo.common.benchmark;
+
+import com.orange.demo.common.core.base.dao.CachedSqlLanguageDriver;
+import com.orange.demo.common.core.object.MyWhereClause;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.apache.ibatis.session.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 过滤条件SQL生成方式的基准测试。
+ * 分别比较原有将条件值以常量形式拼接到SQL的方式，以及MyWhereClause输出绑定变量的方式，均通过MyBatis动态SQL生成最终的BoundSql。
+ * 绑定变量的方式又分为BaseDaoMapper使用的CachedSqlLanguageDriver，以及每次都重新解析SQL文本的缺省XMLLanguageDriver。
+ * 每次请求的IN列表长度和条件值均随机生成，初始化时会输出1000次请求所产生的不同SQL文本数量，
+ * 该数量即为数据库和连接池预编译语句缓存的最少未命中次数。数据库端的执行耗时见WhereClauseExecuteBenchmark。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WhereClauseSqlBenchmark {
+
+    private static final int REQUEST_COUNT = 1000;
+    private static final int MAX_IN_LIST_SIZE = 50;
+    private static final String TABLE_NAME = "zz_student";
+
+    private SqlSource literalSqlSource;
+    private SqlSource boundSqlSource;
+    private SqlSource uncachedBoundSqlSource;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = new Configuration();
+        XMLLanguageDriver languageDriver = new XMLLanguageDriver();
+        literalSqlSource = languageDriver.createSqlSource(configuration, "<script>"
+                + "SELECT * FROM ${selectTable}"
+                + "<where>"
+                + "    <if test=\"whereClause != null and whereClause != ''\">"
+                + "        AND ${whereClause}"
+                + "    </if>"
+                + "</where>"
+                + "</script>", Map.class);
+        String boundScript = "<script>"
+                + "SELECT * FROM ${selectTable}"
+                + "<where>"
+                + "    <if test=\"whereClause != null and !whereClause.empty\">"
+                + "        AND " + MyWhereClause.MAPPER_SQL
+                + "    </if>"
+                + "</where>"
+                + "</script>";
+        boundSqlSource = new CachedSqlLanguageDriver().createSqlSource(configuration, boundScript, Map.class);
+        uncachedBoundSqlSource = languageDriver.createSqlSource(configuration, boundScript, Map.class);
+        Set<String> literalSqlSet = new HashSet<>();
+        Set<String> boundSqlSet = new HashSet<>();
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            literalSqlSet.add(this.literalSql().getSql());
+            boundSqlSet.add(this.boundSql().getSql());
+        }
+        BoundSql sample = this.boundSql();
+        System.out.printf("Distinct SQL texts in %d requests: literal=%d, bound=%d.%n",
+                REQUEST_COUNT, literalSqlSet.size(), boundSqlSet.size());
+        System.out.printf("Sample bound SQL: %s, parameter count: %d.%n",
+                sample.getSql().replaceAll("\\s+", " "), sample.getParameterMappings().size());
+    }
+
+    @Benchmark
+    public BoundSql literalSql() {
+        List<Long> gradeIds = randomIdList();
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(TABLE_NAME).append(".grade_id IN (");
+        for (int i = 0; i < gradeIds.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(gradeIds.get(i));
+        }
+        sb.append(") AND ").append(TABLE_NAME).append(".status = ").append(randomStatus());
+        return literalSqlSource.getBoundSql(makeParamMap(sb.toString()));
+    }
+
+    @Benchmark
+    public BoundSql boundSql() {
+        return boundSqlSource.getBoundSql(makeParamMap(randomWhereClause()));
+    }
+
+    @Benchmark
+    public BoundSql uncachedBoundSql() {
+        return uncachedBoundSqlSource.getBoundSql(makeParamMap(randomWhereClause()));
+    }
+
+    private static MyWhereClause randomWhereClause() {
+        return new MyWhereClause()
+                .add(TABLE_NAME + ".grade_id IN ", randomIdList())
+                .add(TABLE_NAME + ".status = ", randomStatus());
+    }
+
+    private static Map<String, Object> makeParamMap(Object whereClause) {
+        Map<String, Object> paramMap = new HashMap<>(4);
+        paramMap.put("selectTable", TABLE_NAME);
+        paramMap.put(MyWhereClause.PARAM_NAME, whereClause);
+        return paramMap;
+    }
+
+    private static List<Long> randomIdList() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int size = random.nextInt(MAX_IN_LIST_SIZE) + 1;
+        List<Long> idList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            idList.add(random.nextLong(1000000L));
+        }
+        return idList;
+    }
+
+    private static int randomStatus() {
+        return ThreadLocalRandom.current().nextInt(3);
+    }
+}
@@ -0,0 +1,4 @@
+package com.orange.demo.common.benchmark.generated;
+public class AggregationPlanBenchmark_jmhType extends AggregationPlanBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.orange.demo.common.benchmark.generated;
+public class CompactTransportBenchmark_jmhType extends CompactTransportBenchmark_jmhType_B3 {
+}
+
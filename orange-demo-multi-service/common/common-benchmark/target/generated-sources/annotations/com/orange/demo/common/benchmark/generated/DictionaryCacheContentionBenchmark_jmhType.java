@@ -0,0 +1,4 @@
+package com.orange.demo.common.benchmark.generated;
+public class DictionaryCacheContentionBenchmark_jmhType extends DictionaryCacheContentionBenchmark_jmhType_B3 {
+}
+
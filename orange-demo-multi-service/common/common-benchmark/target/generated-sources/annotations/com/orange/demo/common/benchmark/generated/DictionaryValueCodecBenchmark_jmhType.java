@@ -0,0 +1,4 @@
+package com.orange.demo.common.benchmark.generated;
+public class DictionaryValueCodecBenchmark_jmhType extends DictionaryValueCodecBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.orange.demo.common.benchmark.generated;
+public class ExportWriterBenchmark_jmhType extends ExportWriterBenchmark_jmhType_B3 {
+}
+
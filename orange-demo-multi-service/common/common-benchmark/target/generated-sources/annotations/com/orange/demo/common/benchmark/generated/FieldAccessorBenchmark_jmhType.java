@@ -0,0 +1,4 @@
+package com.orange.demo.common.benchmark.generated;
+public class FieldAccessorBenchmark_jmhType extends FieldAccessorBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.orange.demo.common.benchmark.generated;
+public class ImportPipelineBenchmark_jmhType extends ImportPipelineBenchmark_jmhType_B3 {
+}
+
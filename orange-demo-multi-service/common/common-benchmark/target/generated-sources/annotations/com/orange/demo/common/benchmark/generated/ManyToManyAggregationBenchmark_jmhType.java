@@ -0,0 +1,4 @@
+package com.orange.demo.common.benchmark.generated;
+public class ManyToManyAggregationBenchmark_jmhType extends ManyToManyAggregationBenchmark_jmhType_B3 {
+}
+
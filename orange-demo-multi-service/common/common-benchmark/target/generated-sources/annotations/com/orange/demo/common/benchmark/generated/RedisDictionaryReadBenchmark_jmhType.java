@@ -0,0 +1,4 @@
+package com.orange.demo.common.benchmark.generated;
+public class RedisDictionaryReadBenchmark_jmhType extends RedisDictionaryReadBenchmark_jmhType_B3 {
+}
+
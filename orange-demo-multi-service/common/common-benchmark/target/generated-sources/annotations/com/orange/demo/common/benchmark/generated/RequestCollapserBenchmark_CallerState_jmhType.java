@@ -0,0 +1,4 @@
+package com.orange.demo.common.benchmark.generated;
+public class RequestCollapserBenchmark_CallerState_jmhType extends RequestCollapserBenchmark_CallerState_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.orange.demo.common.benchmark.generated;
+public class RequestCollapserBenchmark_jmhType extends RequestCollapserBenchmark_jmhType_B3 {
+}
+
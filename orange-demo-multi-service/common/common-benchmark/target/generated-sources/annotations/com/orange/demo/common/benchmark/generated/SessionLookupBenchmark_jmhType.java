@@ -0,0 +1,4 @@
+package com.orange.demo.common.benchmark.generated;
+public class SessionLookupBenchmark_jmhType extends SessionLookupBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.orange.demo.common.benchmark.generated;
+public class WhereClauseExecuteBenchmark_jmhType extends WhereClauseExecuteBenchmark_jmhType_B3 {
+}
+
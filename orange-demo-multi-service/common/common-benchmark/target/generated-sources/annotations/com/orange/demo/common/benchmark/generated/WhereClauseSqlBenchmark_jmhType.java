@@ -0,0 +1,4 @@
+package com.orange.demo.common.benchmark.generated;
+public class WhereClauseSqlBenchmark_jmhType extends WhereClauseSqlBenchmark_jmhType_B3 {
+}
+
@@ -3,6 +3,7 @@ package com.orange.demo.common.core.advice;
 import com.orange.demo.common.core.exception.InvalidClassFieldException;
 import com.orange.demo.common.core.exception.InvalidDataFieldException;
 import com.orange.demo.common.core.exception.InvalidDataModelException;
+import com.orange.demo.common.core.exception.InvalidPageCursorException;
 import com.orange.demo.common.core.constant.ErrorCodeEnum;
 import com.orange.demo.common.core.exception.RedisCacheAccessException;
 import com.orange.demo.common.core.object.ResponseResult;
@@ -83,6 +84,19 @@ public class MyExceptionHandler {
 		return ResponseResult.error(ErrorCodeEnum.INVALID_CLASS_FIELD);
 	}
 
+	/**
+	 * 无效的游标分页参数异常。
+	 *
+	 * @param ex       异常对象。
+	 * @param request  http请求。
+	 * @return 应答对象。
+	 */
+	@ExceptionHandler(value = InvalidPageCursorException.class)
+	public ResponseResult<Void> invalidPageCursorExceptionHandle(Exception ex, HttpServletRequest request) {
+		log.error("InvalidPageCursorException exception from URL [" + request.getRequestURI() + "]", ex);
+		return ResponseResult.error(ErrorCodeEnum.INVALID_PAGE_CURSOR);
+	}
+
 	/**
 	 * 重复键异常处理方法。
 	 *
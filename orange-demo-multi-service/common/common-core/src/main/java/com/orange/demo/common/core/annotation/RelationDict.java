@@ -66,4 +66,14 @@ public @interface RelationDict {
      * @return 与该字典字段引用关系完全相同的一对一关联属性名称。
      */
     String equalOneToOneRelationField() default "";
+
+    /**
+     * 是否在本地复制远程字典数据，仅对远程字典关联，即指定了slaveClientClass时有效。
+     * 为true时，当前服务会维护该远程字典的本地只读副本，字典关联时直接从副本读取，不再发起远程调用。
+     * 副本通过字典所属服务发布的变化通知和定期的版本检查保持同步，首次加载成功之前仍然使用远程调用。
+     * NOTE: 字典所属服务必须是BaseDictService，且其DomainDto类型即为slaveModelClass。
+     *
+     * @return true表示复制远程字典数据，否则false。
+     */
+    boolean replicated() default false;
 }
@@ -52,6 +52,17 @@ public interface BaseClient<D, K> {
      */
     ResponseResult<Boolean> existId(K id);
 
+    /**
+     * 批量校验多个字段的数据值是否存在，返回其中不存在的数据值。可以使用RemoteRelationVerifier，将整批数据的关联验证合并为一次调用。
+     * 缺省实现是因为字典类型的远程调用客户端中，不需要实现该方法，因此尽早抛出异常，用户可自行修改。
+     *
+     * @param fieldValueMap key为待校验的字段名，value为待校验的数据值集合。
+     * @return 应答结果对象，仅包含存在不合法数据的字段，key为字段名，value为其中不存在的数据值集合。
+     */
+    default ResponseResult<Map<String, Set<Object>>> listNotExistValues(Map<String, Set<Object>> fieldValueMap) {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * 获取远程主对象中符合查询条件的数据列表。
      * 缺省实现是因为字典类型的远程调用客户端中，不需要实现该方法，因此尽早抛出异常，用户可自行修改。
@@ -0,0 +1,91 @@
+package com.orange.demo.common.core.base.client;
+
+import com.orange.demo.common.core.object.ResponseResult;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * BaseClient的请求合并对象，通过BaseClientBatcherFactory获取。
+ * 并发的getById和existId单主键调用，会被合并为一次listByIds调用，其中existId与不包含字典的getById共享同一个批次。
+ * 适用于verifyRemoteRelatedData等逐条验证远程关联数据的场景，如：
+ * clientBatcherFactory.get("schoolInfoClient", schoolInfoClient, SchoolInfoDto::getSchoolId).existId(schoolId)
+ *
+ * @param <D> 主DomainDto域数据对象类型。
+ * @param <K> 主键类型。
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class BaseClientBatcher<D, K> {
+
+    private final RequestCollapser<K, D> withoutDictCollapser;
+    private final RequestCollapser<K, D> withDictCollapser;
+
+    /**
+     * 构造函数。
+     *
+     * @param withoutDictCollapser 不包含字典关联的listByIds请求合并对象。
+     * @param withDictCollapser    包含字典关联的listByIds请求合并对象。
+     */
+    BaseClientBatcher(RequestCollapser<K, D> withoutDictCollapser, RequestCollapser<K, D> withDictCollapser) {
+        this.withoutDictCollapser = withoutDictCollapser;
+        this.withDictCollapser = withDictCollapser;
+    }
+
+    /**
+     * 创建基于listByIds的批量查询函数。
+     *
+     * @param client   远程调用接口。
+     * @param withDict 是否包含字典关联。
+     * @param idGetter 读取域数据对象主键值的函数，用于将listByIds的结果分发给每个调用者。
+     * @param <D>      主DomainDto域数据对象类型。
+     * @param <K>      主键类型。
+     * @return 批量查询函数。
+     */
+    static <D, K> Function<Set<K>, ResponseResult<Map<K, D>>> makeBatchLoader(
+            BaseClient<D, K> client, boolean withDict, Function<D, K> idGetter) {
+        return idSet -> toDataMap(client.listByIds(idSet, withDict), idGetter);
+    }
+
+    /**
+     * 基于主键Id，获取远程对象。
+     *
+     * @param id       主键Id。
+     * @param withDict 是否包含字典关联。
+     * @return 应答结果对象，包含主对象数据，不存在时数据为null。
+     */
+    public ResponseResult<D> getById(K id, Boolean withDict) {
+        return Boolean.TRUE.equals(withDict) ? withDictCollapser.get(id) : withoutDictCollapser.get(id);
+    }
+
+    /**
+     * 给定主键Id是否存在。
+     *
+     * @param id 主键Id。
+     * @return 应答结果对象，包含true表示存在，否则false。
+     */
+    public ResponseResult<Boolean> existId(K id) {
+        ResponseResult<D> result = withoutDictCollapser.get(id);
+        if (!result.isSuccess()) {
+            return ResponseResult.errorFrom(result);
+        }
+        return ResponseResult.success(result.getData() != null);
+    }
+
+    private static <D, K> ResponseResult<Map<K, D>> toDataMap(
+            ResponseResult<List<D>> result, Function<D, K> idGetter) {
+        if (!result.isSuccess()) {
+            return ResponseResult.errorFrom(result);
+        }
+        Map<K, D> dataMap = new HashMap<>(16);
+        if (result.getData() != null) {
+            for (D data : result.getData()) {
+                dataMap.put(idGetter.apply(data), data);
+            }
+        }
+        return ResponseResult.success(dataMap);
+    }
+}
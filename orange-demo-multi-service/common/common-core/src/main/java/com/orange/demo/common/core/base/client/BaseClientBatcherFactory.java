@@ -0,0 +1,109 @@
+package com.orange.demo.common.core.base.client;
+
+import com.orange.demo.common.core.object.ResponseResult;
+import com.orange.demo.common.core.object.TokenData;
+import com.orange.demo.common.core.util.ContextUtil;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 远程调用请求合并对象的工厂类。
+ * 合并的时间窗口和批次上限，可以通过common-core.client-batcher.clients.[客户端名称].window-millis
+ * 和max-batch-size为每个客户端单独配置，没有单独配置时使用common-core.client-batcher下的全局配置。
+ * 缺省的时间窗口为0，即不进行合并，每次调用都直接执行单键查询。合并需要为每次调用增加最多window-millis的等待，
+ * 因此只应为并发调用密集的客户端显式配置，如common-core.client-batcher.clients.gradeClient.window-millis=2。
+ * 如果存在MeterRegistry，批次大小和增加的延迟分别记录到remote.collapser.batch.size和remote.collapser.added.latency指标中。
+ * NOTE: 由于批量查询通过Feign透传执行线程的令牌请求头，因此只有令牌相同的调用才会被合并，不同用户之间互不合并。
+ * 也就是说，只有同一令牌的多个请求同时调用同一客户端时才会产生合并，不同用户的大量并发请求无法从中受益。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Component
+public class BaseClientBatcherFactory {
+
+    private static final String CONFIG_PREFIX = "common-core.client-batcher.";
+    private static final long DEFAULT_WINDOW_MILLIS = 0L;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    @Autowired
+    private Environment environment;
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private final Map<String, BaseClientBatcher<?, ?>> batcherMap = new ConcurrentHashMap<>();
+
+    /**
+     * 获取远程调用接口的请求合并对象，同名的请求合并对象只会创建一次。
+     *
+     * @param clientName 客户端名称，用于读取配置和区分统计指标，如schoolInfoClient。
+     * @param client     远程调用接口。
+     * @param idGetter   读取域数据对象主键值的函数。
+     * @param <D>        主DomainDto域数据对象类型。
+     * @param <K>        主键类型。
+     * @return 请求合并对象。
+     */
+    @SuppressWarnings("unchecked")
+    public <D, K> BaseClientBatcher<D, K> get(String clientName, BaseClient<D, K> client, Function<D, K> idGetter) {
+        return (BaseClientBatcher<D, K>) batcherMap.computeIfAbsent(clientName, name -> new BaseClientBatcher<>(
+                this.newCollapser(name, "listByIds", BaseClientBatcher.makeBatchLoader(client, false, idGetter)),
+                this.newCollapser(name, "listByIdsWithDict", BaseClientBatcher.makeBatchLoader(client, true, idGetter))));
+    }
+
+    /**
+     * 创建请求合并对象。
+     *
+     * @param clientName  客户端名称，用于读取配置和区分统计指标。
+     * @param operation   操作名称，用于区分统计指标。
+     * @param batchLoader 批量查询函数。
+     * @param <K>         查询键类型。
+     * @param <V>         查询结果类型。
+     * @return 请求合并对象。
+     */
+    public <K, V> RequestCollapser<K, V> newCollapser(
+            String clientName, String operation, Function<Set<K>, ResponseResult<Map<K, V>>> batchLoader) {
+        long windowMillis = this.getProperty(clientName, "window-millis", Long.class, DEFAULT_WINDOW_MILLIS);
+        int maxBatchSize = this.getProperty(clientName, "max-batch-size", Integer.class, DEFAULT_MAX_BATCH_SIZE);
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        DistributionSummary batchSizeSummary = null;
+        Timer addedLatencyTimer = null;
+        if (meterRegistry != null) {
+            batchSizeSummary = DistributionSummary.builder("remote.collapser.batch.size")
+                    .tag("client", clientName).tag("operation", operation).register(meterRegistry);
+            addedLatencyTimer = Timer.builder("remote.collapser.added.latency")
+                    .tag("client", clientName).tag("operation", operation).register(meterRegistry);
+        }
+        return new RequestCollapser<>(windowMillis, maxBatchSize,
+                batchLoader, batchSizeSummary, addedLatencyTimer, BaseClientBatcherFactory::getCallerToken);
+    }
+
+    /**
+     * 获取当前请求中，将被FeignConfig透传给远程服务的令牌请求头，作为请求合并的调用者标识。
+     *
+     * @return 令牌请求头，没有请求上下文或令牌时返回null。
+     */
+    private static Object getCallerToken() {
+        if (!ContextUtil.hasRequestContext()) {
+            return null;
+        }
+        return ContextUtil.getHttpRequest().getHeader(TokenData.REQUEST_ATTRIBUTE_NAME);
+    }
+
+    private <T> T getProperty(String clientName, String key, Class<T> type, T defaultValue) {
+        T value = environment.getProperty(CONFIG_PREFIX + "clients." + clientName + "." + key, type);
+        if (value == null) {
+            value = environment.getProperty(CONFIG_PREFIX + key, type, defaultValue);
+        }
+        return value;
+    }
+}
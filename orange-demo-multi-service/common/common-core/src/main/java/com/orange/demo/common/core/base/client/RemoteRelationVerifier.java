@@ -0,0 +1,80 @@
+package com.orange.demo.common.core.base.client;
+
+import com.orange.demo.common.core.object.CallResult;
+import com.orange.demo.common.core.object.ResponseResult;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.MapUtils;
+
+import java.util.*;
+
+/**
+ * 远程关联数据的批量验证对象。先通过add方法收集一批数据中全部需要验证的关联字段值，再调用verify方法统一验证，
+ * 属于同一远程调用客户端的全部字段，只会通过一次listNotExistValues调用完成验证，以替代逐条数据、逐个字段的existId调用。
+ * 需要验证的字段值通常由BaseService.collectToVerify方法收集，如：
+ * <pre>
+ * new RemoteRelationVerifier()
+ *         .add(schoolInfoClient, "schoolId", collectToVerify(list, originalList, StudentActionTrans::getSchoolId), "学生校区")
+ *         .add(gradeClient, "gradeId", collectToVerify(list, originalList, StudentActionTrans::getGradeId), "所属年级")
+ *         .verify();
+ * </pre>
+ * 该对象不是线程安全的，每次验证时创建新的对象即可。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class RemoteRelationVerifier {
+
+    private static final String ERROR_MESSAGE_FORMAT = "数据验证失败，关联的%s%s并不存在，请刷新后重试！";
+
+    private final Map<BaseClient<?, ?>, ClientVerifyItem> clientItemMap = new LinkedHashMap<>();
+
+    /**
+     * 添加需要验证的远程关联字段值。同一客户端的同一字段可以多次添加，数据值会被合并。
+     *
+     * @param client     远程调用客户端。
+     * @param fieldName  远程对象中被关联的字段名，通常为主键字段，如schoolId。
+     * @param values     需要验证的字段值集合，为空时忽略。
+     * @param fieldLabel 字段的中文显示名称，用于验证失败时的错误信息。
+     * @return 当前对象。
+     */
+    public RemoteRelationVerifier add(BaseClient<?, ?> client, String fieldName, Collection<?> values, String fieldLabel) {
+        if (CollectionUtils.isEmpty(values)) {
+            return this;
+        }
+        ClientVerifyItem item = clientItemMap.computeIfAbsent(client, c -> new ClientVerifyItem());
+        item.fieldValueMap.computeIfAbsent(fieldName, f -> new LinkedHashSet<>()).addAll(values);
+        item.fieldLabelMap.put(fieldName, fieldLabel);
+        return this;
+    }
+
+    /**
+     * 对每个远程调用客户端发起一次批量验证调用。
+     *
+     * @return 全部数据都存在时返回成功，否则返回第一个验证失败字段的错误信息，其中包含不存在的数据值。
+     */
+    public CallResult verify() {
+        for (Map.Entry<BaseClient<?, ?>, ClientVerifyItem> entry : clientItemMap.entrySet()) {
+            ClientVerifyItem item = entry.getValue();
+            ResponseResult<Map<String, Set<Object>>> result =
+                    entry.getKey().listNotExistValues(item.fieldValueMap);
+            if (!result.isSuccess()) {
+                return CallResult.error(result.getErrorMessage());
+            }
+            if (MapUtils.isEmpty(result.getData())) {
+                continue;
+            }
+            for (Map.Entry<String, Set<Object>> fieldEntry : result.getData().entrySet()) {
+                if (CollectionUtils.isNotEmpty(fieldEntry.getValue())) {
+                    String fieldLabel = item.fieldLabelMap.getOrDefault(fieldEntry.getKey(), fieldEntry.getKey());
+                    return CallResult.error(String.format(ERROR_MESSAGE_FORMAT, fieldLabel, fieldEntry.getValue()));
+                }
+            }
+        }
+        return CallResult.ok();
+    }
+
+    private static class ClientVerifyItem {
+        private final Map<String, Set<Object>> fieldValueMap = new LinkedHashMap<>();
+        private final Map<String, String> fieldLabelMap = new HashMap<>();
+    }
+}
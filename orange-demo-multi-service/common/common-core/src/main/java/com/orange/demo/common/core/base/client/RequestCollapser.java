@@ -0,0 +1,162 @@
+package com.orange.demo.common.core.base.client;
+
+import com.orange.demo.common.core.object.ResponseResult;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 远程调用的请求合并对象，通常由BaseClientBatcherFactory创建。
+ * 多个线程并发发起的单键查询，会在windowMillis时间窗口内，或键数量达到maxBatchSize时，被合并为一次批量查询，
+ * 批量查询的结果再按照键分发给每个调用者。时间窗口由第一个加入批次的线程等待，该线程随后在自身的线程中执行批量查询，
+ * 因此批量查询使用该线程的请求上下文，如Feign透传的令牌请求头。为了避免以其他用户的身份执行查询，
+ * 只有callerKeySupplier返回相同调用者标识的请求才会被合并到同一批次，每个调用者标识各自维护当前批次。
+ * NOTE: 即便没有其他调用者加入，批次的第一个调用者也要等待完整的时间窗口，因此windowMillis大于0时，每次调用都会增加相应的延迟。
+ * 批次大小和每个调用者因等待合并而增加的延迟，会被记录到可选的Micrometer指标中。
+ *
+ * @param <K> 查询键类型。
+ * @param <V> 查询结果类型。
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class RequestCollapser<K, V> {
+
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final Function<Set<K>, ResponseResult<Map<K, V>>> batchLoader;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer addedLatencyTimer;
+    private final Supplier<Object> callerKeySupplier;
+    private final Object lock = new Object();
+    /**
+     * 每个调用者标识当前正在收集键的批次。
+     */
+    private final Map<Object, Batch<K, V>> currentBatchMap = new HashMap<>();
+
+    /**
+     * 构造函数。
+     *
+     * @param windowMillis      合并的时间窗口(毫秒)，小于等于0时不进行合并。
+     * @param maxBatchSize      每个批次最多包含的键数量，小于等于1时不进行合并。
+     * @param batchLoader       批量查询函数，应答数据为以键为key的查询结果，不存在的键可以不包含在结果中。
+     * @param batchSizeSummary  批次大小的统计指标，可以为null。
+     * @param addedLatencyTimer 调用者因等待合并而增加的延迟的统计指标，可以为null。
+     * @param callerKeySupplier 在调用线程中获取调用者标识的函数，如当前请求的令牌，返回值需实现equals和hashCode，
+     *                          可以返回null，表示没有用户上下文的调用者。
+     */
+    public RequestCollapser(
+            long windowMillis,
+            int maxBatchSize,
+            Function<Set<K>, ResponseResult<Map<K, V>>> batchLoader,
+            DistributionSummary batchSizeSummary,
+            Timer addedLatencyTimer,
+            Supplier<Object> callerKeySupplier) {
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.batchLoader = batchLoader;
+        this.batchSizeSummary = batchSizeSummary;
+        this.addedLatencyTimer = addedLatencyTimer;
+        this.callerKeySupplier = callerKeySupplier;
+    }
+
+    /**
+     * 查询单个键，并阻塞等待所在批次的查询结果。
+     *
+     * @param key 查询键。
+     * @return 应答结果对象。批量查询成功时包含该键的查询结果，键不存在时数据为null。批量查询失败时返回其错误信息。
+     */
+    public ResponseResult<V> get(K key) {
+        if (windowMillis <= 0 || maxBatchSize <= 1) {
+            return this.extract(this.load(Collections.singleton(key)), key);
+        }
+        long enqueueNanos = System.nanoTime();
+        Object callerKey = callerKeySupplier.get();
+        Batch<K, V> batch;
+        boolean leader = false;
+        boolean full = false;
+        synchronized (lock) {
+            batch = currentBatchMap.get(callerKey);
+            if (batch == null) {
+                batch = new Batch<>();
+                currentBatchMap.put(callerKey, batch);
+                leader = true;
+            }
+            batch.keySet.add(key);
+            if (batch.keySet.size() >= maxBatchSize) {
+                currentBatchMap.remove(callerKey);
+                full = true;
+            }
+        }
+        if (full) {
+            this.execute(batch);
+        } else if (leader) {
+            this.awaitWindow();
+            boolean expired = false;
+            synchronized (lock) {
+                // 批次可能已经因为达到数量上限而被其他线程执行。
+                expired = currentBatchMap.remove(callerKey, batch);
+            }
+            if (expired) {
+                this.execute(batch);
+            }
+        }
+        ResponseResult<Map<K, V>> result;
+        try {
+            result = batch.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        if (addedLatencyTimer != null) {
+            addedLatencyTimer.record(Math.max(0L, batch.dispatchNanos - enqueueNanos), TimeUnit.NANOSECONDS);
+        }
+        return this.extract(result, key);
+    }
+
+    private void awaitWindow() {
+        try {
+            Thread.sleep(windowMillis);
+        } catch (InterruptedException e) {
+            // 被中断时提前执行当前批次，同时保留中断状态。
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void execute(Batch<K, V> batch) {
+        batch.dispatchNanos = System.nanoTime();
+        try {
+            batch.future.complete(this.load(batch.keySet));
+        } catch (Throwable e) {
+            batch.future.completeExceptionally(e);
+        }
+    }
+
+    private ResponseResult<Map<K, V>> load(Set<K> keySet) {
+        if (batchSizeSummary != null) {
+            batchSizeSummary.record(keySet.size());
+        }
+        return batchLoader.apply(keySet);
+    }
+
+    private ResponseResult<V> extract(ResponseResult<Map<K, V>> result, K key) {
+        if (!result.isSuccess()) {
+            return ResponseResult.errorFrom(result);
+        }
+        Map<K, V> dataMap = result.getData();
+        return ResponseResult.success(dataMap == null ? null : dataMap.get(key));
+    }
+
+    private static class Batch<K, V> {
+        private final Set<K> keySet = new LinkedHashSet<>();
+        private final CompletableFuture<ResponseResult<Map<K, V>>> future = new CompletableFuture<>();
+        private volatile long dispatchNanos;
+    }
+}
@@ -20,7 +20,6 @@ import org.apache.commons.lang3.StringUtils;
 import javax.persistence.Id;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -147,6 +146,26 @@ public abstract class BaseController<M, D, K> {
                 !MyCommonUtil.existBlankArgument(id) && service().getById(id) != null);
     }
 
+    /**
+     * 批量校验多个字段的数据值是否存在，返回其中不存在的数据值。仅限于微服务间远程接口调用。
+     *
+     * @param fieldValueMap key为待校验的字段名，value为待校验的数据值集合。
+     * @return 应答结果对象，仅包含存在不合法数据的字段，key为字段名，value为其中不存在的数据值集合。
+     */
+    public ResponseResult<Map<String, Set<Object>>> baseListNotExistValues(Map<String, Set<Object>> fieldValueMap) {
+        if (MapUtils.isEmpty(fieldValueMap)) {
+            return ResponseResult.error(ErrorCodeEnum.ARGUMENT_NULL_EXIST);
+        }
+        for (String fieldName : fieldValueMap.keySet()) {
+            if (MyModelUtil.mapToColumnName(fieldName, modelClass) == null) {
+                String errorMessage = "数据验证失败，实体对象 ["
+                        + modelClass.getSimpleName() + "] 中不存在字段 [" + fieldName + "]!";
+                return ResponseResult.error(ErrorCodeEnum.INVALID_DATA_FIELD, errorMessage);
+            }
+        }
+        return ResponseResult.success(service().getNotExistValueMap(fieldValueMap));
+    }
+
     /**
      * 自定义过滤条件、显示字段和排序字段的单表查询。主要用于微服务间远程过程调用。
      * NOTE: 和baseListMapBy方法的差别只是返回的数据形式不同，该接口以对象列表的形式返回数据。
@@ -167,11 +186,12 @@ public abstract class BaseController<M, D, K> {
                 }
             }
         }
-        String whereClause = MyWhereCriteria.makeCriteriaString(queryParam.getCriteriaList(), modelClass);
+        MyWhereClause whereClause = MyWhereCriteria.makeWhereClause(queryParam.getCriteriaList(), modelClass);
         String orderBy = MyOrderParam.buildOrderBy(queryParam.getOrderParam(), modelClass);
         MyPageParam pageParam = queryParam.getPageParam();
         if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
+            // 这里只返回数据列表，因此无需计算数据总数量。
+            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize(), false);
         }
         List<M> resultList = service().getListByCondition(queryParam.getSelectFieldList(), whereClause, orderBy);
         List<D> resultDtoList = null;
@@ -231,7 +251,7 @@ public abstract class BaseController<M, D, K> {
      * @return 应答结果对象，包含符合查询过滤条件的记录数量。
      */
     public ResponseResult<Integer> baseCountBy(MyQueryParam queryParam) {
-        String whereClause = MyWhereCriteria.makeCriteriaString(queryParam.getCriteriaList(), modelClass);
+        MyWhereClause whereClause = MyWhereCriteria.makeWhereClause(queryParam.getCriteriaList(), modelClass);
         Integer count = service().getCountByCondition(whereClause);
         return ResponseResult.success(count);
     }
@@ -248,51 +268,26 @@ public abstract class BaseController<M, D, K> {
         if (!verifyInfo.isSuccess) {
             return ResponseResult.error(ErrorCodeEnum.DATA_VALIDATAED_FAILED, verifyInfo.errorMsg);
         }
-        // 构建SelectList
-        StringBuilder selectList = new StringBuilder(64);
+        String aggregationSelect = AggregationType.getAggregationFunction(verifyInfo.aggregationType)
+                + "(" + verifyInfo.aggregationColumn + ")";
+        MyWhereClause whereClause = MyWhereCriteria.makeWhereClause(param.getWhereCriteriaList(), modelClass);
+        List<Map<String, Object>> resultMapList = null;
         // 一对多场景相对比较简单，直接基于从表的关联键进行group，同时对聚合字段进行聚合计算即可。
         // SQL返回的数据，可直接返回给调用端服务。
         if (param.getAggregationKind() == AggregationKind.ONE_TO_MANY) {
-            selectList.append(verifyInfo.groupColumn).append(" ").append(MyAggregationParam.KEY_NAME).append(", ");
-        }
-        selectList.append(AggregationType.getAggregationFunction(verifyInfo.aggregationType))
-                .append("(")
-                .append(verifyInfo.aggregationColumn)
-                .append(") ")
-                .append(MyAggregationParam.VALUE_NAME);
-        String whereClause = MyWhereCriteria.makeCriteriaString(param.getWhereCriteriaList(), modelClass);
-        List<Map<String, Object>> resultMapList = null;
-        // 一对多场景直接返回分组查询计算结果即可。
-        if (param.getAggregationKind() == AggregationKind.ONE_TO_MANY) {
-            resultMapList = service().getGroupedListByCondition(
-                    selectList.toString(), whereClause, verifyInfo.groupColumn);
+            String selectList = verifyInfo.groupColumn + " " + MyAggregationParam.KEY_NAME + ", "
+                    + aggregationSelect + " " + MyAggregationParam.VALUE_NAME;
+            resultMapList = service().getGroupedListByCondition(selectList, whereClause, verifyInfo.groupColumn);
         } else if (param.getAggregationKind() == AggregationKind.MANY_TO_MANY) {
-            boolean stringKey = true;
-            if (param.getGroupedInFilterValues().entrySet().iterator().next().getKey() instanceof Number) {
-                stringKey = false;
-            }
-            resultMapList = new LinkedList<>();
-            // 迭代分组map，通过多次查询的方式进行数据分组。通过该方式可以避免多次rpc调用，以提升性能。
-            for (Map.Entry<Object, Set<Object>> entry : param.getGroupedInFilterValues().entrySet()) {
-                StringBuilder groupedSelectList = new StringBuilder(64);
-                if (stringKey) {
-                    groupedSelectList.append("'").append(entry.getKey()).append("' ");
-                } else {
-                    groupedSelectList.append(entry.getKey()).append(" ");
-                }
-                groupedSelectList.append(MyAggregationParam.KEY_NAME).append(", ").append(selectList);
-                MyWhereCriteria criteria = new MyWhereCriteria();
-                criteria.setModelClazz(modelClass);
-                criteria.setCriteria(param.getInFilterField(), MyWhereCriteria.OPERATOR_IN, entry.getValue());
-                StringBuilder groupedClause = new StringBuilder(128);
-                groupedClause.append(criteria.makeCriteriaString());
-                if (StringUtils.isNotBlank(whereClause)) {
-                    groupedClause.append(" AND ").append(whereClause);
-                }
-                List<Map<String, Object>> subResultMapList = service().getGroupedListByCondition(
-                        groupedSelectList.toString(), groupedClause.toString(), null);
-                resultMapList.addAll(subResultMapList);
+            // 全部分组展开为(分组键, 关联值)的内联表后关联计算，一次SQL即可返回所有分组的聚合结果。
+            // 分组键和关联值的类型均取自字段的声明类型，分组键的字段位于调用端，因此由调用端在参数中指定。
+            // 尚未升级的调用端不会设置numericGroupedKey，此时与之前的处理方式一致，根据第一个分组键的类型推断。
+            Boolean numericGroupedKey = param.getNumericGroupedKey();
+            if (numericGroupedKey == null) {
+                numericGroupedKey = param.getGroupedInFilterValues().keySet().iterator().next() instanceof Number;
             }
+            resultMapList = service().getGroupedListByInFilterValues(aggregationSelect, verifyInfo.inFilterColumn,
+                    param.getGroupedInFilterValues(), numericGroupedKey, verifyInfo.numericInFilter, whereClause);
         }
         return ResponseResult.success(resultMapList);
     }
@@ -378,8 +373,9 @@ public abstract class BaseController<M, D, K> {
                 return verifyInfo;
             }
         } else {
-            String inFilterColumn = MyModelUtil.mapToColumnName(param.getInFilterField(), modelClass);
-            if (StringUtils.isBlank(inFilterColumn)) {
+            Tuple2<String, Integer> inFilterColumnInfo =
+                    MyModelUtil.mapToColumnInfo(param.getInFilterField(), modelClass);
+            if (inFilterColumnInfo == null) {
                 verifyInfo.errorMsg = "参数验证失败，多对多 [MyAggregationParam.InfilterField] 过滤字段为非法值！";
                 return verifyInfo;
             }
@@ -387,6 +383,9 @@ public abstract class BaseController<M, D, K> {
                 verifyInfo.errorMsg = "参数验证失败，多对多 [MyAggregationParam.GroupedInFilterValues] 数据集合不能为空！";
                 return verifyInfo;
             }
+            // 内联表中也包含关联值字段，因此这里需要带有表名前缀。
+            verifyInfo.inFilterColumn = MyModelUtil.mapToTableName(modelClass) + "." + inFilterColumnInfo.getFirst();
+            verifyInfo.numericInFilter = MyModelUtil.NUMERIC_FIELD_TYPE.equals(inFilterColumnInfo.getSecond());
         }
         verifyInfo.isSuccess = true;
         verifyInfo.aggregationType = aggregationType;
@@ -400,5 +399,7 @@ public abstract class BaseController<M, D, K> {
         private Integer aggregationType;
         private String aggregationColumn;
         private String groupColumn;
+        private String inFilterColumn;
+        private boolean numericInFilter;
     }
 }
@@ -1,7 +1,14 @@
 package com.orange.demo.common.core.base.dao;
 
+import com.orange.demo.common.core.object.MyAggregationParam;
+import com.orange.demo.common.core.object.MyWhereClause;
+import com.orange.demo.common.core.object.Tuple2;
+import org.apache.ibatis.annotations.Lang;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 import tk.mybatis.mapper.additional.insert.InsertListMapper;
 import tk.mybatis.mapper.annotation.RegisterMapper;
 import tk.mybatis.mapper.common.Mapper;
@@ -20,19 +27,21 @@ import java.util.Map;
 public interface BaseDaoMapper<M> extends Mapper<M>, InsertListMapper<M> {
 
     /**
-     * 根据指定的表名、显示字段列表、过滤条件字符串和分组字段，返回聚合计算后的查询结果。
+     * 根据指定的表名、显示字段列表、过滤条件和分组字段，返回聚合计算后的查询结果。
+     * 过滤条件中的条件值均以绑定变量的形式传递。
      *
      * @param selectTable    表名称。
      * @param selectFields   返回字段列表，逗号分隔。
-     * @param whereClause    SQL常量形式的条件从句。
+     * @param whereClause    编译后的条件从句。
      * @param groupBy        分组字段列表，逗号分隔。
      * @return 对象可选字段Map列表。
      */
+    @Lang(CachedSqlLanguageDriver.class)
     @Select("<script>"
             + "SELECT ${selectFields} FROM ${selectTable}"
             + "<where>"
-            + "    <if test=\"whereClause != null and whereClause != ''\">"
-            + "        AND ${whereClause}"
+            + "    <if test=\"whereClause != null and !whereClause.empty\">"
+            + "        AND " + MyWhereClause.MAPPER_SQL
             + "    </if>"
             + "</where>"
             + "<if test=\"groupBy != null and groupBy != ''\">"
@@ -42,23 +51,69 @@ public interface BaseDaoMapper<M> extends Mapper<M>, InsertListMapper<M> {
     List<Map<String, Object>> getGroupedListByCondition(
             @Param("selectTable") String selectTable,
             @Param("selectFields") String selectFields,
-            @Param("whereClause") String whereClause,
+            @Param(MyWhereClause.PARAM_NAME) MyWhereClause whereClause,
             @Param("groupBy") String groupBy);
 
     /**
-     * 根据指定的表名、显示字段列表、过滤条件字符串和排序字符串，返回查询结果。
+     * 将(分组键, 关联值)列表展开为内联表，与指定表关联后按分组键进行聚合计算，所有分组只需执行一条SQL。
+     * 这里使用LEFT JOIN，并将过滤条件放在关联条件中，因此没有任何匹配数据的分组键同样会返回一条记录，
+     * 与逐个分组执行聚合查询的结果保持一致，如COUNT返回0，SUM返回NULL。
+     *
+     * @param selectTable       表名称。
+     * @param aggregationSelect 聚合计算表达式，如 COUNT(table_name.column_name)。
+     * @param inFilterColumn    与关联值进行关联的字段，包含表名前缀。
+     * @param keyIdList         (分组键, 关联值)列表，同一分组键的多个关联值对应多个元素。
+     * @param numericKey        分组键是否为数值类型。
+     * @param numericId         关联值是否为数值类型。
+     * @param whereClause       编译后的条件从句。
+     * @return 每个分组键对应一条记录，键名分别为MyAggregationParam.KEY_NAME和MyAggregationParam.VALUE_NAME。
+     */
+    @Lang(CachedSqlLanguageDriver.class)
+    @Select("<script>"
+            + "SELECT k." + MyAggregationParam.KEY_NAME + ", ${aggregationSelect} " + MyAggregationParam.VALUE_NAME
+            + " FROM ("
+            + "<foreach collection=\"keyIdList\" item=\"item\" separator=\" UNION ALL \">"
+            + "    SELECT"
+            + "    <choose>"
+            + "        <when test=\"numericKey\">CAST(#{item.first} AS SIGNED)</when>"
+            + "        <otherwise>#{item.first}</otherwise>"
+            + "    </choose> " + MyAggregationParam.KEY_NAME + ","
+            + "    <choose>"
+            + "        <when test=\"numericId\">CAST(#{item.second} AS SIGNED)</when>"
+            + "        <otherwise>#{item.second}</otherwise>"
+            + "    </choose> groupedId"
+            + "</foreach>"
+            + ") k LEFT JOIN ${selectTable} ON ${inFilterColumn} = k.groupedId"
+            + "<if test=\"whereClause != null and !whereClause.empty\">"
+            + "    AND " + MyWhereClause.MAPPER_SQL
+            + "</if>"
+            + " GROUP BY k." + MyAggregationParam.KEY_NAME
+            + "</script>")
+    List<Map<String, Object>> getGroupedListByKeyIdList(
+            @Param("selectTable") String selectTable,
+            @Param("aggregationSelect") String aggregationSelect,
+            @Param("inFilterColumn") String inFilterColumn,
+            @Param("keyIdList") List<Tuple2<Object, Object>> keyIdList,
+            @Param("numericKey") boolean numericKey,
+            @Param("numericId") boolean numericId,
+            @Param(MyWhereClause.PARAM_NAME) MyWhereClause whereClause);
+
+    /**
+     * 根据指定的表名、显示字段列表、过滤条件和排序字符串，返回查询结果。
+     * 过滤条件中的条件值均以绑定变量的形式传递。
      *
      * @param selectTable  表名称。
      * @param selectFields 选择的字段列表。
-     * @param whereClause  过滤字符串。
+     * @param whereClause  编译后的条件从句。
      * @param orderBy      排序字符串。
      * @return 查询结果。
      */
+    @Lang(CachedSqlLanguageDriver.class)
     @Select("<script>"
             + "SELECT ${selectFields} FROM ${selectTable}"
             + "<where>"
-            + "    <if test=\"whereClause != null and whereClause != ''\">"
-            + "        AND ${whereClause}"
+            + "    <if test=\"whereClause != null and !whereClause.empty\">"
+            + "        AND " + MyWhereClause.MAPPER_SQL
             + "    </if>"
             + "</where>"
             + "<if test=\"orderBy != null and orderBy != ''\">"
@@ -68,23 +123,67 @@ public interface BaseDaoMapper<M> extends Mapper<M>, InsertListMapper<M> {
     List<Map<String, Object>> getListByCondition(
             @Param("selectTable") String selectTable,
             @Param("selectFields") String selectFields,
-            @Param("whereClause") String whereClause,
+            @Param(MyWhereClause.PARAM_NAME) MyWhereClause whereClause,
+            @Param("orderBy") String orderBy);
+
+    /**
+     * 根据指定的表名、显示字段列表、过滤条件和排序字符串，以游标的方式流式返回查询结果。
+     * 结果集按照MySQL流式结果集的要求设置(只进且fetchSize为Integer.MIN_VALUE)，驱动不会将全部数据加载到内存。
+     * 显示字段需以主Model实体对象的字段名作为别名，以便直接映射为实体对象。
+     * NOTE: 返回的游标只能在同一事务中读取，读取完成前会独占当前数据库连接，使用后必须关闭。
+     *
+     * @param selectTable  表名称。
+     * @param selectFields 选择的字段列表，每个字段均以实体对象字段名作为别名。
+     * @param whereClause  编译后的条件从句。
+     * @param orderBy      排序字符串。
+     * @return 查询结果的游标。
+     */
+    @Lang(CachedSqlLanguageDriver.class)
+    @Select("<script>"
+            + "SELECT ${selectFields} FROM ${selectTable}"
+            + "<where>"
+            + "    <if test=\"whereClause != null and !whereClause.empty\">"
+            + "        AND " + MyWhereClause.MAPPER_SQL
+            + "    </if>"
+            + "</where>"
+            + "<if test=\"orderBy != null and orderBy != ''\">"
+            + "    ORDER BY ${orderBy}"
+            + "</if>"
+            + "</script>")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<M> getCursorByCondition(
+            @Param("selectTable") String selectTable,
+            @Param("selectFields") String selectFields,
+            @Param(MyWhereClause.PARAM_NAME) MyWhereClause whereClause,
             @Param("orderBy") String orderBy);
 
     /**
      * 用指定过滤条件，计算记录数量。
      *
      * @param selectTable  表名称。
-     * @param whereClause  过滤字符串。
+     * @param whereClause  编译后的条件从句。
      * @return 返回过滤后的数据数量。
      */
+    @Lang(CachedSqlLanguageDriver.class)
     @Select("<script>"
             + "SELECT COUNT(1) FROM ${selectTable}"
             + "<where>"
-            + "    <if test=\"whereClause != null and whereClause != ''\">"
-            + "        AND ${whereClause}"
+            + "    <if test=\"whereClause != null and !whereClause.empty\">"
+            + "        AND " + MyWhereClause.MAPPER_SQL
             + "    </if>"
             + "</where>"
             + "</script>")
-    int getCountByCondition(@Param("selectTable") String selectTable, @Param("whereClause") String whereClause);
+    int getCountByCondition(
+            @Param("selectTable") String selectTable,
+            @Param(MyWhereClause.PARAM_NAME) MyWhereClause whereClause);
+
+    /**
+     * 获取数据库统计信息中指定表的估算记录数量，无需扫描数据表，仅用于没有过滤条件时的数据总数量估算。
+     *
+     * @param selectTable 表名称。
+     * @return 估算的记录数量。
+     */
+    @Select("SELECT TABLE_ROWS FROM information_schema.TABLES "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = #{selectTable}")
+    Long getEstimatedCount(@Param("selectTable") String selectTable);
 }
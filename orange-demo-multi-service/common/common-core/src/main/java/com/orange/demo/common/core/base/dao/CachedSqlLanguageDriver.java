@@ -0,0 +1,126 @@
+package com.orange.demo.common.core.base.dao;
+
+import org.apache.ibatis.builder.SqlSourceBuilder;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.scripting.xmltags.*;
+import org.apache.ibatis.session.Configuration;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 缓存SQL解析结果的MyBatis动态SQL语言驱动，语法与缺省的XMLLanguageDriver完全一致。
+ * 缺省的DynamicSqlSource在每次执行时，都要重新解析动态SQL生成的文本，逐个创建 #{} 对应的参数映射对象，
+ * 绑定变量较多时，该解析过程的开销远大于SQL文本本身的生成。这里以动态SQL生成的文本和参数类型作为缓存键，
+ * 同一结构的语句只解析一次，此后直接复用缓存的 ? 占位符SQL和参数映射列表。
+ * 使用方式：注解SQL的Mapper方法添加 @Lang(CachedSqlLanguageDriver.class)，XML的语句添加lang属性。
+ * NOTE: 参数映射的Java类型只根据参数类型推断，foreach和bind等动态绑定的变量不再根据当次的变量值推断，
+ * 统一在执行时根据变量值的实际类型选择TypeHandler，因此同一SQL文本在不同调用中的变量值类型可以不同。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class CachedSqlLanguageDriver extends XMLLanguageDriver {
+
+    /**
+     * 每条语句最多缓存的SQL文本数量。MyWhereClause会将IN列表补齐到固定档位，正常情况下远小于该值，
+     * 超过时说明SQL文本中包含了常量等易变的内容，此后的新文本直接解析，不再缓存。
+     */
+    private static final int MAX_CACHED_SQL_COUNT = 256;
+
+    @Override
+    public SqlSource createSqlSource(Configuration configuration, XNode script, Class<?> parameterType) {
+        SqlSource sqlSource = super.createSqlSource(configuration, script, parameterType);
+        if (!(sqlSource instanceof DynamicSqlSource)) {
+            return sqlSource;
+        }
+        SqlNode rootSqlNode = new RootSqlNodeBuilder(configuration, script, parameterType).build();
+        return new CachedDynamicSqlSource(configuration, rootSqlNode);
+    }
+
+    private static class RootSqlNodeBuilder extends XMLScriptBuilder {
+        private final XNode script;
+
+        RootSqlNodeBuilder(Configuration configuration, XNode script, Class<?> parameterType) {
+            super(configuration, script, parameterType);
+            this.script = script;
+        }
+
+        SqlNode build() {
+            return this.parseDynamicTags(script);
+        }
+    }
+
+    private static class CachedDynamicSqlSource implements SqlSource {
+        private final Configuration configuration;
+        private final SqlNode rootSqlNode;
+        private final Map<SqlKey, SqlSource> sqlSourceCache = new ConcurrentHashMap<>(16);
+
+        CachedDynamicSqlSource(Configuration configuration, SqlNode rootSqlNode) {
+            this.configuration = configuration;
+            this.rootSqlNode = rootSqlNode;
+        }
+
+        @Override
+        public BoundSql getBoundSql(Object parameterObject) {
+            DynamicContext context = new DynamicContext(configuration, parameterObject);
+            rootSqlNode.apply(context);
+            Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
+            SqlKey key = new SqlKey(context.getSql(), parameterType);
+            SqlSource sqlSource = sqlSourceCache.get(key);
+            if (sqlSource == null) {
+                sqlSource = this.parse(key);
+                if (sqlSourceCache.size() < MAX_CACHED_SQL_COUNT) {
+                    sqlSourceCache.putIfAbsent(key, sqlSource);
+                }
+            }
+            BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
+            for (Map.Entry<String, Object> entry : context.getBindings().entrySet()) {
+                boundSql.setAdditionalParameter(entry.getKey(), entry.getValue());
+            }
+            return boundSql;
+        }
+
+        private SqlSource parse(SqlKey key) {
+            // 这里不传入当次的动态绑定变量，保证解析结果只与缓存键相关。
+            SqlSource sqlSource = new SqlSourceBuilder(configuration)
+                    .parse(key.sql, key.parameterType, Collections.emptyMap());
+            BoundSql parsed = sqlSource.getBoundSql(null);
+            // 参数映射列表会被所有BoundSql共享，因此不允许插件等修改。
+            return new StaticSqlSource(configuration, parsed.getSql(),
+                    Collections.unmodifiableList(parsed.getParameterMappings()));
+        }
+    }
+
+    private static final class SqlKey {
+        private final String sql;
+        private final Class<?> parameterType;
+
+        SqlKey(String sql, Class<?> parameterType) {
+            this.sql = sql;
+            this.parameterType = parameterType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SqlKey)) {
+                return false;
+            }
+            SqlKey other = (SqlKey) o;
+            return sql.equals(other.sql) && parameterType == other.parameterType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, parameterType);
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.orange.demo.common.core.base.service;
 
+import com.orange.demo.common.core.cache.DictChangeChannel;
 import com.orange.demo.common.core.cache.DictionaryCache;
 import com.orange.demo.common.core.constant.GlobalDeletedFlag;
+import com.orange.demo.common.core.util.ApplicationContextHolder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import tk.mybatis.mapper.entity.Example;
 
+import java.util.Collection;
 import java.util.Set;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * 带有缓存功能的字典Service基类，需要留意的是，由于缓存基于Key/Value方式存储，
@@ -65,6 +71,46 @@ public abstract class BaseDictService<M, D, K> extends BaseService<M, D, K> {
         }
         List<M> allList = super.getAllList();
         dictionaryCache.reload(allList, force);
+        if (force) {
+            this.publishDictChange(null);
+        }
+    }
+
+    /**
+     * 通知其他服务中的字典复制副本，当前字典的数据已经发生变化，子类应在每次写操作更新缓存之后调用。
+     * 字典名称为当前Service的DomainDto类名，与其他服务中RelationDict.slaveModelClass的类名一致。
+     * 如果当前处于事务中，通知会在事务提交之后发送，以免副本读取到尚未提交的数据，事务回滚时不发送通知。
+     * 当前服务中没有可用的DictChangeChannel时，该方法不执行任何操作。
+     *
+     * @param changedIds 发生变化的主键集合，新增、修改和删除的主键均包含在内。为null时表示全部数据都可能发生了变化。
+     */
+    protected void publishDictChange(Collection<K> changedIds) {
+        DictChangeChannel changeChannel = ApplicationContextHolder.getApplicationContext()
+                .getBeanProvider(DictChangeChannel.class).getIfAvailable();
+        if (changeChannel == null) {
+            return;
+        }
+        String dictName = domainDtoClass.getSimpleName();
+        List<String> keyList = changedIds == null
+                ? null : changedIds.stream().map(String::valueOf).collect(Collectors.toList());
+        Runnable publisher = () -> {
+            try {
+                changeChannel.publish(dictName, keyList);
+            } catch (Exception e) {
+                // 副本会在下一次版本检查时发现版本号不一致，并重新加载全部数据。
+                log.warn("Failed to publish DICT change for DICT [{}].", dictName, e);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publisher.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                publisher.run();
+            }
+        });
     }
 
     /**
@@ -1,13 +1,24 @@
 package com.orange.demo.common.core.base.service;
 
+import cn.hutool.core.convert.Convert;
 import cn.hutool.core.util.ReflectUtil;
 import com.alibaba.fastjson.JSONObject;
+import com.github.pagehelper.page.PageMethod;
 import com.orange.demo.common.core.annotation.*;
 import com.orange.demo.common.core.base.dao.BaseDaoMapper;
 import com.orange.demo.common.core.base.client.BaseClient;
+import com.orange.demo.common.core.base.client.BaseClientBatcherFactory;
+import com.orange.demo.common.core.base.client.RequestCollapser;
+import com.orange.demo.common.core.cache.DictReplicaManager;
+import com.orange.demo.common.core.cache.ReplicatedDictionaryCache;
+import com.orange.demo.common.core.cache.TotalCountCache;
+import com.orange.demo.common.core.config.InListChunkConfig;
+import com.orange.demo.common.core.config.RemoteRelationExecutorConfig;
 import com.orange.demo.common.core.constant.AggregationKind;
 import com.orange.demo.common.core.constant.AggregationType;
+import com.orange.demo.common.core.constant.ErrorCodeEnum;
 import com.orange.demo.common.core.constant.GlobalDeletedFlag;
+import com.orange.demo.common.core.exception.InvalidPageCursorException;
 import com.orange.demo.common.core.exception.MyRuntimeException;
 import com.orange.demo.common.core.exception.RemoteDataBuildException;
 import com.orange.demo.common.core.object.*;
@@ -17,19 +28,32 @@ import com.orange.demo.common.core.util.MyModelUtil;
 import com.orange.demo.common.core.util.LogMessageUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import tk.mybatis.mapper.entity.Example;
 
 import javax.persistence.Column;
 import javax.persistence.Id;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static java.util.stream.Collectors.*;
 
@@ -45,6 +69,11 @@ import static java.util.stream.Collectors.*;
 @Slf4j
 public abstract class BaseService<M, D, K> {
 
+    /**
+     * getGroupedListByInFilterValues中单条SQL的内联表元素数量上限，每个元素包含两个绑定变量。
+     */
+    private static final int MAX_GROUPED_KEY_ID_COUNT = 10000;
+
     /**
      * 当前Service关联的主Model实体对象的Class。
      */
@@ -57,6 +86,11 @@ public abstract class BaseService<M, D, K> {
      * 当前Service关联的主Model对象的实际表名称。
      */
     protected String tableName;
+    /**
+     * 当前Service关联的主数据表的全部字段列表，每个字段均以Java对象字段名作为别名，
+     * 如 table_name.column_name fieldName，查询结果可直接映射为主Model实体对象。
+     */
+    protected String selectFieldsWithAlias;
     /**
      * 当前Service关联的主Model对象主键字段名称。
      */
@@ -133,8 +167,22 @@ public abstract class BaseService<M, D, K> {
      * 当前Service关联的主Model对象的所有远程多对多聚合关联的结构列表，该字段在系统启动阶段一次性预加载，提升运行时效率。
      */
     private List<RemoteRelationStruct> remoteRelationManyToManyAggrStructList = new LinkedList<>();
-
-    private static final String AND_OP = " AND ";
+    /**
+     * 并行组装远程关联数据时使用的线程池，该字段在系统启动阶段一次性预加载，提升运行时效率。
+     */
+    private ThreadPoolTaskExecutor remoteRelationExecutor;
+    /**
+     * 并行组装远程关联数据时，每个远程调用的缺省超时时间(毫秒)，该字段在系统启动阶段一次性预加载。
+     */
+    private long remoteRelationTimeoutMillis;
+    /**
+     * IN列表条件值的分块大小，该字段在系统启动阶段一次性预加载，提升运行时效率。
+     */
+    private int inListChunkSize;
+    /**
+     * 并行执行IN列表分块查询的线程池，该字段在系统启动阶段一次性预加载，提升运行时效率。
+     */
+    private ThreadPoolTaskExecutor inListExecutor;
 
     /**
      * 构造函数，在实例化的时候，一次性完成所有有关主Model对象信息的加载。
@@ -145,9 +193,16 @@ public abstract class BaseService<M, D, K> {
         domainDtoClass = (Class<D>) ((ParameterizedType) getClass().getGenericSuperclass()).getActualTypeArguments()[1];
         this.tableName = modelClass.getAnnotation(Table.class).name();
         Field[] fields = ReflectUtil.getFields(modelClass);
+        StringJoiner selectFields = new StringJoiner(", ");
         for (Field field : fields) {
             initializeField(field);
+            int modifiers = field.getModifiers();
+            if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)
+                    && field.getAnnotation(Transient.class) == null) {
+                selectFields.add(tableName + "." + MyModelUtil.mapToColumnName(field, modelClass) + " " + field.getName());
+            }
         }
+        this.selectFieldsWithAlias = selectFields.toString();
     }
 
     private void initializeField(Field field) {
@@ -325,6 +380,45 @@ public abstract class BaseService<M, D, K> {
         return mapper().selectCountByExample(e) == inFilterValues.size();
     }
 
+    /**
+     * 批量校验多个字段的数据值是否存在，并返回其中不存在的数据值。通常用于其他微服务批量验证关联数据的合法性。
+     * 每个字段只执行一次(In-list)查询，且仅读取该字段，数量较多的数据值会通过executeInChunks方法拆分为多个分块查询。
+     * 数据值在查询前会被转换为字段的实际类型，因此远程调用中JSON反序列化导致的类型差异，如Integer和Long，不会影响校验结果。
+     *
+     * @param fieldValueMap key为待校验的数据字段，这里使用Java对象中的属性，如courseId，而不是数据字段名course_id。
+     *                      value为待校验的数据值集合。
+     * @return 仅包含存在不合法数据的字段，key为字段名，value为其中不存在的数据值集合。数据全部存在时返回空Map。
+     */
+    public Map<String, Set<Object>> getNotExistValueMap(Map<String, Set<Object>> fieldValueMap) {
+        Map<String, Set<Object>> notExistValueMap = new HashMap<>(fieldValueMap.size());
+        for (Map.Entry<String, Set<Object>> entry : fieldValueMap.entrySet()) {
+            if (CollectionUtils.isEmpty(entry.getValue())) {
+                continue;
+            }
+            String fieldName = entry.getKey();
+            FieldAccessor accessor = FieldAccessor.of(modelClass, fieldName);
+            Set<Object> notExistValueSet = new LinkedHashSet<>(entry.getValue().size());
+            for (Object value : entry.getValue()) {
+                if (value != null) {
+                    notExistValueSet.add(Convert.convert(accessor.getField().getType(), value));
+                }
+            }
+            List<M> existList = this.executeInChunks(notExistValueSet, chunk -> {
+                Example e = this.makeDefaultInListExample(fieldName, chunk, null);
+                e.selectProperties(fieldName);
+                if (deletedFlagFieldName != null) {
+                    e.and().andEqualTo(deletedFlagFieldName, GlobalDeletedFlag.NORMAL);
+                }
+                return mapper().selectByExample(e);
+            });
+            existList.forEach(data -> notExistValueSet.remove(accessor.get(data)));
+            if (!notExistValueSet.isEmpty()) {
+                notExistValueMap.put(fieldName, notExistValueSet);
+            }
+        }
+        return notExistValueMap;
+    }
+
     /**
      * 获取所有数据的指定字段的数据列表。单表查询，不进行任何数据关联。
      *
@@ -375,6 +469,8 @@ public abstract class BaseService<M, D, K> {
 
     /**
      * 返回符合 inFilterField in (inFilterValues) 条件的所有数据，并根据orderBy字段排序。单表查询，不进行任何数据关联。
+     * 没有指定orderBy时，数量较多的inFilterValues会通过executeInChunks方法拆分为多个分块查询。
+     * 指定orderBy时，为了保证结果的整体排序，仍然只执行一次查询。
      *
      * @param inFilterField  参与(In-list)过滤的Java对象字段。
      * @param inFilterValues 参与(In-list)过滤的字段值集合。
@@ -385,6 +481,13 @@ public abstract class BaseService<M, D, K> {
         if (CollectionUtils.isEmpty(inFilterValues)) {
             return new LinkedList<>();
         }
+        if (StringUtils.isBlank(orderBy)) {
+            return this.executeInChunks(inFilterValues, chunk -> this.doGetInList(inFilterField, chunk, null));
+        }
+        return this.doGetInList(inFilterField, inFilterValues, orderBy);
+    }
+
+    private <T> List<M> doGetInList(String inFilterField, Collection<T> inFilterValues, String orderBy) {
         Example e = this.makeDefaultInListExample(inFilterField, inFilterValues, orderBy);
         if (deletedFlagFieldName != null) {
             e.and().andEqualTo(deletedFlagFieldName, GlobalDeletedFlag.NORMAL);
@@ -524,6 +627,73 @@ public abstract class BaseService<M, D, K> {
         return resultList;
     }
 
+    /**
+     * 流式读取符合过滤条件的全部数据，适用于数据导出和批处理等需要处理大量数据的场景。
+     * 数据通过MyBatis游标逐行读取，MySQL驱动不会将全部结果集加载到内存。读取的数据按照windowSize划分为固定大小的窗口，
+     * 每个窗口先根据relationParam集成关联数据，再交给windowConsumer处理，处理后即可被回收，因此内存占用只与窗口大小有关。
+     * NOTE: MySQL的流式结果集在读取完成前会独占数据库连接，因此每个窗口的关联数据集成和windowConsumer，
+     * 均会在挂起游标所在的事务后执行，其中的数据库操作将使用其他的数据库连接，且不参与当前事务。
+     *
+     * @param whereClause    编译后的过滤条件从句，可以为null。逻辑删除的过滤条件会被自动添加。
+     * @param orderBy        SQL中ORDER BY从句，可以为null。
+     * @param relationParam  实体对象数据组装的参数构建器，为null时不集成关联数据。
+     * @param windowSize     每个窗口的数据数量。
+     * @param windowConsumer 窗口数据的处理函数，每次调用的参数都是新的列表对象。
+     * @return 读取的数据总数量。
+     * @throws RemoteDataBuildException ignoreRpcError()方法返回false，同时远程服务调用出现错误时抛出此异常。
+     */
+    public long streamListByCondition(
+            MyWhereClause whereClause,
+            String orderBy,
+            MyRelationParam relationParam,
+            int windowSize,
+            Consumer<List<M>> windowConsumer) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("WindowSize must be greater than 0.");
+        }
+        MyWhereClause actualWhereClause = new MyWhereClause();
+        if (deletedFlagColumnName != null) {
+            actualWhereClause.add(tableName + "." + deletedFlagColumnName + " = ", GlobalDeletedFlag.NORMAL);
+        }
+        actualWhereClause.and(whereClause);
+        PlatformTransactionManager transactionManager =
+                ApplicationContextHolder.getBean(PlatformTransactionManager.class);
+        // 游标必须在事务中读取，否则MyBatis会在查询方法返回时关闭SqlSession，游标也随之关闭。
+        TransactionTemplate cursorTemplate = new TransactionTemplate(transactionManager);
+        cursorTemplate.setReadOnly(true);
+        TransactionTemplate windowTemplate = new TransactionTemplate(transactionManager);
+        windowTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        Map<String, List<MyWhereCriteria>> criteriaMap = buildAggregationAdditionalWhereCriteria();
+        Consumer<List<M>> windowHandler = window -> windowTemplate.executeWithoutResult(status -> {
+            this.buildRelationForDataList(window, relationParam, criteriaMap);
+            windowConsumer.accept(window);
+        });
+        Long count = cursorTemplate.execute(status -> {
+            long rowCount = 0;
+            try (Cursor<M> cursor = mapper().getCursorByCondition(
+                    tableName, selectFieldsWithAlias, actualWhereClause, orderBy)) {
+                List<M> window = new ArrayList<>(windowSize);
+                for (M data : cursor) {
+                    window.add(data);
+                    if (window.size() == windowSize) {
+                        windowHandler.accept(window);
+                        rowCount += window.size();
+                        window = new ArrayList<>(windowSize);
+                    }
+                }
+                if (!window.isEmpty()) {
+                    windowHandler.accept(window);
+                    rowCount += window.size();
+                }
+            } catch (IOException e) {
+                log.error("Failed to close the cursor of BaseService.streamListByCondition.", e);
+                throw new MyRuntimeException(e);
+            }
+            return rowCount;
+        });
+        return count == null ? 0L : count;
+    }
+
     /**
      * 获取父主键Id下的所有子数据列表。单表查询，不进行任何数据关联。
      *
@@ -542,29 +712,71 @@ public abstract class BaseService<M, D, K> {
     }
 
     /**
-     * 根据指定的显示字段列表、过滤条件字符串和分组字符串，返回聚合计算后的查询结果。(基本是内部框架使用，不建议外部接口直接使用)。
+     * 根据指定的显示字段列表、过滤条件和分组字符串，返回聚合计算后的查询结果。(基本是内部框架使用，不建议外部接口直接使用)。
      *
      * @param selectFields 选择的字段列表，多个字段逗号分隔。
      *                     NOTE: 如果数据表字段和Java对象字段名字不同，Java对象字段应该以别名的形式出现。
      *                     如: table_column_name modelFieldName。否则无法被反射回Bean对象。
-     * @param whereClause  SQL常量形式的条件从句。
+     * @param whereClause  编译后的条件从句，条件值以绑定变量的形式传递。
      * @param groupBy      SQL常量形式分组字段列表，逗号分隔。
      * @return 聚合计算后的数据结果集。
      */
     public List<Map<String, Object>> getGroupedListByCondition(
-            String selectFields, String whereClause, String groupBy) {
+            String selectFields, MyWhereClause whereClause, String groupBy) {
         return mapper().getGroupedListByCondition(tableName, selectFields, whereClause, groupBy);
     }
 
     /**
-     * 根据指定的显示字段列表、过滤条件字符串和排序字符串，返回查询结果。(基本是内部框架使用，不建议外部接口直接使用)。
+     * 多对多聚合计算。每个分组键及其关联值集合会被展开为(分组键, 关联值)的内联表，与当前表关联后统一分组聚合，
+     * 因此无论分组数量多少，通常都只需执行一条SQL。只有内联表的元素数量超过MAX_GROUPED_KEY_ID_COUNT时，
+     * 才会在不拆分分组的前提下分批执行，以避免超过数据库绑定变量数量的上限。(基本是内部框架使用)
+     *
+     * @param aggregationSelect     聚合计算表达式，如 COUNT(table_name.column_name)。
+     * @param inFilterColumn        与关联值进行关联的字段，包含表名前缀。
+     * @param groupedInFilterValues 分组键到关联值集合的映射。关联值集合为空的分组将被忽略。
+     * @param numericKey            分组键所对应字段的声明类型是否为数值类型。
+     * @param numericId             关联值所对应字段(inFilterColumn)的声明类型是否为数值类型。
+     * @param whereClause           编译后的条件从句，可以为null。
+     * @return 聚合计算后的数据结果集，每个分组键对应一条记录。
+     */
+    public List<Map<String, Object>> getGroupedListByInFilterValues(
+            String aggregationSelect,
+            String inFilterColumn,
+            Map<Object, Set<Object>> groupedInFilterValues,
+            boolean numericKey,
+            boolean numericId,
+            MyWhereClause whereClause) {
+        List<Map<String, Object>> resultMapList = new LinkedList<>();
+        List<Tuple2<Object, Object>> keyIdList = new ArrayList<>();
+        for (Map.Entry<Object, Set<Object>> entry : groupedInFilterValues.entrySet()) {
+            if (CollectionUtils.isEmpty(entry.getValue())) {
+                continue;
+            }
+            if (!keyIdList.isEmpty() && keyIdList.size() + entry.getValue().size() > MAX_GROUPED_KEY_ID_COUNT) {
+                resultMapList.addAll(mapper().getGroupedListByKeyIdList(
+                        tableName, aggregationSelect, inFilterColumn, keyIdList, numericKey, numericId, whereClause));
+                keyIdList = new ArrayList<>();
+            }
+            for (Object id : entry.getValue()) {
+                keyIdList.add(new Tuple2<>(entry.getKey(), id));
+            }
+        }
+        if (!keyIdList.isEmpty()) {
+            resultMapList.addAll(mapper().getGroupedListByKeyIdList(
+                    tableName, aggregationSelect, inFilterColumn, keyIdList, numericKey, numericId, whereClause));
+        }
+        return resultMapList;
+    }
+
+    /**
+     * 根据指定的显示字段列表、过滤条件和排序字符串，返回查询结果。(基本是内部框架使用，不建议外部接口直接使用)。
      *
      * @param selectList  选择的Java字段列表。如果为空表示返回全部字段。
-     * @param whereClause SQL常量形式的条件从句。
+     * @param whereClause 编译后的条件从句，条件值以绑定变量的形式传递。
      * @param orderBy     SQL常量形式排序字段列表，逗号分隔。
      * @return 查询结果。
      */
-    public List<M> getListByCondition(List<String> selectList, String whereClause, String orderBy) {
+    public List<M> getListByCondition(List<String> selectList, MyWhereClause whereClause, String orderBy) {
         Example e = new Example(modelClass);
         if (CollectionUtils.isNotEmpty(selectList)) {
             String[] selectFields = new String[selectList.size()];
@@ -574,8 +786,8 @@ public abstract class BaseService<M, D, K> {
         if (StringUtils.isNotBlank(orderBy)) {
             e.setOrderByClause(orderBy);
         }
-        if (StringUtils.isNotBlank(whereClause)) {
-            e.createCriteria().andCondition(whereClause);
+        if (whereClause != null && !whereClause.isEmpty()) {
+            whereClause.applyTo(e.createCriteria());
         }
         return mapper().selectByExample(e);
     }
@@ -583,13 +795,125 @@ public abstract class BaseService<M, D, K> {
     /**
      * 用指定过滤条件，计算记录数量。(基本是内部框架使用，不建议外部接口直接使用)。
      *
-     * @param whereClause SQL常量形式的条件从句。
+     * @param whereClause 编译后的条件从句，条件值以绑定变量的形式传递。
      * @return 返回过滤后的数据数量。
      */
-    public Integer getCountByCondition(String whereClause) {
+    public Integer getCountByCondition(MyWhereClause whereClause) {
         return mapper().getCountByCondition(this.tableName, whereClause);
     }
 
+    /**
+     * 获取分页查询的数据总数量。数量会按照过滤条件缓存，直到当前表发生写操作。
+     *
+     * @param filterKey   过滤条件，可以是编译后的MyWhereClause或Mapper的过滤对象，null表示没有过滤条件。
+     * @param countLoader 计算精确数量的函数，通常为Mapper中与列表查询使用相同过滤条件的COUNT查询。
+     * @param estimated   是否允许立即返回估算数量，并在后台异步计算精确数量。
+     * @return 第一个值为数据总数量，第二个值为TotalCountType中定义的数量来源类型。
+     */
+    protected Tuple2<Long, String> getTotalCount(Object filterKey, Supplier<Long> countLoader, boolean estimated) {
+        TotalCountCache totalCountCache = ApplicationContextHolder.getBean(TotalCountCache.class);
+        return totalCountCache.get(tableName, filterKey, countLoader,
+                () -> mapper().getEstimatedCount(tableName), estimated);
+    }
+
+    /**
+     * 基于分页参数和排序参数，创建游标(Keyset)分页对象，其中包含了排序字符串和定位条件从句。
+     * 排序字段仅支持主表字段(包括字典字段)，且不支持日期聚合排序，排序字段之后总是追加主键字段。
+     *
+     * @param pageParam  分页参数。
+     * @param orderParam 排序参数，可以为null，此时仅按主键排序。
+     * @return 游标分页对象。如果分页参数为null或没有指定游标，则返回null，此时调用者仍使用页号分页。
+     * @throws InvalidPageCursorException 游标无效或排序字段不支持游标分页时抛出此异常。
+     */
+    public MyPageCursor<M> makePageCursor(MyPageParam pageParam, MyOrderParam orderParam) {
+        if (pageParam == null || pageParam.getCursor() == null) {
+            return null;
+        }
+        List<MyPageCursor.SortKey> sortKeyList = this.makeSortKeyList(orderParam);
+        List<Object> valueList = MyPageCursor.decodeValueList(pageParam.getCursor(), sortKeyList);
+        MyWhereClause seekClause = null;
+        if (valueList != null) {
+            seekClause = this.makeSeekWhereClause(sortKeyList, valueList);
+        }
+        return new MyPageCursor<>(pageParam, sortKeyList, seekClause);
+    }
+
+    private List<MyPageCursor.SortKey> makeSortKeyList(MyOrderParam orderParam) {
+        List<MyPageCursor.SortKey> sortKeyList = new LinkedList<>();
+        if (orderParam != null) {
+            for (MyOrderParam.OrderInfo orderInfo : orderParam) {
+                if (StringUtils.isBlank(orderInfo.getFieldName())) {
+                    continue;
+                }
+                String fieldName = StringUtils.substringBefore(orderInfo.getFieldName(), "DictMap.");
+                Field field = ReflectUtil.getField(modelClass, fieldName);
+                // 一对一关联表字段、非表字段和日期聚合字段的值均无法从主表记录中获取，因此无法生成定位条件。
+                if (field == null || field.getAnnotation(Transient.class) != null
+                        || StringUtils.isNotBlank(orderInfo.getDateAggregateBy())) {
+                    throw new InvalidPageCursorException(
+                            "Cursor pagination doesn't support ORDER BY field [" + orderInfo.getFieldName() + "].");
+                }
+                String columnName = tableName + "." + MyModelUtil.mapToColumnName(field, modelClass);
+                boolean asc = orderInfo.getAsc() == null || orderInfo.getAsc();
+                sortKeyList.add(new MyPageCursor.SortKey(FieldAccessor.of(modelClass, field), columnName, asc));
+                if (fieldName.equals(idFieldName)) {
+                    // 主键之后的排序字段已经没有意义。
+                    return sortKeyList;
+                }
+            }
+        }
+        sortKeyList.add(new MyPageCursor.SortKey(
+                FieldAccessor.of(modelClass, idField), tableName + "." + idColumnName, true));
+        return sortKeyList;
+    }
+
+    /**
+     * 生成游标分页的定位条件，即排序位置位于上一页最后一条记录之后的条件。
+     * 如排序字段为(a, id)时，生成的条件为 (a > ?) OR (a = ? AND id > ?)，降序字段使用 < 操作符。
+     * MySQL中NULL值在升序时排在最前，降序时排在最后，这里一并做了处理。
+     *
+     * @param sortKeyList 排序字段列表，最后一个字段为主键字段。
+     * @param valueList   上一页最后一条记录的排序字段值。
+     * @return 定位条件从句。
+     */
+    protected MyWhereClause makeSeekWhereClause(List<MyPageCursor.SortKey> sortKeyList, List<Object> valueList) {
+        StringBuilder sql = new StringBuilder(128);
+        List<Object> paramList = new LinkedList<>();
+        // 前面所有排序字段都与上一页最后一条记录相等的条件。
+        StringBuilder equalSql = new StringBuilder(64);
+        List<Object> equalParamList = new LinkedList<>();
+        for (int i = 0; i < sortKeyList.size(); i++) {
+            MyPageCursor.SortKey sortKey = sortKeyList.get(i);
+            String columnName = sortKey.getColumnName();
+            Object value = valueList.get(i);
+            String afterSql = null;
+            if (value == null) {
+                if (sortKey.isAsc()) {
+                    afterSql = columnName + " IS NOT NULL";
+                }
+            } else if (sortKey.isAsc()) {
+                afterSql = columnName + " > ?";
+            } else {
+                afterSql = "(" + columnName + " < ? OR " + columnName + " IS NULL)";
+            }
+            if (afterSql != null) {
+                sql.append(sql.length() == 0 ? "(" : " OR ").append("(").append(equalSql).append(afterSql).append(")");
+                paramList.addAll(equalParamList);
+                if (value != null) {
+                    paramList.add(value);
+                }
+            }
+            if (value == null) {
+                equalSql.append(columnName).append(" IS NULL AND ");
+            } else {
+                equalSql.append(columnName).append(" = ? AND ");
+                equalParamList.add(value);
+            }
+        }
+        sql.append(")");
+        return new MyWhereClause().addTemplate(sql.toString(), paramList);
+    }
+
     /**
      * 集成所有与主表实体对象相关的关联数据列表。包括本地和远程服务的一对一、字典、一对多和多对多聚合运算等。
      * 也可以根据实际需求，单独调用该函数所包含的各个数据集成函数。
@@ -620,6 +944,11 @@ public abstract class BaseService<M, D, K> {
         // 集成远程一对一和字段级别的数据关联。
         boolean buildRemoteOneToOne =
                 relationParam.isBuildRemoteOneToOne() || relationParam.isBuildRemoteOneToOneWithDict();
+        if (relationParam.isParallelRemote()) {
+            this.buildRemoteRelationForDataListInParallel(
+                    resultList, relationParam, criteriaListMap, buildRemoteOneToOne);
+            return;
+        }
         if (buildRemoteOneToOne) {
             this.buildRemoteOneToOneForDataList(resultList, relationParam.isBuildRemoteOneToOneWithDict());
         }
@@ -670,6 +999,24 @@ public abstract class BaseService<M, D, K> {
         }
         boolean buildRemoteOneToOne =
                 relationParam.isBuildRemoteOneToOne() || relationParam.isBuildRemoteOneToOneWithDict();
+        if (relationParam.isParallelRemote()) {
+            // 单个对象同样可以并发执行多个远程关联调用，这里直接复用列表的并行组装逻辑，
+            // 此时单个对象的远程一对一和远程字典调用不再经过请求合并器。
+            this.buildRemoteRelationForDataListInParallel(
+                    Collections.singletonList(dataObject), relationParam, criteriaListMap, buildRemoteOneToOne);
+        } else {
+            this.buildRemoteRelationForDataSerially(dataObject, relationParam, criteriaListMap, buildRemoteOneToOne);
+        }
+        if (relationParam.isBuildManyToManyRelation()) {
+            this.buildRelationManyToMany(dataObject);
+        }
+    }
+
+    private <T extends M> void buildRemoteRelationForDataSerially(
+            T dataObject,
+            MyRelationParam relationParam,
+            Map<String, List<MyWhereCriteria>> criteriaListMap,
+            boolean buildRemoteOneToOne) {
         if (buildRemoteOneToOne) {
             this.buildRemoteOneToOneForData(dataObject, relationParam.isBuildRemoteOneToOneWithDict());
         }
@@ -690,8 +1037,141 @@ public abstract class BaseService<M, D, K> {
             // 处理多对多场景
             this.buildRemoteManyToManyAggregationForData(dataObject, criteriaListMap);
         }
-        if (relationParam.isBuildManyToManyRelation()) {
-            this.buildRelationManyToMany(dataObject);
+    }
+
+    /**
+     * 以并行方式集成远程关联数据。彼此独立的远程一对一、远程字典和远程一对多聚合调用会被提交到有界线程池并发执行，
+     * 提交线程则继续完成本地聚合计算和远程多对多聚合(该场景包含本地SQL和远程调用的交替执行)。
+     * 最后在当前线程中按照串行模式的顺序，依次等待并回填各个远程调用的结果，因此回填过程不存在并发写入。
+     * 每个远程调用均有独立的超时时间，超时的调用将被取消，并与其他RPC错误一样，由ignoreRpcError()决定是记录日志还是抛出异常。
+     * NOTE: 线程池队列已满时，远程调用会在提交时由当前线程直接执行，这样的调用无法被取消，因此不受该超时时间的限制，
+     * 其最长执行时间仅由Feign和Hystrix自身的超时配置决定。
+     *
+     * @param resultList          主表实体对象列表。
+     * @param relationParam       实体对象数据组装的参数构建器。
+     * @param criteriaListMap     仅仅用于一对多和多对多聚合计算的附加过滤条件。如果没有可以为NULL。
+     * @param buildRemoteOneToOne 是否集成远程一对一关联。
+     * @throws RemoteDataBuildException ignoreRpcError()方法返回false，同时远程服务调用出现错误时抛出此异常。
+     */
+    private void buildRemoteRelationForDataListInParallel(
+            List<M> resultList,
+            MyRelationParam relationParam,
+            Map<String, List<MyWhereCriteria>> criteriaListMap,
+            boolean buildRemoteOneToOne) {
+        ThreadPoolTaskExecutor executor = this.remoteRelationExecutor;
+        long timeoutMillis = relationParam.getRemoteTimeoutMillis() > 0
+                ? relationParam.getRemoteTimeoutMillis() : this.remoteRelationTimeoutMillis;
+        List<RemoteRelationTask<List<Object>>> oneToOneTaskList = new LinkedList<>();
+        Map<RemoteRelationStruct, RemoteRelationTask<List<Object>>> dictTaskMap = new HashMap<>(8);
+        Map<RemoteRelationStruct, List<Object>> dictReplicaMap = new HashMap<>(8);
+        List<RemoteRelationTask<List<Map<String, Object>>>> aggregationTaskList = new LinkedList<>();
+        try {
+            if (buildRemoteOneToOne) {
+                boolean withDict = relationParam.isBuildRemoteOneToOneWithDict();
+                for (RemoteRelationStruct relationStruct : this.remoteRelationOneToOneStructList) {
+                    Set<Object> masterIdSet = this.collectMasterIdSet(resultList, relationStruct);
+                    if (CollectionUtils.isNotEmpty(masterIdSet)) {
+                        // 当前已经处于远程关联线程池中，各分块在同一任务中依次调用，避免任务之间的相互等待。
+                        oneToOneTaskList.add(new RemoteRelationTask<>(relationStruct, timeoutMillis,
+                                executor.submit(() -> this.callRemoteInChunks(masterIdSet, false,
+                                        chunk -> relationStruct.remoteClient.listBy(
+                                                this.makeRemoteOneToOneQueryParam(chunk, withDict, relationStruct))))));
+                    }
+                }
+            }
+            if (relationParam.isBuildRemoteDict()) {
+                for (RemoteRelationStruct relationStruct : this.remoteRelationDictStructList) {
+                    if (buildRemoteOneToOne && relationStruct.equalOneToOneRelationField != null) {
+                        continue;
+                    }
+                    Set<Object> masterIdSet = this.collectMasterIdSet(resultList, relationStruct);
+                    if (CollectionUtils.isEmpty(masterIdSet)) {
+                        continue;
+                    }
+                    // 本地副本已经就绪时直接读取，无需提交远程调用任务。
+                    if (relationStruct.replicaCache != null && relationStruct.replicaCache.isReady()) {
+                        dictReplicaMap.put(relationStruct, relationStruct.replicaCache.getInList(masterIdSet));
+                    } else {
+                        dictTaskMap.put(relationStruct, new RemoteRelationTask<>(relationStruct, timeoutMillis,
+                                executor.submit(() -> this.callRemoteInChunks(masterIdSet, false,
+                                        chunk -> relationStruct.remoteClient.listBy(
+                                                this.makeRemoteDictQueryParam(chunk, relationStruct))))));
+                    }
+                }
+            }
+            if (relationParam.isBuildRemoteAggregation()) {
+                Map<String, List<MyWhereCriteria>> aggrCriteriaListMap =
+                        criteriaListMap == null ? new HashMap<>(8) : criteriaListMap;
+                for (RemoteRelationStruct relationStruct : this.remoteRelationOneToManyAggrStructList) {
+                    Set<Object> masterIdSet = this.collectMasterIdSet(resultList, relationStruct);
+                    if (CollectionUtils.isNotEmpty(masterIdSet)) {
+                        aggregationTaskList.add(new RemoteRelationTask<>(relationStruct, timeoutMillis,
+                                executor.submit(() -> this.callRemoteInChunks(masterIdSet, false,
+                                        chunk -> relationStruct.remoteClient.aggregateBy(
+                                                this.makeRemoteOneToManyAggregationParam(
+                                                        chunk, aggrCriteriaListMap, relationStruct))))));
+                    }
+                }
+            }
+            // 远程调用执行期间，在当前线程中完成本地聚合计算和远程多对多聚合。
+            if (relationParam.isBuildAggregation()) {
+                this.buildOneToManyAggregationForDataList(resultList, criteriaListMap);
+                this.buildManyToManyAggregationForDataList(resultList, criteriaListMap);
+            }
+            if (relationParam.isBuildRemoteAggregation()) {
+                this.buildRemoteManyToManyAggregationForDataList(resultList, criteriaListMap);
+            }
+            // 按照串行模式的顺序回填结果，远程字典可能依赖于已经完成关联的远程一对一从表对象。
+            for (RemoteRelationTask<List<Object>> task : oneToOneTaskList) {
+                this.makeRemoteOneToOneRelation(resultList, task.relationStruct, this.joinRemoteRelationTask(task));
+            }
+            if (relationParam.isBuildRemoteDict()) {
+                for (RemoteRelationStruct relationStruct : this.remoteRelationDictStructList) {
+                    if (buildRemoteOneToOne && relationStruct.equalOneToOneRelationField != null) {
+                        this.makeRemoteDictRelationFromOneToOne(resultList, relationStruct);
+                        continue;
+                    }
+                    List<Object> replicaList = dictReplicaMap.get(relationStruct);
+                    if (replicaList != null) {
+                        MyModelUtil.makeDictRelation(
+                                modelClass, resultList, replicaList, relationStruct.relationField.getName());
+                        continue;
+                    }
+                    RemoteRelationTask<List<Object>> task = dictTaskMap.get(relationStruct);
+                    if (task != null) {
+                        this.makeRemoteDictRelation(resultList, relationStruct, this.joinRemoteRelationTask(task));
+                    }
+                }
+            }
+            for (RemoteRelationTask<List<Map<String, Object>>> task : aggregationTaskList) {
+                this.makeRemoteAggregationData(resultList, task.relationStruct, this.joinRemoteRelationTask(task));
+            }
+        } finally {
+            // 异常退出时，取消所有尚未完成的远程调用。正常退出时，全部调用均已完成，这里不会产生任何影响。
+            oneToOneTaskList.forEach(task -> task.future.cancel(true));
+            dictTaskMap.values().forEach(task -> task.future.cancel(true));
+            aggregationTaskList.forEach(task -> task.future.cancel(true));
+        }
+    }
+
+    private <T> ResponseResult<T> joinRemoteRelationTask(RemoteRelationTask<T> task) {
+        long waitMillis = task.deadline - System.currentTimeMillis();
+        try {
+            return task.future.get(Math.max(waitMillis, 0L), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            task.future.cancel(true);
+            String errorMessage = String.format("Remote relation [%s.%s] timeout after [%d] ms.",
+                    modelClass.getSimpleName(), task.relationStruct.relationField.getName(), task.timeoutMillis);
+            return ResponseResult.error(ErrorCodeEnum.RPC_DATA_ACCESS_FAILED, errorMessage);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new MyRuntimeException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MyRuntimeException(e);
         }
     }
 
@@ -707,14 +1187,14 @@ public abstract class BaseService<M, D, K> {
         }
         for (LocalRelationStruct relationStruct : this.relationConstDictStructList) {
             for (M dataObject : resultList) {
-                Object id = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+                Object id = relationStruct.masterIdAccessor.get(dataObject);
                 if (id != null) {
                     String name = relationStruct.dictMap.get(id);
                     if (name != null) {
                         Map<String, Object> dictMap = new HashMap<>(2);
                         dictMap.put("id", id);
                         dictMap.put("name", name);
-                        ReflectUtil.setFieldValue(dataObject, relationStruct.relationField, dictMap);
+                        relationStruct.relationAccessor.set(dataObject, dictMap);
                     }
                 }
             }
@@ -731,14 +1211,14 @@ public abstract class BaseService<M, D, K> {
             return;
         }
         for (LocalRelationStruct relationStruct : this.relationConstDictStructList) {
-            Object id = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+            Object id = relationStruct.masterIdAccessor.get(dataObject);
             if (id != null) {
                 String name = relationStruct.dictMap.get(id);
                 if (name != null) {
                     Map<String, Object> dictMap = new HashMap<>(2);
                     dictMap.put("id", id);
                     dictMap.put("name", name);
-                    ReflectUtil.setFieldValue(dataObject, relationStruct.relationField, dictMap);
+                    relationStruct.relationAccessor.set(dataObject, dictMap);
                 }
             }
         }
@@ -754,11 +1234,11 @@ public abstract class BaseService<M, D, K> {
             return;
         }
         for (LocalRelationStruct relationStruct : this.localRelationManyToManyStructList) {
-            Object masterIdValue = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+            Object masterIdValue = relationStruct.masterIdAccessor.get(dataObject);
             Example e = new Example(relationStruct.relationManyToMany.relationModelClass());
             e.createCriteria().andEqualTo(relationStruct.masterIdField.getName(), masterIdValue);
             List<?> manyToManyList = relationStruct.manyToManyMapper.selectByExample(e);
-            ReflectUtil.setFieldValue(dataObject, relationStruct.relationField, manyToManyList);
+            relationStruct.relationAccessor.set(dataObject, manyToManyList);
         }
     }
 
@@ -775,27 +1255,36 @@ public abstract class BaseService<M, D, K> {
             return;
         }
         for (RemoteRelationStruct relationStruct : this.remoteRelationOneToOneStructList) {
-            Set<Object> masterIdSet = resultList.stream()
-                    .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.masterIdField))
-                    .filter(Objects::nonNull)
-                    .collect(toSet());
+            Set<Object> masterIdSet = this.collectMasterIdSet(resultList, relationStruct);
             if (CollectionUtils.isEmpty(masterIdSet)) {
                 continue;
             }
-            boolean buildRemoteOneToOneDict = withDict && relationStruct.relationOneToOne.loadSlaveDict();
-            MyQueryParam queryParam = new MyQueryParam(buildRemoteOneToOneDict);
-            MyWhereCriteria whereCriteria = new MyWhereCriteria();
-            whereCriteria.setCriteria(
-                    relationStruct.relationOneToOne.slaveIdField(), MyWhereCriteria.OPERATOR_IN, masterIdSet);
-            queryParam.addCriteriaList(whereCriteria);
-            ResponseResult<List<Object>> result = relationStruct.remoteClient.listBy(queryParam);
-            if (result.isSuccess()) {
-                List<Object> relationList = result.getData();
-                MyModelUtil.makeOneToOneRelation(
-                        modelClass, resultList, relationList, relationStruct.relationField.getName());
-            } else {
-                this.logErrorOrThrowException(result.getErrorMessage());
-            }
+            ResponseResult<List<Object>> result = this.callRemoteInChunks(masterIdSet, true,
+                    chunk -> relationStruct.remoteClient.listBy(
+                            this.makeRemoteOneToOneQueryParam(chunk, withDict, relationStruct)));
+            this.makeRemoteOneToOneRelation(resultList, relationStruct, result);
+        }
+    }
+
+    private MyQueryParam makeRemoteOneToOneQueryParam(
+            List<Object> masterIdList, boolean withDict, RemoteRelationStruct relationStruct) {
+        boolean buildRemoteOneToOneDict = withDict && relationStruct.relationOneToOne.loadSlaveDict();
+        MyQueryParam queryParam = new MyQueryParam(buildRemoteOneToOneDict);
+        MyWhereCriteria whereCriteria = new MyWhereCriteria();
+        whereCriteria.setCriteria(
+                relationStruct.relationOneToOne.slaveIdField(), MyWhereCriteria.OPERATOR_IN, masterIdList);
+        queryParam.addCriteriaList(whereCriteria);
+        return queryParam;
+    }
+
+    private void makeRemoteOneToOneRelation(
+            List<M> resultList, RemoteRelationStruct relationStruct, ResponseResult<List<Object>> result) {
+        if (result.isSuccess()) {
+            List<Object> relationList = result.getData();
+            MyModelUtil.makeOneToOneRelation(
+                    modelClass, resultList, relationList, relationStruct.relationField.getName());
+        } else {
+            this.logErrorOrThrowException(result.getErrorMessage());
         }
     }
 
@@ -811,21 +1300,18 @@ public abstract class BaseService<M, D, K> {
             return;
         }
         for (RemoteRelationStruct relationStruct : this.remoteRelationOneToOneStructList) {
-            Object id = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+            Object id = relationStruct.masterIdAccessor.get(dataObject);
             if (id == null) {
                 continue;
             }
-            MyQueryParam queryParam = new MyQueryParam(withDict);
-            MyWhereCriteria whereCriteria = new MyWhereCriteria();
-            whereCriteria.setCriteria(
-                    relationStruct.relationOneToOne.slaveIdField(), MyWhereCriteria.OPERATOR_EQUAL, id);
-            queryParam.addCriteriaList(whereCriteria);
-            ResponseResult<Object> result = relationStruct.remoteClient.getBy(queryParam);
+            // 并发的单条查询会被合并为一次批量查询，返回的关联对象已经完成了类型转换。
+            RequestCollapser<Object, Object> collapser =
+                    withDict ? relationStruct.withDictCollapser : relationStruct.collapser;
+            ResponseResult<Object> result = collapser.get(id);
             if (result.isSuccess()) {
-                Object relationObject = this.normalizeData(
-                        result.getData(), relationStruct.relationOneToOne.slaveModelClass());
+                Object relationObject = result.getData();
                 if (relationObject != null) {
-                    ReflectUtil.setFieldValue(dataObject, relationStruct.relationField, relationObject);
+                    relationStruct.relationAccessor.set(dataObject, relationObject);
                 }
             } else {
                 this.logErrorOrThrowException(result.getErrorMessage());
@@ -847,36 +1333,54 @@ public abstract class BaseService<M, D, K> {
             return;
         }
         for (RemoteRelationStruct relationStruct : this.remoteRelationDictStructList) {
-            List<Object> relationList = null;
             if (hasBuiltOneToOne && relationStruct.equalOneToOneRelationField != null) {
-                relationList = resultList.stream()
-                        .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.equalOneToOneRelationField))
-                        .filter(Objects::nonNull)
-                        .collect(toList());
-            } else {
-                Set<Object> masterIdSet = resultList.stream()
-                        .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.masterIdField))
-                        .filter(Objects::nonNull)
-                        .collect(toSet());
-                if (CollectionUtils.isEmpty(masterIdSet)) {
-                    continue;
-                }
-                MyQueryParam queryParam = new MyQueryParam(false);
-                MyWhereCriteria whereCriteria = new MyWhereCriteria();
-                whereCriteria.setCriteria(
-                        relationStruct.relationDict.slaveIdField(), MyWhereCriteria.OPERATOR_IN, masterIdSet);
-                queryParam.addCriteriaList(whereCriteria);
-                ResponseResult<List<Object>> result = relationStruct.remoteClient.listBy(queryParam);
-                // 成功或者没有数据
-                if (result.isSuccess()) {
-                    relationList = result.getData();
-                } else {
-                    logErrorOrThrowException(result.getErrorMessage());
-                }
+                this.makeRemoteDictRelationFromOneToOne(resultList, relationStruct);
+                continue;
             }
-            MyModelUtil.makeDictRelation(
-                    modelClass, resultList, relationList, relationStruct.relationField.getName());
+            Set<Object> masterIdSet = this.collectMasterIdSet(resultList, relationStruct);
+            if (CollectionUtils.isEmpty(masterIdSet)) {
+                continue;
+            }
+            if (relationStruct.replicaCache != null && relationStruct.replicaCache.isReady()) {
+                MyModelUtil.makeDictRelation(modelClass, resultList,
+                        relationStruct.replicaCache.getInList(masterIdSet), relationStruct.relationField.getName());
+                continue;
+            }
+            ResponseResult<List<Object>> result = this.callRemoteInChunks(masterIdSet, true,
+                    chunk -> relationStruct.remoteClient.listBy(this.makeRemoteDictQueryParam(chunk, relationStruct)));
+            this.makeRemoteDictRelation(resultList, relationStruct, result);
+        }
+    }
+
+    private MyQueryParam makeRemoteDictQueryParam(List<Object> masterIdList, RemoteRelationStruct relationStruct) {
+        MyQueryParam queryParam = new MyQueryParam(false);
+        MyWhereCriteria whereCriteria = new MyWhereCriteria();
+        whereCriteria.setCriteria(
+                relationStruct.relationDict.slaveIdField(), MyWhereCriteria.OPERATOR_IN, masterIdList);
+        queryParam.addCriteriaList(whereCriteria);
+        return queryParam;
+    }
+
+    private void makeRemoteDictRelationFromOneToOne(List<M> resultList, RemoteRelationStruct relationStruct) {
+        List<Object> relationList = resultList.stream()
+                .map(obj -> relationStruct.equalOneToOneRelationAccessor.get(obj))
+                .filter(Objects::nonNull)
+                .collect(toList());
+        MyModelUtil.makeDictRelation(
+                modelClass, resultList, relationList, relationStruct.relationField.getName());
+    }
+
+    private void makeRemoteDictRelation(
+            List<M> resultList, RemoteRelationStruct relationStruct, ResponseResult<List<Object>> result) {
+        List<Object> relationList = null;
+        // 成功或者没有数据
+        if (result.isSuccess()) {
+            relationList = result.getData();
+        } else {
+            logErrorOrThrowException(result.getErrorMessage());
         }
+        MyModelUtil.makeDictRelation(
+                modelClass, resultList, relationList, relationStruct.relationField.getName());
     }
 
     /**
@@ -894,23 +1398,21 @@ public abstract class BaseService<M, D, K> {
         for (RemoteRelationStruct relationStruct : this.remoteRelationDictStructList) {
             Object relationObject = null;
             if (hasBuiltOneToOne && relationStruct.equalOneToOneRelationField != null) {
-                relationObject = ReflectUtil.getFieldValue(dataObject, relationStruct.equalOneToOneRelationField);
+                relationObject = relationStruct.equalOneToOneRelationAccessor.get(dataObject);
             } else {
-                Object id = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+                Object id = relationStruct.masterIdAccessor.get(dataObject);
                 if (id == null) {
                     continue;
                 }
-                MyQueryParam queryParam = new MyQueryParam(false);
-                MyWhereCriteria whereCriteria = new MyWhereCriteria();
-                whereCriteria.setCriteria(
-                        relationStruct.relationDict.slaveIdField(), MyWhereCriteria.OPERATOR_EQUAL, id);
-                queryParam.addCriteriaList(whereCriteria);
-                ResponseResult<Object> result = relationStruct.remoteClient.getBy(queryParam);
-                if (result.isSuccess()) {
-                    relationObject = this.normalizeData(
-                            result.getData(), relationStruct.relationDict.slaveModelClass());
+                if (relationStruct.replicaCache != null && relationStruct.replicaCache.isReady()) {
+                    relationObject = relationStruct.replicaCache.get(id);
                 } else {
-                    this.logErrorOrThrowException(result.getErrorMessage());
+                    ResponseResult<Object> result = relationStruct.collapser.get(id);
+                    if (result.isSuccess()) {
+                        relationObject = result.getData();
+                    } else {
+                        this.logErrorOrThrowException(result.getErrorMessage());
+                    }
                 }
             }
             MyModelUtil.makeDictRelation(
@@ -934,38 +1436,52 @@ public abstract class BaseService<M, D, K> {
             criteriaListMap = new HashMap<>(this.remoteRelationOneToManyAggrStructList.size());
         }
         for (RemoteRelationStruct relationStruct : this.remoteRelationOneToManyAggrStructList) {
-            Set<Object> masterIdSet = resultList.stream()
-                    .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.masterIdField))
-                    .filter(Objects::nonNull)
-                    .collect(toSet());
+            Set<Object> masterIdSet = this.collectMasterIdSet(resultList, relationStruct);
             if (CollectionUtils.isEmpty(masterIdSet)) {
                 continue;
             }
-            RelationOneToManyAggregation relation = relationStruct.relationOneToManyAggregation;
-            MyAggregationParam aggregationParam =
-                    createAggregationParam(AggregationKind.ONE_TO_MANY,
-                            relation.aggregationType(), relation.aggregationField(), relation.slaveIdField());
-            List<MyWhereCriteria> criteriaList =
-                    criteriaListMap.get(relationStruct.relationField.getName());
-            if (criteriaList == null) {
-                criteriaList = new LinkedList<>();
-            }
-            MyWhereCriteria criteria = new MyWhereCriteria();
-            CallResult result = criteria.setCriteria(
-                    relation.slaveIdField(), MyWhereCriteria.OPERATOR_IN, masterIdSet);
-            if (!result.isSuccess()) {
-                log.error("过滤条件设置失败，错误：" + result.getErrorMessage());
-                throw new IllegalStateException(result.getErrorMessage());
-            }
-            criteriaList.add(criteria);
-            aggregationParam.setWhereCriteriaList(criteriaList);
-            ResponseResult<List<Map<String, Object>>> responseResult =
-                    relationStruct.remoteClient.aggregateBy(aggregationParam);
-            if (responseResult.isSuccess()) {
-                this.doMakeAggregationData(responseResult.getData(), resultList, relationStruct);
-            } else {
-                this.logErrorOrThrowException(result.getErrorMessage());
-            }
+            Map<String, List<MyWhereCriteria>> aggrCriteriaListMap = criteriaListMap;
+            ResponseResult<List<Map<String, Object>>> responseResult = this.callRemoteInChunks(masterIdSet, true,
+                    chunk -> relationStruct.remoteClient.aggregateBy(
+                            this.makeRemoteOneToManyAggregationParam(chunk, aggrCriteriaListMap, relationStruct)));
+            this.makeRemoteAggregationData(resultList, relationStruct, responseResult);
+        }
+    }
+
+    private MyAggregationParam makeRemoteOneToManyAggregationParam(
+            List<Object> masterIdList,
+            Map<String, List<MyWhereCriteria>> criteriaListMap,
+            RemoteRelationStruct relationStruct) {
+        RelationOneToManyAggregation relation = relationStruct.relationOneToManyAggregation;
+        MyAggregationParam aggregationParam =
+                createAggregationParam(AggregationKind.ONE_TO_MANY,
+                        relation.aggregationType(), relation.aggregationField(), relation.slaveIdField());
+        // 每个分块都会创建新的过滤条件列表，不能修改调用者传入的过滤条件列表。
+        List<MyWhereCriteria> criteriaList = new LinkedList<>();
+        List<MyWhereCriteria> additionalCriteriaList = criteriaListMap.get(relationStruct.relationField.getName());
+        if (additionalCriteriaList != null) {
+            criteriaList.addAll(additionalCriteriaList);
+        }
+        MyWhereCriteria criteria = new MyWhereCriteria();
+        CallResult result = criteria.setCriteria(
+                relation.slaveIdField(), MyWhereCriteria.OPERATOR_IN, masterIdList);
+        if (!result.isSuccess()) {
+            log.error("过滤条件设置失败，错误：" + result.getErrorMessage());
+            throw new IllegalStateException(result.getErrorMessage());
+        }
+        criteriaList.add(criteria);
+        aggregationParam.setWhereCriteriaList(criteriaList);
+        return aggregationParam;
+    }
+
+    private void makeRemoteAggregationData(
+            List<M> resultList,
+            RemoteRelationStruct relationStruct,
+            ResponseResult<List<Map<String, Object>>> responseResult) {
+        if (responseResult.isSuccess()) {
+            this.doMakeAggregationData(responseResult.getData(), resultList, relationStruct);
+        } else {
+            this.logErrorOrThrowException(responseResult.getErrorMessage());
         }
     }
 
@@ -985,16 +1501,18 @@ public abstract class BaseService<M, D, K> {
             criteriaListMap = new HashMap<>(this.remoteRelationOneToManyAggrStructList.size());
         }
         for (RemoteRelationStruct relationStruct : this.remoteRelationOneToManyAggrStructList) {
-            Object masterIdValue = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+            Object masterIdValue = relationStruct.masterIdAccessor.get(dataObject);
             if (masterIdValue == null) {
                 continue;
             }
             RelationOneToManyAggregation relation = relationStruct.relationOneToManyAggregation;
             MyAggregationParam aggregationParam = createAggregationParam(AggregationKind.ONE_TO_MANY,
                     relation.aggregationType(), relation.aggregationField(), relation.slaveIdField());
-            List<MyWhereCriteria> criteriaList = criteriaListMap.get(relationStruct.relationField.getName());
-            if (criteriaList == null) {
-                criteriaList = new LinkedList<>();
+            // 不能修改调用者传入的过滤条件列表，否则每个关联都会在其中累积一个主表关联条件。
+            List<MyWhereCriteria> criteriaList = new LinkedList<>();
+            List<MyWhereCriteria> additionalCriteriaList = criteriaListMap.get(relationStruct.relationField.getName());
+            if (additionalCriteriaList != null) {
+                criteriaList.addAll(additionalCriteriaList);
             }
             MyWhereCriteria criteria = new MyWhereCriteria();
             criteria.setCriteria(relation.slaveModelClass(),
@@ -1030,7 +1548,7 @@ public abstract class BaseService<M, D, K> {
         }
         for (RemoteRelationStruct relationStruct : this.remoteRelationManyToManyAggrStructList) {
             Set<Object> masterIdSet = resultList.stream()
-                    .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.masterIdField))
+                    .map(obj -> relationStruct.masterIdAccessor.get(obj))
                     .filter(Objects::nonNull)
                     .collect(toSet());
             if (CollectionUtils.isEmpty(masterIdSet)) {
@@ -1039,11 +1557,11 @@ public abstract class BaseService<M, D, K> {
             RelationManyToManyAggregation relation = relationStruct.relationManyToManyAggregation;
             // 这里需要拆分出哪些是关联表过滤，哪些是从表过滤。
             RemoteAggregationRelationInfo relationInfo = this.parseRemoteAggregationRelationInfo(
-                    relationStruct, criteriaListMap, masterIdSet, true);
+                    relationStruct, criteriaListMap, masterIdSet);
             // 先处理聚合字段位于中间表的case。
             if (relation.aggregationModelClass().equals(relation.relationModelClass())) {
                 this.processRemoteManyToManyAggregationWithRelationModel(
-                        relationInfo, relation, relationStruct, resultList, masterIdSet, true);
+                        relationInfo, relation, relationStruct, resultList, masterIdSet);
             } else {
                 this.processRemoteManyToManyAggregationWithSlaveModel(
                         relationInfo, relation, relationStruct, resultList);
@@ -1066,20 +1584,20 @@ public abstract class BaseService<M, D, K> {
             criteriaListMap = new HashMap<>(this.remoteRelationManyToManyAggrStructList.size());
         }
         for (RemoteRelationStruct relationStruct : this.remoteRelationManyToManyAggrStructList) {
-            Object masterIdValue = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+            Object masterIdValue = relationStruct.masterIdAccessor.get(dataObject);
             if (masterIdValue == null) {
                 continue;
             }
             RelationManyToManyAggregation relation = relationStruct.relationManyToManyAggregation;
             // 这里需要拆分出哪些是关联表过滤，哪些是从表过滤。
             RemoteAggregationRelationInfo relationInfo = this.parseRemoteAggregationRelationInfo(
-                    relationStruct, criteriaListMap, masterIdValue, false);
+                    relationStruct, criteriaListMap, masterIdValue);
             List<M> resultList = new LinkedList<>();
             resultList.add(dataObject);
             // 先处理聚合字段位于中间表的case。
             if (relation.aggregationModelClass().equals(relation.relationModelClass())) {
                 this.processRemoteManyToManyAggregationWithRelationModel(
-                        relationInfo, relation, relationStruct, resultList, masterIdValue, false);
+                        relationInfo, relation, relationStruct, resultList, masterIdValue);
             } else {
                 this.processRemoteManyToManyAggregationWithSlaveModel(
                         relationInfo, relation, relationStruct, resultList);
@@ -1105,7 +1623,7 @@ public abstract class BaseService<M, D, K> {
         }
         for (LocalRelationStruct relationStruct : this.localRelationOneToOneStructList) {
             Set<Object> masterIdSet = resultList.stream()
-                    .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.masterIdField))
+                    .map(obj -> relationStruct.masterIdAccessor.get(obj))
                     .filter(Objects::nonNull)
                     .collect(toSet());
             // 从主表集合中，抽取主表关联字段的集合，再以in list形式去从表中查询。
@@ -1145,11 +1663,11 @@ public abstract class BaseService<M, D, K> {
             return;
         }
         for (LocalRelationStruct relationStruct : this.localRelationOneToOneStructList) {
-            Object id = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+            Object id = relationStruct.masterIdAccessor.get(dataObject);
             if (id != null) {
                 BaseService<Object, Object, Object> relationService = relationStruct.localService;
                 Object relationObject = relationService.getById(id);
-                ReflectUtil.setFieldValue(dataObject, relationStruct.relationField, relationObject);
+                relationStruct.relationAccessor.set(dataObject, relationObject);
                 // 仅仅当需要加载从表字典关联时，才去加载。
                 if (withDict && relationStruct.relationOneToOne.loadSlaveDict() && relationObject != null) {
                     @SuppressWarnings("unchecked")
@@ -1182,13 +1700,13 @@ public abstract class BaseService<M, D, K> {
             List<Object> relationList = null;
             if (hasBuiltOneToOne && relationStruct.equalOneToOneRelationField != null) {
                 relationList = resultList.stream()
-                        .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.equalOneToOneRelationField))
+                        .map(obj -> relationStruct.equalOneToOneRelationAccessor.get(obj))
                         .filter(Objects::nonNull)
                         .collect(toList());
             } else {
                 String slaveId = relationStruct.relationDict.slaveIdField();
                 Set<Object> masterIdSet = resultList.stream()
-                        .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.masterIdField))
+                        .map(obj -> relationStruct.masterIdAccessor.get(obj))
                         .filter(Objects::nonNull)
                         .collect(toSet());
                 if (CollectionUtils.isNotEmpty(masterIdSet)) {
@@ -1214,9 +1732,9 @@ public abstract class BaseService<M, D, K> {
         for (LocalRelationStruct relationStruct : this.localRelationDictStructList) {
             Object relationObject = null;
             if (hasBuiltOneToOne && relationStruct.equalOneToOneRelationField != null) {
-                relationObject = ReflectUtil.getFieldValue(dataObject, relationStruct.equalOneToOneRelationField);
+                relationObject = relationStruct.equalOneToOneRelationAccessor.get(dataObject);
             } else {
-                Object id = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+                Object id = relationStruct.masterIdAccessor.get(dataObject);
                 if (id != null) {
                     relationObject = relationStruct.localService.getById(id);
                 }
@@ -1234,68 +1752,7 @@ public abstract class BaseService<M, D, K> {
      */
     private void buildManyToManyAggregationForDataList(
             List<M> resultList, Map<String, List<MyWhereCriteria>> criteriaListMap) {
-        if (CollectionUtils.isEmpty(this.localRelationManyToManyAggrStructList)
-                || CollectionUtils.isEmpty(resultList)) {
-            return;
-        }
-        if (criteriaListMap == null) {
-            criteriaListMap = new HashMap<>(this.localRelationManyToManyAggrStructList.size());
-        }
-        for (LocalRelationStruct relationStruct : this.localRelationManyToManyAggrStructList) {
-            Set<Object> masterIdSet = resultList.stream()
-                    .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.masterIdField))
-                    .filter(Objects::nonNull)
-                    .collect(toSet());
-            if (CollectionUtils.isEmpty(masterIdSet)) {
-                continue;
-            }
-            RelationManyToManyAggregation relation = relationStruct.relationManyToManyAggregation;
-            // 提取关联中用到的各种字段和表数据。
-            LocalAggregationRelationInfo basicRelationInfo =
-                    this.parseLocalAggregationRelationInfo(relationStruct, criteriaListMap);
-            // 构建多表关联的where语句
-            StringBuilder whereClause = new StringBuilder(256);
-            // 如果需要从表聚合计算或参与过滤，则需要把中间表和从表之间的关联条件加上。
-            if (!basicRelationInfo.onlySelectRelationTable) {
-                whereClause.append(basicRelationInfo.relationTable)
-                        .append(".")
-                        .append(basicRelationInfo.relationSlaveColumn)
-                        .append(" = ")
-                        .append(basicRelationInfo.slaveTable)
-                        .append(".")
-                        .append(basicRelationInfo.slaveColumn);
-            } else {
-                whereClause.append("1 = 1");
-            }
-            List<MyWhereCriteria> criteriaList = criteriaListMap.get(relationStruct.relationField.getName());
-            if (criteriaList == null) {
-                criteriaList = new LinkedList<>();
-            }
-            MyWhereCriteria inlistFilter = new MyWhereCriteria();
-            inlistFilter.setCriteria(relation.relationModelClass(),
-                    relation.relationMasterIdField(), MyWhereCriteria.OPERATOR_IN, masterIdSet);
-            criteriaList.add(inlistFilter);
-            if (StringUtils.isNotBlank(relationStruct.localService.deletedFlagFieldName)) {
-                MyWhereCriteria deleteFilter = new MyWhereCriteria();
-                deleteFilter.setCriteria(
-                        relation.slaveModelClass(),
-                        relationStruct.localService.deletedFlagFieldName,
-                        MyWhereCriteria.OPERATOR_EQUAL,
-                        GlobalDeletedFlag.NORMAL);
-                criteriaList.add(deleteFilter);
-            }
-            String criteriaString = MyWhereCriteria.makeCriteriaString(criteriaList);
-            whereClause.append(AND_OP).append(criteriaString);
-            StringBuilder tableNames = new StringBuilder(64);
-            tableNames.append(basicRelationInfo.relationTable);
-            if (!basicRelationInfo.onlySelectRelationTable) {
-                tableNames.append(", ").append(basicRelationInfo.slaveTable);
-            }
-            List<Map<String, Object>> aggregationMapList =
-                    mapper().getGroupedListByCondition(tableNames.toString(),
-                            basicRelationInfo.selectList, whereClause.toString(), basicRelationInfo.groupBy);
-            doMakeAggregationData(aggregationMapList, resultList, relationStruct);
-        }
+        this.buildLocalAggregationForDataList(resultList, criteriaListMap, this.localRelationManyToManyAggrStructList);
     }
 
     /**
@@ -1306,52 +1763,7 @@ public abstract class BaseService<M, D, K> {
      */
     private void buildOneToManyAggregationForDataList(
             List<M> resultList, Map<String, List<MyWhereCriteria>> criteriaListMap) {
-        if (CollectionUtils.isEmpty(this.localRelationOneToManyAggrStructList)
-                || CollectionUtils.isEmpty(resultList)) {
-            return;
-        }
-        if (criteriaListMap == null) {
-            criteriaListMap = new HashMap<>(localRelationOneToManyAggrStructList.size());
-        }
-        for (LocalRelationStruct relationStruct : this.localRelationOneToManyAggrStructList) {
-            Set<Object> masterIdSet = resultList.stream()
-                    .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.masterIdField))
-                    .filter(Objects::nonNull)
-                    .collect(toSet());
-            if (CollectionUtils.isNotEmpty(masterIdSet)) {
-                RelationOneToManyAggregation relation = relationStruct.relationOneToManyAggregation;
-                // 开始获取后面所需的各种关联数据。此部分今后可以移植到缓存中，无需每次计算。
-                String slaveTable = MyModelUtil.mapToTableName(relation.slaveModelClass());
-                String slaveColumnName = MyModelUtil.mapToColumnName(
-                        relation.slaveIdField(), relation.slaveModelClass());
-                Tuple2<String, String> selectAndGroupByTuple = makeSelectListAndGroupByClause(
-                        slaveTable, slaveColumnName, relation.slaveModelClass(),
-                        slaveTable, relation.aggregationField(), relation.aggregationType());
-                String selectList = selectAndGroupByTuple.getFirst();
-                String groupBy = selectAndGroupByTuple.getSecond();
-                List<MyWhereCriteria> criteriaList = criteriaListMap.get(relationStruct.relationField.getName());
-                if (criteriaList == null) {
-                    criteriaList = new LinkedList<>();
-                }
-                MyWhereCriteria inlistFilter = new MyWhereCriteria();
-                inlistFilter.setCriteria(relation.slaveModelClass(),
-                        relation.slaveIdField(), MyWhereCriteria.OPERATOR_IN, masterIdSet);
-                criteriaList.add(inlistFilter);
-                if (StringUtils.isNotBlank(relationStruct.localService.deletedFlagFieldName)) {
-                    MyWhereCriteria deleteFilter = new MyWhereCriteria();
-                    deleteFilter.setCriteria(
-                            relation.slaveModelClass(),
-                            relationStruct.localService.deletedFlagFieldName,
-                            MyWhereCriteria.OPERATOR_EQUAL,
-                            GlobalDeletedFlag.NORMAL);
-                    criteriaList.add(deleteFilter);
-                }
-                String criteriaString = MyWhereCriteria.makeCriteriaString(criteriaList);
-                List<Map<String, Object>> aggregationMapList =
-                        mapper().getGroupedListByCondition(slaveTable, selectList, criteriaString, groupBy);
-                doMakeAggregationData(aggregationMapList, resultList, relationStruct);
-            }
-        }
+        this.buildLocalAggregationForDataList(resultList, criteriaListMap, this.localRelationOneToManyAggrStructList);
     }
 
     /**
@@ -1362,38 +1774,7 @@ public abstract class BaseService<M, D, K> {
      */
     private <T extends M> void buildManyToManyAggregationForData(
             T dataObject, Map<String, List<MyWhereCriteria>> criteriaListMap) {
-        if (dataObject == null || CollectionUtils.isEmpty(this.localRelationManyToManyAggrStructList)) {
-            return;
-        }
-        if (criteriaListMap == null) {
-            criteriaListMap = new HashMap<>(localRelationManyToManyAggrStructList.size());
-        }
-        for (LocalRelationStruct relationStruct : this.localRelationManyToManyAggrStructList) {
-            Object masterIdValue = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
-            if (masterIdValue == null) {
-                continue;
-            }
-            LocalAggregationRelationInfo basicRelationInfo =
-                    this.parseLocalAggregationRelationInfo(relationStruct, criteriaListMap);
-            // 组装过滤条件
-            String whereClause = this.makeManyToManyWhereClause(
-                    relationStruct, masterIdValue, basicRelationInfo, criteriaListMap);
-            StringBuilder tableNames = new StringBuilder(64);
-            tableNames.append(basicRelationInfo.relationTable);
-            if (!basicRelationInfo.onlySelectRelationTable) {
-                tableNames.append(", ").append(basicRelationInfo.slaveTable);
-            }
-            List<Map<String, Object>> aggregationMapList =
-                    mapper().getGroupedListByCondition(tableNames.toString(),
-                            basicRelationInfo.selectList, whereClause, basicRelationInfo.groupBy);
-            // 将查询后的结果回填到主表数据中。
-            if (CollectionUtils.isNotEmpty(aggregationMapList)) {
-                Object value = aggregationMapList.get(0).get(MyAggregationParam.VALUE_NAME);
-                if (value != null) {
-                    ReflectUtil.setFieldValue(dataObject, relationStruct.relationField, value);
-                }
-            }
-        }
+        this.buildLocalAggregationForData(dataObject, criteriaListMap, this.localRelationManyToManyAggrStructList);
     }
 
     /**
@@ -1404,41 +1785,83 @@ public abstract class BaseService<M, D, K> {
      */
     private <T extends M> void buildOneToManyAggregationForData(
             T dataObject, Map<String, List<MyWhereCriteria>> criteriaListMap) {
-        if (dataObject == null || CollectionUtils.isEmpty(this.localRelationOneToManyAggrStructList)) {
+        this.buildLocalAggregationForData(dataObject, criteriaListMap, this.localRelationOneToManyAggrStructList);
+    }
+
+    private void buildLocalAggregationForDataList(
+            List<M> resultList,
+            Map<String, List<MyWhereCriteria>> criteriaListMap,
+            List<LocalRelationStruct> relationStructList) {
+        if (CollectionUtils.isEmpty(relationStructList) || CollectionUtils.isEmpty(resultList)) {
             return;
         }
-        if (criteriaListMap == null) {
-            criteriaListMap = new HashMap<>(localRelationOneToManyAggrStructList.size());
+        for (LocalRelationStruct relationStruct : relationStructList) {
+            Set<Object> masterIdSet = resultList.stream()
+                    .map(obj -> relationStruct.masterIdAccessor.get(obj))
+                    .filter(Objects::nonNull)
+                    .collect(toSet());
+            if (CollectionUtils.isNotEmpty(masterIdSet)) {
+                List<Map<String, Object>> aggregationMapList =
+                        this.getLocalAggregationList(relationStruct, masterIdSet, criteriaListMap);
+                doMakeAggregationData(aggregationMapList, resultList, relationStruct);
+            }
+        }
+    }
+
+    private <T extends M> void buildLocalAggregationForData(
+            T dataObject,
+            Map<String, List<MyWhereCriteria>> criteriaListMap,
+            List<LocalRelationStruct> relationStructList) {
+        if (dataObject == null || CollectionUtils.isEmpty(relationStructList)) {
+            return;
         }
-        for (LocalRelationStruct relationStruct : this.localRelationOneToManyAggrStructList) {
-            Object masterIdValue = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+        for (LocalRelationStruct relationStruct : relationStructList) {
+            Object masterIdValue = relationStruct.masterIdAccessor.get(dataObject);
             if (masterIdValue == null) {
                 continue;
             }
-            RelationOneToManyAggregation relation = relationStruct.relationOneToManyAggregation;
-            String slaveTable = MyModelUtil.mapToTableName(relation.slaveModelClass());
-            String slaveColumnName =
-                    MyModelUtil.mapToColumnName(relation.slaveIdField(), relation.slaveModelClass());
-            Tuple2<String, String> selectAndGroupByTuple = makeSelectListAndGroupByClause(
-                    slaveTable, slaveColumnName, relation.slaveModelClass(),
-                    slaveTable, relation.aggregationField(), relation.aggregationType());
-            String selectList = selectAndGroupByTuple.getFirst();
-            String groupBy = selectAndGroupByTuple.getSecond();
-            String whereClause = this.makeOneToManyWhereClause(
-                    relationStruct, masterIdValue, slaveColumnName, criteriaListMap);
-            // 获取分组聚合计算结果
             List<Map<String, Object>> aggregationMapList =
-                    mapper().getGroupedListByCondition(slaveTable, selectList, whereClause, groupBy);
+                    this.getLocalAggregationList(relationStruct, masterIdValue, criteriaListMap);
             // 将计算结果回填到主表关联字段
             if (CollectionUtils.isNotEmpty(aggregationMapList)) {
                 Object value = aggregationMapList.get(0).get(MyAggregationParam.VALUE_NAME);
                 if (value != null) {
-                    ReflectUtil.setFieldValue(dataObject, relationStruct.relationField, value);
+                    relationStruct.relationAccessor.set(dataObject, value);
                 }
             }
         }
     }
 
+    /**
+     * 基于启动时预编译的聚合查询计划，获取本地关联的分组聚合计算结果。
+     * 查询中的表名、字段名、Select List和Group By从句均来自查询计划，这里仅需绑定主表关联字段值和自定义过滤条件。
+     *
+     * @param relationStruct  本地聚合关联结构。
+     * @param masterIdValue   主表关联字段值，如果是集合对象，则作为IN列表的条件值。
+     * @param criteriaListMap 过滤参数。key为主表字段名称，value是过滤条件列表，可以为null。
+     * @return 分组聚合计算结果。
+     */
+    private List<Map<String, Object>> getLocalAggregationList(
+            LocalRelationStruct relationStruct,
+            Object masterIdValue,
+            Map<String, List<MyWhereCriteria>> criteriaListMap) {
+        AggregationPlan plan = relationStruct.aggregationPlan;
+        List<MyWhereCriteria> criteriaList = criteriaListMap == null
+                ? null : criteriaListMap.get(relationStruct.relationField.getName());
+        boolean withSlaveTable = plan.isSlaveTableRequired(criteriaList);
+        if (!(masterIdValue instanceof Collection)) {
+            MyWhereClause whereClause = plan.makeWhereClause(masterIdValue, withSlaveTable, criteriaList);
+            return mapper().getGroupedListByCondition(
+                    plan.getTableNames(withSlaveTable), plan.selectList, whereClause, plan.groupBy);
+        }
+        // 分组键就是主表关联字段，因此各分块的分组结果互不重叠，可以直接合并。
+        return this.executeInChunks((Collection<?>) masterIdValue, chunk -> {
+            MyWhereClause whereClause = plan.makeWhereClause(chunk, withSlaveTable, criteriaList);
+            return mapper().getGroupedListByCondition(
+                    plan.getTableNames(withSlaveTable), plan.selectList, whereClause, plan.groupBy);
+        });
+    }
+
     /**
      * 仅仅在spring boot 启动后的监听器事件中调用，缓存所有远程调用Client的关联关系，加速后续的数据绑定效率。
      */
@@ -1449,6 +1872,14 @@ public abstract class BaseService<M, D, K> {
             initializeRemoteRelationStruct(f);
             initializeRemoteRelationAggregationStruct(f);
         }
+        compileRelationAccessor(remoteRelationDictStructList);
+        compileRelationAccessor(remoteRelationOneToOneStructList);
+        compileRelationAccessor(remoteRelationOneToManyAggrStructList);
+        compileRelationAccessor(remoteRelationManyToManyAggrStructList);
+        this.remoteRelationExecutor =
+                ApplicationContextHolder.getBean(RemoteRelationExecutorConfig.REMOTE_RELATION_EXECUTOR);
+        this.remoteRelationTimeoutMillis =
+                ApplicationContextHolder.getBean(RemoteRelationExecutorConfig.class).getTimeoutMillis();
     }
 
     /**
@@ -1461,6 +1892,14 @@ public abstract class BaseService<M, D, K> {
             initializeLocalRelationStruct(f);
             initializeLocalRelationAggregationStruct(f);
         }
+        compileRelationAccessor(relationConstDictStructList);
+        compileRelationAccessor(localRelationDictStructList);
+        compileRelationAccessor(localRelationOneToOneStructList);
+        compileRelationAccessor(localRelationManyToManyStructList);
+        compileRelationAccessor(localRelationOneToManyAggrStructList);
+        compileRelationAccessor(localRelationManyToManyAggrStructList);
+        this.inListChunkSize = ApplicationContextHolder.getBean(InListChunkConfig.class).getChunkSize();
+        this.inListExecutor = ApplicationContextHolder.getBean(InListChunkConfig.IN_LIST_EXECUTOR);
     }
 
     /**
@@ -1499,6 +1938,28 @@ public abstract class BaseService<M, D, K> {
         return !data.equals(originalData);
     }
 
+    /**
+     * needToVerify的批量版本，依次判断对象列表中每个对象的关联字段数据是否需要被验证，并收集全部需要验证的字段值。
+     * 收集后的字段值可以添加到RemoteRelationVerifier中，整批数据对每个远程服务只需发起一次验证调用。
+     *
+     * @param objectList         新对象列表。
+     * @param originalObjectList 原有对象列表，与objectList按照位置一一对应。为null时表示全部为新插入的对象。
+     * @param fieldGetter        获取需要验证字段的函数对象。
+     * @param <T>                需要验证字段的类型。
+     * @return 需要验证的字段值集合，没有需要验证的数据时返回空集合。
+     */
+    protected <T> Set<T> collectToVerify(List<M> objectList, List<M> originalObjectList, Function<M, T> fieldGetter) {
+        Set<T> resultSet = new LinkedHashSet<>();
+        for (int i = 0; i < objectList.size(); i++) {
+            M object = objectList.get(i);
+            M originalObject = originalObjectList == null ? null : originalObjectList.get(i);
+            if (this.needToVerify(object, originalObject, fieldGetter)) {
+                resultSet.add(fieldGetter.apply(object));
+            }
+        }
+        return resultSet;
+    }
+
     /**
      * 判断远程关联数据是否包含错误信息。
      *
@@ -1534,6 +1995,131 @@ public abstract class BaseService<M, D, K> {
         return e;
     }
 
+    /**
+     * 将IN列表的条件值按照InListChunkConfig中配置的分块大小拆分，每个分块独立调用chunkLoader，再按照分块的顺序合并结果。
+     * 条件值数量未超过分块大小时，直接在当前线程中调用一次。存在多个分块时，分块查询会提交到有界的数据库查询线程池中并行执行。
+     * 如果当前线程处于事务中，则仍在当前线程中依次执行各个分块，以保证查询使用事务中的数据库连接。
+     * 如果已经通过PageHelper开启了分页，则不进行拆分，直接以全部条件值调用一次chunkLoader，否则分页设置只会作用于第一个分块，
+     * 且分页结果和总数也无法跨分块合并。
+     * NOTE: 调用者需要保证各分块的查询结果互不重叠，且合并后的结果不依赖于跨分块的排序。
+     *
+     * @param inFilterValues IN列表的条件值集合。
+     * @param chunkLoader    分块查询函数，参数为分块后的条件值列表。
+     * @param <T>            条件值类型。
+     * @param <R>            查询结果数据类型。
+     * @return 合并后的查询结果。
+     */
+    protected <T, R> List<R> executeInChunks(Collection<T> inFilterValues, Function<List<T>, List<R>> chunkLoader) {
+        // 已经开启分页时不进行拆分，分块大小为0时，全部条件值作为一个分块。
+        int chunkSize = PageMethod.getLocalPage() == null ? this.inListChunkSize : 0;
+        List<List<T>> chunkList = splitInChunks(inFilterValues, chunkSize);
+        if (chunkList.size() == 1) {
+            return chunkLoader.apply(chunkList.get(0));
+        }
+        ThreadPoolTaskExecutor executor =
+                TransactionSynchronizationManager.isActualTransactionActive() ? null : this.inListExecutor;
+        List<List<R>> chunkResultList = executeChunkList(chunkList, executor, chunkLoader);
+        List<R> resultList = new ArrayList<>(chunkResultList.stream().mapToInt(List::size).sum());
+        chunkResultList.forEach(resultList::addAll);
+        return resultList;
+    }
+
+    /**
+     * 与executeInChunks类似，将远程调用的IN列表条件值拆分为多个分块，分别调用后按照分块的顺序合并返回数据。
+     * 任何一个分块调用失败，都将直接返回该分块的错误结果。
+     *
+     * @param masterIdSet  IN列表的条件值集合。
+     * @param parallel     是否将各分块提交到远程关联线程池中并行调用。当前线程已经是该线程池中的线程时，必须为false。
+     * @param remoteCaller 分块远程调用函数，参数为分块后的条件值列表。
+     * @param <T>          返回数据的类型。
+     * @return 合并后的远程调用结果。
+     */
+    private <T> ResponseResult<List<T>> callRemoteInChunks(
+            Set<Object> masterIdSet, boolean parallel, Function<List<Object>, ResponseResult<List<T>>> remoteCaller) {
+        List<List<Object>> chunkList = splitInChunks(masterIdSet, this.inListChunkSize);
+        if (chunkList.size() == 1) {
+            return remoteCaller.apply(chunkList.get(0));
+        }
+        ThreadPoolTaskExecutor executor = parallel ? this.remoteRelationExecutor : null;
+        List<T> dataList = new LinkedList<>();
+        for (ResponseResult<List<T>> result : executeChunkList(chunkList, executor, remoteCaller)) {
+            if (!result.isSuccess()) {
+                return result;
+            }
+            if (result.getData() != null) {
+                dataList.addAll(result.getData());
+            }
+        }
+        return ResponseResult.success(dataList);
+    }
+
+    private static <T> List<List<T>> splitInChunks(Collection<T> values, int chunkSize) {
+        List<T> valueList = values instanceof List ? (List<T>) values : new ArrayList<>(values);
+        if (chunkSize <= 0 || valueList.size() <= chunkSize) {
+            return Collections.singletonList(valueList);
+        }
+        List<List<T>> chunkList = new ArrayList<>((valueList.size() + chunkSize - 1) / chunkSize);
+        for (int i = 0; i < valueList.size(); i += chunkSize) {
+            chunkList.add(valueList.subList(i, Math.min(i + chunkSize, valueList.size())));
+        }
+        return chunkList;
+    }
+
+    private static <T, R> List<R> executeChunkList(
+            List<List<T>> chunkList, ThreadPoolTaskExecutor executor, Function<List<T>, R> chunkLoader) {
+        List<R> resultList = new ArrayList<>(chunkList.size());
+        if (executor == null) {
+            chunkList.forEach(chunk -> resultList.add(chunkLoader.apply(chunk)));
+            return resultList;
+        }
+        List<Future<R>> futureList = new ArrayList<>(chunkList.size() - 1);
+        try {
+            for (List<T> chunk : chunkList.subList(1, chunkList.size())) {
+                futureList.add(executor.submit(() -> chunkLoader.apply(chunk)));
+            }
+            // 第一个分块直接在当前线程中执行，与其他分块并行。
+            resultList.add(chunkLoader.apply(chunkList.get(0)));
+            for (Future<R> future : futureList) {
+                resultList.add(future.get());
+            }
+            return resultList;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new MyRuntimeException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MyRuntimeException(e);
+        } finally {
+            // 异常退出时，取消所有尚未完成的分块。正常退出时，全部分块均已完成，这里不会产生任何影响。
+            futureList.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private Set<Object> collectMasterIdSet(List<M> resultList, RelationStruct relationStruct) {
+        return resultList.stream()
+                .map(obj -> relationStruct.masterIdAccessor.get(obj))
+                .filter(Objects::nonNull)
+                .collect(toSet());
+    }
+
+    private void compileRelationAccessor(List<? extends RelationStruct> relationStructList) {
+        // 关联字段的读写会在每一行数据的每一个关联上执行，因此这里预先编译字段访问器，以避免逐行的反射调用。
+        for (RelationStruct relationStruct : relationStructList) {
+            relationStruct.relationAccessor = FieldAccessor.of(modelClass, relationStruct.relationField);
+            relationStruct.masterIdAccessor = FieldAccessor.of(modelClass, relationStruct.masterIdField);
+            Field equalOneToOneRelationField = null;
+            if (relationStruct instanceof LocalRelationStruct) {
+                equalOneToOneRelationField = ((LocalRelationStruct) relationStruct).equalOneToOneRelationField;
+            } else if (relationStruct instanceof RemoteRelationStruct) {
+                equalOneToOneRelationField = ((RemoteRelationStruct) relationStruct).equalOneToOneRelationField;
+            }
+            relationStruct.equalOneToOneRelationAccessor = FieldAccessor.of(modelClass, equalOneToOneRelationField);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private void initializeRemoteRelationDictStruct(Field f) {
         RelationDict relationDict = f.getAnnotation(RelationDict.class);
@@ -1551,6 +2137,17 @@ public abstract class BaseService<M, D, K> {
             }
             Object client = ApplicationContextHolder.getBean(relationDict.slaveClientClass());
             relationStruct.remoteClient = (BaseClient<Object, Object>) client;
+            BaseClientBatcherFactory batcherFactory = ApplicationContextHolder.getBean(BaseClientBatcherFactory.class);
+            String clientName = StringUtils.uncapitalize(relationDict.slaveClientClass().getSimpleName());
+            relationStruct.collapser = batcherFactory.newCollapser(clientName, "dict",
+                    idSet -> this.listRemoteRelationMap(relationStruct, relationDict.slaveModelClass(),
+                            relationDict.slaveIdField(), this.makeRemoteDictQueryParam(
+                                    new ArrayList<>(idSet), relationStruct)));
+            if (relationDict.replicated()) {
+                DictReplicaManager replicaManager = ApplicationContextHolder.getBean(DictReplicaManager.class);
+                relationStruct.replicaCache = replicaManager.getReplica((Class<Object>) relationDict.slaveModelClass(),
+                        relationDict.slaveIdField(), relationStruct.remoteClient);
+            }
             remoteRelationDictStructList.add(relationStruct);
         }
     }
@@ -1568,6 +2165,16 @@ public abstract class BaseService<M, D, K> {
             relationStruct.relationOneToOne = relationOneToOne;
             Object client = ApplicationContextHolder.getBean(relationOneToOne.slaveClientClass());
             relationStruct.remoteClient = (BaseClient<Object, Object>) client;
+            BaseClientBatcherFactory batcherFactory = ApplicationContextHolder.getBean(BaseClientBatcherFactory.class);
+            String clientName = StringUtils.uncapitalize(relationOneToOne.slaveClientClass().getSimpleName());
+            relationStruct.collapser = batcherFactory.newCollapser(clientName, "oneToOne",
+                    idSet -> this.listRemoteRelationMap(relationStruct, relationOneToOne.slaveModelClass(),
+                            relationOneToOne.slaveIdField(), this.makeRemoteOneToOneQueryParam(
+                                    new ArrayList<>(idSet), false, relationStruct)));
+            relationStruct.withDictCollapser = batcherFactory.newCollapser(clientName, "oneToOneWithDict",
+                    idSet -> this.listRemoteRelationMap(relationStruct, relationOneToOne.slaveModelClass(),
+                            relationOneToOne.slaveIdField(), this.makeRemoteOneToOneQueryParam(
+                                    new ArrayList<>(idSet), true, relationStruct)));
             remoteRelationOneToOneStructList.add(relationStruct);
         }
     }
@@ -1600,6 +2207,7 @@ public abstract class BaseService<M, D, K> {
             relationStruct.masterIdField = ReflectUtil.getField(
                     modelClass, relationManyToManyAggregation.masterIdField());
             relationStruct.relationManyToManyAggregation = relationManyToManyAggregation;
+            relationStruct.aggregationPlan = AggregationPlan.ofManyToMany(relationManyToManyAggregation, null, false);
             Object client = ApplicationContextHolder.getBean(relationManyToManyAggregation.slaveClientClass());
             relationStruct.remoteClient = (BaseClient<Object, Object>) client;
             remoteRelationManyToManyAggrStructList.add(relationStruct);
@@ -1677,6 +2285,8 @@ public abstract class BaseService<M, D, K> {
             relationStruct.relationOneToManyAggregation = relationOneToManyAggregation;
             relationStruct.localService = ApplicationContextHolder.getBean(
                     StringUtils.uncapitalize(relationOneToManyAggregation.slaveServiceName()));
+            relationStruct.aggregationPlan = AggregationPlan.ofOneToMany(
+                    relationOneToManyAggregation, getDeletedFlagColumnName(relationStruct.localService));
             localRelationOneToManyAggrStructList.add(relationStruct);
             return;
         }
@@ -1692,10 +2302,17 @@ public abstract class BaseService<M, D, K> {
             relationStruct.relationManyToManyAggregation = relationManyToManyAggregation;
             relationStruct.localService = ApplicationContextHolder.getBean(
                     StringUtils.uncapitalize(relationManyToManyAggregation.slaveServiceName()));
+            relationStruct.aggregationPlan = AggregationPlan.ofManyToMany(
+                    relationManyToManyAggregation, getDeletedFlagColumnName(relationStruct.localService), true);
             localRelationManyToManyAggrStructList.add(relationStruct);
         }
     }
 
+    private static String getDeletedFlagColumnName(BaseService<?, ?, ?> service) {
+        // Service对象可能是AOP代理对象，代理对象中的字段并未初始化，需从被代理对象中读取。
+        return ((BaseService<?, ?, ?>) AopTargetUtil.getTarget(service)).deletedFlagColumnName;
+    }
+
     private <T> Object normalizeData(Object data, Class<T> clazz) {
         if (data instanceof JSONObject) {
             return ((JSONObject) data).toJavaObject(clazz);
@@ -1703,6 +2320,32 @@ public abstract class BaseService<M, D, K> {
         return data;
     }
 
+    /**
+     * 查询远程关联数据，并以从表关联字段的值为键返回，用于单条数据关联时的请求合并。
+     *
+     * @param relationStruct  远程关联结构。
+     * @param slaveModelClass 从表实体对象类型。
+     * @param slaveIdField    从表关联字段名。
+     * @param queryParam      以从表关联字段IN列表为条件的查询参数。
+     * @return 应答结果对象，包含以从表关联字段的值为键，类型转换后的从表对象为值的Map。
+     */
+    private ResponseResult<Map<Object, Object>> listRemoteRelationMap(
+            RemoteRelationStruct relationStruct, Class<?> slaveModelClass, String slaveIdField, MyQueryParam queryParam) {
+        ResponseResult<List<Object>> result = relationStruct.remoteClient.listBy(queryParam);
+        if (!result.isSuccess()) {
+            return ResponseResult.errorFrom(result);
+        }
+        Map<Object, Object> relationMap = new HashMap<>(16);
+        if (CollectionUtils.isNotEmpty(result.getData())) {
+            FieldAccessor slaveIdAccessor = FieldAccessor.of(slaveModelClass, slaveIdField);
+            for (Object data : result.getData()) {
+                Object relationObject = this.normalizeData(data, slaveModelClass);
+                relationMap.put(slaveIdAccessor.get(relationObject), relationObject);
+            }
+        }
+        return ResponseResult.success(relationMap);
+    }
+
     private void logErrorOrThrowException(String errorMsg) {
         log.error(LogMessageUtil.makeRpcError(errorMsg));
         if (!this.ignoreRpcError()) {
@@ -1710,69 +2353,14 @@ public abstract class BaseService<M, D, K> {
         }
     }
 
-    private LocalAggregationRelationInfo parseLocalAggregationRelationInfo(
-            LocalRelationStruct relationStruct, Map<String, List<MyWhereCriteria>> criteriaListMap) {
-        RelationManyToManyAggregation relation = relationStruct.relationManyToManyAggregation;
-        LocalAggregationRelationInfo relationInfo = new LocalAggregationRelationInfo();
-        // 提取关联中用到的各种字段和表数据。
-        relationInfo.slaveTable = MyModelUtil.mapToTableName(relation.slaveModelClass());
-        relationInfo.relationTable = MyModelUtil.mapToTableName(relation.relationModelClass());
-        relationInfo.relationMasterColumn =
-                MyModelUtil.mapToColumnName(relation.relationMasterIdField(), relation.relationModelClass());
-        relationInfo.relationSlaveColumn =
-                MyModelUtil.mapToColumnName(relation.relationSlaveIdField(), relation.relationModelClass());
-        relationInfo.slaveColumn = MyModelUtil.mapToColumnName(relation.slaveIdField(), relation.slaveModelClass());
-        // 判断是否只需要关联中间表即可，从而提升查询统计的效率。
-        // 1. 统计字段为中间表字段。2. 自定义过滤条件中没有基于从表字段的过滤条件。
-        relationInfo.onlySelectRelationTable =
-                relation.aggregationModelClass().equals(relation.relationModelClass());
-        if (relationInfo.onlySelectRelationTable && MapUtils.isNotEmpty(criteriaListMap)) {
-            List<MyWhereCriteria> criteriaList =
-                    criteriaListMap.get(relationStruct.relationField.getName());
-            if (CollectionUtils.isNotEmpty(criteriaList)) {
-                for (MyWhereCriteria whereCriteria : criteriaList) {
-                    if (whereCriteria.getModelClazz().equals(relation.slaveModelClass())) {
-                        relationInfo.onlySelectRelationTable = false;
-                        break;
-                    }
-                }
-            }
-        }
-        String aggregationTable = relation.aggregationModelClass().equals(relation.relationModelClass())
-                ? relationInfo.relationTable : relationInfo.slaveTable;
-        Tuple2<String, String> selectAndGroupByTuple = makeSelectListAndGroupByClause(
-                relationInfo.relationTable, relationInfo.relationMasterColumn, relation.aggregationModelClass(),
-                aggregationTable, relation.aggregationField(), relation.aggregationType());
-        relationInfo.selectList = selectAndGroupByTuple.getFirst();
-        relationInfo.groupBy = selectAndGroupByTuple.getSecond();
-        return relationInfo;
-    }
-
     private RemoteAggregationRelationInfo parseRemoteAggregationRelationInfo(
             RemoteRelationStruct relationStruct,
             Map<String, List<MyWhereCriteria>> criteriaListMap,
-            Object value,
-            boolean forDataList) {
+            Object value) {
         RemoteAggregationRelationInfo relationInfo = new RemoteAggregationRelationInfo();
-        // 这里需要拆分出哪些是关联表过滤，哪些是从表过滤。
         RelationManyToManyAggregation relation = relationStruct.relationManyToManyAggregation;
-        relationInfo.relationTable = MyModelUtil.mapToTableName(relation.relationModelClass());
-        relationInfo.relationMasterColumn = MyModelUtil.mapToColumnName(
-                relation.relationMasterIdField(), relation.relationModelClass());
-        relationInfo.relationSlaveColumn = MyModelUtil.mapToColumnName(
-                relation.relationSlaveIdField(), relation.relationModelClass());
         // 这里需要拆分出哪些是关联表过滤，哪些是从表过滤。
         List<MyWhereCriteria> relationCriteriaList = new LinkedList<>();
-        // 先把关联表的inlist过滤 [r_table.master_id = masterIdValue] 预先插入。
-        MyWhereCriteria criteria = new MyWhereCriteria();
-        if (forDataList) {
-            criteria.setCriteria(relation.relationModelClass(),
-                    relation.relationMasterIdField(), MyWhereCriteria.OPERATOR_IN, value);
-        } else {
-            criteria.setCriteria(relation.relationModelClass(),
-                    relation.relationMasterIdField(), MyWhereCriteria.OPERATOR_EQUAL, value);
-        }
-        relationCriteriaList.add(criteria);
         List<MyWhereCriteria> criteriaList = criteriaListMap.get(relationStruct.relationField.getName());
         if (CollectionUtils.isNotEmpty(criteriaList)) {
             for (MyWhereCriteria c : criteriaList) {
@@ -1786,46 +2374,39 @@ public abstract class BaseService<M, D, K> {
                 }
             }
         }
-        relationInfo.relationWhereClause = MyWhereCriteria.makeCriteriaString(relationCriteriaList);
+        // 关联表的过滤条件总是以 [r_table.master_id IN (masterIdValues)] 开始。
+        relationInfo.relationWhereClause =
+                relationStruct.aggregationPlan.makeWhereClause(value, false, relationCriteriaList);
         return relationInfo;
     }
 
     private void processRemoteManyToManyAggregationWithRelationModel(
         RemoteAggregationRelationInfo relationInfo, RelationManyToManyAggregation relation,
-        RemoteRelationStruct relationStruct, List<M> resultList, Object value, boolean forDataList) {
-        // 1. 先构建SQL中的Select List，下面的函数返回值是：
+        RemoteRelationStruct relationStruct, List<M> resultList, Object value) {
+        // 启动时预编译的查询计划中已经包含了SQL中的Select List和GROUP BY从句，如：
         // relationTable.relationMasterColumn as GROUPED_KEY, SUM(relationTable.aggregationField) AGGREGATED_VALUE
-        // 2. 基于中间表与主表的关联字段构建SQL语句中的GROUP BY从句。
-        Tuple2<String, String> selectAndGroupByTuple = makeSelectListAndGroupByClause(
-                relationInfo.relationTable, relationInfo.relationMasterColumn,
-                relation.aggregationModelClass(), relationInfo.relationTable,
-                relation.aggregationField(), relation.aggregationType());
-        String groupedSelectList = selectAndGroupByTuple.getFirst();
-        String groupBy = selectAndGroupByTuple.getSecond();
+        AggregationPlan plan = relationStruct.aggregationPlan;
         List<Map<String, Object>> aggregationMapList = null;
         // 过滤条件中不涉及远程从表，那么可以直接进行基于中间表的SQL计算即可，避免了远程调用。
         if (relationInfo.slaveCriteriaList == null) {
-            // 3. 下面的函数调用将会执行仅包含中间表的SQL。
+            // 下面的函数调用将会执行仅包含中间表的SQL。
             aggregationMapList = mapper().getGroupedListByCondition(
-                    relationInfo.relationTable, groupedSelectList, relationInfo.relationWhereClause, groupBy);
+                    plan.groupTable, plan.selectList, relationInfo.relationWhereClause, plan.groupBy);
             this.doMakeAggregationData(aggregationMapList, resultList, relationStruct);
             return;
         }
         // 此场景是最复杂的，实现步骤如下：
         // 1. 先基于主表的inlist和中间表的过滤条件，过滤出符合条件的中间表数据列表。
-        // 构建获取中间表数据SQL的Select List部分。
-        StringBuilder selectList = new StringBuilder(64);
-        selectList.append(relationInfo.relationMasterColumn).append(", ").append(relationInfo.relationSlaveColumn);
         // SQL中的Where从句不变，和上面的过滤逻辑是一致的。
         List<Map<String, Object>> mapList = mapper().getListByCondition(
-                relationInfo.relationTable, selectList.toString(), relationInfo.relationWhereClause, null);
+                plan.groupTable, plan.relationSelectList, relationInfo.relationWhereClause, null);
         if (CollectionUtils.isNotEmpty(mapList)) {
             // 2. 基于中间表的查询结果，即中间表中与从表关联字段的列表作为从表的inlist过滤条件，
             // 同时结合远程从表的自身过滤条件，获取远程从表数据。目前仅需从表中的关联字段即可。
             MyWhereCriteria slaveInlistFilterCriteria = new MyWhereCriteria();
             // 将中间表对从表进行inlist过滤的条件手动插入。
             slaveInlistFilterCriteria.setCriteria(relation.slaveIdField(), MyWhereCriteria.OPERATOR_IN,
-                    mapList.stream().map(m -> m.get(relationInfo.relationSlaveColumn)).collect(toSet()));
+                    mapList.stream().map(m -> m.get(plan.relationSlaveColumn)).collect(toSet()));
             relationInfo.slaveCriteriaList.add(slaveInlistFilterCriteria);
             MyQueryParam queryParam = new MyQueryParam();
             queryParam.setCriteriaList(relationInfo.slaveCriteriaList);
@@ -1847,23 +2428,10 @@ public abstract class BaseService<M, D, K> {
             if (CollectionUtils.isNotEmpty(slaveList)) {
                 // 中间表的最终过滤条件是从表返回的id列表将作为关联表slaveIdColumn的inlist-filter，
                 // 同时原有主表的id列表仍将作为关联表masterIdColumn的inlist-filter。
-                List<MyWhereCriteria> finalRelationCriteriaList = new LinkedList<>();
-                MyWhereCriteria relationSlaveIdInListFilterCriteria = new MyWhereCriteria();
-                relationSlaveIdInListFilterCriteria.setCriteria(relation.relationModelClass(),
-                        relation.relationSlaveIdField(), MyWhereCriteria.OPERATOR_IN, slaveList);
-                finalRelationCriteriaList.add(relationSlaveIdInListFilterCriteria);
-                MyWhereCriteria relationMasterIdInListFilterCriteria = new MyWhereCriteria();
-                if (forDataList) {
-                    relationMasterIdInListFilterCriteria.setCriteria(relation.relationModelClass(),
-                            relation.relationMasterIdField(), MyWhereCriteria.OPERATOR_IN, value);
-                } else {
-                    relationMasterIdInListFilterCriteria.setCriteria(relation.relationModelClass(),
-                            relation.relationMasterIdField(), MyWhereCriteria.OPERATOR_EQUAL, value);
-                }
-                finalRelationCriteriaList.add(relationMasterIdInListFilterCriteria);
-                String whereClause = MyWhereCriteria.makeCriteriaString(finalRelationCriteriaList);
+                MyWhereClause whereClause = plan.makeWhereClause(value, false, null)
+                        .add(plan.relationSlaveIdColumn + " IN ", slaveList);
                 aggregationMapList = mapper().getGroupedListByCondition(
-                        relationInfo.relationTable, groupedSelectList, whereClause, groupBy);
+                        plan.groupTable, plan.selectList, whereClause, plan.groupBy);
             }
         }
         this.doMakeAggregationData(aggregationMapList, resultList, relationStruct);
@@ -1876,11 +2444,9 @@ public abstract class BaseService<M, D, K> {
             List<M> resultList) {
         // 聚合字段在远程从表，计算步骤如下：
         // 1. 先进行中间表过滤，并将中间表的过滤结果。
-        StringBuilder selectList = new StringBuilder(64);
-        selectList.append(relationInfo.relationMasterColumn).append(", ").append(relationInfo.relationSlaveColumn);
-        List<Map<String, Object>> relationMapList =
-                mapper().getListByCondition(relationInfo.relationTable,
-                        selectList.toString(), relationInfo.relationWhereClause, null);
+        AggregationPlan plan = relationStruct.aggregationPlan;
+        List<Map<String, Object>> relationMapList = mapper().getListByCondition(
+                plan.groupTable, plan.relationSelectList, relationInfo.relationWhereClause, null);
         if (CollectionUtils.isNotEmpty(relationMapList)) {
             // 2. 将中间表的过滤结果，作为从表关联字段的inlistFilter过滤，再结合从表自身的过滤条件，
             // 一并传给远程服务进行聚合计算，并返回计算结果。
@@ -1893,9 +2459,11 @@ public abstract class BaseService<M, D, K> {
             // 将过滤后的中间表结果集手动分组，传给远程分组计算调用，保证一次返回所有分组结果。
             Map<Object, Set<Object>> groupedFilterMap =
                     relationMapList.stream().collect(
-                            groupingBy(m -> m.get(relationInfo.relationMasterColumn),
-                                    mapping(n -> n.get(relationInfo.relationSlaveColumn), toSet())));
+                            groupingBy(m -> m.get(plan.relationMasterColumn),
+                                    mapping(n -> n.get(plan.relationSlaveColumn), toSet())));
             aggregationParam.setGroupedInFilterValues(groupedFilterMap);
+            aggregationParam.setNumericGroupedKey(MyModelUtil.NUMERIC_FIELD_TYPE.equals(MyModelUtil.mapToColumnInfo(
+                    relation.relationMasterIdField(), relation.relationModelClass()).getSecond()));
             // 开始将远程返回的聚合计算结果集合，回填到主表中的聚合虚拟字段。
             ResponseResult<List<Map<String, Object>>> result =
                     relationStruct.remoteClient.aggregateBy(aggregationParam);
@@ -1907,98 +2475,214 @@ public abstract class BaseService<M, D, K> {
         }
     }
 
-    private String makeManyToManyWhereClause(
-            LocalRelationStruct relationStruct,
-            Object masterIdValue,
-            LocalAggregationRelationInfo localRelationInfo,
-            Map<String, List<MyWhereCriteria>> criteriaListMap) {
-        StringBuilder whereClause = new StringBuilder(256);
-        whereClause.append(localRelationInfo.relationTable)
-                .append(".").append(localRelationInfo.relationMasterColumn);
-        if (masterIdValue instanceof Number) {
-            whereClause.append(" = ").append(masterIdValue);
-        } else {
-            whereClause.append(" = '").append(masterIdValue).append("'");
-        }
-        // 如果需要从表聚合计算或参与过滤，则需要把中间表和从表之间的关联条件加上。
-        if (!localRelationInfo.onlySelectRelationTable) {
-            whereClause.append(AND_OP)
-                    .append(localRelationInfo.relationTable)
-                    .append(".")
-                    .append(localRelationInfo.relationSlaveColumn)
-                    .append(" = ")
-                    .append(localRelationInfo.slaveTable)
-                    .append(".")
-                    .append(localRelationInfo.slaveColumn);
-        }
-        List<MyWhereCriteria> criteriaList = criteriaListMap.get(relationStruct.relationField.getName());
-        if (criteriaList == null) {
-            criteriaList = new LinkedList<>();
-        }
-        if (StringUtils.isNotBlank(relationStruct.localService.deletedFlagFieldName)) {
-            MyWhereCriteria deleteFilter = new MyWhereCriteria();
-            deleteFilter.setCriteria(
-                    relationStruct.relationManyToManyAggregation.slaveModelClass(),
-                    relationStruct.localService.deletedFlagFieldName,
-                    MyWhereCriteria.OPERATOR_EQUAL,
-                    GlobalDeletedFlag.NORMAL);
-            criteriaList.add(deleteFilter);
-        }
-        if (CollectionUtils.isNotEmpty(criteriaList)) {
-            String criteriaString = MyWhereCriteria.makeCriteriaString(criteriaList);
-            whereClause.append(AND_OP).append(criteriaString);
-        }
-        return whereClause.toString();
+    private static class RemoteAggregationRelationInfo {
+        private MyWhereClause relationWhereClause;
+        private List<MyWhereCriteria> slaveCriteriaList;
     }
 
-    private String makeOneToManyWhereClause(
-            LocalRelationStruct relationStruct,
-            Object masterIdValue,
-            String slaveColumnName,
-            Map<String, List<MyWhereCriteria>> criteriaListMap) {
-        StringBuilder whereClause = new StringBuilder(64);
-        if (masterIdValue instanceof Number) {
-            whereClause.append(slaveColumnName).append(" = ").append(masterIdValue);
-        } else {
-            whereClause.append(slaveColumnName).append(" = '").append(masterIdValue).append("'");
-        }
-        List<MyWhereCriteria> criteriaList = criteriaListMap.get(relationStruct.relationField.getName());
-        if (criteriaList == null) {
-            criteriaList = new LinkedList<>();
-        }
-        if (StringUtils.isNotBlank(relationStruct.localService.deletedFlagFieldName)) {
-            MyWhereCriteria deleteFilter = new MyWhereCriteria();
-            deleteFilter.setCriteria(
-                    relationStruct.relationOneToManyAggregation.slaveModelClass(),
-                    relationStruct.localService.deletedFlagFieldName,
-                    MyWhereCriteria.OPERATOR_EQUAL,
-                    GlobalDeletedFlag.NORMAL);
-            criteriaList.add(deleteFilter);
+    /**
+     * 本地和远程聚合关联的查询计划，在系统启动加载关联结构时一次性编译完成，之后不再变化，可被多线程安全共享。
+     * 其中包含了聚合查询SQL中全部的静态部分，如表名、列名、Select List和GROUP BY从句等，
+     * 运行时只需基于该计划绑定主表关联字段值和自定义过滤条件即可。
+     */
+    private static final class AggregationPlan {
+        /**
+         * 分组所在的数据表，一对多关联为从表，多对多关联为中间表。
+         */
+        private final String groupTable;
+        /**
+         * 包含表名前缀的分组列，同时也是主表关联字段值的过滤列。
+         */
+        private final String groupColumn;
+        /**
+         * 同时包含中间表和从表的表名列表，仅用于多对多关联。
+         */
+        private final String joinedTables;
+        /**
+         * 中间表和从表之间的关联条件，仅用于多对多关联。
+         */
+        private final String joinCondition;
+        /**
+         * 中间表中与主表关联的列名，不包含表名前缀，仅用于多对多关联。
+         */
+        private final String relationMasterColumn;
+        /**
+         * 中间表中与从表关联的列名，不包含表名前缀，仅用于多对多关联。
+         */
+        private final String relationSlaveColumn;
+        /**
+         * 包含表名前缀的中间表从表关联列，仅用于多对多关联。
+         */
+        private final String relationSlaveIdColumn;
+        /**
+         * 获取中间表关联数据时使用的Select List，仅用于多对多关联。
+         */
+        private final String relationSelectList;
+        /**
+         * 从表的逻辑删除过滤条件，从表不支持逻辑删除时为null。
+         */
+        private final String deletedFlagCondition;
+        /**
+         * 多对多关联中是否必须关联从表。聚合字段位于从表，或需要从表的逻辑删除过滤时为true。
+         */
+        private final boolean slaveTableRequired;
+        private final Class<?> slaveModelClass;
+        /**
+         * 分组聚合查询的Select List，远程多对多关联的聚合字段位于远程从表时为null。
+         */
+        private final String selectList;
+        /**
+         * 分组聚合查询的GROUP BY从句，远程多对多关联的聚合字段位于远程从表时为null。
+         */
+        private final String groupBy;
+
+        /**
+         * 编译一对多聚合关联的查询计划。
+         *
+         * @param relation          一对多聚合关联注解。
+         * @param deletedFlagColumn 从表的逻辑删除列名，不支持逻辑删除时为null。
+         * @return 查询计划。
+         */
+        static AggregationPlan ofOneToMany(RelationOneToManyAggregation relation, String deletedFlagColumn) {
+            String slaveTable = MyModelUtil.mapToTableName(relation.slaveModelClass());
+            String slaveColumn = MyModelUtil.mapToColumnName(relation.slaveIdField(), relation.slaveModelClass());
+            Tuple2<String, String> selectAndGroupByTuple = makeSelectListAndGroupByClause(
+                    slaveTable, slaveColumn, relation.slaveModelClass(),
+                    slaveTable, relation.aggregationField(), relation.aggregationType());
+            return new AggregationPlan(slaveTable, slaveColumn, null, null, null,
+                    makeDeletedFlagCondition(slaveTable, deletedFlagColumn), false,
+                    relation.slaveModelClass(), selectAndGroupByTuple);
+        }
+
+        /**
+         * 编译多对多聚合关联的查询计划。
+         *
+         * @param relation          多对多聚合关联注解。
+         * @param deletedFlagColumn 从表的逻辑删除列名，不支持逻辑删除或从表为远程服务时为null。
+         * @param localSlave        从表是否为本地数据表。
+         * @return 查询计划。
+         */
+        static AggregationPlan ofManyToMany(
+                RelationManyToManyAggregation relation, String deletedFlagColumn, boolean localSlave) {
+            String relationTable = MyModelUtil.mapToTableName(relation.relationModelClass());
+            String relationMasterColumn =
+                    MyModelUtil.mapToColumnName(relation.relationMasterIdField(), relation.relationModelClass());
+            String relationSlaveColumn =
+                    MyModelUtil.mapToColumnName(relation.relationSlaveIdField(), relation.relationModelClass());
+            boolean aggregateRelationTable = relation.aggregationModelClass().equals(relation.relationModelClass());
+            String slaveTable = null;
+            String slaveColumn = null;
+            if (localSlave) {
+                slaveTable = MyModelUtil.mapToTableName(relation.slaveModelClass());
+                slaveColumn = MyModelUtil.mapToColumnName(relation.slaveIdField(), relation.slaveModelClass());
+            }
+            Tuple2<String, String> selectAndGroupByTuple = null;
+            if (aggregateRelationTable || localSlave) {
+                selectAndGroupByTuple = makeSelectListAndGroupByClause(
+                        relationTable, relationMasterColumn, relation.aggregationModelClass(),
+                        aggregateRelationTable ? relationTable : slaveTable,
+                        relation.aggregationField(), relation.aggregationType());
+            }
+            String deletedFlagCondition = makeDeletedFlagCondition(slaveTable, deletedFlagColumn);
+            // 只有统计字段为中间表字段，且无需从表逻辑删除过滤时，才有可能仅查询中间表，从而提升查询统计的效率。
+            boolean slaveTableRequired = !aggregateRelationTable || deletedFlagCondition != null;
+            return new AggregationPlan(relationTable, relationMasterColumn, relationSlaveColumn,
+                    slaveTable, slaveColumn, deletedFlagCondition, slaveTableRequired,
+                    relation.slaveModelClass(), selectAndGroupByTuple);
+        }
+
+        private AggregationPlan(
+                String groupTable,
+                String groupColumn,
+                String relationSlaveColumn,
+                String slaveTable,
+                String slaveColumn,
+                String deletedFlagCondition,
+                boolean slaveTableRequired,
+                Class<?> slaveModelClass,
+                Tuple2<String, String> selectAndGroupByTuple) {
+            this.groupTable = groupTable;
+            this.groupColumn = groupTable + "." + groupColumn;
+            this.relationMasterColumn = relationSlaveColumn == null ? null : groupColumn;
+            this.relationSlaveColumn = relationSlaveColumn;
+            if (relationSlaveColumn != null) {
+                this.relationSlaveIdColumn = groupTable + "." + relationSlaveColumn;
+                this.relationSelectList = groupColumn + ", " + relationSlaveColumn;
+            } else {
+                this.relationSlaveIdColumn = null;
+                this.relationSelectList = null;
+            }
+            if (slaveTable != null && relationSlaveColumn != null) {
+                this.joinedTables = groupTable + ", " + slaveTable;
+                this.joinCondition = this.relationSlaveIdColumn + " = " + slaveTable + "." + slaveColumn;
+            } else {
+                this.joinedTables = null;
+                this.joinCondition = null;
+            }
+            this.deletedFlagCondition = deletedFlagCondition;
+            this.slaveTableRequired = slaveTableRequired;
+            this.slaveModelClass = slaveModelClass;
+            this.selectList = selectAndGroupByTuple == null ? null : selectAndGroupByTuple.getFirst();
+            this.groupBy = selectAndGroupByTuple == null ? null : selectAndGroupByTuple.getSecond();
         }
-        if (CollectionUtils.isNotEmpty(criteriaList)) {
-            String criteriaString = MyWhereCriteria.makeCriteriaString(criteriaList);
-            whereClause.append(AND_OP).append(criteriaString);
+
+        private static String makeDeletedFlagCondition(String slaveTable, String deletedFlagColumn) {
+            if (slaveTable == null || StringUtils.isBlank(deletedFlagColumn)) {
+                return null;
+            }
+            return slaveTable + "." + deletedFlagColumn + " = ";
         }
-        return whereClause.toString();
-    }
 
-    private static class LocalAggregationRelationInfo {
-        private String slaveTable;
-        private String slaveColumn;
-        private String relationTable;
-        private String relationMasterColumn;
-        private String relationSlaveColumn;
-        private String selectList;
-        private String groupBy;
-        private boolean onlySelectRelationTable;
-    }
+        /**
+         * 判断本次查询是否需要关联从表，仅在多对多关联中，自定义过滤条件包含从表字段时才由参数决定。
+         *
+         * @param criteriaList 自定义过滤条件列表，可以为null。
+         * @return 需要关联从表返回true，否则false。
+         */
+        boolean isSlaveTableRequired(List<MyWhereCriteria> criteriaList) {
+            if (joinCondition == null) {
+                return false;
+            }
+            if (slaveTableRequired || CollectionUtils.isEmpty(criteriaList)) {
+                return slaveTableRequired;
+            }
+            for (MyWhereCriteria whereCriteria : criteriaList) {
+                if (whereCriteria.getModelClazz().equals(slaveModelClass)) {
+                    return true;
+                }
+            }
+            return false;
+        }
 
-    private static class RemoteAggregationRelationInfo {
-        private String relationTable;
-        private String relationMasterColumn;
-        private String relationSlaveColumn;
-        private String relationWhereClause;
-        private List<MyWhereCriteria> slaveCriteriaList;
+        /**
+         * 获取查询的表名列表。
+         *
+         * @param withSlaveTable 是否关联从表。
+         * @return 表名列表。
+         */
+        String getTableNames(boolean withSlaveTable) {
+            return withSlaveTable ? joinedTables : groupTable;
+        }
+
+        /**
+         * 基于查询计划构建本次查询的Where从句，这里仅需绑定主表关联字段值和自定义过滤条件。
+         *
+         * @param masterIdValue  主表关联字段值，如果是集合对象，则作为IN列表的条件值。
+         * @param withSlaveTable 是否关联从表。
+         * @param criteriaList   自定义过滤条件列表，可以为null。
+         * @return 编译后的Where从句。
+         */
+        MyWhereClause makeWhereClause(Object masterIdValue, boolean withSlaveTable, List<MyWhereCriteria> criteriaList) {
+            MyWhereClause whereClause = new MyWhereClause();
+            whereClause.add(groupColumn + (masterIdValue instanceof Collection ? " IN " : " = "), masterIdValue);
+            if (withSlaveTable) {
+                whereClause.add(joinCondition);
+            }
+            if (deletedFlagCondition != null) {
+                whereClause.add(deletedFlagCondition, GlobalDeletedFlag.NORMAL);
+            }
+            return whereClause.and(MyWhereCriteria.makeWhereClause(criteriaList));
+        }
     }
 
     private void doMakeAggregationData(
@@ -2012,11 +2696,11 @@ public abstract class BaseService<M, D, K> {
                 relatedMap.put(map.get(MyAggregationParam.KEY_NAME), map.get(MyAggregationParam.VALUE_NAME));
             }
             for (M dataObject : resultList) {
-                Object masterIdValue = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+                Object masterIdValue = relationStruct.masterIdAccessor.get(dataObject);
                 if (masterIdValue != null) {
                     Object value = relatedMap.get(masterIdValue);
                     if (value != null) {
-                        ReflectUtil.setFieldValue(dataObject, relationStruct.relationField, value);
+                        relationStruct.relationAccessor.set(dataObject, value);
                     }
                 }
             }
@@ -2032,7 +2716,7 @@ public abstract class BaseService<M, D, K> {
         return aggregationParam;
     }
 
-    private Tuple2<String, String> makeSelectListAndGroupByClause(
+    private static Tuple2<String, String> makeSelectListAndGroupByClause(
             String groupTableName,
             String groupColumnName,
             Class<?> aggregationModel,
@@ -2074,6 +2758,9 @@ public abstract class BaseService<M, D, K> {
     static class RelationStruct {
         protected Field relationField;
         protected Field masterIdField;
+        protected FieldAccessor relationAccessor;
+        protected FieldAccessor masterIdAccessor;
+        protected FieldAccessor equalOneToOneRelationAccessor;
     }
 
     static class LocalRelationStruct extends RelationStruct {
@@ -2086,14 +2773,33 @@ public abstract class BaseService<M, D, K> {
         private RelationManyToMany relationManyToMany;
         private RelationOneToManyAggregation relationOneToManyAggregation;
         private RelationManyToManyAggregation relationManyToManyAggregation;
+        private AggregationPlan aggregationPlan;
     }
 
     static class RemoteRelationStruct extends RelationStruct {
         private Field equalOneToOneRelationField;
         private BaseClient<Object, Object> remoteClient;
+        private RequestCollapser<Object, Object> collapser;
+        private RequestCollapser<Object, Object> withDictCollapser;
+        private ReplicatedDictionaryCache<Object, Object> replicaCache;
         private RelationDict relationDict;
         private RelationOneToOne relationOneToOne;
         private RelationOneToManyAggregation relationOneToManyAggregation;
         private RelationManyToManyAggregation relationManyToManyAggregation;
+        private AggregationPlan aggregationPlan;
+    }
+
+    static class RemoteRelationTask<T> {
+        private final RemoteRelationStruct relationStruct;
+        private final long timeoutMillis;
+        private final long deadline;
+        private final Future<ResponseResult<T>> future;
+
+        RemoteRelationTask(RemoteRelationStruct relationStruct, long timeoutMillis, Future<ResponseResult<T>> future) {
+            this.relationStruct = relationStruct;
+            this.timeoutMillis = timeoutMillis;
+            this.deadline = System.currentTimeMillis() + timeoutMillis;
+            this.future = future;
+        }
     }
 }
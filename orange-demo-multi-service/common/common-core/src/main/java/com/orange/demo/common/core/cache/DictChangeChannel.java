@@ -0,0 +1,40 @@
+package com.orange.demo.common.core.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 字典数据变化通知的传输通道接口，同时维护每个字典的全局版本号。
+ * 字典的所属服务通过publish方法发布变化，持有复制副本的服务通过subscribe方法接收变化，并通过getVersion方法定期校验版本。
+ * 缺省实现为common-redis中基于Redisson的RedisDictChangeChannel，没有可用实现时，远程字典复制功能不会生效。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public interface DictChangeChannel {
+
+    /**
+     * 递增字典的版本号，并发布变化通知。
+     *
+     * @param dictName 字典名称。
+     * @param keyList  发生变化的字典主键的字符串形式列表，为null时表示全部数据。
+     * @return 递增后的字典版本号。
+     */
+    long publish(String dictName, List<String> keyList);
+
+    /**
+     * 获取字典当前的版本号。
+     *
+     * @param dictName 字典名称。
+     * @return 字典当前的版本号，从未发布过变化时返回0。
+     */
+    long getVersion(String dictName);
+
+    /**
+     * 订阅字典的变化通知。
+     *
+     * @param dictName 字典名称。
+     * @param listener 变化通知的处理函数，通常在通道的消息线程中被调用，因此不应执行耗时的操作。
+     */
+    void subscribe(String dictName, Consumer<DictChangeEvent> listener);
+}
@@ -0,0 +1,30 @@
+package com.orange.demo.common.core.cache;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 字典数据的变化通知对象，由字典数据的所属服务在数据变化后发布，并由持有该字典复制副本的服务接收。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Data
+public class DictChangeEvent {
+
+    /**
+     * 字典名称，即字典所属服务中DomainDto类型的类名，如GradeDto。
+     */
+    private String dictName;
+
+    /**
+     * 本次变化之后的字典版本号。字典每变化一次，版本号递增1。
+     */
+    private Long version;
+
+    /**
+     * 发生变化的字典主键的字符串形式列表。为null时表示全部数据都可能发生了变化。
+     */
+    private List<String> keyList;
+}
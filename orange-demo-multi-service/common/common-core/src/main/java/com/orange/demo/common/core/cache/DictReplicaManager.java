@@ -0,0 +1,89 @@
+package com.orange.demo.common.core.cache;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.orange.demo.common.core.base.client.BaseClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 远程字典复制副本的管理对象，为标记了RelationDict.replicated的远程字典关联创建并维护ReplicatedDictionaryCache。
+ * 每个字典在当前服务中只有一个副本，副本的变化通知处理和定期版本检查，都在同一个后台线程中串行执行，
+ * 不会占用消息通道的线程，也不会阻塞业务请求。版本检查的间隔由common-core.dict-replica.check-interval-seconds配置。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+@Component
+public class DictReplicaManager {
+
+    @Value("${common-core.dict-replica.check-interval-seconds:30}")
+    private long checkIntervalSeconds;
+    @Autowired
+    private ObjectProvider<DictChangeChannel> changeChannelProvider;
+
+    private final Map<String, ReplicatedDictionaryCache<?, ?>> replicaMap = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            ThreadFactoryBuilder.create().setNamePrefix("dict-replica-").setDaemon(true).build());
+
+    /**
+     * 获取远程字典的复制副本，首次获取时创建副本，并立即在后台开始首次加载。
+     * 字典名称为字典对象类型的类名，与字典所属服务BaseDictService中DomainDto类型的类名保持一致。
+     *
+     * @param valueClass   字典对象类型。
+     * @param idFieldName  字典对象的主键字段名。
+     * @param remoteClient 字典所属服务的远程调用客户端。
+     * @param <K>          字典表主键类型。
+     * @param <V>          字典表对象类型。
+     * @return 字典的复制副本。没有可用的DictChangeChannel时返回null，此时调用者应继续使用远程调用。
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> ReplicatedDictionaryCache<K, V> getReplica(
+            Class<V> valueClass, String idFieldName, BaseClient<?, ?> remoteClient) {
+        DictChangeChannel changeChannel = changeChannelProvider.getIfAvailable();
+        if (changeChannel == null) {
+            return null;
+        }
+        return (ReplicatedDictionaryCache<K, V>) replicaMap.computeIfAbsent(valueClass.getSimpleName(),
+                dictName -> this.startReplica(dictName, valueClass, idFieldName, remoteClient, changeChannel));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private <V> ReplicatedDictionaryCache<?, V> startReplica(
+            String dictName,
+            Class<V> valueClass,
+            String idFieldName,
+            BaseClient<?, ?> remoteClient,
+            DictChangeChannel changeChannel) {
+        ReplicatedDictionaryCache<?, V> replica =
+                new ReplicatedDictionaryCache<>(dictName, valueClass, idFieldName, remoteClient, changeChannel);
+        changeChannel.subscribe(dictName, event -> scheduler.execute(
+                () -> this.runSafely(dictName, () -> replica.applyChange(event))));
+        scheduler.scheduleWithFixedDelay(() -> this.runSafely(dictName, replica::checkVersion),
+                0, checkIntervalSeconds, TimeUnit.SECONDS);
+        return replica;
+    }
+
+    private void runSafely(String dictName, Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            // 异常会终止定时任务的后续调度，因此这里只记录日志，等待下一次版本检查。
+            log.warn("Failed to synchronize replicated DICT [{}].", dictName, e);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import java.util.function.Function;
 
 /**
  * 字典数据内存缓存对象。
+ * 读操作无锁，全部基于不可变的数据快照完成。写操作之间仍然互斥，每次写操作完成后，
+ * 都会基于最新数据构建新的快照并通过volatile引用整体替换，因此读线程看到的数据要么是写操作之前的，要么是之后的。
  *
  * @param <K> 字典表主键类型。
  * @param <V> 字典表对象类型。
@@ -14,13 +16,17 @@ import java.util.function.Function;
 public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
 
     /**
-     * 存储字典数据的Map。
+     * 存储字典数据的Map。仅在持有当前对象锁的写操作中访问，读操作访问的是snapshot。
      */
-    protected LinkedHashMap<K, V> dataMap = new LinkedHashMap<>();
+    protected final LinkedHashMap<K, V> dataMap = new LinkedHashMap<>();
     /**
      * 获取字典主键数据的函数对象。
      */
     protected Function<V, K> idGetter;
+    /**
+     * 供读操作访问的不可变数据快照。
+     */
+    protected volatile Snapshot<K, V> snapshot;
 
     /**
      * 当前对象的构造器函数。
@@ -44,20 +50,18 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
      */
     public MapDictionaryCache(Function<V, K> idGetter) {
         this.idGetter = idGetter;
+        this.snapshot = new Snapshot<>(dataMap);
     }
 
     /**
      * 按照数据插入的顺序返回全部字典对象的列表。
+     * 返回的列表直接基于快照中的数组，不可修改。
      *
      * @return 全部字段数据列表。
      */
     @Override
-    public synchronized List<V> getAll() {
-        List<V> resultList = new LinkedList<>();
-        for (Map.Entry<K, V> entry : dataMap.entrySet()) {
-            resultList.add(entry.getValue());
-        }
-        return resultList;
+    public List<V> getAll() {
+        return snapshot.valueList;
     }
 
     /**
@@ -67,10 +71,11 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
      * @return 对象列表。
      */
     @Override
-    public synchronized List<V> getInList(Set<K> keys) {
-        List<V> resultList = new LinkedList<>();
+    public List<V> getInList(Set<K> keys) {
+        Map<K, V> snapshotDataMap = snapshot.dataMap;
+        List<V> resultList = new ArrayList<>(keys.size());
         keys.forEach(key -> {
-            V object = dataMap.get(key);
+            V object = snapshotDataMap.get(key);
             if (object != null) {
                 resultList.add(object);
             }
@@ -92,32 +97,37 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
             K id = idGetter.apply(dataObj);
             dataMap.put(id, dataObj);
         });
+        this.publish();
     }
 
     /**
      * 重新加载，先清空原有数据，在执行putAll的操作。
+     * 清空和加载完成后只发布一次快照，读线程不会看到清空后的中间状态。
      *
      * @param dataList 待缓存的数据列表。
      * @param force    true则强制刷新，如果false，当缓存中存在数据时不刷新。
      */
     @Override
     public synchronized void reload(List<V> dataList, boolean force) {
-        if (!force && this.getCount() > 0) {
+        if (!force && !dataMap.isEmpty()) {
             return;
         }
-        this.invalidateAll();
-        this.putAll(dataList);
+        dataMap.clear();
+        if (dataList != null) {
+            dataList.forEach(dataObj -> dataMap.put(idGetter.apply(dataObj), dataObj));
+        }
+        this.publish();
     }
 
     /**
      * 从缓存中获取指定的数据。
      *
-     * @param 数据的key。
+     * @param id 数据的key。
      * @return 获取到的数据，如果没有返回null。
      */
     @Override
-    public synchronized V get(K id) {
-        return id == null ? null : dataMap.get(id);
+    public V get(K id) {
+        return id == null ? null : snapshot.dataMap.get(id);
     }
 
     /**
@@ -129,6 +139,7 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
     @Override
     public synchronized void put(K id, V object) {
         dataMap.put(id, object);
+        this.publish();
     }
 
     /**
@@ -137,8 +148,8 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
      * @return 返回缓存的数据数量。
      */
     @Override
-    public synchronized int getCount() {
-        return dataMap.size();
+    public int getCount() {
+        return snapshot.valueList.size();
     }
 
     /**
@@ -149,7 +160,14 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
      */
     @Override
     public synchronized V invalidate(K id) {
-        return id == null ? null : dataMap.remove(id);
+        if (id == null) {
+            return null;
+        }
+        V v = dataMap.remove(id);
+        if (v != null) {
+            this.publish();
+        }
+        return v;
     }
 
     /**
@@ -164,6 +182,7 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
                 dataMap.remove(id);
             }
         });
+        this.publish();
     }
 
     /**
@@ -172,5 +191,45 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
     @Override
     public synchronized void invalidateAll() {
         dataMap.clear();
+        this.publish();
+    }
+
+    /**
+     * 基于dataMap的当前数据构建新的快照，并整体替换原有快照。调用者必须持有当前对象的锁。
+     */
+    protected void publish() {
+        this.snapshot = this.makeSnapshot();
+    }
+
+    /**
+     * 基于dataMap的当前数据构建快照对象。子类可以重载该方法，在快照中包含更多的索引数据。
+     *
+     * @return 新的快照对象。
+     */
+    protected Snapshot<K, V> makeSnapshot() {
+        return new Snapshot<>(dataMap);
+    }
+
+    /**
+     * 字典数据的不可变快照。
+     *
+     * @param <K> 字典表主键类型。
+     * @param <V> 字典表对象类型。
+     */
+    protected static class Snapshot<K, V> {
+        /**
+         * 主键到字典对象的映射，仅用于按键查找。
+         */
+        protected final Map<K, V> dataMap;
+        /**
+         * 按照插入顺序排列的全部字典对象。
+         */
+        protected final List<V> valueList;
+
+        @SuppressWarnings("unchecked")
+        protected Snapshot(LinkedHashMap<K, V> sourceMap) {
+            this.dataMap = new HashMap<>(sourceMap);
+            this.valueList = Collections.unmodifiableList(Arrays.asList((V[]) sourceMap.values().toArray()));
+        }
     }
 }
@@ -1,13 +1,11 @@
 package com.orange.demo.common.core.cache;
 
-import com.google.common.collect.LinkedHashMultimap;
-import com.google.common.collect.Multimap;
-
 import java.util.*;
 import java.util.function.Function;
 
 /**
  * 树形字典数据内存缓存对象。
+ * 父子关系索引与字典数据一起包含在同一个不可变快照中，getListByParentId同样无需加锁。
  *
  * @param <K> 字典表主键类型。
  * @param <V> 字典表对象类型。
@@ -16,10 +14,6 @@ import java.util.function.Function;
  */
 public class MapTreeDictionaryCache<K, V> extends MapDictionaryCache<K, V> {
 
-    /**
-     * 树形数据存储对象。
-     */
-    private final Multimap<K, V> allTreeMap = LinkedHashMultimap.create();
     /**
      * 获取字典父主键数据的函数对象。
      */
@@ -53,90 +47,52 @@ public class MapTreeDictionaryCache<K, V> extends MapDictionaryCache<K, V> {
     public MapTreeDictionaryCache(Function<V, K> idGetter, Function<V, K> parentIdGetter) {
         super(idGetter);
         this.parentIdGetter = parentIdGetter;
+        this.publish();
     }
 
     /**
-     * 获取该父主键的子数据列表。
+     * 获取该父主键的子数据列表。返回的列表直接基于快照中的数组，不可修改。
      *
      * @param parentId 父主键Id。
      * @return 子数据列表。
      */
-    public synchronized List<V> getListByParentId(K parentId) {
-        return new LinkedList<>(allTreeMap.get(parentId));
+    public List<V> getListByParentId(K parentId) {
+        List<V> childList = ((TreeSnapshot<K, V>) snapshot).childrenMap.get(parentId);
+        return childList == null ? Collections.emptyList() : childList;
     }
 
     /**
-     * 将参数List中的数据保存到缓存中，同时保证getAll返回的数据列表，与参数列表中数据项的顺序保持一致。
+     * 构建包含父子关系索引的快照对象。
      *
-     * @param dataList 待缓存的数据列表。
+     * @return 新的快照对象。
      */
     @Override
-    public synchronized void putAll(List<V> dataList) {
-        if (dataList == null) {
-            return;
-        }
-        super.putAll(dataList);
-        dataList.forEach(data -> {
-            K parentId = parentIdGetter.apply(data);
-            allTreeMap.remove(parentId, data);
-            allTreeMap.put(parentId, data);
-        });
+    protected Snapshot<K, V> makeSnapshot() {
+        return new TreeSnapshot<>(dataMap, parentIdGetter);
     }
 
     /**
-     * 将数据存入缓存。
+     * 树形字典数据的不可变快照。
      *
-     * @param id   通常为字典数据的主键。
-     * @param data 字典数据对象。
+     * @param <K> 字典表主键类型。
+     * @param <V> 字典表对象类型。
      */
-    @Override
-    public synchronized void put(K id, V data) {
-        super.put(id, data);
-        K parentId = parentIdGetter.apply(data);
-        allTreeMap.remove(parentId, data);
-        allTreeMap.put(parentId, data);
-    }
+    protected static class TreeSnapshot<K, V> extends Snapshot<K, V> {
+        /**
+         * 父主键到子数据列表的映射，子数据列表按照插入顺序排列。
+         */
+        protected final Map<K, List<V>> childrenMap;
 
-    /**
-     * 删除缓存中指定的键。
-     *
-     * @param id 待删除数据的主键。
-     * @return 返回被删除的对象，如果主键不存在，返回null。
-     */
-    @Override
-    public synchronized V invalidate(K id) {
-        V v = super.invalidate(id);
-        if (v != null) {
-            K parentId = parentIdGetter.apply(v);
-            allTreeMap.remove(parentId, v);
-        }
-        return v;
-    }
-
-    /**
-     * 删除缓存中，参数列表中包含的键。
-     *
-     * @param keys 待删除数据的主键集合。
-     */
-    @Override
-    public synchronized void invalidateSet(Set<K> keys) {
-        keys.forEach(id -> {
-            if (id != null) {
-                V data = dataMap.remove(id);
-                if (data != null) {
-                    K parentId = parentIdGetter.apply(data);
-                    allTreeMap.remove(parentId, data);
-                }
+        protected TreeSnapshot(LinkedHashMap<K, V> sourceMap, Function<V, K> parentIdGetter) {
+            super(sourceMap);
+            Map<K, List<V>> groupedMap = new HashMap<>();
+            for (V data : valueList) {
+                groupedMap.computeIfAbsent(parentIdGetter.apply(data), k -> new ArrayList<>()).add(data);
             }
-        });
-    }
-
-    /**
-     * 清空缓存。
-     */
-    @Override
-    public synchronized void invalidateAll() {
-        super.invalidateAll();
-        allTreeMap.clear();
+            Map<K, List<V>> resultMap = new HashMap<>(groupedMap.size());
+            groupedMap.forEach((parentId, childList) ->
+                    resultMap.put(parentId, Collections.unmodifiableList(childList)));
+            this.childrenMap = resultMap;
+        }
     }
 }
@@ -0,0 +1,212 @@
+package com.orange.demo.common.core.cache;
+
+import cn.hutool.core.convert.BasicType;
+import cn.hutool.core.convert.Convert;
+import com.alibaba.fastjson.JSONObject;
+import com.orange.demo.common.core.base.client.BaseClient;
+import com.orange.demo.common.core.object.FieldAccessor;
+import com.orange.demo.common.core.object.MyQueryParam;
+import com.orange.demo.common.core.object.ResponseResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+/**
+ * 远程字典数据在本地的只读复制副本，通常由DictReplicaManager创建和维护。
+ * 副本数据保存在MapDictionaryCache中，读操作无锁且不会发起任何远程调用。全部写操作均会抛出UnsupportedOperationException，
+ * 副本只能通过以下两种方式更新，且两者均在DictReplicaManager的单一线程中串行执行：
+ * 1. applyChange: 处理字典所属服务发布的变化通知。版本号连续时，仅通过listByIds重新读取发生变化的数据，否则全量重新加载。
+ * 2. checkVersion: 定期比较本地版本号和全局版本号，不一致时全量重新加载，用于弥补丢失的变化通知。
+ * 首次全量加载成功之前，isReady返回false，调用者需继续使用远程调用获取字典数据。
+ *
+ * @param <K> 字典表主键类型。
+ * @param <V> 字典表对象类型。
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+public class ReplicatedDictionaryCache<K, V> implements DictionaryCache<K, V> {
+
+    private final String dictName;
+    private final Class<V> valueClass;
+    private final FieldAccessor idAccessor;
+    private final Class<?> idType;
+    private final BaseClient<Object, Object> remoteClient;
+    private final DictChangeChannel changeChannel;
+    private final MapDictionaryCache<K, V> localCache;
+    /**
+     * 本地副本对应的字典版本号，仅在持有当前对象锁时访问。
+     */
+    private long version = -1L;
+    private volatile boolean ready = false;
+
+    /**
+     * 构造函数。
+     *
+     * @param dictName      字典名称。
+     * @param valueClass    字典对象类型，即远程调用客户端返回的DomainDto类型。
+     * @param idFieldName   字典对象的主键字段名。
+     * @param remoteClient  字典所属服务的远程调用客户端。
+     * @param changeChannel 字典变化通知的传输通道。
+     */
+    @SuppressWarnings("unchecked")
+    public ReplicatedDictionaryCache(
+            String dictName,
+            Class<V> valueClass,
+            String idFieldName,
+            BaseClient<?, ?> remoteClient,
+            DictChangeChannel changeChannel) {
+        this.dictName = dictName;
+        this.valueClass = valueClass;
+        this.idAccessor = FieldAccessor.of(valueClass, idFieldName);
+        this.idType = BasicType.wrap(idAccessor.getField().getType());
+        this.remoteClient = (BaseClient<Object, Object>) remoteClient;
+        this.changeChannel = changeChannel;
+        this.localCache = new MapDictionaryCache<>(v -> (K) idAccessor.get(v));
+    }
+
+    /**
+     * 本地副本是否已经完成首次加载。
+     *
+     * @return 已完成返回true，否则false。
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public List<V> getAll() {
+        return localCache.getAll();
+    }
+
+    /**
+     * 获取缓存中与键列表对应的对象列表。键的类型与字典主键类型不一致时，如Long和Integer，会先进行类型转换。
+     *
+     * @param keys 主键集合。
+     * @return 对象列表。
+     */
+    @Override
+    public List<V> getInList(Set<K> keys) {
+        Set<K> keySet = new HashSet<>(keys.size());
+        keys.forEach(key -> keySet.add(this.toKey(key)));
+        return localCache.getInList(keySet);
+    }
+
+    @Override
+    public V get(K key) {
+        return localCache.get(this.toKey(key));
+    }
+
+    @Override
+    public int getCount() {
+        return localCache.getCount();
+    }
+
+    @Override
+    public void putAll(List<V> dataList) {
+        throw this.readOnlyException();
+    }
+
+    @Override
+    public void reload(List<V> dataList, boolean force) {
+        throw this.readOnlyException();
+    }
+
+    @Override
+    public void put(K key, V object) {
+        throw this.readOnlyException();
+    }
+
+    @Override
+    public V invalidate(K key) {
+        throw this.readOnlyException();
+    }
+
+    @Override
+    public void invalidateSet(Set<K> keys) {
+        throw this.readOnlyException();
+    }
+
+    @Override
+    public void invalidateAll() {
+        throw this.readOnlyException();
+    }
+
+    /**
+     * 处理字典所属服务发布的变化通知。
+     *
+     * @param event 变化通知对象。
+     */
+    public synchronized void applyChange(DictChangeEvent event) {
+        long eventVersion = event.getVersion() == null ? 0L : event.getVersion();
+        if (ready && eventVersion <= version) {
+            return;
+        }
+        if (!ready || event.getKeyList() == null || eventVersion != version + 1) {
+            this.reloadAll();
+            return;
+        }
+        Set<Object> keySet = new HashSet<>(event.getKeyList().size());
+        event.getKeyList().forEach(key -> keySet.add(this.toKey(key)));
+        ResponseResult<List<Object>> result = remoteClient.listByIds(keySet, false);
+        if (!result.isSuccess()) {
+            // 版本号保持不变，下一次版本检查时会全量重新加载。
+            log.warn("Failed to load changed data of replicated DICT [{}], errorMessage [{}].",
+                    dictName, result.getErrorMessage());
+            return;
+        }
+        List<V> changedList = this.normalize(result.getData());
+        Set<K> removedKeySet = new HashSet<>(keySet.size());
+        keySet.forEach(key -> removedKeySet.add(this.toKey(key)));
+        changedList.forEach(data -> removedKeySet.remove(this.toKey(idAccessor.get(data))));
+        localCache.putAll(changedList);
+        if (!removedKeySet.isEmpty()) {
+            localCache.invalidateSet(removedKeySet);
+        }
+        version = eventVersion;
+    }
+
+    /**
+     * 比较本地版本号和全局版本号，不一致或尚未完成首次加载时，全量重新加载。
+     */
+    public synchronized void checkVersion() {
+        if (!ready || changeChannel.getVersion(dictName) != version) {
+            this.reloadAll();
+        }
+    }
+
+    private void reloadAll() {
+        // 先读取版本号再读取数据，加载期间发生的变化会通过后续的变化通知或版本检查再次同步。
+        long currentVersion = changeChannel.getVersion(dictName);
+        ResponseResult<List<Object>> result = remoteClient.listBy(new MyQueryParam(false));
+        if (!result.isSuccess()) {
+            log.warn("Failed to reload replicated DICT [{}], errorMessage [{}].", dictName, result.getErrorMessage());
+            return;
+        }
+        localCache.reload(this.normalize(result.getData()), true);
+        version = currentVersion;
+        ready = true;
+        log.info("Replicated DICT [{}] reloaded, version [{}], count [{}].", dictName, version, getCount());
+    }
+
+    private List<V> normalize(List<Object> dataList) {
+        if (dataList == null) {
+            return new LinkedList<>();
+        }
+        List<V> resultList = new ArrayList<>(dataList.size());
+        for (Object data : dataList) {
+            resultList.add(data instanceof JSONObject
+                    ? ((JSONObject) data).toJavaObject(valueClass) : valueClass.cast(data));
+        }
+        return resultList;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K toKey(Object key) {
+        return key == null || idType.isInstance(key) ? (K) key : (K) Convert.convert(idType, key);
+    }
+
+    private UnsupportedOperationException readOnlyException() {
+        return new UnsupportedOperationException("Replicated DICT [" + dictName + "] is read-only.");
+    }
+}
@@ -0,0 +1,28 @@
+package com.orange.demo.common.core.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * 数据表变化通知的传输通道接口，用于在同一服务的多个实例之间广播数据表的写操作。
+ * TotalCountCache通过该通道使其他实例中该表的缓存数量同时失效。
+ * 缺省实现为common-redis中基于Redisson的RedisTableChangeChannel，没有可用实现时，缓存数量仅在当前实例内失效。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public interface TableChangeChannel {
+
+    /**
+     * 发布数据表的变化通知。
+     *
+     * @param tableName 发生变化的数据表名。
+     */
+    void publish(String tableName);
+
+    /**
+     * 订阅数据表的变化通知。
+     *
+     * @param listener 变化通知的处理函数，参数为发生变化的数据表名，通常在通道的消息线程中被调用，因此不应执行耗时的操作。
+     */
+    void subscribe(Consumer<String> listener);
+}
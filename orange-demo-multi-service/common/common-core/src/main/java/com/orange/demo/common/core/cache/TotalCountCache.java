@@ -0,0 +1,189 @@
+package com.orange.demo.common.core.cache;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orange.demo.common.core.constant.TotalCountType;
+import com.orange.demo.common.core.object.MyWhereClause;
+import com.orange.demo.common.core.object.Tuple2;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 分页查询数据总数量的本地缓存对象。
+ * 缓存键由数据表名、数据表的版本号和规范化后的过滤条件签名组成，过滤条件可以是编译后的MyWhereClause，也可以是Mapper的过滤对象。
+ * 数据表发生任何写操作时，TotalCountInvalidateInterceptor会递增该表的版本号，原有的缓存数据因此不再命中，并随后自然过期。
+ * 设置了TableChangeChannel时，版本号的递增会广播到同一服务的其他实例，否则仅在当前实例内生效，
+ * 其他实例中的缓存数量在过期之前可能与实际数量不一致。
+ * 调用者允许估算时，缓存未命中的请求会立即返回估算数量，同时在后台线程中异步计算精确数量并写入缓存。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+public class TotalCountCache {
+
+    private static final String EMPTY_FILTER_SIGNATURE = DigestUtils.md5Hex("{}");
+
+    /**
+     * 精确数量的缓存，键中包含数据表的版本号。
+     */
+    private final Cache<String, Long> countCache;
+    /**
+     * 最近一次计算的精确数量，键中不包含版本号，数据表变化后仍可作为估算数量使用。
+     */
+    private final Cache<String, Long> lastCountCache;
+    /**
+     * 数据表的版本号，每次写操作后递增。
+     */
+    private final Map<String, AtomicLong> tableVersionMap = new ConcurrentHashMap<>();
+    /**
+     * 正在异步计算的缓存键，避免同一过滤条件的精确数量被重复计算。
+     */
+    private final Set<String> loadingKeySet = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolTaskExecutor executor;
+    /**
+     * 数据表变化通知的传输通道，可以为null。
+     */
+    private volatile TableChangeChannel changeChannel;
+
+    /**
+     * 构造函数。
+     *
+     * @param expireSeconds 精确数量的缓存过期时间(秒)。
+     * @param maximumSize   缓存的最大条目数量。
+     * @param executor      异步计算精确数量的线程池。
+     */
+    public TotalCountCache(long expireSeconds, long maximumSize, ThreadPoolTaskExecutor executor) {
+        this.countCache = Caffeine.newBuilder()
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS).maximumSize(maximumSize).build();
+        this.lastCountCache = Caffeine.newBuilder()
+                .expireAfterWrite(expireSeconds * 10, TimeUnit.SECONDS).maximumSize(maximumSize).build();
+        this.executor = executor;
+    }
+
+    /**
+     * 获取数据总数量。
+     *
+     * @param tableName      查询主表名。
+     * @param filterKey      过滤条件，可以是MyWhereClause或Mapper的过滤对象，null表示没有过滤条件。
+     * @param countLoader    计算精确数量的函数。
+     * @param estimateLoader 没有任何过滤条件时，获取估算数量的函数，可以为null。
+     * @param estimated      是否允许返回估算数量。
+     * @return 第一个值为数据总数量，第二个值为TotalCountType中定义的数量来源类型。
+     */
+    public Tuple2<Long, String> get(
+            String tableName,
+            Object filterKey,
+            Supplier<Long> countLoader,
+            Supplier<Long> estimateLoader,
+            boolean estimated) {
+        String signature = makeSignature(filterKey);
+        String lastKey = tableName + ":" + signature;
+        // 版本号必须在计算之前获取，计算期间发生的写操作会使本次结果写入已经失效的版本。
+        String key = tableName + ":" + this.getTableVersion(tableName).get() + ":" + signature;
+        Long count = countCache.getIfPresent(key);
+        if (count != null) {
+            return new Tuple2<>(count, TotalCountType.CACHED);
+        }
+        if (estimated) {
+            count = lastCountCache.getIfPresent(lastKey);
+            if (count == null && estimateLoader != null && EMPTY_FILTER_SIGNATURE.equals(signature)) {
+                count = estimateLoader.get();
+            }
+            if (count != null && this.loadAsync(key, lastKey, countLoader)) {
+                return new Tuple2<>(count, TotalCountType.ESTIMATED);
+            }
+        }
+        count = countLoader.get();
+        countCache.put(key, count);
+        lastCountCache.put(lastKey, count);
+        return new Tuple2<>(count, TotalCountType.EXACT);
+    }
+
+    /**
+     * 设置数据表变化通知的传输通道，并订阅其他实例发布的变化通知。
+     *
+     * @param changeChannel 数据表变化通知的传输通道。
+     */
+    public void setChangeChannel(TableChangeChannel changeChannel) {
+        changeChannel.subscribe(this::invalidateLocal);
+        this.changeChannel = changeChannel;
+    }
+
+    /**
+     * 使指定数据表在全部实例中的缓存数量失效。
+     *
+     * @param tableName 数据表名。
+     */
+    public void invalidate(String tableName) {
+        this.invalidateLocal(tableName);
+        TableChangeChannel channel = this.changeChannel;
+        if (channel != null) {
+            channel.publish(tableName);
+        }
+    }
+
+    /**
+     * 仅使指定数据表在当前实例中的缓存数量失效，如事务提交之前，其他实例尚不能看到本次写操作的结果。
+     *
+     * @param tableName 数据表名。
+     */
+    public void invalidateLocal(String tableName) {
+        this.getTableVersion(tableName).incrementAndGet();
+    }
+
+    private AtomicLong getTableVersion(String tableName) {
+        return tableVersionMap.computeIfAbsent(tableName, k -> new AtomicLong(0));
+    }
+
+    private boolean loadAsync(String key, String lastKey, Supplier<Long> countLoader) {
+        if (!loadingKeySet.add(key)) {
+            // 已经在计算中。
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    Long count = countLoader.get();
+                    countCache.put(key, count);
+                    lastCountCache.put(lastKey, count);
+                } catch (Exception e) {
+                    log.warn("Failed to load total count asynchronously for [" + key + "].", e);
+                } finally {
+                    loadingKeySet.remove(key);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            // 线程池已满时退化为同步计算。
+            loadingKeySet.remove(key);
+            return false;
+        }
+    }
+
+    private static String makeSignature(Object filterKey) {
+        String filterString;
+        if (filterKey == null) {
+            filterString = "{}";
+        } else if (filterKey instanceof MyWhereClause) {
+            MyWhereClause whereClause = (MyWhereClause) filterKey;
+            filterString = whereClause.isEmpty()
+                    ? "{}" : whereClause.getSql() + JSON.toJSONString(whereClause.getParamList());
+        } else {
+            // 空值字段不会被序列化，Map键按字母排序，因此相同的过滤条件总是生成相同的签名。
+            filterString = JSON.toJSONString(filterKey, SerializerFeature.MapSortField);
+        }
+        return DigestUtils.md5Hex(filterString);
+    }
+}
@@ -4,6 +4,8 @@ import com.alibaba.fastjson.serializer.SerializerFeature;
 import com.alibaba.fastjson.support.config.FastJsonConfig;
 import com.alibaba.fastjson.support.spring.FastJsonHttpMessageConverter;
 import com.orange.demo.common.core.interceptor.MyRequestArgumentResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
@@ -26,6 +28,14 @@ import java.util.List;
 @Configuration
 public class CommonWebMvcConfig implements WebMvcConfigurer {
 
+	@Autowired
+	private CompactTransportConfig compactTransportConfig;
+	/**
+	 * 是否格式化输出应答数据，仅用于调试，缺省输出不包含任何空白字符的紧凑数据。
+	 */
+	@Value("${common-core.json.pretty-format:false}")
+	private boolean prettyFormat;
+
 	@Bean
 	public MethodValidationPostProcessor methodValidationPostProcessor() {
 		return new MethodValidationPostProcessor();
@@ -44,17 +54,24 @@ public class CommonWebMvcConfig implements WebMvcConfigurer {
 
 	@Bean
 	public FastJsonHttpMessageConverter fastJsonHttpMessageConverters() {
-	FastJsonHttpMessageConverter fastConverter = new FastJsonHttpMessageConverter();
-	List<MediaType> supportedMediaTypes = new ArrayList<>();
+		// 直接序列化到应答输出流，不再在内存中保留完整的序列化结果。
+		FastJsonHttpMessageConverter fastConverter = new MyFastJsonHttpMessageConverter();
+		List<MediaType> supportedMediaTypes = new ArrayList<>();
 		supportedMediaTypes.add(MediaType.APPLICATION_JSON);
 		supportedMediaTypes.add(MediaType.APPLICATION_FORM_URLENCODED);
 		fastConverter.setSupportedMediaTypes(supportedMediaTypes);
 		FastJsonConfig fastJsonConfig = new FastJsonConfig();
-		fastJsonConfig.setSerializerFeatures(
-				SerializerFeature.PrettyFormat,
-				SerializerFeature.DisableCircularReferenceDetect,
-				SerializerFeature.IgnoreNonFieldGetter);
-		fastJsonConfig.setDateFormat("yyyy-MM-dd HH:mm:ss");
+		if (prettyFormat) {
+			fastJsonConfig.setSerializerFeatures(
+					SerializerFeature.PrettyFormat,
+					SerializerFeature.DisableCircularReferenceDetect,
+					SerializerFeature.IgnoreNonFieldGetter);
+		} else {
+			fastJsonConfig.setSerializerFeatures(
+					SerializerFeature.DisableCircularReferenceDetect,
+					SerializerFeature.IgnoreNonFieldGetter);
+		}
+		fastJsonConfig.setDateFormat(CompactTransportConfig.DATE_FORMAT);
 		fastConverter.setFastJsonConfig(fastJsonConfig);
 		return fastConverter;
 	}
@@ -63,5 +80,7 @@ public class CommonWebMvcConfig implements WebMvcConfigurer {
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
 	    converters.add(responseBodyConverter());
 		converters.add(fastJsonHttpMessageConverters());
+		// 紧凑格式的转换器必须位于最后，以保证Accept为*/*的请求仍然优先选择application/json。
+		converters.add(compactTransportConfig.makeCompactJsonConverter());
     }
 }
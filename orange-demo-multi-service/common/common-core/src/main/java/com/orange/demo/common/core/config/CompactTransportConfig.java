@@ -0,0 +1,156 @@
+package com.orange.demo.common.core.config;
+
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.serializer.FieldSerializer;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.JavaBeanSerializer;
+import com.alibaba.fastjson.serializer.ObjectSerializer;
+import com.alibaba.fastjson.serializer.SerializeBeanInfo;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.support.config.FastJsonConfig;
+import com.alibaba.fastjson.support.spring.FastJsonHttpMessageConverter;
+import com.orange.demo.common.core.constant.ApplicationConstant;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Date;
+
+/**
+ * 服务间紧凑传输的配置对象。
+ * 1. 启用compressionEnabled后，响应数据超过compressionMinSize字节，并且请求方在Accept-Encoding中声明支持gzip时，
+ *    由Web容器进行gzip压缩。该选项默认关闭，服务间通常处于同一内网，压缩节省的带宽无法抵消压缩和解压的CPU开销，
+ *    见common-benchmark中的CompactTransportBenchmark，仅在跨机房等带宽受限的部署中建议启用。
+ * 2. 请求方在Accept中声明ApplicationConstant.COMPACT_JSON_MEDIA_TYPE时，总是使用不包含空白字符的紧凑格式输出，
+ *    即便application/json为了调试启用了格式化输出。启用positionalEncoding后，对象还会按照字段顺序编码为数组，不再输出字段名。
+ * FeignClient总是优先请求紧凑格式，浏览器等其他客户端仍然得到application/json格式的数据。
+ * NOTE: 位置编码要求调用双方使用完全相同的Dto类定义，因此只有在全部服务同步升级后才可以启用。
+ * 另外fastjson按数组解析对象时，如果排序后的最后一个字段为BigDecimal或Date，会错误地消费数组的结束符，
+ * 因此这类对象仍然按照字段名编码，具体见PositionalSerializeConfig。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Configuration
+public class CompactTransportConfig {
+
+    /**
+     * 紧凑数据格式的MediaType对象。
+     */
+    public static final MediaType COMPACT_JSON = MediaType.valueOf(ApplicationConstant.COMPACT_JSON_MEDIA_TYPE);
+    /**
+     * 紧凑数据格式和application/json格式共同使用的日期格式。
+     */
+    public static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
+    @Value("${common-core.compact-transport.compression-enabled:false}")
+    private boolean compressionEnabled;
+    @Value("${common-core.compact-transport.compression-min-size:2048}")
+    private int compressionMinSize;
+    /**
+     * 是否对紧凑格式的数据使用位置编码。
+     */
+    @Getter
+    @Value("${common-core.compact-transport.positional-encoding:false}")
+    private boolean positionalEncoding;
+    private final SerializeConfig positionalSerializeConfig = new PositionalSerializeConfig();
+
+    @Bean
+    public WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> compactTransportCompressionCustomizer() {
+        return factory -> {
+            if (!compressionEnabled) {
+                return;
+            }
+            Compression compression = new Compression();
+            compression.setEnabled(true);
+            compression.setMinResponseSize(DataSize.ofBytes(compressionMinSize));
+            compression.setMimeTypes(new String[]{
+                    MediaType.APPLICATION_JSON_VALUE,
+                    ApplicationConstant.COMPACT_JSON_MEDIA_TYPE,
+                    MediaType.TEXT_PLAIN_VALUE,
+                    MediaType.TEXT_HTML_VALUE});
+            factory.setCompression(compression);
+        };
+    }
+
+    /**
+     * 创建紧凑数据格式的消息转换器，仅支持COMPACT_JSON，因此只有请求方明确要求时才会被选中。
+     * 读取时总是支持位置编码的数组，因此调用双方可以先后分别启用positionalEncoding。
+     *
+     * @return 紧凑数据格式的消息转换器。
+     */
+    public FastJsonHttpMessageConverter makeCompactJsonConverter() {
+        FastJsonHttpMessageConverter converter = new MyFastJsonHttpMessageConverter();
+        converter.setSupportedMediaTypes(Collections.singletonList(COMPACT_JSON));
+        FastJsonConfig fastJsonConfig = new FastJsonConfig();
+        fastJsonConfig.setSerializerFeatures(this.getSerializerFeatures());
+        fastJsonConfig.setSerializeConfig(this.getSerializeConfig());
+        fastJsonConfig.setFeatures(Feature.SupportArrayToBean);
+        fastJsonConfig.setDateFormat(DATE_FORMAT);
+        converter.setFastJsonConfig(fastJsonConfig);
+        return converter;
+    }
+
+    /**
+     * 获取紧凑数据格式的序列化选项。位置编码由getSerializeConfig返回的SerializeConfig按类决定，不使用全局的BeanToArray。
+     *
+     * @return 序列化选项数组。
+     */
+    public SerializerFeature[] getSerializerFeatures() {
+        return new SerializerFeature[]{
+                SerializerFeature.DisableCircularReferenceDetect,
+                SerializerFeature.IgnoreNonFieldGetter};
+    }
+
+    /**
+     * 获取紧凑数据格式的SerializeConfig。
+     *
+     * @return 启用位置编码时返回PositionalSerializeConfig，否则返回全局的SerializeConfig。
+     */
+    public SerializeConfig getSerializeConfig() {
+        return positionalEncoding ? positionalSerializeConfig : SerializeConfig.globalInstance;
+    }
+
+    /**
+     * 位置编码使用的SerializeConfig，对象是否按照字段顺序编码为数组由其JavaBean序列化器逐类决定。
+     * fastjson按数组解析对象时，如果最后一个字段为BigDecimal或Date，解析该字段时会一并消费数组的结束符，
+     * 导致同一数组或外层对象中的后续数据无法解析，因此这类对象仍然按照字段名编码。
+     * 读取时总是启用Feature.SupportArrayToBean，数组和对象两种编码可以在同一应答中混合出现。
+     * NOTE: 这里创建的JavaBean序列化器不使用ASM，序列化的开销略高于全局的SerializeConfig。
+     */
+    public static class PositionalSerializeConfig extends SerializeConfig {
+        @Override
+        public ObjectSerializer createJavaBeanSerializer(SerializeBeanInfo beanInfo) {
+            return new PositionalBeanSerializer(beanInfo);
+        }
+    }
+
+    private static class PositionalBeanSerializer extends JavaBeanSerializer {
+        private final boolean writeAsArray;
+
+        PositionalBeanSerializer(SerializeBeanInfo beanInfo) {
+            super(beanInfo);
+            boolean safe = true;
+            if (sortedGetters.length > 0) {
+                FieldSerializer lastGetter = sortedGetters[sortedGetters.length - 1];
+                Class<?> lastFieldClass = lastGetter.fieldInfo.fieldClass;
+                safe = lastFieldClass != BigDecimal.class && !Date.class.isAssignableFrom(lastFieldClass);
+            }
+            this.writeAsArray = safe;
+        }
+
+        @Override
+        protected boolean isWriteAsArray(JSONSerializer serializer, int fieldFeatures) {
+            return writeAsArray;
+        }
+    }
+}
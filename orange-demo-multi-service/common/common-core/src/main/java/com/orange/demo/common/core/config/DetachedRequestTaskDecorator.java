@@ -0,0 +1,160 @@
+package com.orange.demo.common.core.config;
+
+import com.orange.demo.common.core.object.TokenData;
+import com.orange.demo.common.core.util.ContextUtil;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.util.*;
+
+/**
+ * 长时间运行的异步任务的上下文传递装饰器，如异步导出任务。
+ * 与RequestContextTaskDecorator不同，这类任务通常在提交请求结束之后才会执行，而请求结束后Servlet容器会回收原有的请求对象。
+ * 因此这里在提交线程中为请求的头信息、参数和属性(包括令牌对象)创建快照，并在工作线程中以快照请求作为Http请求上下文，
+ * 从而保证TokenData.takeFromRequest以及Feign调用的请求头透传，在请求结束后仍然可以正常工作。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class DetachedRequestTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        ServletRequestAttributes requestAttributes = null;
+        if (ContextUtil.hasRequestContext()) {
+            // 确保令牌对象已经被解析并保存到请求属性中，从而被包含在快照内。
+            TokenData.takeFromRequest();
+            requestAttributes = new ServletRequestAttributes(new DetachedHttpRequest(ContextUtil.getHttpRequest()));
+        }
+        ServletRequestAttributes detachedRequestAttributes = requestAttributes;
+        Map<String, String> mdcContextMap = MDC.getCopyOfContextMap();
+        return () -> {
+            if (detachedRequestAttributes != null) {
+                RequestContextHolder.setRequestAttributes(detachedRequestAttributes);
+            }
+            if (mdcContextMap != null) {
+                MDC.setContextMap(mdcContextMap);
+            }
+            try {
+                runnable.run();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+                MDC.clear();
+            }
+        };
+    }
+
+    /**
+     * Http请求的快照对象。头信息、参数、属性和常用的请求路径信息均从快照中读取，不再访问原有的请求对象。
+     */
+    private static class DetachedHttpRequest extends HttpServletRequestWrapper {
+        private final Map<String, List<String>> headerMap = new LinkedHashMap<>();
+        private final Map<String, String[]> parameterMap;
+        private final Map<String, Object> attributeMap = new HashMap<>();
+        private final String method;
+        private final String requestUri;
+        private final String contextPath;
+        private final String servletPath;
+
+        DetachedHttpRequest(HttpServletRequest request) {
+            super(request);
+            Enumeration<String> headerNames = request.getHeaderNames();
+            while (headerNames.hasMoreElements()) {
+                String headerName = headerNames.nextElement();
+                headerMap.put(headerName.toLowerCase(), Collections.list(request.getHeaders(headerName)));
+            }
+            this.parameterMap = new LinkedHashMap<>(request.getParameterMap());
+            Enumeration<String> attributeNames = request.getAttributeNames();
+            while (attributeNames.hasMoreElements()) {
+                String attributeName = attributeNames.nextElement();
+                attributeMap.put(attributeName, request.getAttribute(attributeName));
+            }
+            this.method = request.getMethod();
+            this.requestUri = request.getRequestURI();
+            this.contextPath = request.getContextPath();
+            this.servletPath = request.getServletPath();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            List<String> values = headerMap.get(name.toLowerCase());
+            return values == null || values.isEmpty() ? null : values.get(0);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            List<String> values = headerMap.get(name.toLowerCase());
+            return Collections.enumeration(values == null ? Collections.emptyList() : values);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(headerMap.keySet());
+        }
+
+        @Override
+        public String getParameter(String name) {
+            String[] values = parameterMap.get(name);
+            return values == null || values.length == 0 ? null : values[0];
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            return Collections.unmodifiableMap(parameterMap);
+        }
+
+        @Override
+        public Enumeration<String> getParameterNames() {
+            return Collections.enumeration(parameterMap.keySet());
+        }
+
+        @Override
+        public String[] getParameterValues(String name) {
+            return parameterMap.get(name);
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return attributeMap.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getAttributeNames() {
+            return Collections.enumeration(attributeMap.keySet());
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            attributeMap.put(name, value);
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            attributeMap.remove(name);
+        }
+
+        @Override
+        public String getMethod() {
+            return method;
+        }
+
+        @Override
+        public String getRequestURI() {
+            return requestUri;
+        }
+
+        @Override
+        public String getContextPath() {
+            return contextPath;
+        }
+
+        @Override
+        public String getServletPath() {
+            return servletPath;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.orange.demo.common.core.config;
+
+import com.orange.demo.common.core.export.ExportJobManager;
+import com.orange.demo.common.core.export.ExportJobStore;
+import com.orange.demo.common.core.export.MapExportJobStore;
+import com.orange.demo.common.core.upload.UpDownloaderFactory;
+import com.orange.demo.common.core.upload.UploadStoreTypeEnum;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 异步导出任务的配置对象。
+ * 导出任务在有界线程池中执行，队列满时直接拒绝新的导出任务，而不是由提交线程执行，以免长时间占用Http请求线程。
+ * 任务状态和结果文件在expireSeconds内有效，相同的导出请求只在较短的dedupExpireSeconds内去重，以免返回过旧的导出数据。
+ * 结果文件的存储介质类型可以是LOCAL_SYSTEM或MINIO_SYSTEM，后者需要当前服务同时依赖common-minio并启用minio。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Configuration
+public class ExportJobConfig {
+
+    /**
+     * 线程池的Bean名称。
+     */
+    public static final String EXPORT_JOB_EXECUTOR = "exportJobExecutor";
+
+    @Value("${common-core.export-job.pool-size:2}")
+    private int poolSize;
+    @Value("${common-core.export-job.queue-capacity:8}")
+    private int queueCapacity;
+    @Value("${common-core.export-job.expire-seconds:86400}")
+    private long expireSeconds;
+    @Value("${common-core.export-job.dedup-expire-seconds:300}")
+    private long dedupExpireSeconds;
+    @Value("${common-core.export-job.store-type:LOCAL_SYSTEM}")
+    private UploadStoreTypeEnum storeType;
+    @Value("${common-core.export-job.root-base-dir:${application.uploadFileBaseDir:./zz-resource/upload-files}}")
+    private String rootBaseDir;
+
+    @Bean(name = EXPORT_JOB_EXECUTOR)
+    public ThreadPoolTaskExecutor exportJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("export-job-");
+        executor.setTaskDecorator(new DetachedRequestTaskDecorator());
+        // 队列满时拒绝任务，由ExportJobManager将该任务标记为失败。
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    @Bean
+    public ExportJobManager exportJobManager(
+            UpDownloaderFactory upDownloaderFactory, ObjectProvider<ExportJobStore> jobStoreProvider) {
+        ExportJobStore jobStore =
+                jobStoreProvider.getIfAvailable(() -> new MapExportJobStore(expireSeconds, dedupExpireSeconds));
+        return new ExportJobManager(jobStore, upDownloaderFactory,
+                exportJobExecutor(), storeType, rootBaseDir, expireSeconds, dedupExpireSeconds);
+    }
+}
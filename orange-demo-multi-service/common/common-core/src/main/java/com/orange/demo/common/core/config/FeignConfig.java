@@ -1,14 +1,47 @@
 package com.orange.demo.common.core.config;
 
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeFilter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
 import com.orange.demo.common.core.constant.ApplicationConstant;
 import com.orange.demo.common.core.object.TokenData;
 import com.orange.demo.common.core.util.ContextUtil;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+import feign.optionals.OptionalDecoder;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
 
 /**
  * FeignClient的配置对象。
+ * 服务间调用总是优先请求CompactTransportConfig中的紧凑数据格式，同时声明支持gzip压缩，
+ * 对方服务尚未支持时，仍然会返回application/json格式的数据，并由SpringDecoder解析。
  *
  * @author Jerry
  * @date 2020-08-08
@@ -16,11 +49,110 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class FeignConfig implements RequestInterceptor {
 
+    private static final String ACCEPT_VALUE =
+            ApplicationConstant.COMPACT_JSON_MEDIA_TYPE + ", " + MediaType.APPLICATION_JSON_VALUE + ";q=0.9";
+    private static final String GZIP = "gzip";
+
+    @Autowired
+    private ObjectFactory<HttpMessageConverters> messageConverters;
+
     @Override
     public void apply(RequestTemplate requestTemplate) {
-        requestTemplate.header(TokenData.REQUEST_ATTRIBUTE_NAME,
-                ContextUtil.getHttpRequest().getHeader(TokenData.REQUEST_ATTRIBUTE_NAME));
-        requestTemplate.header(ApplicationConstant.HTTP_HEADER_TRACE_ID,
-                ContextUtil.getHttpRequest().getHeader(ApplicationConstant.HTTP_HEADER_TRACE_ID));
+        // 定时任务和本地字典副本的加载线程等不存在请求上下文，此时没有可以转发的令牌和traceId。
+        if (ContextUtil.hasRequestContext()) {
+            HttpServletRequest request = ContextUtil.getHttpRequest();
+            requestTemplate.header(TokenData.REQUEST_ATTRIBUTE_NAME,
+                    request.getHeader(TokenData.REQUEST_ATTRIBUTE_NAME));
+            requestTemplate.header(ApplicationConstant.HTTP_HEADER_TRACE_ID,
+                    request.getHeader(ApplicationConstant.HTTP_HEADER_TRACE_ID));
+        }
+        requestTemplate.header(HttpHeaders.ACCEPT, ACCEPT_VALUE);
+        requestTemplate.header(HttpHeaders.ACCEPT_ENCODING, GZIP);
+    }
+
+    @Bean
+    public Encoder feignEncoder() {
+        return new CompactJsonEncoder(new SpringEncoder(messageConverters));
+    }
+
+    @Bean
+    public Decoder feignDecoder() {
+        return new CompactPayloadDecoder(
+                new OptionalDecoder(new ResponseEntityDecoder(new SpringDecoder(messageConverters))));
+    }
+
+    /**
+     * 请求体的编码器，以不包含空白字符的application/json格式输出，字符串和字节数组仍由SpringEncoder处理。
+     * 由于对方服务可能尚未启用位置编码的读取，因此请求体不使用位置编码。
+     */
+    static class CompactJsonEncoder implements Encoder {
+        private final Encoder delegate;
+
+        CompactJsonEncoder(Encoder delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void encode(Object object, Type bodyType, RequestTemplate template) throws EncodeException {
+            if (object == null || object instanceof String || object instanceof byte[]) {
+                delegate.encode(object, bodyType, template);
+                return;
+            }
+            byte[] body = JSON.toJSONBytes(object, SerializeConfig.globalInstance, new SerializeFilter[0],
+                    CompactTransportConfig.DATE_FORMAT, JSON.DEFAULT_GENERATE_FEATURE,
+                    SerializerFeature.DisableCircularReferenceDetect,
+                    SerializerFeature.IgnoreNonFieldGetter,
+                    SerializerFeature.WriteDateUseDateFormat);
+            template.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            template.body(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 应答数据的解码器，先解压gzip压缩的应答数据，紧凑格式的数据直接由fastjson解析，其余格式仍由SpringDecoder处理。
+     */
+    static class CompactPayloadDecoder implements Decoder {
+        private final Decoder delegate;
+
+        CompactPayloadDecoder(Decoder delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object decode(Response response, Type type) throws IOException {
+            if (response.body() == null) {
+                return delegate.decode(response, type);
+            }
+            byte[] body;
+            try (InputStream in = response.body().asInputStream()) {
+                body = Util.toByteArray(in);
+            }
+            Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            headers.putAll(response.headers());
+            if (isGzip(headers.get(HttpHeaders.CONTENT_ENCODING)) && body.length > 0) {
+                try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                    body = Util.toByteArray(in);
+                }
+            }
+            headers.remove(HttpHeaders.CONTENT_ENCODING);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            if (isCompactJson(headers.get(HttpHeaders.CONTENT_TYPE))) {
+                return body.length == 0
+                        ? Util.emptyValueOf(type) : JSON.parseObject(body, type, Feature.SupportArrayToBean);
+            }
+            return delegate.decode(response.toBuilder().headers(headers).body(body).build(), type);
+        }
+
+        private static boolean isGzip(Collection<String> contentEncodings) {
+            return contentEncodings != null && contentEncodings.stream().anyMatch(GZIP::equalsIgnoreCase);
+        }
+
+        private static boolean isCompactJson(Collection<String> contentTypes) {
+            if (contentTypes == null || contentTypes.isEmpty()) {
+                return false;
+            }
+            MediaType contentType = MediaType.parseMediaType(contentTypes.iterator().next());
+            return CompactTransportConfig.COMPACT_JSON.isCompatibleWith(contentType);
+        }
     }
 }
@@ -0,0 +1,72 @@
+package com.orange.demo.common.core.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 流水线导入的配置对象，可参考ImportUtil.doImport(filename, importer)。
+ * 导入被划分为解析、映射和写入三个阶段：解析线程流式读取文件，并将数据行按批次提交到映射线程池，
+ * 映射线程池并行完成数据对象的构建和验证，提交导入的线程则按批次顺序调用BaseImporter.doProcess写入数据。
+ * 阶段之间通过容量为blockQueueCapacity的有界队列连接，写入较慢时解析线程会被阻塞，从而控制内存中的批次数量。
+ * 解析线程池满时拒绝任务，ImportUtil随即退化为在提交线程中同步导入。映射线程池满时由解析线程直接执行映射。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Configuration
+public class ImportPipelineConfig {
+
+    /**
+     * 解析线程池的Bean名称。
+     */
+    public static final String IMPORT_PARSE_EXECUTOR = "importParseExecutor";
+    /**
+     * 映射线程池的Bean名称。
+     */
+    public static final String IMPORT_MAP_EXECUTOR = "importMapExecutor";
+
+    /**
+     * 解析阶段和写入阶段之间，最多可以同时存在的批次数量。
+     */
+    @Getter
+    @Value("${common-core.import.block-queue-capacity:8}")
+    private int blockQueueCapacity;
+    @Value("${common-core.import.parse-pool-size:2}")
+    private int parsePoolSize;
+    @Value("${common-core.import.parse-queue-capacity:4}")
+    private int parseQueueCapacity;
+    @Value("${common-core.import.map-pool-size:4}")
+    private int mapPoolSize;
+    @Value("${common-core.import.map-queue-capacity:64}")
+    private int mapQueueCapacity;
+
+    @Bean(name = IMPORT_PARSE_EXECUTOR)
+    public ThreadPoolTaskExecutor importParseExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parsePoolSize);
+        executor.setMaxPoolSize(parsePoolSize);
+        executor.setQueueCapacity(parseQueueCapacity);
+        executor.setThreadNamePrefix("import-parse-");
+        executor.setTaskDecorator(new RequestContextTaskDecorator());
+        // 队列满时拒绝任务，由ImportUtil退化为同步导入。这里不能由提交线程执行，否则提交线程将无法执行写入阶段。
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    @Bean(name = IMPORT_MAP_EXECUTOR)
+    public ThreadPoolTaskExecutor importMapExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(mapPoolSize);
+        executor.setMaxPoolSize(mapPoolSize);
+        executor.setQueueCapacity(mapQueueCapacity);
+        executor.setThreadNamePrefix("import-map-");
+        executor.setTaskDecorator(new RequestContextTaskDecorator());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,54 @@
+package com.orange.demo.common.core.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * IN列表分块查询的配置对象。
+ * 当IN列表的条件值数量超过chunkSize时，BaseService会将其拆分为多个分块，分别执行后再按照分块的顺序合并结果。
+ * 数据库分块查询会提交到该线程池并行执行，线程数量不会超过Druid连接池最大连接数的一半，以免并行查询耗尽连接池。
+ * 线程池是有界的，队列满时由提交线程直接执行，即退化为串行查询。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Configuration
+public class InListChunkConfig {
+
+    /**
+     * 线程池的Bean名称。
+     */
+    public static final String IN_LIST_EXECUTOR = "inListExecutor";
+
+    /**
+     * 每个分块中IN列表条件值的最大数量，小于等于0时不进行分块。
+     */
+    @Getter
+    @Value("${common-core.in-list.chunk-size:1000}")
+    private int chunkSize;
+    @Value("${common-core.in-list.pool-size:4}")
+    private int poolSize;
+    @Value("${common-core.in-list.queue-capacity:64}")
+    private int queueCapacity;
+    @Value("${spring.datasource.druid.maxActive:${spring.datasource.druid.max-active:8}}")
+    private int maxActive;
+
+    @Bean(name = IN_LIST_EXECUTOR)
+    public ThreadPoolTaskExecutor inListExecutor() {
+        int actualPoolSize = Math.max(1, Math.min(poolSize, maxActive / 2));
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(actualPoolSize);
+        executor.setMaxPoolSize(actualPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("in-list-");
+        executor.setTaskDecorator(new RequestContextTaskDecorator());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
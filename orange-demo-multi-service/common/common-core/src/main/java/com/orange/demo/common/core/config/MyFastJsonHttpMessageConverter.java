@@ -0,0 +1,73 @@
+package com.orange.demo.common.core.config;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONPObject;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeFilter;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.support.config.FastJsonConfig;
+import com.alibaba.fastjson.support.spring.FastJsonHttpMessageConverter;
+import org.springframework.http.HttpOutputMessage;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 流式输出的FastJson消息转换器。
+ * FastJsonHttpMessageConverter会先将整个应答数据序列化到内存中，再一次性写入输出流，以便设置Content-Length。
+ * 这里改为直接序列化到应答输出流，序列化缓冲区写满后即写入输出流，因此大数据量的列表不再需要在内存中保留完整的序列化结果。
+ * 应答数据小于Web容器的输出缓冲区时，Web容器仍然会自动设置Content-Length。
+ * NOTE: 序列化过程中出现异常时，如果已有部分数据写入输出流，将无法再返回统一格式的错误应答。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class MyFastJsonHttpMessageConverter extends FastJsonHttpMessageConverter {
+
+    /**
+     * 已经添加到SerializeConfig中的按类过滤器。SerializeConfig.addFilter每次调用都会追加一个过滤器，因此同一个过滤器只添加一次。
+     */
+    private final Map<Class<?>, SerializeFilter> registeredClassFilterMap = new ConcurrentHashMap<>();
+
+    @Override
+    protected void writeInternal(Object object, HttpOutputMessage outputMessage) throws IOException {
+        if (object instanceof JSONPObject) {
+            super.writeInternal(object, outputMessage);
+            return;
+        }
+        FastJsonConfig fastJsonConfig = this.getFastJsonConfig();
+        SerializeConfig serializeConfig = fastJsonConfig.getSerializeConfig();
+        // 与JSON.writeJSONString保持一致，按类注册的过滤器需要添加到SerializeConfig中。
+        Map<Class<?>, SerializeFilter> classSerializeFilters = fastJsonConfig.getClassSerializeFilters();
+        if (classSerializeFilters != null) {
+            for (Map.Entry<Class<?>, SerializeFilter> entry : classSerializeFilters.entrySet()) {
+                if (registeredClassFilterMap.put(entry.getKey(), entry.getValue()) != entry.getValue()) {
+                    serializeConfig.addFilter(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        Writer writer = new OutputStreamWriter(outputMessage.getBody(), fastJsonConfig.getCharset());
+        SerializeWriter out = new SerializeWriter(
+                writer, JSON.DEFAULT_GENERATE_FEATURE, fastJsonConfig.getSerializerFeatures());
+        try {
+            JSONSerializer serializer = new JSONSerializer(out, serializeConfig);
+            if (fastJsonConfig.getDateFormat() != null) {
+                serializer.setDateFormat(fastJsonConfig.getDateFormat());
+                serializer.config(SerializerFeature.WriteDateUseDateFormat, true);
+            }
+            for (SerializeFilter filter : fastJsonConfig.getSerializeFilters()) {
+                serializer.addFilter(filter);
+            }
+            serializer.write(object);
+        } finally {
+            // 将缓冲区中剩余的数据写入输出流，并归还序列化缓冲区。
+            out.close();
+        }
+        writer.flush();
+    }
+}
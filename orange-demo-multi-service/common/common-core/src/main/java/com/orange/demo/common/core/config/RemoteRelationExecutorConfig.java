@@ -0,0 +1,53 @@
+package com.orange.demo.common.core.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 远程关联数据并行组装的线程池配置对象。
+ * 当MyRelationParam.parallelRemote为true时，BaseService会将彼此独立的远程关联RPC调用提交到该线程池并发执行。
+ * 线程池是有界的，队列满时由提交线程直接执行，即退化为串行调用，而不会无限堆积。
+ * NOTE: 由提交线程直接执行的调用不受timeoutMillis的限制，仅由Feign和Hystrix自身的超时配置保证其最长执行时间。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Configuration
+public class RemoteRelationExecutorConfig {
+
+    /**
+     * 线程池的Bean名称。
+     */
+    public static final String REMOTE_RELATION_EXECUTOR = "remoteRelationExecutor";
+
+    @Value("${common-core.remote-relation.core-pool-size:8}")
+    private int corePoolSize;
+    @Value("${common-core.remote-relation.max-pool-size:32}")
+    private int maxPoolSize;
+    @Value("${common-core.remote-relation.queue-capacity:256}")
+    private int queueCapacity;
+    /**
+     * 每个远程关联调用的缺省超时时间(毫秒)。MyRelationParam.remoteTimeoutMillis大于0时，以参数为准。
+     */
+    @Getter
+    @Value("${common-core.remote-relation.timeout-millis:5000}")
+    private long timeoutMillis;
+
+    @Bean(name = REMOTE_RELATION_EXECUTOR)
+    public ThreadPoolTaskExecutor remoteRelationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("remote-relation-");
+        executor.setTaskDecorator(new RequestContextTaskDecorator());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
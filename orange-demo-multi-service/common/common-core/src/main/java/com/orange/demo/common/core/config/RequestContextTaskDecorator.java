@@ -0,0 +1,49 @@
+package com.orange.demo.common.core.config;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+
+/**
+ * 异步任务的上下文传递装饰器。在提交任务的线程中捕获当前的Http请求上下文和日志MDC(包括traceId)，
+ * 并在工作线程执行任务期间还原，任务结束后清理。从而保证工作线程中发起的Feign调用，
+ * 可以通过FeignConfig继续透传令牌和traceId请求头，同时日志中仍然包含traceId。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class RequestContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        Map<String, String> mdcContextMap = MDC.getCopyOfContextMap();
+        return () -> {
+            RequestAttributes originalRequestAttributes = RequestContextHolder.getRequestAttributes();
+            Map<String, String> originalMdcContextMap = MDC.getCopyOfContextMap();
+            setContext(requestAttributes, mdcContextMap);
+            try {
+                runnable.run();
+            } finally {
+                // 如果线程池已满，任务会在提交线程中直接执行(CallerRunsPolicy)，因此这里需要还原，而不是简单的清空。
+                setContext(originalRequestAttributes, originalMdcContextMap);
+            }
+        };
+    }
+
+    private void setContext(RequestAttributes requestAttributes, Map<String, String> mdcContextMap) {
+        if (requestAttributes == null) {
+            RequestContextHolder.resetRequestAttributes();
+        } else {
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+        }
+        if (mdcContextMap == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(mdcContextMap);
+        }
+    }
+}
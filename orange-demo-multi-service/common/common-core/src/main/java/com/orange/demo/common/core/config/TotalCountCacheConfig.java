@@ -0,0 +1,64 @@
+package com.orange.demo.common.core.config;
+
+import com.orange.demo.common.core.cache.TableChangeChannel;
+import com.orange.demo.common.core.cache.TotalCountCache;
+import com.orange.demo.common.core.interceptor.TotalCountInvalidateInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 分页查询数据总数量缓存的配置对象。
+ * 存在TableChangeChannel的实现时(如启用了common-redis)，数据表的变化会广播到同一服务的全部实例。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Configuration
+public class TotalCountCacheConfig {
+
+    /**
+     * 线程池的Bean名称。
+     */
+    public static final String TOTAL_COUNT_EXECUTOR = "totalCountExecutor";
+
+    @Autowired
+    private ObjectProvider<TableChangeChannel> changeChannelProvider;
+    @Value("${common-core.total-count.expire-seconds:60}")
+    private long expireSeconds;
+    @Value("${common-core.total-count.maximum-size:10000}")
+    private long maximumSize;
+    @Value("${common-core.total-count.pool-size:4}")
+    private int poolSize;
+    @Value("${common-core.total-count.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Bean(name = TOTAL_COUNT_EXECUTOR)
+    public ThreadPoolTaskExecutor totalCountExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("total-count-");
+        // 队列满时拒绝任务，由TotalCountCache退化为同步计算。
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    @Bean
+    public TotalCountCache totalCountCache() {
+        TotalCountCache totalCountCache = new TotalCountCache(expireSeconds, maximumSize, totalCountExecutor());
+        changeChannelProvider.ifAvailable(totalCountCache::setChangeChannel);
+        return totalCountCache;
+    }
+
+    @Bean
+    public TotalCountInvalidateInterceptor totalCountInvalidateInterceptor() {
+        return new TotalCountInvalidateInterceptor(totalCountCache());
+    }
+}
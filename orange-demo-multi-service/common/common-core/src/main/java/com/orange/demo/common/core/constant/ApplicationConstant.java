@@ -40,6 +40,20 @@ public final class ApplicationConstant {
      * 请求头跟踪id名。
      */
     public static final String HTTP_HEADER_TRACE_ID = "traceId";
+    /**
+     * 服务间调用使用的紧凑数据格式，由FeignClient通过Accept请求头协商，浏览器等其他客户端仍然使用application/json。
+     * 该格式的数据不包含任何空白字符，并且在启用位置编码时，对象会被编码为按字段顺序排列的数组。
+     */
+    public static final String COMPACT_JSON_MEDIA_TYPE = "application/vnd.orange.compact+json";
+    /**
+     * 角色权限位图变化通知的Redis消息主题，消息内容为发生变化的角色Id。
+     * 消息内容为ALL_ROLE_PERM_CHANGED时，表示全部角色的权限位图均已重建。
+     */
+    public static final String ROLE_PERM_CHANGED_TOPIC = "ROLE_PERM_CHANGED";
+    /**
+     * 全部角色权限位图均已重建的消息内容。
+     */
+    public static final String ALL_ROLE_PERM_CHANGED = "*";
     /**
      * 重要说明：该值为项目生成后的缺省密钥，仅为使用户可以快速上手并跑通流程。
      * 在实际的应用中，一定要为不同的项目或服务，自行生成公钥和私钥，并将 PRIVATE_KEY 的引用改为服务的配置项。
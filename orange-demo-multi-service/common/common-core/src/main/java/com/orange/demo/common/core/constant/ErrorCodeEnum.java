@@ -51,6 +51,9 @@ public enum ErrorCodeEnum {
     INVALID_DATA_MODEL("数据验证失败，无效的数据实体对象！"),
     INVALID_DATA_FIELD("数据验证失败，无效的数据实体对象字段！"),
     INVALID_CLASS_FIELD("数据验证失败，无效的类对象字段！"),
+    INVALID_PAGE_CURSOR("数据验证失败，无效的分页游标或不支持游标分页的排序字段，请刷新后重试！"),
+    EXPORT_JOB_FAILED("数据导出失败，请稍后重试！"),
+    EXPORT_JOB_NOT_FINISHED("数据导出尚未完成，请稍后重试！"),
     SERVER_INTERNAL_ERROR("服务器内部错误，请联系管理员！"),
     REDIS_CACHE_ACCESS_TIMEOUT("Redis缓存数据访问超时，请刷新后重试！"),
     REDIS_CACHE_ACCESS_STATE_ERROR("Redis缓存数据访问状态错误，请刷新后重试！");
@@ -0,0 +1,29 @@
+package com.orange.demo.common.core.constant;
+
+/**
+ * 分页数据总数量的来源类型常量对象，通过MyPageData.totalCountType返回给调用者。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public final class TotalCountType {
+
+    /**
+     * 本次请求实时计算的精确数量。
+     */
+    public static final String EXACT = "exact";
+    /**
+     * 来自缓存的精确数量。缓存在数据表发生写操作后失效，因此仅在多实例部署时，才可能短暂滞后于其他实例的写入。
+     */
+    public static final String CACHED = "cached";
+    /**
+     * 估算数量。精确数量正在后台异步计算，计算完成后的请求将返回CACHED类型的数量。
+     */
+    public static final String ESTIMATED = "estimated";
+
+    /**
+     * 私有构造函数，明确标识该常量类的作用。
+     */
+    private TotalCountType() {
+    }
+}
@@ -0,0 +1,29 @@
+package com.orange.demo.common.core.exception;
+
+/**
+ * 无效的游标分页参数的自定义异常。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class InvalidPageCursorException extends RuntimeException {
+
+    /**
+     * 构造函数。
+     *
+     * @param msg 错误信息。
+     */
+    public InvalidPageCursorException(String msg) {
+        super(msg);
+    }
+
+    /**
+     * 构造函数。
+     *
+     * @param msg   错误信息。
+     * @param cause 原始异常。
+     */
+    public InvalidPageCursorException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
@@ -0,0 +1,61 @@
+package com.orange.demo.common.core.export;
+
+import com.orange.demo.common.core.upload.UploadStoreTypeEnum;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 异步导出任务对象。该对象会被序列化后保存到ExportJobStore中，因此只包含可序列化的状态数据。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Data
+public class ExportJob {
+
+    /**
+     * 任务Id。
+     */
+    private String jobId;
+    /**
+     * 去重键，由提交用户、导出的数据表、文件类型、导出字段和过滤条件计算得出。去重键相同的导出请求共享同一个任务。
+     */
+    private String dedupKey;
+    /**
+     * 导出数据所在数据表的实体对象名。
+     */
+    private String modelName;
+    /**
+     * 提交导出时指定的文件名。
+     */
+    private String filename;
+    /**
+     * 结果文件的存储介质类型。
+     */
+    private UploadStoreTypeEnum storeType;
+    /**
+     * 结果文件存储后的文件名。
+     */
+    private String storeFilename;
+    /**
+     * 任务状态。
+     */
+    private ExportJobStatusEnum status;
+    /**
+     * 已导出的数据行数。
+     */
+    private Long rowCount;
+    /**
+     * 执行失败时的错误信息。
+     */
+    private String errorMessage;
+    /**
+     * 任务提交时间。
+     */
+    private Date createTime;
+    /**
+     * 任务结束时间，包括执行成功和失败。
+     */
+    private Date finishTime;
+}
@@ -0,0 +1,256 @@
+package com.orange.demo.common.core.export;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.orange.demo.common.core.object.TokenData;
+import com.orange.demo.common.core.upload.UpDownloaderFactory;
+import com.orange.demo.common.core.upload.UploadStoreTypeEnum;
+import com.orange.demo.common.core.util.ContextUtil;
+import com.orange.demo.common.core.util.ExportUtil;
+import com.orange.demo.common.core.util.ExportWriter;
+import com.orange.demo.common.core.util.MyCommonUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 异步导出任务管理对象，由ExportJobConfig创建。
+ * 调用者提交导出后立即获得任务对象，之后通过任务Id轮询任务状态，任务完成后再下载结果文件。
+ * 任务在有界线程池中执行，数据先通过ExportWriter流式写入本地临时文件，再通过UpDownloaderFactory存入配置的存储介质。
+ * 同一用户提交的数据表、文件类型、导出字段和过滤条件均相同的导出请求，在去重时间内共享同一个任务及其结果文件。
+ * 不同用户的数据权限可能不同，因此不同用户之间不会共享导出结果。
+ * 结果文件在任务过期后由后台线程定期删除，多实例部署时每个过期文件只会由其中一个实例删除。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+public class ExportJobManager {
+
+    /**
+     * 结果文件所在目录中的字段名部分，即结果文件存放于"附件目录/实体对象名/exportJob/"。
+     */
+    public static final String EXPORT_FIELD_NAME = "exportJob";
+    private static final int MAX_BIND_TIMES = 2;
+    private static final long CLEANUP_INTERVAL_SECONDS = 600L;
+    private static final int CLEANUP_BATCH_SIZE = 100;
+
+    private final ExportJobStore jobStore;
+    private final UpDownloaderFactory upDownloaderFactory;
+    private final ThreadPoolTaskExecutor executor;
+    private final UploadStoreTypeEnum storeType;
+    private final String rootBaseDir;
+    private final long expireSeconds;
+    private final long dedupExpireSeconds;
+    private final ScheduledExecutorService cleanupScheduler = Executors.newSingleThreadScheduledExecutor(
+            ThreadFactoryBuilder.create().setNamePrefix("export-job-cleanup-").setDaemon(true).build());
+
+    /**
+     * 构造函数。
+     *
+     * @param jobStore            任务状态的存储对象。
+     * @param upDownloaderFactory 上传下载对象的工厂，用于存储和下载结果文件。
+     * @param executor            执行导出任务的线程池。
+     * @param storeType           结果文件的存储介质类型。
+     * @param rootBaseDir         结果文件存储的根目录。
+     * @param expireSeconds       任务状态的过期时间(秒)。
+     * @param dedupExpireSeconds  相同导出请求的去重时间(秒)。
+     */
+    public ExportJobManager(
+            ExportJobStore jobStore,
+            UpDownloaderFactory upDownloaderFactory,
+            ThreadPoolTaskExecutor executor,
+            UploadStoreTypeEnum storeType,
+            String rootBaseDir,
+            long expireSeconds,
+            long dedupExpireSeconds) {
+        this.jobStore = jobStore;
+        this.upDownloaderFactory = upDownloaderFactory;
+        this.executor = executor;
+        this.storeType = storeType;
+        this.rootBaseDir = rootBaseDir;
+        this.expireSeconds = expireSeconds;
+        this.dedupExpireSeconds = dedupExpireSeconds;
+        this.cleanupScheduler.scheduleWithFixedDelay(this::cleanupExpiredResults,
+                CLEANUP_INTERVAL_SECONDS, CLEANUP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 停止清理过期结果文件的后台线程。
+     */
+    @PreDestroy
+    public void destroy() {
+        cleanupScheduler.shutdownNow();
+    }
+
+    /**
+     * 提交异步导出任务。如果去重时间内当前用户已经提交过相同的导出任务，且该任务没有失败，则直接返回该任务。
+     * 导出数据的写入函数在线程池中执行，此时提交请求通常已经结束，因此函数中只能使用快照后的请求上下文，
+     * 可参考DetachedRequestTaskDecorator。
+     *
+     * @param modelName      导出数据所在数据表的实体对象名，同时也是结果文件目录的一部分。
+     * @param filename       导出文件名，目前仅支持xlsx和csv。
+     * @param selectFieldMap 导出的数据字段，key为对象字段名称，value为中文标题名称。
+     * @param filter         导出数据的过滤条件，需要包含所有影响导出结果的参数，如过滤对象和排序参数。
+     * @param dataWriter     导出数据的写入函数，如通过游标分页逐页查询并写入导出对象。
+     * @param <T>            导出数据对象类型。
+     * @return 导出任务对象。线程池已满时，返回的任务状态为FAILED。
+     */
+    public <T> ExportJob submit(
+            String modelName,
+            String filename,
+            Map<String, String> selectFieldMap,
+            Object filter,
+            Consumer<ExportWriter<T>> dataWriter) {
+        String extension = ExportUtil.getExportExtension(filename);
+        ExportJob job = new ExportJob();
+        job.setJobId(MyCommonUtil.generateUuid());
+        job.setDedupKey(makeDedupKey(getCurrentUserId(), modelName, extension, selectFieldMap, filter));
+        job.setModelName(modelName);
+        job.setFilename(filename);
+        job.setStoreType(storeType);
+        job.setStoreFilename(job.getJobId() + "." + extension);
+        job.setStatus(ExportJobStatusEnum.WAITING);
+        job.setCreateTime(new Date());
+        // 先保存任务再绑定去重键，从而保证其他请求通过去重键获取的任务Id总是可以读取到任务对象。
+        jobStore.save(job, expireSeconds);
+        for (int i = 0; i < MAX_BIND_TIMES; i++) {
+            String boundJobId = jobStore.bindDedupKey(job.getDedupKey(), job.getJobId(), dedupExpireSeconds);
+            if (boundJobId == null) {
+                break;
+            }
+            ExportJob boundJob = jobStore.get(boundJobId);
+            if (boundJob != null && boundJob.getStatus() != ExportJobStatusEnum.FAILED) {
+                // 当前任务不会被执行，删除已经保存的任务对象，以免留下永远处于等待状态的任务。
+                jobStore.remove(job.getJobId());
+                return boundJob;
+            }
+            // 已绑定的任务已经失败或过期，解除绑定后重新尝试。多次尝试失败时，不再去重，直接执行当前任务。
+            jobStore.unbindDedupKey(job.getDedupKey(), boundJobId);
+        }
+        try {
+            executor.execute(() -> this.runJob(job, selectFieldMap, dataWriter));
+        } catch (TaskRejectedException e) {
+            log.warn("Export job [" + job.getJobId() + "] is rejected, the executor is full.");
+            this.markFailed(job, "当前导出任务过多，请稍后重试！");
+        }
+        return job;
+    }
+
+    /**
+     * 获取导出任务。
+     *
+     * @param jobId 任务Id。
+     * @return 导出任务，不存在或已过期时返回null。
+     */
+    public ExportJob getJob(String jobId) {
+        return jobStore.get(jobId);
+    }
+
+    /**
+     * 下载已经完成的导出任务的结果文件，文件数据直接写入到HttpServletResponse应答对象。
+     *
+     * @param job      状态为FINISHED的导出任务。
+     * @param response Http 应答对象。
+     * @throws Exception 操作错误。
+     */
+    public void doDownload(ExportJob job, HttpServletResponse response) throws Exception {
+        if (job.getStatus() != ExportJobStatusEnum.FINISHED) {
+            throw new IllegalStateException("Export job [" + job.getJobId() + "] isn't finished.");
+        }
+        upDownloaderFactory.get(job.getStoreType()).doDownload(
+                rootBaseDir, job.getModelName(), EXPORT_FIELD_NAME, job.getStoreFilename(), false, response);
+    }
+
+    private <T> void runJob(ExportJob job, Map<String, String> selectFieldMap, Consumer<ExportWriter<T>> dataWriter) {
+        job.setStatus(ExportJobStatusEnum.RUNNING);
+        jobStore.save(job, expireSeconds);
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile("export-job-", "-" + job.getStoreFilename());
+            long rowCount;
+            try (ExportWriter<T> writer = ExportUtil.openExport(selectFieldMap,
+                    job.getFilename(), new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                dataWriter.accept(writer);
+                rowCount = writer.getRowCount();
+            }
+            upDownloaderFactory.get(job.getStoreType()).doStore(
+                    rootBaseDir, job.getModelName(), EXPORT_FIELD_NAME, false, job.getStoreFilename(), tempFile);
+            job.setRowCount(rowCount);
+            job.setStatus(ExportJobStatusEnum.FINISHED);
+            job.setFinishTime(new Date());
+            jobStore.save(job, expireSeconds);
+            jobStore.addResult(job, expireSeconds);
+        } catch (Exception e) {
+            log.error("Failed to run export job [" + job.getJobId() + "].", e);
+            this.markFailed(job, e.getMessage());
+        } finally {
+            if (tempFile != null && !tempFile.delete()) {
+                log.warn("Failed to delete temp file [" + tempFile.getAbsolutePath() + "] of export job.");
+            }
+        }
+    }
+
+    private void markFailed(ExportJob job, String errorMessage) {
+        job.setStatus(ExportJobStatusEnum.FAILED);
+        job.setErrorMessage(errorMessage);
+        job.setFinishTime(new Date());
+        jobStore.save(job, expireSeconds);
+        // 失败的任务不再参与去重，相同的导出请求可以立即重新提交。
+        jobStore.unbindDedupKey(job.getDedupKey(), job.getJobId());
+    }
+
+    private void cleanupExpiredResults() {
+        try {
+            List<ExportJob> expiredJobList;
+            do {
+                expiredJobList = jobStore.pollExpiredResults(CLEANUP_BATCH_SIZE);
+                for (ExportJob job : expiredJobList) {
+                    this.deleteResult(job);
+                }
+            } while (expiredJobList.size() == CLEANUP_BATCH_SIZE);
+        } catch (Exception e) {
+            log.error("Failed to cleanup expired results of export jobs.", e);
+        }
+    }
+
+    private void deleteResult(ExportJob job) {
+        try {
+            upDownloaderFactory.get(job.getStoreType()).doDelete(
+                    rootBaseDir, job.getModelName(), EXPORT_FIELD_NAME, false, job.getStoreFilename());
+        } catch (Exception e) {
+            log.warn("Failed to delete result file [" + job.getStoreFilename() + "] of export job.", e);
+        }
+    }
+
+    private static Long getCurrentUserId() {
+        if (!ContextUtil.hasRequestContext()) {
+            return null;
+        }
+        TokenData tokenData = TokenData.takeFromRequest();
+        return tokenData == null ? null : tokenData.getUserId();
+    }
+
+    private static String makeDedupKey(
+            Long userId, String modelName, String extension, Map<String, String> selectFieldMap, Object filter) {
+        // 导出字段的顺序决定了结果文件中列的顺序，因此不能排序。过滤条件中的Map键按字母排序，以保证签名的稳定。
+        String filterString = userId + ":" + modelName + ":" + extension + ":" + JSON.toJSONString(selectFieldMap)
+                + ":" + JSON.toJSONString(filter, SerializerFeature.MapSortField);
+        return DigestUtils.md5Hex(filterString);
+    }
+}
@@ -0,0 +1,27 @@
+package com.orange.demo.common.core.export;
+
+/**
+ * 异步导出任务的状态枚举。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public enum ExportJobStatusEnum {
+
+    /**
+     * 已提交，等待执行。
+     */
+    WAITING,
+    /**
+     * 正在执行。
+     */
+    RUNNING,
+    /**
+     * 执行完毕，结果文件可以下载。
+     */
+    FINISHED,
+    /**
+     * 执行失败。
+     */
+    FAILED
+}
@@ -0,0 +1,71 @@
+package com.orange.demo.common.core.export;
+
+import java.util.List;
+
+/**
+ * 异步导出任务状态的存储接口。
+ * 多实例部署时必须使用共享存储，如common-redis中的RedisExportJobStore，以便任意实例都可以查询任务状态并下载结果文件。
+ * 没有可用的实现Bean时，ExportJobManager会退化为仅在当前实例内有效的MapExportJobStore。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public interface ExportJobStore {
+
+    /**
+     * 获取导出任务。
+     *
+     * @param jobId 任务Id。
+     * @return 导出任务，不存在或已过期时返回null。
+     */
+    ExportJob get(String jobId);
+
+    /**
+     * 保存导出任务，已经存在的同Id任务会被覆盖。
+     *
+     * @param job           导出任务。
+     * @param expireSeconds 过期时间(秒)。
+     */
+    void save(ExportJob job, long expireSeconds);
+
+    /**
+     * 删除导出任务。
+     *
+     * @param jobId 任务Id。
+     */
+    void remove(String jobId);
+
+    /**
+     * 原子化的将去重键绑定到任务Id，仅当去重键尚未绑定任何任务时才会成功。
+     *
+     * @param dedupKey      去重键。
+     * @param jobId         任务Id。
+     * @param expireSeconds 过期时间(秒)。
+     * @return 绑定成功返回null，否则返回已经绑定的任务Id。
+     */
+    String bindDedupKey(String dedupKey, String jobId, long expireSeconds);
+
+    /**
+     * 解除去重键的绑定，仅当去重键仍然绑定到参数任务Id时才会解除，如任务执行失败后，允许重新提交。
+     *
+     * @param dedupKey 去重键。
+     * @param jobId    任务Id。
+     */
+    void unbindDedupKey(String dedupKey, String jobId);
+
+    /**
+     * 登记已经生成结果文件的任务，过期后由pollExpiredResults返回，以便删除对应的结果文件。
+     *
+     * @param job           已经生成结果文件的导出任务。
+     * @param expireSeconds 结果文件的过期时间(秒)。
+     */
+    void addResult(ExportJob job, long expireSeconds);
+
+    /**
+     * 获取并移除结果文件已经过期的任务。多个实例同时调用时，每个任务只会返回给其中一个调用者。
+     *
+     * @param maxCount 最多返回的任务数量。
+     * @return 结果文件已经过期的任务列表。
+     */
+    List<ExportJob> pollExpiredResults(int maxCount);
+}
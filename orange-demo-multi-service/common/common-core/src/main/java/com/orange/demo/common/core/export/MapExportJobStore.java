@@ -0,0 +1,88 @@
+package com.orange.demo.common.core.export;
+
+import com.alibaba.fastjson.JSON;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orange.demo.common.core.object.Tuple2;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于本地缓存的异步导出任务存储对象，仅在当前实例内有效，适用于单实例部署或未启用Redis的服务。
+ * 任务对象以JSON形式保存，以保证与共享存储相同的读写语义，即读取到的总是任务对象的副本。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class MapExportJobStore implements ExportJobStore {
+
+    private final Cache<String, String> jobCache;
+    private final Cache<String, String> dedupKeyCache;
+    /**
+     * 已经生成结果文件的任务，key为任务Id，value为任务对象的JSON和结果文件的过期时间戳。
+     */
+    private final Map<String, Tuple2<String, Long>> resultMap = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数。由于使用了统一的过期时间，save和bindDedupKey方法参数中的过期时间将被忽略。
+     *
+     * @param expireSeconds      任务的过期时间(秒)。
+     * @param dedupExpireSeconds 去重键的过期时间(秒)。
+     */
+    public MapExportJobStore(long expireSeconds, long dedupExpireSeconds) {
+        this.jobCache = Caffeine.newBuilder().expireAfterWrite(expireSeconds, TimeUnit.SECONDS).build();
+        this.dedupKeyCache = Caffeine.newBuilder().expireAfterWrite(dedupExpireSeconds, TimeUnit.SECONDS).build();
+    }
+
+    @Override
+    public ExportJob get(String jobId) {
+        String jobJson = jobCache.getIfPresent(jobId);
+        return jobJson == null ? null : JSON.parseObject(jobJson, ExportJob.class);
+    }
+
+    @Override
+    public void save(ExportJob job, long expireSeconds) {
+        jobCache.put(job.getJobId(), JSON.toJSONString(job));
+    }
+
+    @Override
+    public void remove(String jobId) {
+        jobCache.invalidate(jobId);
+    }
+
+    @Override
+    public String bindDedupKey(String dedupKey, String jobId, long expireSeconds) {
+        String boundJobId = dedupKeyCache.asMap().putIfAbsent(dedupKey, jobId);
+        return jobId.equals(boundJobId) ? null : boundJobId;
+    }
+
+    @Override
+    public void unbindDedupKey(String dedupKey, String jobId) {
+        dedupKeyCache.asMap().remove(dedupKey, jobId);
+    }
+
+    @Override
+    public void addResult(ExportJob job, long expireSeconds) {
+        long expireTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(expireSeconds);
+        resultMap.put(job.getJobId(), new Tuple2<>(JSON.toJSONString(job), expireTime));
+    }
+
+    @Override
+    public List<ExportJob> pollExpiredResults(int maxCount) {
+        long now = System.currentTimeMillis();
+        List<ExportJob> expiredJobList = new LinkedList<>();
+        for (Map.Entry<String, Tuple2<String, Long>> entry : resultMap.entrySet()) {
+            if (expiredJobList.size() >= maxCount) {
+                break;
+            }
+            if (entry.getValue().getSecond() <= now && resultMap.remove(entry.getKey(), entry.getValue())) {
+                expiredJobList.add(JSON.parseObject(entry.getValue().getFirst(), ExportJob.class));
+            }
+        }
+        return expiredJobList;
+    }
+}
@@ -0,0 +1,117 @@
+package com.orange.demo.common.core.interceptor;
+
+import com.orange.demo.common.core.cache.TotalCountCache;
+import com.orange.demo.common.core.util.MyModelUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.*;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tk.mybatis.mapper.common.Mapper;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 数据表写操作的MyBatis拦截器，用于使TotalCountCache中该表的缓存数量失效。
+ * 数据表由执行写操作的Mapper接口的泛型实体对象确定，即Mapper接口泛型参数中的实体对象所对应的表。
+ * 写操作执行后立即失效一次，如果处于事务中，事务结束后会再失效一次，
+ * 以避免在事务提交之前计算并缓存的旧数量在提交后继续命中。
+ * 事务中的写操作在提交之前对其他实例不可见，因此只在事务结束后向其他实例广播一次变化通知。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Intercepts({@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+public class TotalCountInvalidateInterceptor implements Interceptor {
+
+    private final TotalCountCache totalCountCache;
+    /**
+     * Mapper命名空间到数据表名的映射，无法确定数据表的Mapper映射为空字符串。
+     */
+    private final Map<String, String> namespaceTableMap = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数。
+     *
+     * @param totalCountCache 数据总数量缓存对象。
+     */
+    public TotalCountInvalidateInterceptor(TotalCountCache totalCountCache) {
+        this.totalCountCache = totalCountCache;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        String namespace = StringUtils.substringBeforeLast(ms.getId(), ".");
+        String tableName = namespaceTableMap.computeIfAbsent(namespace, TotalCountInvalidateInterceptor::resolveTableName);
+        if (tableName.isEmpty()) {
+            return result;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            totalCountCache.invalidateLocal(tableName);
+            this.invalidateAfterCompletion(tableName);
+        } else {
+            totalCountCache.invalidate(tableName);
+        }
+        return result;
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+        // 没有需要设置的属性。
+    }
+
+    @SuppressWarnings("unchecked")
+    private void invalidateAfterCompletion(String tableName) {
+        // 同一事务中的多次写操作只注册一次事务同步对象。
+        Set<String> tableNameSet = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (tableNameSet == null) {
+            Set<String> newTableNameSet = new HashSet<>();
+            tableNameSet = newTableNameSet;
+            TransactionSynchronizationManager.bindResource(this, newTableNameSet);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TotalCountInvalidateInterceptor.this);
+                    newTableNameSet.forEach(totalCountCache::invalidate);
+                }
+            });
+        }
+        tableNameSet.add(tableName);
+    }
+
+    private static String resolveTableName(String namespace) {
+        Class<?> mapperClass;
+        try {
+            mapperClass = Class.forName(namespace);
+        } catch (ClassNotFoundException e) {
+            return "";
+        }
+        for (Type type : mapperClass.getGenericInterfaces()) {
+            if (type instanceof ParameterizedType) {
+                ParameterizedType parameterizedType = (ParameterizedType) type;
+                Type rawType = parameterizedType.getRawType();
+                Type modelType = parameterizedType.getActualTypeArguments()[0];
+                if (rawType instanceof Class && Mapper.class.isAssignableFrom((Class<?>) rawType)
+                        && modelType instanceof Class) {
+                    String tableName = MyModelUtil.mapToTableName((Class<?>) modelType);
+                    return tableName == null ? "" : tableName;
+                }
+            }
+        }
+        return "";
+    }
+}
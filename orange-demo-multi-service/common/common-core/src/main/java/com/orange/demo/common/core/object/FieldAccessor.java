@@ -0,0 +1,259 @@
+package com.orange.demo.common.core.object;
+
+import cn.hutool.core.convert.Convert;
+import cn.hutool.core.util.ClassUtil;
+import cn.hutool.core.util.ReflectUtil;
+import cn.hutool.core.util.StrUtil;
+import com.orange.demo.common.core.exception.MyRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 编译后的字段访问器对象。在首次注册Model时，基于LambdaMetafactory为字段的Getter/Setter方法生成等价的
+ * 函数式接口实现，后续的每次读写均为普通的接口调用，从而避免了逐行逐字段反射调用的开销。
+ * 如果字段没有可访问的Getter/Setter方法，或Model类对当前类加载器不可见，则退化为MethodHandle直接访问字段。
+ * NOTE: 同一Model的全部字段访问器只会创建一次，并缓存在当前类的静态注册表中。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+public final class FieldAccessor {
+
+    /**
+     * 以Model的Class对象为键，缓存其所有字段的访问器，其中字段访问器以字段名为键。
+     */
+    private static final Map<Class<?>, Map<String, FieldAccessor>> ACCESSOR_REGISTRY = new ConcurrentHashMap<>();
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * 被访问的字段对象。
+     */
+    private final Field field;
+    /**
+     * 编译后的字段读函数。
+     */
+    private final Function<Object, Object> getter;
+    /**
+     * 字段类型，原始类型会被转换为对应的包装类型。
+     */
+    private final Class<?> fieldType;
+    /**
+     * 编译后的字段写函数。
+     */
+    private final BiConsumer<Object, Object> setter;
+    /**
+     * 原始类型字段的缺省值，非原始类型字段为null。
+     */
+    private final Object primitiveDefault;
+
+    private FieldAccessor(Field field) {
+        this.field = field;
+        this.fieldType = wrap(field.getType());
+        this.primitiveDefault = ClassUtil.getDefaultValue(field.getType());
+        this.getter = makeGetter(field);
+        this.setter = makeSetter(field);
+    }
+
+    /**
+     * 注册Model类型，并为其所有字段(包括父类字段)创建访问器。重复注册将直接返回已缓存的结果。
+     *
+     * @param modelClazz Model的Class对象。
+     * @return 该Model全部字段的访问器，以字段名为键。
+     */
+    public static Map<String, FieldAccessor> registerModel(Class<?> modelClazz) {
+        return ACCESSOR_REGISTRY.computeIfAbsent(modelClazz, c -> {
+            Field[] fields = ReflectUtil.getFields(c);
+            Map<String, FieldAccessor> accessorMap = new HashMap<>(fields.length);
+            for (Field f : fields) {
+                if (!Modifier.isStatic(f.getModifiers())) {
+                    // 子类字段优先，与ReflectUtil.getField的查找顺序保持一致。
+                    accessorMap.putIfAbsent(f.getName(), new FieldAccessor(f));
+                }
+            }
+            return accessorMap;
+        });
+    }
+
+    /**
+     * 获取指定Model字段的访问器。如果Model尚未注册，则先完成注册。
+     *
+     * @param modelClazz Model的Class对象。
+     * @param fieldName  字段名。
+     * @return 字段访问器。字段不存在时抛出MyRuntimeException异常，从而让配置错误在调试期间即可抛出。
+     */
+    public static FieldAccessor of(Class<?> modelClazz, String fieldName) {
+        FieldAccessor accessor = registerModel(modelClazz).get(fieldName);
+        if (accessor == null) {
+            throw new MyRuntimeException(
+                    "Field [" + fieldName + "] doesn't exist in Model [" + modelClazz.getName() + "].");
+        }
+        return accessor;
+    }
+
+    /**
+     * 获取指定字段对象的访问器。
+     *
+     * @param modelClazz Model的Class对象。
+     * @param field      字段对象，可以为null。
+     * @return 字段访问器。如果参数field为null，则返回null。
+     */
+    public static FieldAccessor of(Class<?> modelClazz, Field field) {
+        return field == null ? null : of(modelClazz, field.getName());
+    }
+
+    /**
+     * 读取对象的字段值。
+     *
+     * @param target 目标对象。
+     * @return 字段值。
+     */
+    public Object get(Object target) {
+        return getter.apply(target);
+    }
+
+    /**
+     * 设置对象的字段值。如果值的类型与字段类型不一致，则先进行类型转换，与ReflectUtil.setFieldValue的行为保持一致。
+     * 同样与ReflectUtil.setFieldValue一致，原始类型的字段被设置为null时，实际设置的是该原始类型的缺省值，如0和false。
+     *
+     * @param target 目标对象。
+     * @param value  字段值。
+     */
+    public void set(Object target, Object value) {
+        if (value == null) {
+            // 编译后的Setter会对原始类型的参数进行拆箱，直接传入null将抛出NullPointerException。
+            value = primitiveDefault;
+        } else if (!fieldType.isInstance(value)) {
+            value = Convert.convert(fieldType, value);
+        }
+        setter.accept(target, value);
+    }
+
+    /**
+     * 获取被访问的字段对象。
+     *
+     * @return 字段对象。
+     */
+    public Field getField() {
+        return field;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> makeGetter(Field field) {
+        Class<?> declaringClass = field.getDeclaringClass();
+        Method getterMethod = findMethod(field, true);
+        if (getterMethod != null && canCompile(declaringClass)) {
+            try {
+                MethodHandle mh = LOOKUP.unreflect(getterMethod);
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        mh,
+                        MethodType.methodType(wrap(getterMethod.getReturnType()), declaringClass));
+                return (Function<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                log.warn("Failed to compile getter for field [{}.{}], fallback to MethodHandle.",
+                        declaringClass.getName(), field.getName(), e);
+            }
+        }
+        MethodHandle mh = unreflectField(field, true);
+        return target -> {
+            try {
+                return mh.invokeExact(target);
+            } catch (Throwable e) {
+                throw new MyRuntimeException(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> makeSetter(Field field) {
+        Class<?> declaringClass = field.getDeclaringClass();
+        Method setterMethod = Modifier.isFinal(field.getModifiers()) ? null : findMethod(field, false);
+        if (setterMethod != null && canCompile(declaringClass)) {
+            try {
+                MethodHandle mh = LOOKUP.unreflect(setterMethod);
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        mh,
+                        MethodType.methodType(void.class, declaringClass, wrap(field.getType())));
+                return (BiConsumer<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                log.warn("Failed to compile setter for field [{}.{}], fallback to MethodHandle.",
+                        declaringClass.getName(), field.getName(), e);
+            }
+        }
+        if (Modifier.isFinal(field.getModifiers())) {
+            return (target, value) -> {
+                throw new MyRuntimeException("Field [" + field.getName() + "] is final and can't be set.");
+            };
+        }
+        MethodHandle mh = unreflectField(field, false);
+        return (target, value) -> {
+            try {
+                mh.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw new MyRuntimeException(e);
+            }
+        };
+    }
+
+    private static MethodHandle unreflectField(Field field, boolean isGetter) {
+        ReflectUtil.setAccessible(field);
+        try {
+            if (isGetter) {
+                return LOOKUP.unreflectGetter(field)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+            }
+            return LOOKUP.unreflectSetter(field)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new MyRuntimeException(e);
+        }
+    }
+
+    private static Method findMethod(Field field, boolean isGetter) {
+        Class<?> declaringClass = field.getDeclaringClass();
+        String upperName = StrUtil.upperFirst(field.getName());
+        try {
+            if (!isGetter) {
+                return publicOrNull(declaringClass.getMethod("set" + upperName, field.getType()));
+            }
+            if (field.getType() == boolean.class) {
+                return publicOrNull(declaringClass.getMethod("is" + upperName));
+            }
+            return publicOrNull(declaringClass.getMethod("get" + upperName));
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Method publicOrNull(Method method) {
+        return Modifier.isStatic(method.getModifiers())
+                || !Modifier.isPublic(method.getDeclaringClass().getModifiers()) ? null : method;
+    }
+
+    private static boolean canCompile(Class<?> declaringClass) {
+        // 生成的Lambda类由当前类的类加载器解析，因此Model类对其必须可见，否则只能退化为MethodHandle访问。
+        try {
+            return Class.forName(declaringClass.getName(), false, FieldAccessor.class.getClassLoader()) == declaringClass;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static Class<?> wrap(Class<?> clazz) {
+        return clazz.isPrimitive() ? MethodType.methodType(clazz).wrap().returnType() : clazz;
+    }
+}
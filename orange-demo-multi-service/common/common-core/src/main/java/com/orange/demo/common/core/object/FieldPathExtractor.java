@@ -0,0 +1,68 @@
+package com.orange.demo.common.core.object;
+
+import java.util.Map;
+
+/**
+ * 基于字段路径的字段值提取对象，用于替代BeanQuery的逐行反射调用。
+ * 路径中的每一级字段，如果上级对象是Map则直接按照键名读取，否则使用按照对象实际类型缓存的FieldAccessor读取。
+ * NOTE: 该对象缓存了最近一次使用的访问器，因此不是线程安全的，通常在一次导出或一次应答数据的构建中使用。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class FieldPathExtractor {
+
+    private final String fieldPath;
+    private final String[] fieldNames;
+    private final Class<?>[] cachedClasses;
+    private final FieldAccessor[] cachedAccessors;
+
+    /**
+     * 构造函数。
+     *
+     * @param fieldPath 字段路径，支持以"."分隔的嵌套字段，如 gradeIdDictMap.name。
+     */
+    public FieldPathExtractor(String fieldPath) {
+        this.fieldPath = fieldPath;
+        this.fieldNames = fieldPath.split("\\.");
+        this.cachedClasses = new Class<?>[fieldNames.length];
+        this.cachedAccessors = new FieldAccessor[fieldNames.length];
+    }
+
+    /**
+     * 提取对象的字段值。
+     *
+     * @param data 数据对象。
+     * @return 字段值。路径中任何一级的对象为null时，返回null。
+     */
+    public Object extract(Object data) {
+        Object value = data;
+        for (int i = 0; i < fieldNames.length && value != null; i++) {
+            if (value instanceof Map) {
+                value = ((Map<?, ?>) value).get(fieldNames[i]);
+                continue;
+            }
+            // 同一批次中的数据类型通常是相同的，因此只需缓存最近一次使用的访问器。
+            if (cachedClasses[i] != value.getClass()) {
+                cachedAccessors[i] = FieldAccessor.of(value.getClass(), fieldNames[i]);
+                cachedClasses[i] = value.getClass();
+            }
+            value = cachedAccessors[i].get(value);
+        }
+        return value;
+    }
+
+    /**
+     * 判断路径的第一级字段是否存在于数据对象中。
+     *
+     * @param data 数据对象，如果是Map，则总是返回true。
+     * @return 存在返回true，否则false。
+     */
+    public boolean isValidFor(Object data) {
+        return data instanceof Map || FieldAccessor.registerModel(data.getClass()).containsKey(fieldNames[0]);
+    }
+
+    public String getFieldPath() {
+        return fieldPath;
+    }
+}
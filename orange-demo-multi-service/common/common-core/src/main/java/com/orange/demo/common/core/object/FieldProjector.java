@@ -0,0 +1,97 @@
+package com.orange.demo.common.core.object;
+
+import com.orange.demo.common.core.exception.InvalidDataFieldException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * 数据列表的字段投影对象，用于替代BeanQuery.select，仅返回前端需要的字段。
+ * 投影字段之间逗号分隔，每个字段支持以"."分隔的嵌套字段，以及" as "指定的别名，如
+ * "studentId, studentName, gradeIdDictMap.name as gradeName"。未指定别名时，以字段路径作为投影结果的键名。
+ * 字段值通过编译后的FieldAccessor读取，并且投影后的列表是原有列表的只读视图，只有在序列化逐行读取时才会创建每行的数据，
+ * 因此不会在内存中额外保留整个投影后的结果集。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class FieldProjector {
+
+    private static final Pattern ALIAS_PATTERN = Pattern.compile("\\s+as\\s+", Pattern.CASE_INSENSITIVE);
+
+    private final String[] keys;
+    private final FieldPathExtractor[] extractors;
+
+    /**
+     * 构造函数。
+     *
+     * @param includeFields 投影字段，多个字段之间逗号分隔。
+     */
+    public FieldProjector(String includeFields) {
+        String[] fields = StringUtils.split(includeFields, ',');
+        List<String> keyList = new ArrayList<>(fields.length);
+        List<FieldPathExtractor> extractorList = new ArrayList<>(fields.length);
+        for (String field : fields) {
+            if (StringUtils.isBlank(field)) {
+                continue;
+            }
+            String[] pathAndAlias = ALIAS_PATTERN.split(field.trim(), 2);
+            String fieldPath = pathAndAlias[0].trim();
+            keyList.add(pathAndAlias.length > 1 ? pathAndAlias[1].trim() : fieldPath);
+            extractorList.add(new FieldPathExtractor(fieldPath));
+        }
+        this.keys = keyList.toArray(new String[0]);
+        this.extractors = extractorList.toArray(new FieldPathExtractor[0]);
+    }
+
+    /**
+     * 校验全部投影字段的第一级字段是否存在于数据对象中，以便在写入应答数据之前发现非法的投影字段。
+     *
+     * @param data 数据对象，通常为数据列表中的第一条数据。
+     * @throws InvalidDataFieldException 存在非法的投影字段。
+     */
+    public void validate(Object data) {
+        for (FieldPathExtractor extractor : extractors) {
+            if (!extractor.isValidFor(data)) {
+                throw new InvalidDataFieldException(data.getClass().getSimpleName(), extractor.getFieldPath());
+            }
+        }
+    }
+
+    /**
+     * 投影单个数据对象。
+     *
+     * @param data 数据对象。
+     * @return 只包含投影字段的数据，键的顺序与投影字段的顺序一致。
+     */
+    public Map<String, Object> project(Object data) {
+        Map<String, Object> resultMap = new LinkedHashMap<>(keys.length * 2);
+        for (int i = 0; i < keys.length; i++) {
+            resultMap.put(keys[i], extractors[i].extract(data));
+        }
+        return resultMap;
+    }
+
+    /**
+     * 投影数据列表。
+     *
+     * @param dataList 数据列表。
+     * @param <T>      源数据类型。
+     * @return 投影后的只读列表视图。
+     */
+    public <T> List<Map<String, Object>> projectList(List<T> dataList) {
+        final List<T> sourceList = dataList instanceof RandomAccess ? dataList : new ArrayList<>(dataList);
+        return new AbstractList<Map<String, Object>>() {
+            @Override
+            public Map<String, Object> get(int index) {
+                return project(sourceList.get(index));
+            }
+
+            @Override
+            public int size() {
+                return sourceList.size();
+            }
+        };
+    }
+}
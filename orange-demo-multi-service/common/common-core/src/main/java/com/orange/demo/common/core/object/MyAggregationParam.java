@@ -43,6 +43,13 @@ public class MyAggregationParam {
      */
     private Map<Object, Set<Object>> groupedInFilterValues;
 
+    /**
+     * groupedInFilterValues中的分组键是否为数值类型，由调用端根据分组键所对应字段的声明类型设定。
+     * 分组键在远程调用的JSON传输中会被转换为字符串，被调用端据此决定是否需要将其还原为数值。
+     * 为null时，被调用端根据第一个分组键的类型推断，用于兼容尚未设置该字段的调用端。
+     */
+    private Boolean numericGroupedKey;
+
     /**
      * 过滤条件列表。
      */
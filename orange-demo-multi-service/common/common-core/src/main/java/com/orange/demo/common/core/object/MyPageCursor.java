@@ -0,0 +1,214 @@
+package com.orange.demo.common.core.object;
+
+import cn.hutool.core.convert.Convert;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.github.pagehelper.page.PageMethod;
+import com.orange.demo.common.core.exception.InvalidPageCursorException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标(Keyset)分页对象，由BaseService.makePageCursor方法基于分页参数和排序参数创建。
+ * 排序字段之后总是追加主键字段，以保证排序结果的唯一性。后续页面的数据通过定位条件，如
+ * (table_name.column_a > ? OR (table_name.column_a = ? AND table_name.id > ?))，
+ * 直接从上一页最后一条记录之后开始读取，不再需要OFFSET扫描，因此每页的查询代价与页号无关。
+ * 游标是上一页最后一条记录排序字段值的Base64编码，其中还包含了排序字段的签名，排序条件变化后，原有游标即视为无效。
+ *
+ * @param <M> Model实体对象的类型。
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class MyPageCursor<M> {
+
+    private static final String SIGNATURE_KEY = "s";
+    private static final String VALUES_KEY = "v";
+
+    /**
+     * 排序字段列表，最后一个字段总是主键字段。
+     */
+    private final List<SortKey> sortKeyList;
+    /**
+     * SQL中order by从句可以直接使用的排序字符串。
+     */
+    private final String orderBy;
+    /**
+     * 排序字段的签名，用于校验游标是否与当前的排序条件匹配。
+     */
+    private final String signature;
+    /**
+     * 定位条件从句，获取第一页数据时为null。
+     */
+    private final MyWhereClause seekClause;
+    private final int pageSize;
+    private final boolean withTotalCount;
+
+    /**
+     * 构造函数。
+     *
+     * @param pageParam   分页参数。
+     * @param sortKeyList 排序字段列表，最后一个字段必须是主键字段。
+     * @param seekClause  定位条件从句，获取第一页数据时为null。
+     */
+    public MyPageCursor(MyPageParam pageParam, List<SortKey> sortKeyList, MyWhereClause seekClause) {
+        this.sortKeyList = sortKeyList;
+        this.orderBy = makeOrderBy(sortKeyList);
+        this.signature = Integer.toHexString(orderBy.hashCode());
+        this.seekClause = seekClause;
+        this.pageSize = pageParam.getPageSize() == null ? MyPageParam.DEFAULT_PAGE_SIZE : pageParam.getPageSize();
+        this.withTotalCount = Boolean.TRUE.equals(pageParam.getWithTotalCount());
+    }
+
+    /**
+     * 解码游标，获取与排序字段一一对应的排序字段值，字段值会被转换为排序字段的类型。
+     *
+     * @param cursor      游标字符串。
+     * @param sortKeyList 排序字段列表。
+     * @return 排序字段值列表。如果游标为空字符串，表示获取第一页数据，返回null。
+     */
+    public static List<Object> decodeValueList(String cursor, List<SortKey> sortKeyList) {
+        if (StringUtils.isBlank(cursor)) {
+            return null;
+        }
+        JSONObject cursorData;
+        try {
+            byte[] data = Base64.getUrlDecoder().decode(cursor);
+            cursorData = JSON.parseObject(new String(data, StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new InvalidPageCursorException("Failed to decode page cursor [" + cursor + "].", e);
+        }
+        JSONArray valueArray = cursorData == null ? null : cursorData.getJSONArray(VALUES_KEY);
+        String signature = Integer.toHexString(makeOrderBy(sortKeyList).hashCode());
+        if (valueArray == null || valueArray.size() != sortKeyList.size()
+                || !signature.equals(cursorData.getString(SIGNATURE_KEY))) {
+            throw new InvalidPageCursorException("Page cursor [" + cursor + "] doesn't match the ORDER BY fields.");
+        }
+        List<Object> valueList = new ArrayList<>(valueArray.size());
+        for (int i = 0; i < valueArray.size(); i++) {
+            Object value = valueArray.get(i);
+            Class<?> fieldType = sortKeyList.get(i).getAccessor().getField().getType();
+            valueList.add(value == null ? null : Convert.convert(fieldType, value));
+        }
+        return valueList;
+    }
+
+    /**
+     * 开始分页，必须在执行列表查询之前立即调用。
+     * 这里会多读取一条记录，用于判断是否还有下一页数据。数据总数量不再由PageHelper计算，
+     * 需要时由调用者通过BaseService中带有缓存的计数方法获取，可参考isTotalCountRequired。
+     */
+    public void startPage() {
+        PageMethod.startPage(1, pageSize + 1, false);
+    }
+
+    /**
+     * 是否需要返回数据总数量。游标分页只在获取第一页数据，且分页参数要求计算时，才需要返回数据总数量。
+     *
+     * @return 需要返回时为true，否则false。
+     */
+    public boolean isTotalCountRequired() {
+        return withTotalCount && seekClause == null;
+    }
+
+    /**
+     * 获取SQL中order by从句可以直接使用的排序字符串，查询时必须使用该排序字符串。
+     *
+     * @return 排序字符串。
+     */
+    public String getOrderBy() {
+        return orderBy;
+    }
+
+    /**
+     * 获取定位条件从句。
+     *
+     * @return 定位条件从句，获取第一页数据时为null。
+     */
+    public MyWhereClause getSeekClause() {
+        return seekClause;
+    }
+
+    /**
+     * 构建带有下一页游标的分页数据。
+     *
+     * @param dataList  数据列表，该参数必须是调用startPage之后，立即执行mybatis查询操作的结果集。
+     * @param converter 数据列表的转换函数，如实体对象列表到Dto对象列表的转换。
+     * @param <T>       转换后的数据类型。
+     * @return 分页数据对象。
+     */
+    public <T> MyPageData<T> makeResponseData(List<M> dataList, Function<List<M>, List<T>> converter) {
+        MyPageData<T> pageData = new MyPageData<>();
+        if (dataList.size() > pageSize) {
+            dataList = dataList.subList(0, pageSize);
+            pageData.setNextCursor(this.encode(dataList.get(pageSize - 1)));
+        }
+        pageData.setDataList(converter.apply(dataList));
+        return pageData;
+    }
+
+    private String encode(M data) {
+        JSONArray valueArray = new JSONArray(sortKeyList.size());
+        for (SortKey sortKey : sortKeyList) {
+            valueArray.add(sortKey.getAccessor().get(data));
+        }
+        JSONObject cursorData = new JSONObject();
+        cursorData.put(SIGNATURE_KEY, signature);
+        cursorData.put(VALUES_KEY, valueArray);
+        byte[] cursorBytes = cursorData.toJSONString().getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursorBytes);
+    }
+
+    private static String makeOrderBy(List<SortKey> sortKeyList) {
+        StringBuilder sb = new StringBuilder(128);
+        for (SortKey sortKey : sortKeyList) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(sortKey.getColumnName());
+            if (!sortKey.isAsc()) {
+                sb.append(" DESC");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 游标分页的排序字段。
+     */
+    public static class SortKey {
+        private final FieldAccessor accessor;
+        private final String columnName;
+        private final boolean asc;
+
+        /**
+         * 构造函数。
+         *
+         * @param accessor   排序字段的访问器，用于读取每页最后一条记录的排序字段值。
+         * @param columnName 包含表名前缀的数据表列名，如 table_name.column_name。
+         * @param asc        是否为升序。
+         */
+        public SortKey(FieldAccessor accessor, String columnName, boolean asc) {
+            this.accessor = accessor;
+            this.columnName = columnName;
+            this.asc = asc;
+        }
+
+        public FieldAccessor getAccessor() {
+            return accessor;
+        }
+
+        public String getColumnName() {
+            return columnName;
+        }
+
+        public boolean isAsc() {
+            return asc;
+        }
+    }
+}
@@ -20,4 +20,12 @@ public class MyPageData<T> {
      * 数据总数量。
      */
     private Long totalCount;
+    /**
+     * 数据总数量的来源类型，具体值可参考TotalCountType常量对象，包括精确计算、缓存和估算三种。
+     */
+    private String totalCountType;
+    /**
+     * 游标分页时下一页的游标，需原样传给下一次请求的MyPageParam.cursor。为null时表示没有更多的数据。
+     */
+    private String nextCursor;
 }
@@ -25,6 +25,29 @@ public class MyPageParam {
      */
     private Integer pageSize;
 
+    /**
+     * 游标分页的游标，来自上一页应答数据中的nextCursor。该值不为null时，以游标(Keyset)方式分页，pageNum将被忽略。
+     * 获取第一页数据时，可传入空字符串。游标分页不再需要OFFSET扫描，适用于数据量较大的列表的连续翻页。
+     */
+    private String cursor;
+
+    /**
+     * 是否计算数据总数量。缺省为true，仅为兼容原有的页号分页。
+     * 游标分页只在获取第一页数据时计算，后续页面不再返回数据总数量。
+     */
+    private Boolean withTotalCount = true;
+
+    /**
+     * 缓存未命中时，是否允许立即返回估算的数据总数量，精确数量将在后台异步计算。缺省为false。
+     */
+    private Boolean estimatedCount = false;
+
+    /**
+     * 列表中需要返回的字段，多个字段之间逗号分隔，具体格式可参考FieldProjector。为空时返回全部字段。
+     * 仅对支持字段投影的接口有效，如列表页面只需显示部分字段时，可以减少应答数据的大小。
+     */
+    private String includeFields;
+
     /**
      * 设置当前分页页号。
      *
@@ -54,4 +77,46 @@ public class MyPageParam {
         }
         this.pageSize = pageSize;
     }
+
+    /**
+     * 设置游标分页的游标。
+     *
+     * @param cursor 上一页应答数据中的nextCursor，第一页为空字符串。
+     */
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * 设置是否计算数据总数量。
+     *
+     * @param withTotalCount 是否计算数据总数量，如果为null，则使用缺省值。
+     */
+    public void setWithTotalCount(Boolean withTotalCount) {
+        if (withTotalCount == null) {
+            return;
+        }
+        this.withTotalCount = withTotalCount;
+    }
+
+    /**
+     * 设置是否允许返回估算的数据总数量。
+     *
+     * @param estimatedCount 是否允许返回估算的数据总数量，如果为null，则使用缺省值。
+     */
+    public void setEstimatedCount(Boolean estimatedCount) {
+        if (estimatedCount == null) {
+            return;
+        }
+        this.estimatedCount = estimatedCount;
+    }
+
+    /**
+     * 设置列表中需要返回的字段。
+     *
+     * @param includeFields 需要返回的字段，多个字段之间逗号分隔。
+     */
+    public void setIncludeFields(String includeFields) {
+        this.includeFields = includeFields;
+    }
 }
@@ -70,6 +70,18 @@ public class MyRelationParam {
      */
     private boolean buildRemoteAggregation;
 
+    /**
+     * 是否并行组装远程关联数据的标记，同时作用于BaseService.buildRelationForDataList和buildRelationForData。
+     * 为true时，彼此独立的远程一对一、远程字典和远程一对多聚合调用将并发执行，全部返回后再统一回填到主表对象。
+     */
+    private boolean parallelRemote;
+
+    /**
+     * 并行组装时，每个远程关联调用的超时时间(毫秒)。小于等于0时使用缺省配置。
+     * 超时的调用会被取消，并按照BaseService.ignoreRpcError()的设置记录错误日志或抛出异常。
+     */
+    private long remoteTimeoutMillis;
+
     /**
      * 便捷方法，返回仅做字典关联的参数对象。
      *
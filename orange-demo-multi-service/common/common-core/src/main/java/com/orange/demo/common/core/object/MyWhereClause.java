@@ -0,0 +1,263 @@
+package com.orange.demo.common.core.object;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import tk.mybatis.mapper.entity.Example;
+
+import java.util.*;
+
+/**
+ * 编译后的SQL Where从句。条件值不再以常量的形式拼接到SQL中，而是作为绑定变量单独保存。
+ * 所有条件之间目前仅支持 AND 的关系，每个条件由SQL片段和可选的条件值组成，如 table_name.column_name = ?。
+ * 同一结构的查询因此会生成相同的SQL文本，可以充分利用数据库和连接池的预编译语句缓存。
+ * 为了进一步减少IN列表长度不同所导致的SQL文本差异，IN列表的条件值数量会被补齐到固定的档位。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class MyWhereClause {
+
+    /**
+     * BaseDaoMapper中该对象参数的名称。
+     */
+    public static final String PARAM_NAME = "whereClause";
+    /**
+     * BaseDaoMapper中输出该对象的MyBatis动态SQL，以 ${} 输出getBindSql返回的SQL从句，其中的条件值均为真正的绑定变量。
+     * 使用该常量的语句需指定CachedSqlLanguageDriver，同一结构的从句只会被MyBatis解析一次。
+     */
+    public static final String MAPPER_SQL = "${" + PARAM_NAME + ".bindSql}";
+    /**
+     * IN列表条件值数量在该值以内时，补齐到2的整数次幂，否则补齐到该值的整数倍。
+     */
+    private static final int IN_LIST_PADDING_STEP = 256;
+    private static final String AND_OP = " AND ";
+
+    /**
+     * 条件列表。
+     */
+    private final List<Condition> conditionList = new LinkedList<>();
+    /**
+     * 按照占位符顺序排列的全部条件值。
+     */
+    private final List<Object> paramList = new ArrayList<>();
+
+    /**
+     * 添加不包含条件值的条件，如多表之间的关联条件 table_a.column_a = table_b.column_b，或 IS NULL 条件。
+     * NOTE: 参数中的SQL片段会被直接拼接到SQL语句中，因此只能包含表名、字段名等可信的数据。
+     *
+     * @param sql SQL条件片段。
+     * @return 当前对象。
+     */
+    public MyWhereClause add(String sql) {
+        conditionList.add(new Condition(sql, null));
+        return this;
+    }
+
+    /**
+     * 添加包含条件值的条件。
+     *
+     * @param sql   以操作符结尾的SQL条件片段，如 table_name.column_name = 。
+     * @param value 条件值，如果是集合对象，则作为IN列表的条件值。
+     * @return 当前对象。
+     */
+    public MyWhereClause add(String sql, Object value) {
+        if (value instanceof Collection) {
+            List<Object> paddedList = padInList((Collection<?>) value);
+            paramList.addAll(paddedList);
+            value = paddedList;
+        } else if (value != null) {
+            paramList.add(value);
+        }
+        conditionList.add(new Condition(sql, value));
+        return this;
+    }
+
+    /**
+     * 添加包含多个条件值的条件模板，模板中的每个 ? 都将按顺序替换为对应条件值的占位符，
+     * 如 (table_name.column_a > ? OR (table_name.column_a = ? AND table_name.id > ?))。
+     * NOTE: 模板会被直接拼接到SQL语句中，因此只能包含表名、字段名等可信的数据，条件值必须通过参数传入。
+     *
+     * @param sqlTemplate SQL条件模板。
+     * @param valueList   条件值列表，数量必须与模板中 ? 的数量一致。
+     * @return 当前对象。
+     */
+    public MyWhereClause addTemplate(String sqlTemplate, List<Object> valueList) {
+        if (StringUtils.countMatches(sqlTemplate, '?') != valueList.size()) {
+            throw new IllegalArgumentException(
+                    "Placeholder count of SQL template [" + sqlTemplate + "] doesn't match the value count.");
+        }
+        paramList.addAll(valueList);
+        conditionList.add(new Condition(sqlTemplate, new ArrayList<>(valueList), true));
+        return this;
+    }
+
+    /**
+     * 将参数从句中的全部条件，以 AND 的关系添加到当前从句。
+     *
+     * @param whereClause 待添加的从句，可以为null。
+     * @return 当前对象。
+     */
+    public MyWhereClause and(MyWhereClause whereClause) {
+        if (whereClause != null) {
+            conditionList.addAll(whereClause.conditionList);
+            paramList.addAll(whereClause.paramList);
+        }
+        return this;
+    }
+
+    /**
+     * 是否不包含任何条件。
+     *
+     * @return 不包含任何条件返回true，否则false。
+     */
+    public boolean isEmpty() {
+        return conditionList.isEmpty();
+    }
+
+    /**
+     * 获取以 ? 作为条件值占位符的SQL从句，与getParamList返回的条件值一一对应。
+     *
+     * @return SQL从句。
+     */
+    public String getSql() {
+        StringBuilder sb = new StringBuilder(128);
+        this.build(sb, false);
+        return sb.toString();
+    }
+
+    /**
+     * 获取按照占位符顺序排列的全部条件值。
+     *
+     * @return 条件值列表。
+     */
+    public List<Object> getParamList() {
+        return Collections.unmodifiableList(paramList);
+    }
+
+    /**
+     * 获取用于BaseDaoMapper的SQL从句，与getSql的区别是每个条件值都输出为引用getParamList对应元素的 #{} 占位符，
+     * 如 table_name.column_name IN (#{whereClause.paramList[0]}, #{whereClause.paramList[1]})。
+     * 同一结构的从句生成的文本完全相同，因此CachedSqlLanguageDriver只需解析一次。
+     *
+     * @return 包含MyBatis绑定变量占位符的SQL从句。
+     */
+    public String getBindSql() {
+        StringBuilder sb = new StringBuilder(256);
+        this.build(sb, true);
+        return sb.toString();
+    }
+
+    /**
+     * 将全部条件添加到tk.mybatis的Example查询条件中，条件值同样以绑定变量的形式传递。
+     * 由于Example的单个条件最多只能绑定一个条件值，因此包含条件值的条件模板不能使用该方法。
+     *
+     * @param criteria Example的查询条件对象。
+     */
+    public void applyTo(Example.Criteria criteria) {
+        for (Condition condition : conditionList) {
+            if (condition.template) {
+                if (!((List<?>) condition.value).isEmpty()) {
+                    throw new UnsupportedOperationException(
+                            "SQL template with values can't be applied to Example.Criteria.");
+                }
+                criteria.andCondition(condition.sql);
+            } else if (condition.value == null) {
+                criteria.andCondition(condition.sql);
+            } else {
+                criteria.andCondition(condition.sql, condition.value);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.getSql();
+    }
+
+    /**
+     * 按顺序输出全部条件。bind为false时，条件值输出为 ? 占位符，否则输出为引用paramList对应元素的 #{} 占位符。
+     */
+    private void build(StringBuilder sb, boolean bind) {
+        int paramIndex = 0;
+        boolean first = true;
+        for (Condition condition : conditionList) {
+            if (!first) {
+                sb.append(AND_OP);
+            }
+            first = false;
+            if (condition.template) {
+                for (int i = 0; i < condition.sql.length(); i++) {
+                    char c = condition.sql.charAt(i);
+                    if (c == '?') {
+                        paramIndex = appendPlaceholders(sb, bind, paramIndex, 1);
+                    } else {
+                        sb.append(c);
+                    }
+                }
+                continue;
+            }
+            sb.append(condition.sql);
+            if (condition.value instanceof Collection) {
+                sb.append("(");
+                paramIndex = appendPlaceholders(sb, bind, paramIndex, ((List<?>) condition.value).size());
+                sb.append(")");
+            } else if (condition.value != null) {
+                paramIndex = appendPlaceholders(sb, bind, paramIndex, 1);
+            }
+        }
+    }
+
+    private static int appendPlaceholders(StringBuilder sb, boolean bind, int paramIndex, int count) {
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            if (bind) {
+                sb.append("#{").append(PARAM_NAME).append(".paramList[").append(paramIndex + i).append("]}");
+            } else {
+                sb.append('?');
+            }
+        }
+        return paramIndex + count;
+    }
+
+    private static List<Object> padInList(Collection<?> values) {
+        if (CollectionUtils.isEmpty(values)) {
+            throw new IllegalArgumentException("IN list values can't be EMPTY.");
+        }
+        int size = values.size();
+        int paddedSize;
+        if (size <= IN_LIST_PADDING_STEP) {
+            paddedSize = Integer.highestOneBit(size);
+            if (paddedSize < size) {
+                paddedSize <<= 1;
+            }
+        } else {
+            paddedSize = (size + IN_LIST_PADDING_STEP - 1) / IN_LIST_PADDING_STEP * IN_LIST_PADDING_STEP;
+        }
+        List<Object> paddedList = new ArrayList<>(paddedSize);
+        paddedList.addAll(values);
+        // 重复最后一个条件值进行补齐，不会改变IN条件的过滤结果。
+        Object lastValue = paddedList.get(size - 1);
+        while (paddedList.size() < paddedSize) {
+            paddedList.add(lastValue);
+        }
+        return paddedList;
+    }
+
+    private static class Condition {
+        private final String sql;
+        private final Object value;
+        private final boolean template;
+
+        private Condition(String sql, Object value) {
+            this(sql, value, false);
+        }
+
+        private Condition(String sql, Object value, boolean template) {
+            this.sql = sql;
+            this.value = value;
+            this.template = template;
+        }
+    }
+}
@@ -182,13 +182,13 @@ public class MyWhereCriteria {
             case OPERATOR_NOT_EQUAL:
                 return " != ";
             case OPERATOR_GE:
-                return " &gt;= ";
+                return " >= ";
             case OPERATOR_GT:
-                return " &gt; ";
+                return " > ";
             case OPERATOR_LE:
-                return " &lt;= ";
+                return " <= ";
             case OPERATOR_LT:
-                return " &lt; ";
+                return " < ";
             case OPERATOR_LIKE:
                 return " LIKE ";
             case OPERATOR_NOT_NULL:
@@ -203,106 +203,82 @@ public class MyWhereCriteria {
     }
 
     /**
-     * 获取组装后的SQL Where从句，如 table_name.column_name = 'value'。
+     * 获取编译后的SQL Where从句，如 table_name.column_name = ?，条件值以绑定变量的形式保存在返回对象中。
      * 与查询数据表对应的实体对象Class为当前对象的modelClazz字段。
      *
      * @exception InvalidDataFieldException selectFieldList中存在非法实体字段时，抛出该异常。
-     * @return 组装后的SQL条件从句。
+     * @return 编译后的SQL条件从句。
      */
-    public String makeCriteriaString() {
-        return makeCriteriaString(this.modelClazz);
+    public MyWhereClause makeWhereClause() {
+        return makeWhereClause(this.modelClazz);
     }
 
     /**
-     * 获取组装后的SQL Where从句，如 table_name.column_name = 'value'。
+     * 获取编译后的SQL Where从句，如 table_name.column_name = ?，条件值以绑定变量的形式保存在返回对象中。
      *
      * @param modelClazz 与查询数据表对应的实体对象的Class。
      * @exception InvalidDataFieldException selectFieldList中存在非法实体字段时，抛出该异常。
      * @exception InvalidDataModelException 参数modelClazz没有对应的table，抛出该异常。
-     * @return 组装后的SQL条件从句。
+     * @return 编译后的SQL条件从句。
      */
-    public String makeCriteriaString(Class<?> modelClazz) {
-        if (modelClazz == null) {
-            throw new IllegalArgumentException("ModelClazz argument can't be NULL.");
-        }
-        Tuple2<String, Integer> fieldInfo = MyModelUtil.mapToColumnInfo(fieldName, modelClazz);
-        if (fieldInfo == null) {
-            throw new InvalidDataFieldException(modelClazz.getSimpleName(), fieldName);
-        }
-        String tableName = MyModelUtil.mapToTableName(modelClazz);
-        if (tableName == null) {
-            throw new InvalidDataModelException(modelClazz.getSimpleName());
-        }
-        return this.buildClauseString(tableName, fieldInfo.getFirst(), fieldInfo.getSecond());
+    public MyWhereClause makeWhereClause(Class<?> modelClazz) {
+        MyWhereClause whereClause = new MyWhereClause();
+        this.appendTo(whereClause, modelClazz);
+        return whereClause;
     }
 
     /**
-     * 获取组装后的SQL Where从句。如 table_name.column_name = 'value'。
+     * 获取编译后的SQL Where从句。如 table_name.column_name = ?，条件值以绑定变量的形式保存在返回对象中。
      *
      * @param criteriaList 条件列表，所有条件直接目前仅支持 AND 的关系。
      * @exception InvalidDataFieldException selectFieldList中存在非法实体字段时，抛出该异常。
-     * @return 组装后的SQL条件从句。
+     * @return 编译后的SQL条件从句。条件列表为空时返回null。
      */
-    public static String makeCriteriaString(List<MyWhereCriteria> criteriaList) {
-        return makeCriteriaString(criteriaList, null);
+    public static MyWhereClause makeWhereClause(List<MyWhereCriteria> criteriaList) {
+        return makeWhereClause(criteriaList, null);
     }
 
     /**
-     * 获取组装后的SQL Where从句。如 table_name.column_name = 'value'。
+     * 获取编译后的SQL Where从句。如 table_name.column_name = ?，条件值以绑定变量的形式保存在返回对象中。
      *
      * @param criteriaList 条件列表，所有条件直接目前仅支持 AND 的关系。
      * @param modelClazz   与数据表对应的实体对象的Class。
      *                     如果不为NULL实体对象Class使用该值，否则使用每个MyWhereCriteria自身的modelClazz。
      * @exception InvalidDataFieldException selectFieldList中存在非法实体字段时，抛出该异常。
-     * @return 组装后的SQL条件从句。
+     * @return 编译后的SQL条件从句。条件列表为空时返回null。
      */
-    public static String makeCriteriaString(List<MyWhereCriteria> criteriaList, Class<?> modelClazz) {
+    public static MyWhereClause makeWhereClause(List<MyWhereCriteria> criteriaList, Class<?> modelClazz) {
         if (CollectionUtils.isEmpty(criteriaList)) {
             return null;
         }
-        StringBuilder sb = new StringBuilder(256);
-        int i = 0;
+        MyWhereClause whereClause = new MyWhereClause();
         for (MyWhereCriteria whereCriteria : criteriaList) {
             Class<?> clazz = modelClazz;
             if (clazz == null) {
                 clazz = whereCriteria.modelClazz;
             }
-            if (i++ != 0) {
-                sb.append(" AND ");
-            }
-            String criteriaString = whereCriteria.makeCriteriaString(clazz);
-            sb.append(criteriaString);
+            whereCriteria.appendTo(whereClause, clazz);
         }
-        return sb.length() == 0 ? null : sb.toString();
+        return whereClause;
     }
 
-    private String buildClauseString(String tableName, String columnName, Integer columnType) {
-        StringBuilder sb = new StringBuilder(64);
-        sb.append(tableName).append(".").append(columnName).append(getOperatorString());
-        if (operatorType == OPERATOR_IN) {
-            Collection<?> filterValues = (Collection<?>) value;
-            sb.append("(");
-            int i = 0;
-            for (Object filterValue : filterValues) {
-                if (columnType.equals(MyModelUtil.NUMERIC_FIELD_TYPE)) {
-                    sb.append(filterValue);
-                } else {
-                    sb.append("'").append(filterValue).append("'");
-                }
-                if (i++ != filterValues.size() - 1) {
-                    sb.append(", ");
-                }
-            }
-            sb.append(")");
-            return sb.toString();
+    private void appendTo(MyWhereClause whereClause, Class<?> modelClazz) {
+        if (modelClazz == null) {
+            throw new IllegalArgumentException("ModelClazz argument can't be NULL.");
         }
-        if (value != null) {
-            if (columnType.equals(MyModelUtil.NUMERIC_FIELD_TYPE)) {
-                sb.append(value);
-            } else {
-                sb.append("'").append(value).append("'");
-            }
+        Tuple2<String, Integer> fieldInfo = MyModelUtil.mapToColumnInfo(fieldName, modelClazz);
+        if (fieldInfo == null) {
+            throw new InvalidDataFieldException(modelClazz.getSimpleName(), fieldName);
+        }
+        String tableName = MyModelUtil.mapToTableName(modelClazz);
+        if (tableName == null) {
+            throw new InvalidDataModelException(modelClazz.getSimpleName());
+        }
+        String sql = tableName + "." + fieldInfo.getFirst() + getOperatorString();
+        if (operatorType == OPERATOR_IS_NULL || operatorType == OPERATOR_NOT_NULL) {
+            whereClause.add(sql);
+        } else {
+            whereClause.add(sql, value);
         }
-        return sb.toString();
     }
 }
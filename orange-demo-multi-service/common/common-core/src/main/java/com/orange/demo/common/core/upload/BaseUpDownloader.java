@@ -12,6 +12,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.File;
 import java.util.List;
 
 /**
@@ -113,6 +114,43 @@ public abstract class BaseUpDownloader {
             Boolean asImage,
             MultipartFile uploadFile) throws Exception;
 
+    /**
+     * 将服务端本地生成的文件存入当前的存储介质，如异步导出任务生成的结果文件。
+     * 存储后的文件与上传文件位于相同的目录结构中，因此可以直接通过doDownload方法下载。
+     *
+     * @param rootBaseDir 存放文件的根目录。
+     * @param modelName   所在数据表的实体对象名。
+     * @param fieldName   关联字段的实体对象属性名。
+     * @param asImage     是否为图片对象。图片是无需权限验证的，因此和附件存放在不同的子目录。
+     * @param filename    存储后的文件名。
+     * @param localFile   待存储的本地文件，调用者负责在存储后删除。
+     * @throws Exception 操作错误。
+     */
+    public abstract void doStore(
+            String rootBaseDir,
+            String modelName,
+            String fieldName,
+            Boolean asImage,
+            String filename,
+            File localFile) throws Exception;
+
+    /**
+     * 删除当前存储介质中的文件，如过期的异步导出结果文件。文件不存在时直接返回。
+     *
+     * @param rootBaseDir 存放文件的根目录。
+     * @param modelName   所在数据表的实体对象名。
+     * @param fieldName   关联字段的实体对象属性名。
+     * @param asImage     是否为图片对象。图片是无需权限验证的，因此和附件存放在不同的子目录。
+     * @param filename    文件名。
+     * @throws Exception 操作错误。
+     */
+    public abstract void doDelete(
+            String rootBaseDir,
+            String modelName,
+            String fieldName,
+            Boolean asImage,
+            String filename) throws Exception;
+
     /**
      * 判断filename参数指定的文件名，是否被包含在fileInfoJson参数中。
      *
@@ -15,6 +15,7 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Objects;
 
@@ -70,7 +71,7 @@ public class LocalUpDownloader extends BaseUpDownloader {
              BufferedInputStream bis = new BufferedInputStream(new FileInputStream(file))) {
             int i = bis.read(buff);
             while (i != -1) {
-                os.write(buff, 0, buff.length);
+                os.write(buff, 0, i);
                 os.flush();
                 i = bis.read(buff);
             }
@@ -125,6 +126,51 @@ public class LocalUpDownloader extends BaseUpDownloader {
         return responseInfo;
     }
 
+    /**
+     * 将服务端本地生成的文件复制到本地上传文件的目录中。
+     *
+     * @param rootBaseDir 存放文件的根目录。
+     * @param modelName   所在数据表的实体对象名。
+     * @param fieldName   关联字段的实体对象属性名。
+     * @param asImage     是否为图片对象。图片是无需权限验证的，因此和附件存放在不同的子目录。
+     * @param filename    存储后的文件名。
+     * @param localFile   待存储的本地文件。
+     * @throws IOException 文件操作错误。
+     */
+    @Override
+    public void doStore(
+            String rootBaseDir,
+            String modelName,
+            String fieldName,
+            Boolean asImage,
+            String filename,
+            File localFile) throws IOException {
+        String uploadPath = makeFullPath(rootBaseDir, modelName, fieldName, asImage);
+        Files.createDirectories(Paths.get(uploadPath));
+        Files.copy(localFile.toPath(), Paths.get(uploadPath + filename), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 删除本地上传文件目录中的文件。
+     *
+     * @param rootBaseDir 存放文件的根目录。
+     * @param modelName   所在数据表的实体对象名。
+     * @param fieldName   关联字段的实体对象属性名。
+     * @param asImage     是否为图片对象。图片是无需权限验证的，因此和附件存放在不同的子目录。
+     * @param filename    文件名。
+     * @throws IOException 文件操作错误。
+     */
+    @Override
+    public void doDelete(
+            String rootBaseDir,
+            String modelName,
+            String fieldName,
+            Boolean asImage,
+            String filename) throws IOException {
+        String uploadPath = makeFullPath(rootBaseDir, modelName, fieldName, asImage);
+        Files.deleteIfExists(Paths.get(uploadPath + filename));
+    }
+
     /**
      * 判断filename参数指定的文件名，是否被包含在fileInfoJson参数中。
      *
@@ -1,31 +1,24 @@
 package com.orange.demo.common.core.util;
 
-import cn.hutool.core.io.IoUtil;
-import cn.hutool.poi.excel.ExcelUtil;
-import cn.hutool.poi.excel.ExcelWriter;
-import cn.jimmyshi.beanquery.BeanQuery;
 import com.orange.demo.common.core.constant.ApplicationConstant;
 import com.orange.demo.common.core.exception.MyRuntimeException;
-import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.io.FilenameUtils;
 
-import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.Writer;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
  * 导出工具类，目前支持xlsx和csv两种类型。
+ * 所有导出均基于ExportWriter流式写入，xlsx和csv的内存占用都不会随导出的数据量增长。
  *
  * @author Jerry
  * @date 2020-08-08
  */
-@Slf4j
 public class ExportUtil {
 
     /**
@@ -42,49 +35,84 @@ public class ExportUtil {
         if (CollectionUtils.isEmpty(dataList)) {
             return;
         }
-        StringBuilder sb = new StringBuilder(128);
-        for (Map.Entry<String, String> e : selectFieldMap.entrySet()) {
-            sb.append(e.getKey()).append(" as ").append(e.getValue()).append(", ");
+        doExport(dataList.iterator(), selectFieldMap, filename);
+    }
+
+    /**
+     * 数据导出。目前仅支持xlsx和csv。数据通过迭代器逐行读取并写出，导出过程中不会持有全部数据。
+     *
+     * @param dataIterator   导出数据的迭代器。
+     * @param selectFieldMap 导出的数据字段，key为对象字段名称，value为中文标题名称。
+     * @param filename       导出文件名。
+     * @param <T>            数据对象类型。
+     * @throws IOException 文件操作失败。
+     */
+    public static <T> void doExport(
+            Iterator<T> dataIterator, Map<String, String> selectFieldMap, String filename) throws IOException {
+        try (ExportWriter<T> writer = openExport(selectFieldMap, filename)) {
+            while (dataIterator.hasNext()) {
+                writer.write(dataIterator.next());
+            }
         }
-        // 去掉末尾的逗号
-        String selectFieldString = sb.substring(0, sb.length() - 2);
-        // 写出数据到xcel格式的输出流
-        List<Map<String, Object>> resultList = BeanQuery.select(selectFieldString).executeFrom(dataList);
+    }
+
+    /**
+     * 创建写出到当前Http应答的流式导出对象，数据可分多批写入，如：
+     * try (ExportWriter&lt;Course&gt; writer = ExportUtil.openExport(selectFieldMap, filename)) {
+     *     courseService.streamListByCondition(whereClause, orderBy, relationParam, 1000, writer::write);
+     * }
+     *
+     * @param selectFieldMap 导出的数据字段，key为对象字段名称，value为中文标题名称。
+     * @param filename       导出文件名，目前仅支持xlsx和csv。
+     * @param <T>            数据对象类型。
+     * @return 导出对象，使用后必须关闭。
+     * @throws IOException 文件操作失败。
+     */
+    public static <T> ExportWriter<T> openExport(
+            Map<String, String> selectFieldMap, String filename) throws IOException {
+        String extension = getExportExtension(filename);
         // 构建HTTP输出流参数
         HttpServletResponse response = ContextUtil.getHttpResponse();
         response.setHeader("content-type", "application/octet-stream");
         response.setContentType("application/octet-stream");
         response.setHeader("Content-Disposition", "attachment;filename=" + filename);
-        if (ApplicationConstant.XLSX_EXT.equals(FilenameUtils.getExtension(filename))) {
-            ServletOutputStream out = response.getOutputStream();
-            ExcelWriter writer = ExcelUtil.getWriter(true);
-            writer.setRowHeight(-1, 30);
-            writer.setColumnWidth(-1, 30);
-            writer.setColumnWidth(1, 20);
-            writer.write(resultList);
-            writer.flush(out);
-            writer.close();
-            IoUtil.close(out);
-        } else if (ApplicationConstant.CSV_EXT.equals(FilenameUtils.getExtension(filename))) {
-            Collection<String> headerList = selectFieldMap.values();
-            String[] headerArray = new String[headerList.size()];
-            headerList.toArray(headerArray);
-            CSVFormat format = CSVFormat.DEFAULT.withHeader(headerArray);
-            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
-            try (Writer out = response.getWriter(); CSVPrinter printer = new CSVPrinter(out, format)) {
-                for (Map<String, Object> o : resultList) {
-                    for (Map.Entry<String, Object> entry : o.entrySet()) {
-                        printer.print(entry.getValue());
-                    }
-                    printer.println();
-                }
-                printer.flush();
-            } catch (Exception e) {
-                log.error("Failed to call ExportUtil.doExport", e);
-            }
-        } else {
+        if (ApplicationConstant.XLSX_EXT.equals(extension)) {
+            return ExportWriter.xlsx(selectFieldMap, response.getOutputStream());
+        }
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        return ExportWriter.csv(selectFieldMap, response.getWriter());
+    }
+
+    /**
+     * 创建写出到指定输出流的流式导出对象，如异步导出任务写出到本地临时文件。
+     *
+     * @param selectFieldMap 导出的数据字段，key为对象字段名称，value为中文标题名称。
+     * @param filename       导出文件名，目前仅支持xlsx和csv，这里仅用于判断导出文件的类型。
+     * @param out            输出流，关闭导出对象时会被同时关闭。
+     * @param <T>            数据对象类型。
+     * @return 导出对象，使用后必须关闭。
+     * @throws IOException 文件操作失败。
+     */
+    public static <T> ExportWriter<T> openExport(
+            Map<String, String> selectFieldMap, String filename, OutputStream out) throws IOException {
+        if (ApplicationConstant.XLSX_EXT.equals(getExportExtension(filename))) {
+            return ExportWriter.xlsx(selectFieldMap, out);
+        }
+        return ExportWriter.csv(selectFieldMap, new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 获取导出文件的扩展名，同时验证是否为支持的导出文件类型。
+     *
+     * @param filename 导出文件名。
+     * @return 导出文件的扩展名。
+     */
+    public static String getExportExtension(String filename) {
+        String extension = FilenameUtils.getExtension(filename);
+        if (!ApplicationConstant.XLSX_EXT.equals(extension) && !ApplicationConstant.CSV_EXT.equals(extension)) {
             throw new MyRuntimeException("不支持的导出文件类型！");
         }
+        return extension;
     }
 
     /**
@@ -0,0 +1,180 @@
+package com.orange.demo.common.core.util;
+
+import cn.hutool.poi.excel.BigExcelWriter;
+import com.orange.demo.common.core.exception.MyRuntimeException;
+import com.orange.demo.common.core.object.FieldPathExtractor;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * 流式数据导出对象，由ExportUtil.openExport方法创建，目前支持xlsx和csv两种类型。
+ * 数据以批次的方式多次写入，每行数据在写入时即转换为导出格式，不会在内存中保留任何已写入的行数据。
+ * 其中xlsx基于SXSSF写入，内存中最多只保留ROW_ACCESS_WINDOW_SIZE行，其余行数据会被写入压缩的临时文件。
+ * csv直接写入输出流，并且每写入FLUSH_ROW_COUNT行刷新一次。
+ * NOTE: 必须在全部数据写入后调用close方法，以输出完整的文件，并释放临时文件等资源。
+ *
+ * @param <T> 导出数据对象类型。
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public abstract class ExportWriter<T> implements Closeable {
+
+    /**
+     * xlsx导出时，内存中最多保留的行数。
+     */
+    public static final int ROW_ACCESS_WINDOW_SIZE = 500;
+    /**
+     * csv导出时，每写入该数量的数据行，刷新一次输出流。
+     */
+    public static final int FLUSH_ROW_COUNT = 1000;
+
+    private final List<FieldPathExtractor> extractorList;
+    private long rowCount = 0;
+
+    /**
+     * 构造函数。
+     *
+     * @param selectFieldMap 导出的数据字段，key为对象字段名称，value为中文标题名称。
+     *                       对象字段名称支持以"."分隔的嵌套字段，如 gradeIdDictMap.name。
+     */
+    protected ExportWriter(Map<String, String> selectFieldMap) {
+        this.extractorList = new ArrayList<>(selectFieldMap.size());
+        for (String fieldPath : selectFieldMap.keySet()) {
+            this.extractorList.add(new FieldPathExtractor(fieldPath));
+        }
+    }
+
+    /**
+     * 创建xlsx格式的导出对象。
+     *
+     * @param selectFieldMap 导出的数据字段，key为对象字段名称，value为中文标题名称。
+     * @param out            输出流，调用close方法时会被关闭。
+     * @param <T>            导出数据对象类型。
+     * @return 导出对象。
+     */
+    public static <T> ExportWriter<T> xlsx(Map<String, String> selectFieldMap, OutputStream out) {
+        return new XlsxExportWriter<>(selectFieldMap, out);
+    }
+
+    /**
+     * 创建csv格式的导出对象。
+     *
+     * @param selectFieldMap 导出的数据字段，key为对象字段名称，value为中文标题名称。
+     * @param out            字符输出流，调用close方法时会被关闭。
+     * @param <T>            导出数据对象类型。
+     * @return 导出对象。
+     * @throws IOException 写入标题行失败。
+     */
+    public static <T> ExportWriter<T> csv(Map<String, String> selectFieldMap, Writer out) throws IOException {
+        return new CsvExportWriter<>(selectFieldMap, out);
+    }
+
+    /**
+     * 写入一批数据，可多次调用，如作为BaseService.streamListByCondition方法的窗口数据处理函数。
+     *
+     * @param dataList 数据列表。
+     */
+    public void write(Collection<? extends T> dataList) {
+        for (T data : dataList) {
+            this.write(data);
+        }
+    }
+
+    /**
+     * 写入一行数据。由于该方法通常作为函数对象使用，写入时的IO异常会被包装为MyRuntimeException。
+     *
+     * @param data 数据对象。
+     */
+    public void write(T data) {
+        List<Object> rowValues = new ArrayList<>(extractorList.size());
+        for (FieldPathExtractor extractor : extractorList) {
+            rowValues.add(extractor.extract(data));
+        }
+        try {
+            this.writeRow(rowValues);
+        } catch (IOException e) {
+            throw new MyRuntimeException(e);
+        }
+        rowCount++;
+    }
+
+    /**
+     * 获取已经写入的数据行数，不包括标题行。
+     *
+     * @return 已经写入的数据行数。
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 写入一行已经完成字段提取的数据。
+     *
+     * @param rowValues 与导出字段一一对应的字段值列表。
+     * @throws IOException 写入失败。
+     */
+    protected abstract void writeRow(List<Object> rowValues) throws IOException;
+
+    private static class XlsxExportWriter<T> extends ExportWriter<T> {
+        private final BigExcelWriter writer;
+        private final OutputStream out;
+
+        XlsxExportWriter(Map<String, String> selectFieldMap, OutputStream out) {
+            super(selectFieldMap);
+            this.out = out;
+            this.writer = new BigExcelWriter(ROW_ACCESS_WINDOW_SIZE);
+            // 超出窗口的行数据会被写入临时文件，这里压缩临时文件以减少磁盘占用。
+            ((SXSSFWorkbook) writer.getWorkbook()).setCompressTempFiles(true);
+            writer.setRowHeight(-1, 30);
+            writer.setColumnWidth(-1, 30);
+            writer.setColumnWidth(1, 20);
+            writer.writeHeadRow(selectFieldMap.values());
+        }
+
+        @Override
+        protected void writeRow(List<Object> rowValues) {
+            writer.writeRow(rowValues);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                writer.flush(out, true);
+            } finally {
+                // BigExcelWriter.close会同时清理SXSSF的临时文件。
+                writer.close();
+                out.close();
+            }
+        }
+    }
+
+    private static class CsvExportWriter<T> extends ExportWriter<T> {
+        private final CSVPrinter printer;
+
+        CsvExportWriter(Map<String, String> selectFieldMap, Writer out) throws IOException {
+            super(selectFieldMap);
+            String[] headerArray = selectFieldMap.values().toArray(new String[0]);
+            this.printer = new CSVPrinter(out, CSVFormat.DEFAULT.withHeader(headerArray));
+        }
+
+        @Override
+        protected void writeRow(List<Object> rowValues) throws IOException {
+            printer.printRecord(rowValues);
+            if ((getRowCount() + 1) % FLUSH_ROW_COUNT == 0) {
+                printer.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            printer.close(true);
+        }
+    }
+}
@@ -1,22 +1,26 @@
 package com.orange.demo.common.core.util;
 
-import cn.hutool.core.util.ReflectUtil;
 import cn.hutool.poi.excel.ExcelReader;
 import cn.hutool.poi.excel.ExcelUtil;
 import cn.hutool.poi.excel.sax.Excel07SaxReader;
+import cn.hutool.poi.exceptions.POIException;
+import com.orange.demo.common.core.config.ImportPipelineConfig;
 import com.orange.demo.common.core.constant.ApplicationConstant;
 import com.orange.demo.common.core.exception.MyRuntimeException;
+import com.orange.demo.common.core.object.FieldAccessor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.io.input.BOMInputStream;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.io.*;
-import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.*;
 
 /**
  * 导入工具类，目前支持xlsx和csv两种类型。
@@ -64,35 +68,101 @@ public class ImportUtil {
     }
 
     /**
-     * 异步导入方式，即SAX导入方式。
+     * 异步导入方式，即流水线导入方式。数据文件被流式解析，xlsx基于SAX读取，csv基于CSVParser读取并支持引号转义。
+     * 解析线程按照importer的批次大小将数据行提交到映射线程池，由映射线程并行构建和验证数据对象，
+     * 当前线程则按照文件中的批次顺序调用importer.doProcess，因此importer的全部回调函数仍在当前线程中执行。
+     * 阶段之间通过有界队列连接，具体配置可参考ImportPipelineConfig。解析线程池已满时退化为在当前线程中同步导入。
      *
      * @param filename 导入文件名。
      * @param importer 异步导入处理接口。
      * @throws IOException 文件处理异常。
      */
     public static <T> void doImport(String filename, BaseImporter<T> importer) throws IOException {
+        String extension = FilenameUtils.getExtension(filename);
+        if (!ApplicationConstant.XLSX_EXT.equals(extension) && !ApplicationConstant.CSV_EXT.equals(extension)) {
+            throw new MyRuntimeException(UNSUPPORT_FILE_EXT_ERROR);
+        }
+        ImportPipelineConfig config = ApplicationContextHolder.getBean(ImportPipelineConfig.class);
+        ThreadPoolTaskExecutor parseExecutor =
+                ApplicationContextHolder.getBean(ImportPipelineConfig.IMPORT_PARSE_EXECUTOR);
+        ThreadPoolTaskExecutor mapExecutor =
+                ApplicationContextHolder.getBean(ImportPipelineConfig.IMPORT_MAP_EXECUTOR);
+        ImportPipeline<T> pipeline = new ImportPipeline<>(importer, mapExecutor, config.getBlockQueueCapacity());
+        Future<?> parseFuture;
+        try {
+            parseFuture = parseExecutor.submit(() -> pipeline.parse(filename));
+        } catch (TaskRejectedException e) {
+            log.warn("The import parse executor is full, importing file [" + filename + "] synchronously.");
+            doImportSynchronously(filename, importer);
+            return;
+        }
+        try {
+            pipeline.write();
+        } finally {
+            // 写入阶段异常退出时，解析线程可能仍阻塞在有界队列上，这里通过中断使其尽快结束。
+            parseFuture.cancel(true);
+        }
+    }
+
+    private static <T> void doImportSynchronously(String filename, BaseImporter<T> importer) throws IOException {
+        boolean finished = parseRows(filename, (rowIndex, row) -> {
+            importer.doImport(rowIndex, row);
+            return !importer.doInterrupt();
+        });
+        if (finished) {
+            importer.doImport(-1, null);
+        }
+    }
+
+    /**
+     * 流式解析数据文件，并逐行调用数据行处理函数。xlsx只读取第一个工作表。
+     *
+     * @param filename   导入文件名。
+     * @param rowHandler 数据行处理函数，返回false时停止解析。
+     * @return 全部数据行都被处理时返回true，解析被提前停止时返回false。
+     * @throws IOException 文件处理异常。
+     */
+    private static boolean parseRows(String filename, ImportRowHandler rowHandler) throws IOException {
         if (ApplicationConstant.XLSX_EXT.equals(FilenameUtils.getExtension(filename))) {
-            Excel07SaxReader reader = new MyExcel07SaxReader<>(importer);
+            Excel07SaxReader reader = new Excel07SaxReader((sheetIndex, rowIndex, rowList) -> {
+                if (sheetIndex != 0) {
+                    return;
+                }
+                // SAX读取器无法从外部停止，因此通过抛出异常的方式中断解析。
+                if (!rowHandler.handle(rowIndex, new ArrayList<>(rowList))) {
+                    throw new ImportStoppedException();
+                }
+            });
             try (InputStream in = new FileInputStream(filename)) {
-                reader.read(in, 0);
+                // read(in, 0)会按照关系编号rId1定位工作表，而POI生成的文件中rId1通常是sharedStrings，
+                // 因此这里按照工作簿中的顺序读取，并忽略第一个工作表之外的数据行。
+                reader.read(in, -1);
+            } catch (ImportStoppedException e) {
+                return false;
+            } catch (POIException e) {
+                if (e.getCause() instanceof ImportStoppedException) {
+                    return false;
+                }
+                throw e;
             }
-        } else if (ApplicationConstant.CSV_EXT.equals(FilenameUtils.getExtension(filename))) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
-                int rowIndex = 0;
-                do {
-                    String rowData = reader.readLine();
-                    if (StringUtils.isBlank(rowData)) {
-                        importer.doImport(-1, null);
-                        break;
-                    }
-                    String[] dataArray = StringUtils.split(rowData, ",");
-                    importer.doImport(rowIndex++, Arrays.asList(dataArray));
-                } while (!importer.doInterrupt());
-            } catch (Exception e) {
-                log.error(IMPORT_EXCEPTION_ERROR, e);
+            return true;
+        }
+        // 跳过Excel等工具另存csv时写入的BOM，否则第一列的标题将无法匹配。
+        try (Reader in = new BufferedReader(new InputStreamReader(
+                new BOMInputStream(new FileInputStream(filename)), StandardCharsets.UTF_8));
+             CSVParser parser = CSVFormat.DEFAULT.parse(in)) {
+            long rowIndex = 0;
+            for (CSVRecord record : parser) {
+                List<Object> row = new ArrayList<>(record.size());
+                for (String value : record) {
+                    row.add(value);
+                }
+                if (!rowHandler.handle(rowIndex++, row)) {
+                    return false;
+                }
             }
         }
-        throw new MyRuntimeException(UNSUPPORT_FILE_EXT_ERROR);
+        return true;
     }
 
     /**
@@ -104,7 +174,7 @@ public class ImportUtil {
         private Class<T> beanType;
         private List<T> batchRowList = new LinkedList<>();
         private int batchSize;
-        private Field[] fieldArray = null;
+        private FieldAccessor[] accessorArray = null;
         private Map<String, String> headerColumnMap;
 
         public BaseImporter(int batchSize, Class<T> beanType, Map<String, String> headerColumnMap) {
@@ -130,34 +200,12 @@ public class ImportUtil {
                 return;
             }
             if (rowIndex <= 0) {
-                fieldArray = new Field[row.size()];
-                List<String> headerList = row.stream().map(Object::toString).collect(Collectors.toList());
-                List<String> columnList = new ArrayList<>(row.size());
-                for (String headerName : headerList) {
-                    String columnName = headerColumnMap.get(headerName);
-                    if (columnName != null) {
-                        columnList.add(columnName);
-                    }
-                }
-                columnList.stream()
-                        .map(columnName -> ReflectUtil.getField(beanType, columnName))
-                        .collect(Collectors.toList())
-                        .toArray(fieldArray);
+                compileHeader(row);
                 return;
             }
-            T data;
-            try {
-                data = beanType.newInstance();
-                for (int i = 0; i < row.size(); i++) {
-                    Object value = row.get(i);
-                    Field field = fieldArray[i];
-                    if (field != null) {
-                        ReflectUtil.setFieldValue(data, field, value);
-                    }
-                }
+            T data = mapRow(row);
+            if (data != null) {
                 batchRowList.add(data);
-            } catch (Exception e) {
-                log.error(IMPORT_EXCEPTION_ERROR, e);
             }
             if (rowIndex % batchSize == 0) {
                 doProcess(batchRowList);
@@ -165,6 +213,17 @@ public class ImportUtil {
             }
         }
 
+        /**
+         * 数据对象验证回调模板函数，验证失败的数据行将被忽略。
+         * 流水线导入时，该函数会在映射线程池中被并发调用，因此实现必须是线程安全的。
+         *
+         * @param data 由数据行构建的数据对象。
+         * @return 验证通过返回true，否则false。
+         */
+        public boolean doValidate(T data) {
+            return true;
+        }
+
         /**
          * 数据处理进行中回调模板函数。
          *
@@ -182,30 +241,207 @@ public class ImportUtil {
          * @return 是否中断。true则中断后面的处理。
          */
         public abstract boolean doInterrupt();
+
+        /**
+         * 根据标题行，为每一列预先编译字段访问器。没有对应字段的列，其访问器为null，以保证列的位置不会错位。
+         *
+         * @param headerRow 标题行数据。
+         */
+        void compileHeader(List<Object> headerRow) {
+            FieldAccessor[] accessors = new FieldAccessor[headerRow.size()];
+            for (int i = 0; i < headerRow.size(); i++) {
+                Object headerName = headerRow.get(i);
+                String fieldName = headerName == null ? null : headerColumnMap.get(headerName.toString());
+                if (fieldName != null) {
+                    accessors[i] = FieldAccessor.of(beanType, fieldName);
+                }
+            }
+            this.accessorArray = accessors;
+        }
+
+        /**
+         * 将数据行构建为数据对象，并完成验证。
+         *
+         * @param row 数据行。
+         * @return 数据对象，构建或验证失败时返回null。
+         */
+        T mapRow(List<Object> row) {
+            try {
+                T data = beanType.newInstance();
+                int columnCount = Math.min(row.size(), accessorArray.length);
+                for (int i = 0; i < columnCount; i++) {
+                    FieldAccessor accessor = accessorArray[i];
+                    if (accessor != null) {
+                        accessor.set(data, row.get(i));
+                    }
+                }
+                return doValidate(data) ? data : null;
+            } catch (Exception e) {
+                log.error(IMPORT_EXCEPTION_ERROR, e);
+                return null;
+            }
+        }
+
+        int getBatchSize() {
+            return batchSize;
+        }
     }
 
-    static class MyExcel07SaxReader<T> extends Excel07SaxReader {
-        private BaseImporter<T> importer;
+    /**
+     * 流水线导入对象。解析阶段在解析线程中执行，写入阶段在提交导入的线程中执行，
+     * 两者之间的有界队列中依次存放每个批次的映射结果，因此写入顺序与文件中的数据行顺序一致。
+     *
+     * @param <T> 导入数据对象类型。
+     */
+    private static class ImportPipeline<T> {
+        private static final Future<List<Object>> END_OF_DATA = CompletableFuture.completedFuture(null);
+
+        private final BaseImporter<T> importer;
+        private final ThreadPoolTaskExecutor mapExecutor;
+        private final BlockingQueue<Future<?>> blockQueue;
+        private volatile boolean stopped = false;
+        private volatile Throwable parseError;
+        private List<List<Object>> rowBlock;
 
-        MyExcel07SaxReader(BaseImporter<T> importer) {
-            super((sheetIndex, rowIndex, rowList) -> importer.doImport(rowIndex, rowList));
+        ImportPipeline(BaseImporter<T> importer, ThreadPoolTaskExecutor mapExecutor, int blockQueueCapacity) {
             this.importer = importer;
+            this.mapExecutor = mapExecutor;
+            this.blockQueue = new ArrayBlockingQueue<>(Math.max(1, blockQueueCapacity));
+        }
+
+        /**
+         * 解析阶段，在解析线程中执行。无论解析是否成功，最终都会向队列中放入结束标记。
+         */
+        void parse(String filename) {
+            rowBlock = new ArrayList<>(importer.getBatchSize());
+            try {
+                parseRows(filename, this::acceptRow);
+                if (!stopped && !rowBlock.isEmpty()) {
+                    this.submitBlock();
+                }
+            } catch (Throwable e) {
+                parseError = e;
+            } finally {
+                try {
+                    blockQueue.put(END_OF_DATA);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
         }
 
-        @Override
-        public void endElement(String uri, String localName, String qName) {
-            super.endElement(uri, localName, qName);
-            if (importer.doInterrupt()) {
-                throw new MyRuntimeException();
+        private boolean acceptRow(long rowIndex, List<Object> row) {
+            if (stopped) {
+                return false;
+            }
+            if (rowIndex <= 0) {
+                // 标题行在任何数据行被映射之前完成编译，映射线程随后只读取编译结果。
+                importer.compileHeader(row);
+                return true;
+            }
+            rowBlock.add(row);
+            if (rowBlock.size() >= importer.getBatchSize()) {
+                this.submitBlock();
             }
+            return true;
         }
 
-        @Override
-        public void endDocument() {
-            importer.doImport(-1, null);
+        private void submitBlock() {
+            List<List<Object>> block = rowBlock;
+            rowBlock = new ArrayList<>(importer.getBatchSize());
+            CompletableFuture<List<T>> future = CompletableFuture.supplyAsync(() -> {
+                List<T> dataList = new ArrayList<>(block.size());
+                for (List<Object> row : block) {
+                    T data = importer.mapRow(row);
+                    if (data != null) {
+                        dataList.add(data);
+                    }
+                }
+                return dataList;
+            }, mapExecutor);
+            try {
+                // 队列已满时在这里阻塞，直到写入阶段取走一个批次。
+                blockQueue.put(future);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MyRuntimeException(e);
+            }
+        }
+
+        /**
+         * 写入阶段，在提交导入的线程中执行。importer中断或出现异常后，仍会继续取出并丢弃剩余的批次，
+         * 直到取得结束标记，从而保证阻塞在队列上的解析线程可以正常结束。
+         */
+        @SuppressWarnings("unchecked")
+        void write() throws IOException {
+            Throwable writeError = null;
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    Future<?> future = blockQueue.take();
+                    if (future == END_OF_DATA) {
+                        break;
+                    }
+                    if (stopped) {
+                        future.cancel(false);
+                        continue;
+                    }
+                    try {
+                        importer.doProcess((List<T>) future.get());
+                        if (importer.doInterrupt()) {
+                            interrupted = true;
+                            stopped = true;
+                        }
+                    } catch (ExecutionException e) {
+                        writeError = e.getCause();
+                        stopped = true;
+                    } catch (RuntimeException e) {
+                        writeError = e;
+                        stopped = true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                stopped = true;
+                Thread.currentThread().interrupt();
+                throw new MyRuntimeException(e);
+            }
+            Throwable error = writeError != null ? writeError : parseError;
+            if (error instanceof IOException) {
+                throw (IOException) error;
+            }
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            }
+            if (error != null) {
+                throw new MyRuntimeException(error);
+            }
+            if (!interrupted) {
+                importer.doFinish();
+            }
         }
     }
 
+    /**
+     * 数据行处理函数。
+     */
+    @FunctionalInterface
+    private interface ImportRowHandler {
+        /**
+         * 处理一个数据行。
+         *
+         * @param rowIndex 行号，标题行为0。
+         * @param row      数据行。
+         * @return 继续解析返回true，否则false。
+         */
+        boolean handle(long rowIndex, List<Object> row);
+    }
+
+    /**
+     * 用于中断SAX解析的异常。
+     */
+    private static class ImportStoppedException extends RuntimeException {
+    }
+
     /**
      * 私有构造函数，明确标识该常量类的作用。
      */
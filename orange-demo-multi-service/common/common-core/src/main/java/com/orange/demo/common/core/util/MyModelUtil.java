@@ -7,6 +7,7 @@ import com.orange.demo.common.core.annotation.RelationDict;
 import com.orange.demo.common.core.annotation.RelationOneToOne;
 import com.orange.demo.common.core.annotation.UploadFlagColumn;
 import com.orange.demo.common.core.exception.MyRuntimeException;
+import com.orange.demo.common.core.object.FieldAccessor;
 import com.orange.demo.common.core.object.Tuple2;
 import com.orange.demo.common.core.upload.UploadStoreInfo;
 import lombok.extern.slf4j.Slf4j;
@@ -239,15 +240,15 @@ public class MyModelUtil {
             return;
         }
         // 这里不做任何空值判断，从而让配置错误在调试期间即可抛出
-        Field thisTargetField = ReflectUtil.getField(thisClazz, thisRelationField);
-        RelationDict r = thisTargetField.getAnnotation(RelationDict.class);
+        FieldAccessor thisTargetAccessor = FieldAccessor.of(thisClazz, thisRelationField);
+        RelationDict r = thisTargetAccessor.getField().getAnnotation(RelationDict.class);
         Class<?> thatClass = r.slaveModelClass();
-        Field slaveIdField = ReflectUtil.getField(thatClass, r.slaveIdField());
-        Field slaveNameField = ReflectUtil.getField(thatClass, r.slaveNameField());
+        FieldAccessor slaveIdAccessor = FieldAccessor.of(thatClass, r.slaveIdField());
+        FieldAccessor slaveNameAccessor = FieldAccessor.of(thatClass, r.slaveNameField());
         Map<String, Object> m = new HashMap<>(2);
-        m.put("id", ReflectUtil.getFieldValue(thatModel, slaveIdField));
-        m.put("name", ReflectUtil.getFieldValue(thatModel, slaveNameField));
-        ReflectUtil.setFieldValue(thisModel, thisTargetField, m);
+        m.put("id", slaveIdAccessor.get(thatModel));
+        m.put("name", slaveNameAccessor.get(thatModel));
+        thisTargetAccessor.set(thisModel, m);
     }
 
     /**
@@ -268,26 +269,26 @@ public class MyModelUtil {
             return;
         }
         // 这里不做任何空值判断，从而让配置错误在调试期间即可抛出
-        Field thisTargetField = ReflectUtil.getField(thisClazz, thisRelationField);
-        RelationDict r = thisTargetField.getAnnotation(RelationDict.class);
-        Field masterIdField = ReflectUtil.getField(thisClazz, r.masterIdField());
+        FieldAccessor thisTargetAccessor = FieldAccessor.of(thisClazz, thisRelationField);
+        RelationDict r = thisTargetAccessor.getField().getAnnotation(RelationDict.class);
+        FieldAccessor masterIdAccessor = FieldAccessor.of(thisClazz, r.masterIdField());
         Class<?> thatClass = r.slaveModelClass();
-        Field slaveIdField = ReflectUtil.getField(thatClass, r.slaveIdField());
-        Field slaveNameField = ReflectUtil.getField(thatClass, r.slaveNameField());
+        FieldAccessor slaveIdAccessor = FieldAccessor.of(thatClass, r.slaveIdField());
+        FieldAccessor slaveNameAccessor = FieldAccessor.of(thatClass, r.slaveNameField());
         Map<Object, R> thatMap = new HashMap<>(20);
         thatModelList.forEach(thatModel -> {
-            Object id = ReflectUtil.getFieldValue(thatModel, slaveIdField);
+            Object id = slaveIdAccessor.get(thatModel);
             thatMap.put(id, thatModel);
         });
         thisModelList.forEach(thisModel -> {
             if (thisModel != null) {
-                Object id = ReflectUtil.getFieldValue(thisModel, masterIdField);
+                Object id = masterIdAccessor.get(thisModel);
                 R thatModel = thatMap.get(id);
                 if (thatModel != null) {
                     Map<String, Object> m = new HashMap<>(4);
                     m.put("id", id);
-                    m.put("name", ReflectUtil.getFieldValue(thatModel, slaveNameField));
-                    ReflectUtil.setFieldValue(thisModel, thisTargetField, m);
+                    m.put("name", slaveNameAccessor.get(thatModel));
+                    thisTargetAccessor.set(thisModel, m);
                 }
             }
         });
@@ -312,20 +313,20 @@ public class MyModelUtil {
             return;
         }
         // 这里不做任何空值判断，从而让配置错误在调试期间即可抛出
-        Field thisTargetField = ReflectUtil.getField(thisClazz, thisRelationField);
-        RelationDict r = thisTargetField.getAnnotation(RelationDict.class);
-        Field masterIdField = ReflectUtil.getField(thisClazz, r.masterIdField());
+        FieldAccessor thisTargetAccessor = FieldAccessor.of(thisClazz, thisRelationField);
+        RelationDict r = thisTargetAccessor.getField().getAnnotation(RelationDict.class);
+        FieldAccessor masterIdAccessor = FieldAccessor.of(thisClazz, r.masterIdField());
         Class<?> thatClass = r.slaveModelClass();
-        Field slaveNameField = ReflectUtil.getField(thatClass, r.slaveNameField());
+        FieldAccessor slaveNameAccessor = FieldAccessor.of(thatClass, r.slaveNameField());
         thisModelList.forEach(thisModel -> {
             if (thisModel != null) {
-                Object id = ReflectUtil.getFieldValue(thisModel, masterIdField);
+                Object id = masterIdAccessor.get(thisModel);
                 R thatModel = thatMadelMap.get(id);
                 if (thatModel != null) {
                     Map<String, Object> m = new HashMap<>(4);
                     m.put("id", id);
-                    m.put("name", ReflectUtil.getFieldValue(thatModel, slaveNameField));
-                    ReflectUtil.setFieldValue(thisModel, thisTargetField, m);
+                    m.put("name", slaveNameAccessor.get(thatModel));
+                    thisTargetAccessor.set(thisModel, m);
                 }
             }
         });
@@ -349,31 +350,31 @@ public class MyModelUtil {
             return;
         }
         // 这里不做任何空值判断，从而让配置错误在调试期间即可抛出
-        Field thisTargetField = ReflectUtil.getField(thisClazz, thisRelationField);
-        RelationOneToOne r = thisTargetField.getAnnotation(RelationOneToOne.class);
-        Field masterIdField = ReflectUtil.getField(thisClazz, r.masterIdField());
+        FieldAccessor thisTargetAccessor = FieldAccessor.of(thisClazz, thisRelationField);
+        RelationOneToOne r = thisTargetAccessor.getField().getAnnotation(RelationOneToOne.class);
+        FieldAccessor masterIdAccessor = FieldAccessor.of(thisClazz, r.masterIdField());
         Class<?> thatClass = r.slaveModelClass();
-        Field slaveIdField = ReflectUtil.getField(thatClass, r.slaveIdField());
+        FieldAccessor slaveIdAccessor = FieldAccessor.of(thatClass, r.slaveIdField());
         Map<Object, R> thatMap = new HashMap<>(20);
         thatModelList.forEach(thatModel -> {
-            Object id = ReflectUtil.getFieldValue(thatModel, slaveIdField);
+            Object id = slaveIdAccessor.get(thatModel);
             thatMap.put(id, thatModel);
         });
         // 判断放在循环的外部，提升一点儿效率。
-        if (thisTargetField.getType().equals(Map.class)) {
+        if (thisTargetAccessor.getField().getType().equals(Map.class)) {
             thisModelList.forEach(thisModel -> {
-                Object id = ReflectUtil.getFieldValue(thisModel, masterIdField);
+                Object id = masterIdAccessor.get(thisModel);
                 R thatModel = thatMap.get(id);
                 if (thatModel != null) {
-                    ReflectUtil.setFieldValue(thisModel, thisTargetField, BeanUtil.beanToMap(thatModel));
+                    thisTargetAccessor.set(thisModel, BeanUtil.beanToMap(thatModel));
                 }
             });
         } else {
             thisModelList.forEach(thisModel -> {
-                Object id = ReflectUtil.getFieldValue(thisModel, masterIdField);
+                Object id = masterIdAccessor.get(thisModel);
                 R thatModel = thatMap.get(id);
                 if (thatModel != null) {
-                    ReflectUtil.setFieldValue(thisModel, thisTargetField, thatModel);
+                    thisTargetAccessor.set(thisModel, thatModel);
                 }
             });
         }
@@ -427,8 +428,8 @@ public class MyModelUtil {
             Function<R, Object> thatIdGetterFunc,
             String thisRelationField,
             boolean orderByThatList) {
-        Field thisTargetField = ReflectUtil.getField(thisClazz, thisRelationField);
-        boolean isMap = thisTargetField.getType().equals(Map.class);
+        FieldAccessor thisTargetAccessor = FieldAccessor.of(thisClazz, thisRelationField);
+        boolean isMap = thisTargetAccessor.getField().getType().equals(Map.class);
         if (orderByThatList) {
             List<T> newThisModelList = new LinkedList<>();
             Map<Object, ? extends T> thisModelMap =
@@ -437,7 +438,7 @@ public class MyModelUtil {
                 Object thatId = thatIdGetterFunc.apply(thatModel);
                 T thisModel = thisModelMap.get(thatId);
                 if (thisModel != null) {
-                    ReflectUtil.setFieldValue(thisModel, thisTargetField, normalize(isMap, thatModel));
+                    thisTargetAccessor.set(thisModel, normalize(isMap, thatModel));
                     newThisModelList.add(thisModel);
                 }
             });
@@ -450,7 +451,7 @@ public class MyModelUtil {
                 Object thisId = thisIdGetterFunc.apply(thisModel);
                 R thatModel = thatMadelMap.get(thisId);
                 if (thatModel != null) {
-                    ReflectUtil.setFieldValue(thisModel, thisTargetField, normalize(isMap, thatModel));
+                    thisTargetAccessor.set(thisModel, normalize(isMap, thatModel));
                 }
             });
         }
@@ -1,14 +1,16 @@
 package com.orange.demo.common.core.util;
 
-import cn.jimmyshi.beanquery.BeanQuery;
-import com.alibaba.fastjson.JSONObject;
+import com.orange.demo.common.core.object.FieldProjector;
 import com.orange.demo.common.core.object.MyPageData;
 import com.github.pagehelper.Page;
 import com.orange.demo.common.core.base.mapper.BaseModelMapper;
 import com.orange.demo.common.core.object.Tuple2;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 生成带有分页信息的数据列表
@@ -18,26 +20,41 @@ import java.util.List;
  */
 public class MyPageUtil {
 
-    private static final String DATA_LIST_LITERAL = "dataList";
-    private static final String TOTAL_COUNT_LITERAL = "totalCount";
-
     /**
      * 用户构建带有分页信息的数据列表。
      *
      * @param dataList      数据列表，该参数必须是调用PageMethod.startPage之后，立即执行mybatis查询操作的结果集。
-     * @param includeFields 结果集中需要返回到前端的字段，多个字段之间逗号分隔。
+     * @param includeFields 结果集中需要返回到前端的字段，多个字段之间逗号分隔，具体格式可参考FieldProjector。
      * @param <T>           源数据类型。
      * @return 返回只是包含includeFields字段的数据列表，以及结果集TotalCount。
      */
-    public static <T> JSONObject makeResponseData(List<T> dataList, String includeFields) {
-        JSONObject pageData = new JSONObject();
-        pageData.put(DATA_LIST_LITERAL, BeanQuery.select(includeFields).from(dataList).execute());
-        if (dataList instanceof Page) {
-            pageData.put(TOTAL_COUNT_LITERAL, ((Page<?>)dataList).getTotal());
-        }
+    public static <T> MyPageData<Map<String, Object>> makeResponseData(List<T> dataList, String includeFields) {
+        MyPageData<Map<String, Object>> pageData = new MyPageData<>();
+        pageData.setDataList(project(dataList, includeFields));
+        pageData.setTotalCount(getTotalCount(dataList));
         return pageData;
     }
 
+    /**
+     * 按照前端要求的投影字段，构建只包含这些字段的分页数据对象，通常用于列表页面的接口，以免返回列表中并不显示的字段。
+     *
+     * @param pageData      分页数据对象。
+     * @param includeFields 需要返回到前端的字段，多个字段之间逗号分隔，具体格式可参考FieldProjector。
+     * @param <T>           源数据类型。
+     * @return includeFields为空时直接返回参数中的分页数据对象，否则返回投影后的分页数据对象。
+     */
+    public static <T> MyPageData<?> makeResponseData(MyPageData<T> pageData, String includeFields) {
+        if (StringUtils.isBlank(includeFields)) {
+            return pageData;
+        }
+        MyPageData<Map<String, Object>> projectedPageData = new MyPageData<>();
+        projectedPageData.setDataList(project(pageData.getDataList(), includeFields));
+        projectedPageData.setTotalCount(pageData.getTotalCount());
+        projectedPageData.setTotalCountType(pageData.getTotalCountType());
+        projectedPageData.setNextCursor(pageData.getNextCursor());
+        return projectedPageData;
+    }
+
     /**
      * 用户构建带有分页信息的数据列表。
      *
@@ -48,9 +65,7 @@ public class MyPageUtil {
     public static <T> MyPageData<T> makeResponseData(List<T> dataList) {
         MyPageData<T> pageData = new MyPageData<>();
         pageData.setDataList(dataList);
-        if (dataList instanceof Page) {
-            pageData.setTotalCount(((Page<?>)dataList).getTotal());
-        }
+        pageData.setTotalCount(getTotalCount(dataList));
         return pageData;
     }
 
@@ -86,9 +101,9 @@ public class MyPageUtil {
             // 这里需要构建分页数据对象，统一前端数据格式
             return pageData;
         }
-        long totalCount = 0L;
+        Long totalCount = 0L;
         if (dataList instanceof Page) {
-            totalCount = ((Page<T>) dataList).getTotal();
+            totalCount = getTotalCount(dataList);
         }
         return MyPageUtil.makeResponseData(modelMapper.fromModelList(dataList), totalCount);
     }
@@ -104,6 +119,57 @@ public class MyPageUtil {
         return makeResponseData(responseData.getFirst(), responseData.getSecond());
     }
 
+    /**
+     * 用户构建带有分页信息的数据列表。
+     *
+     * @param dataList   数据列表。
+     * @param totalCount 第一个值为数据总数量，第二个值为数量的来源类型。如果为null，则不返回数据总数量。
+     * @param <T>        源数据类型。
+     * @return 返回分页数据对象。
+     */
+    public static <T> MyPageData<T> makeResponseData(List<T> dataList, Tuple2<Long, String> totalCount) {
+        MyPageData<T> pageData = new MyPageData<>();
+        pageData.setDataList(dataList);
+        setTotalCount(pageData, totalCount);
+        return pageData;
+    }
+
+    /**
+     * 设置分页数据对象的数据总数量及其来源类型。
+     *
+     * @param pageData   分页数据对象。
+     * @param totalCount 第一个值为数据总数量，第二个值为数量的来源类型。如果为null，则忽略。
+     */
+    public static void setTotalCount(MyPageData<?> pageData, Tuple2<Long, String> totalCount) {
+        if (totalCount != null) {
+            pageData.setTotalCount(totalCount.getFirst());
+            pageData.setTotalCountType(totalCount.getSecond());
+        }
+    }
+
+    /**
+     * 获取PageHelper分页查询结果集的数据总数量。
+     *
+     * @param dataList 数据列表，该参数必须是调用PageMethod.startPage之后，立即执行mybatis查询操作的结果集。
+     * @return 数据总数量。如果不是分页查询的结果集，或分页时没有要求计算数据总数量，则返回null。
+     */
+    public static Long getTotalCount(List<?> dataList) {
+        if (dataList instanceof Page && ((Page<?>) dataList).isCount()) {
+            return ((Page<?>) dataList).getTotal();
+        }
+        return null;
+    }
+
+    private static <T> List<Map<String, Object>> project(List<T> dataList, String includeFields) {
+        if (CollectionUtils.isEmpty(dataList)) {
+            return new LinkedList<>();
+        }
+        FieldProjector projector = new FieldProjector(includeFields);
+        // 投影是在序列化时逐行进行的，因此这里需要提前校验投影字段，以免在写入应答数据的过程中出现异常。
+        projector.validate(dataList.get(0));
+        return projector.projectList(dataList);
+    }
+
     /**
      * 私有构造函数，明确标识该常量类的作用。
      */
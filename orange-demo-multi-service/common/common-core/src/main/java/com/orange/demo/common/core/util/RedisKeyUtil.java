@@ -19,13 +19,40 @@ public class RedisKeyUtil {
     }
 
     /**
-     * 计算SessionId关联的权限数据存储于Redis中的键。
+     * 计算角色的权限位图存储于Redis中的键。位图中第N位为1，表示该角色拥有Id为N的权限资源url。
      *
-     * @param sessionId 会话Id。
-     * @return 会话关联的权限数据存储于Redis中的键值。
+     * @param roleId 角色Id。
+     * @return 角色的权限位图存储于Redis中的键值。
+     */
+    public static String makeRolePermBitmapKeyForRedis(String roleId) {
+        return "ROLE_PERM_BITMAP__" + roleId;
+    }
+
+    /**
+     * 计算权限白名单位图存储于Redis中的键。白名单中的url，所有登录用户均可访问。
+     *
+     * @return 权限白名单位图存储于Redis中的键值。
      */
-    public static String makeSessionPermIdKeyForRedis(String sessionId) {
-        return "PERM__" + sessionId;
+    public static String makePermWhitelistBitmapKeyForRedis() {
+        return "PERM_WHITELIST_BITMAP";
+    }
+
+    /**
+     * 计算权限资源url到整型Id映射表存储于Redis中的键。该映射表是Hash结构，url一旦分配Id将不再改变。
+     *
+     * @return 权限资源url到整型Id映射表存储于Redis中的键值。
+     */
+    public static String makePermUrlIdKeyForRedis() {
+        return "PERM_URL_ID";
+    }
+
+    /**
+     * 计算权限资源url整型Id的分配序列存储于Redis中的键。
+     *
+     * @return 权限资源url整型Id的分配序列存储于Redis中的键值。
+     */
+    public static String makePermUrlIdSequenceKeyForRedis() {
+        return "PERM_URL_ID_SEQ";
     }
 
     /**
@@ -38,6 +65,64 @@ public class RedisKeyUtil {
         return "DATA_PERM__" + sessionId;
     }
 
+    /**
+     * 计算异步导出任务存储于Redis中的键。
+     *
+     * @param jobId 导出任务Id。
+     * @return 导出任务存储于Redis中的键值。
+     */
+    public static String makeExportJobKeyForRedis(String jobId) {
+        return "EXPORT_JOB__" + jobId;
+    }
+
+    /**
+     * 计算异步导出任务的去重键存储于Redis中的键，其值为绑定的导出任务Id。
+     *
+     * @param dedupKey 导出任务的去重键。
+     * @return 导出任务的去重键存储于Redis中的键值。
+     */
+    public static String makeExportJobDedupKeyForRedis(String dedupKey) {
+        return "EXPORT_JOB_DEDUP__" + dedupKey;
+    }
+
+    /**
+     * 计算已生成结果文件的异步导出任务集合存储于Redis中的键，集合中任务的分值为结果文件的过期时间戳。
+     *
+     * @return 已生成结果文件的导出任务集合存储于Redis中的键值。
+     */
+    public static String makeExportJobResultKeyForRedis() {
+        return "EXPORT_JOB_RESULT";
+    }
+
+    /**
+     * 计算字典版本号存储于Redis中的键。
+     *
+     * @param dictName 字典名称。
+     * @return 字典版本号存储于Redis中的键值。
+     */
+    public static String makeDictVersionKeyForRedis(String dictName) {
+        return "DICT_VERSION__" + dictName;
+    }
+
+    /**
+     * 计算字典变化通知的Redis消息主题名称。
+     *
+     * @param dictName 字典名称。
+     * @return 字典变化通知的消息主题名称。
+     */
+    public static String makeDictChangeTopicForRedis(String dictName) {
+        return "DICT_CHANGE__" + dictName;
+    }
+
+    /**
+     * 计算数据表变化通知的Redis消息主题名称。
+     *
+     * @return 数据表变化通知的消息主题名称。
+     */
+    public static String makeTableChangeTopicForRedis() {
+        return "TABLE_CHANGE";
+    }
+
     /**
      * 私有构造函数，明确标识该常量类的作用。
      */
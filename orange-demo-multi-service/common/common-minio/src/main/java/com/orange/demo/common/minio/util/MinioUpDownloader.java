@@ -97,4 +97,48 @@ public class MinioUpDownloader extends BaseUpDownloader {
         InputStream in = minioTemplate.getStream(fullFileanme);
         IoUtil.copy(in, response.getOutputStream());
     }
+
+    /**
+     * 将服务端本地生成的文件存入Minio。
+     *
+     * @param rootBaseDir 存放文件的根目录。(minio中忽略该值，因为使用了bucket)
+     * @param modelName   所在数据表的实体对象名。
+     * @param fieldName   关联字段的实体对象属性名。
+     * @param asImage     是否为图片对象。图片是无需权限验证的，因此和附件存放在不同的子目录。
+     * @param filename    存储后的文件名。
+     * @param localFile   待存储的本地文件。
+     * @throws Exception minio抛出的异常。
+     */
+    @Override
+    public void doStore(
+            String rootBaseDir,
+            String modelName,
+            String fieldName,
+            Boolean asImage,
+            String filename,
+            File localFile) throws Exception {
+        String uploadPath = super.makeFullPath(null, modelName, fieldName, asImage);
+        minioTemplate.putObject(uploadPath + "/" + filename, localFile.getAbsolutePath());
+    }
+
+    /**
+     * 删除Minio中的文件。
+     *
+     * @param rootBaseDir 存放文件的根目录。(minio中忽略该值，因为使用了bucket)
+     * @param modelName   所在数据表的实体对象名。
+     * @param fieldName   关联字段的实体对象属性名。
+     * @param asImage     是否为图片对象。图片是无需权限验证的，因此和附件存放在不同的子目录。
+     * @param filename    文件名。
+     * @throws Exception minio抛出的异常。
+     */
+    @Override
+    public void doDelete(
+            String rootBaseDir,
+            String modelName,
+            String fieldName,
+            Boolean asImage,
+            String filename) throws Exception {
+        String uploadPath = super.makeFullPath(null, modelName, fieldName, asImage);
+        minioTemplate.removeObject(uploadPath + "/" + filename);
+    }
 }
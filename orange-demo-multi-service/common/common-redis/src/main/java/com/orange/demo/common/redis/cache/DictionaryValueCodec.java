@@ -0,0 +1,36 @@
+package com.orange.demo.common.redis.cache;
+
+/**
+ * Redis字典缓存中字典值对象的编解码接口。
+ * RedisDictionaryCache和RedisTreeDictionaryCache均以字节数组的形式存储字典值，具体的序列化格式由该接口的实现类决定。
+ *
+ * @param <V> 字典表对象类型。
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public interface DictionaryValueCodec<V> {
+
+    /**
+     * 获取编码格式的名称。格式或数据结构发生变化时，名称也应随之变化，
+     * 字典缓存在非强制reload时，会据此判断Redis中的现有数据是否需要按照新格式重新加载。
+     *
+     * @return 编码格式的名称。
+     */
+    String getName();
+
+    /**
+     * 将字典对象编码为字节数组。
+     *
+     * @param value 字典对象。
+     * @return 编码后的字节数组。
+     */
+    byte[] encode(V value);
+
+    /**
+     * 将字节数组解码为字典对象。
+     *
+     * @param data 编码后的字节数组。
+     * @return 解码后的字典对象。
+     */
+    V decode(byte[] data);
+}
@@ -0,0 +1,86 @@
+package com.orange.demo.common.redis.cache;
+
+import com.orange.demo.common.core.exception.RedisCacheAccessException;
+import org.nustaq.serialization.FSTConfiguration;
+import org.nustaq.serialization.FSTObjectInput;
+import org.nustaq.serialization.FSTObjectOutput;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基于FST的二进制字典值编解码对象，也是Redis字典缓存的缺省编解码对象。
+ * 值对象类型会预先注册到FST配置中，编码结果中不再包含类名和字段名，数据体积和解析开销均明显小于JSON字符串。
+ * 由于二进制格式依赖值对象的字段结构，格式名称中包含了字段结构的指纹，字段变化后，缓存数据会在启动时被重新加载。
+ *
+ * @param <V> 字典表对象类型。
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class FstDictionaryValueCodec<V> implements DictionaryValueCodec<V> {
+
+    private final Class<V> valueClazz;
+    private final FSTConfiguration fstConfiguration;
+    private final String name;
+
+    /**
+     * 构造函数。
+     *
+     * @param valueClazz 值对象的Class对象。
+     */
+    public FstDictionaryValueCodec(Class<V> valueClazz) {
+        this.valueClazz = valueClazz;
+        this.fstConfiguration = FSTConfiguration.createDefaultConfiguration();
+        // 字典对象通常是没有实现Serializable接口的普通实体对象。
+        this.fstConfiguration.setForceSerializable(true);
+        this.fstConfiguration.registerClass(valueClazz);
+        this.name = "fst:" + Integer.toHexString(makeFieldFingerprint(valueClazz));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public byte[] encode(V value) {
+        // FST的输入输出对象均为线程内复用的对象，无需每次创建。
+        FSTObjectOutput out = fstConfiguration.getObjectOutput();
+        try {
+            out.writeObject(value, valueClazz);
+            return out.getCopyOfWrittenBuffer();
+        } catch (Exception e) {
+            throw new RedisCacheAccessException(
+                    "Failed to encode DICT value of [" + valueClazz.getSimpleName() + "].", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V decode(byte[] data) {
+        FSTObjectInput in = fstConfiguration.getObjectInput(data);
+        try {
+            return (V) in.readObject(valueClazz);
+        } catch (Exception e) {
+            throw new RedisCacheAccessException(
+                    "Failed to decode DICT value of [" + valueClazz.getSimpleName() + "].", e);
+        }
+    }
+
+    private static int makeFieldFingerprint(Class<?> clazz) {
+        List<String> fieldList = new ArrayList<>();
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                    fieldList.add(c.getName() + "." + field.getName() + ":" + field.getType().getName());
+                }
+            }
+        }
+        // getDeclaredFields不保证返回顺序，排序后计算指纹。
+        fieldList.sort(String::compareTo);
+        return fieldList.hashCode();
+    }
+}
@@ -0,0 +1,42 @@
+package com.orange.demo.common.redis.cache;
+
+import com.alibaba.fastjson.JSON;
+
+/**
+ * 基于fastjson的字典值编解码对象，以UTF-8编码的JSON字节存储字典值。
+ * 数据体积和编解码性能均不如FstDictionaryValueCodec，仅适用于需要直接查看Redis中字典数据的场景。
+ *
+ * @param <V> 字典表对象类型。
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class JsonDictionaryValueCodec<V> implements DictionaryValueCodec<V> {
+
+    private static final String NAME = "json";
+
+    private final Class<V> valueClazz;
+
+    /**
+     * 构造函数。
+     *
+     * @param valueClazz 值对象的Class对象。
+     */
+    public JsonDictionaryValueCodec(Class<V> valueClazz) {
+        this.valueClazz = valueClazz;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(V value) {
+        return JSON.toJSONBytes(value);
+    }
+
+    @Override
+    public V decode(byte[] data) {
+        return JSON.parseObject(data, valueClazz);
+    }
+}
@@ -0,0 +1,56 @@
+package com.orange.demo.common.redis.cache;
+
+import com.alibaba.fastjson.JSON;
+import com.orange.demo.common.core.cache.DictChangeChannel;
+import com.orange.demo.common.core.cache.DictChangeEvent;
+import com.orange.demo.common.core.util.RedisKeyUtil;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 基于Redisson的字典数据变化通知通道。字典的版本号保存在Redis的原子计数器中，变化通知通过Redisson消息主题发布。
+ * 消息主题不保证送达，丢失的通知会在副本定期比较版本号时被发现。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Component
+@ConditionalOnProperty(name = "redis.redisson.enabled", havingValue = "true")
+public class RedisDictChangeChannel implements DictChangeChannel {
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Override
+    public long publish(String dictName, List<String> keyList) {
+        long version = redissonClient.getAtomicLong(RedisKeyUtil.makeDictVersionKeyForRedis(dictName)).incrementAndGet();
+        DictChangeEvent event = new DictChangeEvent();
+        event.setDictName(dictName);
+        event.setVersion(version);
+        event.setKeyList(keyList);
+        this.getTopic(dictName).publish(JSON.toJSONString(event));
+        return version;
+    }
+
+    @Override
+    public long getVersion(String dictName) {
+        return redissonClient.getAtomicLong(RedisKeyUtil.makeDictVersionKeyForRedis(dictName)).get();
+    }
+
+    @Override
+    public void subscribe(String dictName, Consumer<DictChangeEvent> listener) {
+        this.getTopic(dictName).addListener(String.class,
+                (channel, message) -> listener.accept(JSON.parseObject(message, DictChangeEvent.class)));
+    }
+
+    private RTopic getTopic(String dictName) {
+        return redissonClient.getTopic(RedisKeyUtil.makeDictChangeTopicForRedis(dictName), StringCodec.INSTANCE);
+    }
+}
@@ -1,22 +1,36 @@
 package com.orange.demo.common.redis.cache;
 
-import com.alibaba.fastjson.JSON;
 import com.orange.demo.common.core.cache.DictionaryCache;
 import com.orange.demo.common.core.exception.RedisCacheAccessException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
-import org.redisson.api.RMap;
-import org.redisson.api.RReadWriteLock;
-import org.redisson.api.RedissonClient;
+import org.redisson.api.*;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.CompositeCodec;
 
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * 字典数据Redis缓存对象。
+ * 字典数据按版本存储，版本指针键(dictionaryName-DICT-VERSION)中保存当前版本号，数据存储于dictionaryName-DICT:版本号中。
+ * 读操作先读取当前版本号，再直接读取该版本的数据，全程不需要任何分布式锁。
+ * 写操作之间仍然通过分布式写锁互斥。增量写操作在当前版本上以原子命令或MULTI事务完成；
+ * 全量的reload和invalidateAll则在新版本上构建全部数据，完成后原子的更新版本指针，
+ * 读操作因此不会看到清空后或加载了一半的中间状态。旧版本的数据会在短暂的过期时间后被删除，
+ * 以保证切换前已经解析到旧版本号的读操作可以正常完成。
+ * 字典值以字节数组的形式存储，编码格式由DictionaryValueCodec决定，缺省使用FstDictionaryValueCodec。
+ * 非强制的reload发现编码格式变化时，也会按照新格式重新加载全部数据。
+ * 升级说明：之前的实现以JSON字符串将数据存储在不带版本号的dictionaryName-DICT(树形数据为dictionaryName-TREE-DICT)中，
+ * 当前实现不再读取这些键，升级后版本指针不存在，当前版本0没有数据，启动时非强制的reload会从数据库重新加载全部数据。
+ * 滚动升级期间新旧节点同时运行时，两者读写不同的键且使用不同的锁，一侧的增量修改对另一侧不可见，
+ * 旧节点在此期间的读取结果可能是过期的，因此字典数据的修改应避开升级窗口。旧节点全部下线后，上述两个键可以手动删除。
  *
  * @param <K> 字典表主键类型。
  * @param <V> 字典表对象类型。
@@ -31,21 +45,41 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
      */
     protected RedissonClient redissonClient;
     /**
-     * 数据存储对象。
+     * 字典表的名称。
      */
-    protected RMap<K, String> dataMap;
+    protected String dictionaryName;
+    /**
+     * 当前数据版本号的指针。
+     */
+    protected RAtomicLong version;
     /**
      * 字典值对象类型。
      */
     protected Class<V> valueClazz;
     /**
-     * 由于大部分场景是读取操作，所以使用读写锁提高并发的伸缩性。
+     * 当前数据版本所使用的编码格式名称。
+     */
+    protected RBucket<String> codecName;
+    /**
+     * 字典值的编解码对象。
      */
-    protected RReadWriteLock lock;
+    protected DictionaryValueCodec<V> valueCodec;
+    /**
+     * 字典数据的存储编解码对象。主键仍使用Redisson的缺省编解码，字典值直接存储为字节数组。
+     */
+    protected Codec storageCodec;
+    /**
+     * 写操作之间互斥的分布式锁，读操作不再加锁。
+     */
+    protected RLock writeLock;
     /**
      * 超时时长。单位毫秒。
      */
     protected static final long TIMEOUT = 2000L;
+    /**
+     * 版本切换后，旧版本数据的保留时长。单位毫秒。
+     */
+    protected static final long RETIRED_VERSION_TTL = 60000L;
     /**
      * 获取字典主键数据的函数对象。
      */
@@ -73,6 +107,33 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
         return new RedisDictionaryCache<>(redissonClient, dictionaryName, valueClazz, idGetter);
     }
 
+    /**
+     * 当前对象的构造器函数。
+     *
+     * @param redissonClient Redisson的客户端对象。
+     * @param dictionaryName 字典表的名称。等同于redis hash对象的key。
+     * @param valueClazz     值对象的Class对象。
+     * @param idGetter       获取当前类主键字段值的函数对象。
+     * @param valueCodec     字典值的编解码对象。
+     * @param <K>            字典主键类型。
+     * @param <V>            字典对象类型
+     * @return 实例化后的字典内存缓存对象。
+     */
+    public static <K, V> RedisDictionaryCache<K, V> create(
+            RedissonClient redissonClient,
+            String dictionaryName,
+            Class<V> valueClazz,
+            Function<V, K> idGetter,
+            DictionaryValueCodec<V> valueCodec) {
+        if (idGetter == null) {
+            throw new IllegalArgumentException("IdGetter can't be NULL.");
+        }
+        if (valueCodec == null) {
+            throw new IllegalArgumentException("ValueCodec can't be NULL.");
+        }
+        return new RedisDictionaryCache<>(redissonClient, dictionaryName, valueClazz, idGetter, valueCodec);
+    }
+
     /**
      * 构造函数。
      *
@@ -86,11 +147,33 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
             String dictionaryName,
             Class<V> valueClazz,
             Function<V, K> idGetter) {
+        this(redissonClient, dictionaryName, valueClazz, idGetter, new FstDictionaryValueCodec<>(valueClazz));
+    }
+
+    /**
+     * 构造函数。
+     *
+     * @param redissonClient Redisson的客户端对象。
+     * @param dictionaryName 字典表的名称。等同于redis hash对象的key。确保全局唯一。
+     * @param valueClazz     值对象的Class对象。
+     * @param idGetter       获取当前类主键字段值的函数对象。
+     * @param valueCodec     字典值的编解码对象。
+     */
+    public RedisDictionaryCache(
+            RedissonClient redissonClient,
+            String dictionaryName,
+            Class<V> valueClazz,
+            Function<V, K> idGetter,
+            DictionaryValueCodec<V> valueCodec) {
         this.redissonClient = redissonClient;
-        this.dataMap = redissonClient.getMap(dictionaryName + "-DICT");
-        this.lock = redissonClient.getReadWriteLock(dictionaryName + "-DICT-LOCK");
+        this.dictionaryName = dictionaryName;
+        this.version = redissonClient.getAtomicLong(dictionaryName + "-DICT-VERSION");
+        this.codecName = redissonClient.getBucket(dictionaryName + "-DICT-CODEC", StringCodec.INSTANCE);
+        this.writeLock = redissonClient.getReadWriteLock(dictionaryName + "-DICT-LOCK").writeLock();
         this.valueClazz = valueClazz;
         this.idGetter = idGetter;
+        this.valueCodec = valueCodec;
+        this.storageCodec = new CompositeCodec(redissonClient.getConfig().getCodec(), ByteArrayCodec.INSTANCE);
     }
 
     /**
@@ -100,32 +183,12 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
      */
     @Override
     public List<V> getAll() {
-        Collection<String> dataList;
-        String exceptionMessage;
-        try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    dataList = dataMap.readAllValues();
-                } finally {
-                    // 如果上面的操作时间超过redisson.lockWatchdogTimeout的时长，
-                    // redis会将与该锁关联的键删除，此后调用unlock的时候，就会抛出运行时异常。
-                    lock.readLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [RedisDictionaryCache::getAll] encountered EXCEPTION [%s] for DICT [%s].",
-                    e.getClass().getSimpleName(), valueClazz.getSimpleName());
-            log.warn(exceptionMessage);
-            throw new RedisCacheAccessException(exceptionMessage, e);
-        }
+        Collection<byte[]> dataList = this.getDataMap(version.get()).readAllValues();
         if (CollectionUtils.isEmpty(dataList)) {
             return new LinkedList<>();
         }
         return dataList.stream()
-                .map(data -> JSON.parseObject(data, valueClazz))
+                .map(this::decodeValue)
                 .collect(Collectors.toCollection(LinkedList::new));
     }
 
@@ -140,30 +203,9 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
         if (CollectionUtils.isEmpty(keys)) {
             return new LinkedList<>();
         }
-        Collection<String> dataList;
-        String exceptionMessage;
-        try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    dataList = dataMap.getAll(keys).values();
-                } finally {
-                    lock.readLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [RedisDictionaryCache::getInList] encountered EXCEPTION [%s] for DICT [%s].",
-                    e.getClass().getSimpleName(), valueClazz.getSimpleName());
-            log.warn(exceptionMessage);
-            throw new RedisCacheAccessException(exceptionMessage, e);
-        }
-        if (dataList == null) {
-            return new LinkedList<>();
-        }
+        Collection<byte[]> dataList = this.getDataMap(version.get()).getAll(keys).values();
         return dataList.stream()
-                .map(data -> JSON.parseObject(data, valueClazz))
+                .map(this::decodeValue)
                 .collect(Collectors.toCollection(LinkedList::new));
     }
 
@@ -178,29 +220,11 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
         if (id == null) {
             return null;
         }
-        String data;
-        String exceptionMessage;
-        try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    data = dataMap.get(id);
-                } finally {
-                    lock.readLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [RedisDictionaryCache::get] encountered EXCEPTION [%s] for DICT [%s].",
-                    e.getClass().getSimpleName(), valueClazz.getSimpleName());
-            log.warn(exceptionMessage);
-            throw new RedisCacheAccessException(exceptionMessage, e);
-        }
+        byte[] data = this.getDataMap(version.get()).get(id);
         if (data == null) {
             return null;
         }
-        return JSON.parseObject(data, valueClazz);
+        return this.decodeValue(data);
     }
 
     /**
@@ -210,7 +234,7 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
      */
     @Override
     public int getCount() {
-        return dataMap.size();
+        return this.getDataMap(version.get()).size();
     }
 
     /**
@@ -223,26 +247,12 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
         if (CollectionUtils.isEmpty(dataList)) {
             return;
         }
-        Map<K, String> map = dataList.stream()
-                .collect(Collectors.toMap(idGetter, JSON::toJSONString));
-        String exceptionMessage;
-        try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    dataMap.putAll(map, 1000);
-                } finally {
-                    lock.writeLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [RedisDictionaryCache::putAll] encountered EXCEPTION [%s] for DICT [%s].",
-                    e.getClass().getSimpleName(), valueClazz.getSimpleName());
-            log.warn(exceptionMessage);
-            throw new RedisCacheAccessException(exceptionMessage, e);
-        }
+        Map<K, byte[]> map = dataList.stream()
+                .collect(Collectors.toMap(idGetter, valueCodec::encode));
+        this.executeWithWriteLock("putAll", () -> {
+            this.getDataMap(version.get()).putAll(map, 1000);
+            return null;
+        });
     }
 
     /**
@@ -256,63 +266,29 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
         if (id == null || data == null) {
             return;
         }
-        String exceptionMessage;
-        try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    dataMap.fastPut(id, JSON.toJSONString(data));
-                } finally {
-                    lock.writeLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [RedisDictionaryCache::put] encountered EXCEPTION [%s] for DICT [%s].",
-                    e.getClass().getSimpleName(), valueClazz.getSimpleName());
-            log.warn(exceptionMessage);
-            throw new RedisCacheAccessException(exceptionMessage, e);
-        }
+        byte[] encodedData = valueCodec.encode(data);
+        this.executeWithWriteLock("put", () -> this.getDataMap(version.get()).fastPut(id, encodedData));
     }
 
     /**
      * 重新加载，先清空原有数据，在执行putAll的操作。
+     * 新数据写入新的版本，完成后原子的切换版本指针。
+     * 当前版本的编码格式与valueCodec不一致时，即便不是强制刷新，也会按照新格式重新加载。
      *
      * @param dataList 待缓存的数据列表。
      * @param force    true则强制刷新，如果false，当缓存中存在数据时不刷新。
      */
     @Override
     public void reload(List<V> dataList, boolean force) {
-        Map<K, String> map = null;
-        if (CollectionUtils.isNotEmpty(dataList)) {
-            map = dataList.stream().collect(Collectors.toMap(idGetter, JSON::toJSONString));
-        }
-        String exceptionMessage;
-        try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    // 如果不强制刷新，需要先判断缓存中是否存在数据。
-                    if (!force && this.getCount() > 0) {
-                        return;
-                    }
-                    dataMap.clear();
-                    if (map != null) {
-                        dataMap.putAll(map, 1000);
-                    }
-                } finally {
-                    lock.writeLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
+        List<V> newDataList = dataList == null ? Collections.emptyList() : dataList;
+        this.executeWithWriteLock("reload", () -> {
+            // 如果不强制刷新，需要先判断缓存中是否存在数据。
+            if (!force && this.getCount() > 0 && valueCodec.getName().equals(codecName.get())) {
+                return null;
             }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [RedisDictionaryCache::reload] encountered EXCEPTION [%s] for DICT [%s].",
-                    e.getClass().getSimpleName(), valueClazz.getSimpleName());
-            log.warn(exceptionMessage);
-            throw new RedisCacheAccessException(exceptionMessage, e);
-        }
+            this.switchVersion(newDataList);
+            return null;
+        });
     }
 
     /**
@@ -326,29 +302,11 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
         if (id == null) {
             return null;
         }
-        String data;
-        String exceptionMessage;
-        try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    data = dataMap.remove(id);
-                } finally {
-                    lock.writeLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [RedisDictionaryCache::invalidate] encountered EXCEPTION [%s] for DICT [%s].",
-                    e.getClass().getSimpleName(), valueClazz.getSimpleName());
-            log.warn(exceptionMessage);
-            throw new RedisCacheAccessException(exceptionMessage, e);
-        }
+        byte[] data = this.executeWithWriteLock("invalidate", () -> this.getDataMap(version.get()).remove(id));
         if (data == null) {
             return null;
         }
-        return JSON.parseObject(data, valueClazz);
+        return this.decodeValue(data);
     }
 
     /**
@@ -363,46 +321,114 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
             return;
         }
         Object[] keyArray = keys.toArray(new Object[]{});
-        String exceptionMessage;
-        try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    dataMap.fastRemove((K[]) keyArray);
-                } finally {
-                    lock.writeLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [RedisDictionaryCache::invalidateSet] encountered EXCEPTION [%s] for DICT [%s].",
-                    e.getClass().getSimpleName(), valueClazz.getSimpleName());
-            log.warn(exceptionMessage);
-            throw new RedisCacheAccessException(exceptionMessage, e);
-        }
+        this.executeWithWriteLock("invalidateSet", () -> this.getDataMap(version.get()).fastRemove((K[]) keyArray));
     }
 
     /**
-     * 清空缓存。
+     * 清空缓存。切换到一个空的新版本。
      */
     @Override
     public void invalidateAll() {
+        this.executeWithWriteLock("invalidateAll", () -> {
+            this.switchVersion(Collections.emptyList());
+            return null;
+        });
+    }
+
+    /**
+     * 获取指定版本的字典数据存储对象。
+     *
+     * @param dataVersion 数据版本号。
+     * @return 字典数据存储对象。
+     */
+    protected RMap<K, byte[]> getDataMap(long dataVersion) {
+        return redissonClient.getMap(this.getDataMapName(dataVersion), storageCodec);
+    }
+
+    /**
+     * 获取指定版本的字典数据在Redis中的键。
+     *
+     * @param dataVersion 数据版本号。
+     * @return 字典数据在Redis中的键。
+     */
+    protected String getDataMapName(long dataVersion) {
+        return dictionaryName + "-DICT:" + dataVersion;
+    }
+
+    /**
+     * 在新版本上写入全部数据，完成后原子的切换版本指针，并为旧版本数据设置过期时间。调用者必须持有写锁。
+     * 子类需要同时维护其他数据结构时，可以重载writeVersion和retireVersion方法。
+     *
+     * @param dataList 新版本的全部数据。
+     */
+    protected void switchVersion(List<V> dataList) {
+        long oldVersion = version.get();
+        long newVersion = oldVersion + 1;
+        this.writeVersion(newVersion, dataList);
+        codecName.set(valueCodec.getName());
+        version.set(newVersion);
+        this.retireVersion(oldVersion);
+    }
+
+    /**
+     * 将全部数据写入到指定的版本。
+     *
+     * @param dataVersion 数据版本号。
+     * @param dataList    全部数据列表。
+     */
+    protected void writeVersion(long dataVersion, List<V> dataList) {
+        RMap<K, byte[]> newDataMap = this.getDataMap(dataVersion);
+        newDataMap.delete();
+        if (!dataList.isEmpty()) {
+            newDataMap.putAll(dataList.stream().collect(Collectors.toMap(idGetter, valueCodec::encode)), 1000);
+        }
+    }
+
+    /**
+     * 为切换前的旧版本数据设置过期时间。
+     *
+     * @param dataVersion 旧的数据版本号。
+     */
+    protected void retireVersion(long dataVersion) {
+        this.getDataMap(dataVersion).expire(RETIRED_VERSION_TTL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 解码字典值。
+     *
+     * @param data 存储的字节数组。
+     * @return 解码后的字典对象。
+     */
+    protected V decodeValue(byte[] data) {
+        return valueCodec.decode(data);
+    }
+
+    /**
+     * 持有写锁执行写操作。
+     *
+     * @param methodName 写操作的方法名，用于记录日志。
+     * @param action     写操作。
+     * @param <T>        写操作的返回值类型。
+     * @return 写操作的返回值。
+     */
+    protected <T> T executeWithWriteLock(String methodName, Supplier<T> action) {
         String exceptionMessage;
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (writeLock.tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
                 try {
-                    dataMap.clear();
+                    return action.get();
                 } finally {
-                    lock.writeLock().unlock();
+                    // 如果上面的操作时间超过redisson.lockWatchdogTimeout的时长，
+                    // redis会将与该锁关联的键删除，此后调用unlock的时候，就会抛出运行时异常。
+                    writeLock.unlock();
                 }
             } else {
                 throw new TimeoutException();
             }
         } catch (Exception e) {
             exceptionMessage = String.format(
-                    "LOCK Operation of [RedisDictionaryCache::invalidateAll] encountered EXCEPTION [%s] for DICT [%s].",
-                    e.getClass().getSimpleName(), valueClazz.getSimpleName());
+                    "LOCK Operation of [%s::%s] encountered EXCEPTION [%s] for DICT [%s].",
+                    this.getClass().getSimpleName(), methodName, e.getClass().getSimpleName(), valueClazz.getSimpleName());
             log.warn(exceptionMessage);
             throw new RedisCacheAccessException(exceptionMessage, e);
         }
@@ -0,0 +1,41 @@
+package com.orange.demo.common.redis.cache;
+
+import com.orange.demo.common.core.cache.TableChangeChannel;
+import com.orange.demo.common.core.util.RedisKeyUtil;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * 基于Redisson消息主题的数据表变化通知通道。通知以异步方式发布，不会增加写操作的耗时。
+ * 消息主题不保证送达，丢失通知的实例会在缓存数据自然过期后恢复一致。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Component
+@ConditionalOnProperty(name = "redis.redisson.enabled", havingValue = "true")
+public class RedisTableChangeChannel implements TableChangeChannel {
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Override
+    public void publish(String tableName) {
+        this.getTopic().publishAsync(tableName);
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        this.getTopic().addListener(String.class, (channel, tableName) -> listener.accept(tableName));
+    }
+
+    private RTopic getTopic() {
+        return redissonClient.getTopic(RedisKeyUtil.makeTableChangeTopicForRedis(), StringCodec.INSTANCE);
+    }
+}
@@ -1,22 +1,20 @@
 package com.orange.demo.common.redis.cache;
 
-import com.alibaba.fastjson.JSON;
 import lombok.extern.slf4j.Slf4j;
-import com.orange.demo.common.core.exception.RedisCacheAccessException;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Multimap;
 import org.apache.commons.collections4.CollectionUtils;
-import org.redisson.api.RListMultimap;
-import org.redisson.api.RedissonClient;
+import org.redisson.api.*;
 
 import java.util.*;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * 树形字典数据Redis缓存对象。
+ * 树形数据与字典数据使用相同的版本号，读操作同样不需要任何分布式锁。
+ * 增量写操作需要同时修改字典数据和树形数据，这些修改在同一个MULTI事务中提交，读操作不会看到只修改了一半的数据。
  *
  * @param <K> 字典表主键类型。
  * @param <V> 字典表对象类型。
@@ -26,10 +24,6 @@ import java.util.stream.Collectors;
 @Slf4j
 public class RedisTreeDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
 
-    /**
-     * 树形数据存储对象。
-     */
-    private RListMultimap<K, String> allTreeMap;
     /**
      * 获取字典父主键数据的函数对象。
      */
@@ -63,6 +57,39 @@ public class RedisTreeDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
                 redissonClient, dictionaryName, valueClazz, idGetter, parentIdGetter);
     }
 
+    /**
+     * 当前对象的构造器函数。
+     *
+     * @param redissonClient Redisson的客户端对象。
+     * @param dictionaryName 字典表的名称。等同于redis hash对象的key。
+     * @param valueClazz     值对象的Class对象。
+     * @param idGetter       获取当前类主键字段值的函数对象。
+     * @param parentIdGetter 获取当前类父主键字段值的函数对象。
+     * @param valueCodec     字典值的编解码对象。
+     * @param <K>            字典主键类型。
+     * @param <V>            字典对象类型
+     * @return 实例化后的树形字典内存缓存对象。
+     */
+    public static <K, V> RedisTreeDictionaryCache<K, V> create(
+            RedissonClient redissonClient,
+            String dictionaryName,
+            Class<V> valueClazz,
+            Function<V, K> idGetter,
+            Function<V, K> parentIdGetter,
+            DictionaryValueCodec<V> valueCodec) {
+        if (idGetter == null) {
+            throw new IllegalArgumentException("IdGetter can't be NULL.");
+        }
+        if (parentIdGetter == null) {
+            throw new IllegalArgumentException("ParentIdGetter can't be NULL.");
+        }
+        if (valueCodec == null) {
+            throw new IllegalArgumentException("ValueCodec can't be NULL.");
+        }
+        return new RedisTreeDictionaryCache<>(
+                redissonClient, dictionaryName, valueClazz, idGetter, parentIdGetter, valueCodec);
+    }
+
     /**
      * 构造函数。
      *
@@ -79,7 +106,27 @@ public class RedisTreeDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
             Function<V, K> idGetter,
             Function<V, K> parentIdGetter) {
         super(redissonClient, dictionaryName, valueClazz, idGetter);
-        this.allTreeMap = redissonClient.getListMultimap(dictionaryName + "-TREE-DICT");
+        this.parentIdGetter = parentIdGetter;
+    }
+
+    /**
+     * 构造函数。
+     *
+     * @param redissonClient Redisson的客户端对象。
+     * @param dictionaryName 字典表的名称。等同于redis hash对象的key。
+     * @param valueClazz     值对象的Class对象。
+     * @param idGetter       获取当前类主键字段值的函数对象。
+     * @param parentIdGetter 获取当前类父主键字段值的函数对象。
+     * @param valueCodec     字典值的编解码对象。
+     */
+    public RedisTreeDictionaryCache(
+            RedissonClient redissonClient,
+            String dictionaryName,
+            Class<V> valueClazz,
+            Function<V, K> idGetter,
+            Function<V, K> parentIdGetter,
+            DictionaryValueCodec<V> valueCodec) {
+        super(redissonClient, dictionaryName, valueClazz, idGetter, valueCodec);
         this.parentIdGetter = parentIdGetter;
     }
 
@@ -90,30 +137,12 @@ public class RedisTreeDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
      * @return 子数据列表。
      */
     public List<V> getListByParentId(K parentId) {
-        List<String> dataList;
-        String exceptionMessage;
-        try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    dataList = allTreeMap.get(parentId);
-                } finally {
-                    lock.readLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [RedisTreeDictionaryCache::getListByParentId] encountered EXCEPTION [%s] for DICT [%s].",
-                    e.getClass().getSimpleName(), valueClazz.getSimpleName());
-            log.warn(exceptionMessage);
-            throw new RedisCacheAccessException(exceptionMessage, e);
-        }
+        List<byte[]> dataList = this.getTreeMap(version.get()).getAll(parentId);
         if (CollectionUtils.isEmpty(dataList)) {
             return new LinkedList<>();
         }
         List<V> resultList = new LinkedList<>();
-        dataList.forEach(data -> resultList.add(JSON.parseObject(data, valueClazz)));
+        dataList.forEach(data -> resultList.add(this.decodeValue(data)));
         return resultList;
     }
 
@@ -128,35 +157,21 @@ public class RedisTreeDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
             return;
         }
         // 锁外执行数据结构组装，降低锁的粒度，提高并发性。
-        Map<K, String> map = dataList.stream()
-                .collect(Collectors.toMap(idGetter, JSON::toJSONString));
-        Multimap<K, String> treeMap = LinkedListMultimap.create();
-        for (V data : dataList) {
-            treeMap.put(parentIdGetter.apply(data), JSON.toJSONString(data));
-        }
-        Set<Map.Entry<K, Collection<String>>> entries = treeMap.asMap().entrySet();
-        String exceptionMessage;
-        try {
-            if (this.lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    dataMap.putAll(map, 1000);
-                    for (Map.Entry<K, Collection<String>> entry : entries) {
-                        allTreeMap.removeAll(entry.getKey());
-                        allTreeMap.putAll(entry.getKey(), entry.getValue());
-                    }
-                } finally {
-                    lock.writeLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
+        Map<K, byte[]> map = new HashMap<>(dataList.size());
+        Multimap<K, byte[]> treeMap = this.makeTreeMap(dataList, map);
+        this.executeWithWriteLock("putAll", () -> {
+            long dataVersion = version.get();
+            RBatch batch = this.createAtomicBatch();
+            batch.<K, byte[]>getMap(this.getDataMapName(dataVersion), storageCodec).putAllAsync(map, 1000);
+            RMultimapAsync<K, byte[]> treeMapAsync =
+                    batch.getListMultimap(this.getTreeMapName(dataVersion), storageCodec);
+            for (Map.Entry<K, Collection<byte[]>> entry : treeMap.asMap().entrySet()) {
+                treeMapAsync.removeAllAsync(entry.getKey());
+                treeMapAsync.putAllAsync(entry.getKey(), entry.getValue());
             }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [RedisTreeDictionaryCache::putAll] encountered EXCEPTION [%s] for DICT [%s].",
-                    e.getClass().getSimpleName(), valueClazz.getSimpleName());
-            log.warn(exceptionMessage);
-            throw new RedisCacheAccessException(exceptionMessage, e);
-        }
+            batch.execute();
+            return null;
+        });
     }
 
     /**
@@ -170,82 +185,24 @@ public class RedisTreeDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
         if (id == null || data == null) {
             return;
         }
-        String stringData = JSON.toJSONString(data);
+        byte[] encodedData = valueCodec.encode(data);
         K parentId = parentIdGetter.apply(data);
-        String exceptionMessage;
-        try {
-            if (this.lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    String oldData = dataMap.put(id, stringData);
-                    if (oldData != null) {
-                        allTreeMap.remove(parentId, oldData);
-                    }
-                    allTreeMap.put(parentId, stringData);
-                } finally {
-                    lock.writeLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
+        this.executeWithWriteLock("put", () -> {
+            long dataVersion = version.get();
+            // 写操作之间互斥，因此这里读取的旧数据在事务提交前不会被修改。
+            byte[] oldData = this.getDataMap(dataVersion).get(id);
+            RBatch batch = this.createAtomicBatch();
+            batch.<K, byte[]>getMap(this.getDataMapName(dataVersion), storageCodec).fastPutAsync(id, encodedData);
+            RMultimapAsync<K, byte[]> treeMapAsync =
+                    batch.getListMultimap(this.getTreeMapName(dataVersion), storageCodec);
+            if (oldData != null) {
+                // 树形数据中存储的字节与字典数据完全一致，因此可以直接按字节删除旧数据。
+                treeMapAsync.removeAsync(parentIdGetter.apply(this.decodeValue(oldData)), oldData);
             }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [RedisTreeDictionaryCache::put] encountered EXCEPTION [%s] for DICT [%s].",
-                    e.getClass().getSimpleName(), valueClazz.getSimpleName());
-            log.warn(exceptionMessage);
-            throw new RedisCacheAccessException(exceptionMessage, e);
-        }
-    }
-
-    /**
-     * 行为等同于接口中的描述。这里之所以重写，是因为不确定redisson的读写锁，
-     * 是否为可重入锁。
-     *
-     * @param dataList 待缓存的数据列表。
-     * @param force    true则强制刷新，如果false，当缓存中存在数据时不刷新。
-     */
-    @Override
-    public void reload(List<V> dataList, boolean force) {
-        // 锁外执行数据结构组装，降低锁的粒度，提高并发性。
-        Map<K, String> map = null;
-        Set<Map.Entry<K, Collection<String>>> entries = null;
-        if (CollectionUtils.isNotEmpty(dataList)) {
-            map = dataList.stream().collect(Collectors.toMap(idGetter, JSON::toJSONString));
-            Multimap<K, String> treeMap = LinkedListMultimap.create();
-            for (V data : dataList) {
-                treeMap.put(parentIdGetter.apply(data), JSON.toJSONString(data));
-            }
-            entries = treeMap.asMap().entrySet();
-        }
-        String exceptionMessage;
-        try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    // 如果不强制刷新，需要先判断缓存中是否存在数据。
-                    if (!force && this.getCount() > 0) {
-                        return;
-                    }
-                    dataMap.clear();
-                    allTreeMap.clear();
-                    if (map != null) {
-                        dataMap.putAll(map, 1000);
-                        for (Map.Entry<K, Collection<String>> entry : entries) {
-                            allTreeMap.removeAll(entry.getKey());
-                            allTreeMap.putAll(entry.getKey(), entry.getValue());
-                        }
-                    }
-                } finally {
-                    lock.writeLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [RedisDictionaryCache::reload] encountered EXCEPTION [%s] for DICT [%s].",
-                    e.getClass().getSimpleName(), valueClazz.getSimpleName());
-            log.warn(exceptionMessage);
-            throw new RedisCacheAccessException(exceptionMessage, e);
-        }
+            treeMapAsync.putAsync(parentId, encodedData);
+            batch.execute();
+            return null;
+        });
     }
 
     /**
@@ -259,31 +216,10 @@ public class RedisTreeDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
         if (id == null) {
             return null;
         }
-        V data = null;
-        String exceptionMessage;
-        try {
-            if (this.lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    String stringData = dataMap.remove(id);
-                    if (stringData != null) {
-                        data = JSON.parseObject(stringData, valueClazz);
-                        K parentId = parentIdGetter.apply(data);
-                        allTreeMap.remove(parentId, stringData);
-                    }
-                } finally {
-                    lock.writeLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [RedisTreeDictionaryCache::invalidate] encountered EXCEPTION [%s] for DICT [%s].",
-                    e.getClass().getSimpleName(), valueClazz.getSimpleName());
-            log.warn(exceptionMessage);
-            throw new RedisCacheAccessException(exceptionMessage, e);
-        }
-        return data;
+        return this.executeWithWriteLock("invalidate", () -> {
+            Map<K, V> removedMap = this.removeInBatch(Collections.singleton(id));
+            return removedMap.get(id);
+        });
     }
 
     /**
@@ -296,57 +232,85 @@ public class RedisTreeDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
         if (CollectionUtils.isEmpty(keys)) {
             return;
         }
-        String exceptionMessage;
-        try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    keys.forEach(id -> {
-                        if (id != null) {
-                            String stringData = dataMap.remove(id);
-                            if (stringData != null) {
-                                K parentId = parentIdGetter.apply(JSON.parseObject(stringData, valueClazz));
-                                allTreeMap.remove(parentId, stringData);
-                            }
-                        }
-                    });
-                } finally {
-                    lock.writeLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [RedisTreeDictionaryCache::invalidateSet] encountered EXCEPTION [%s] for DICT [%s].",
-                    e.getClass().getSimpleName(), valueClazz.getSimpleName());
-            log.warn(exceptionMessage);
-            throw new RedisCacheAccessException(exceptionMessage, e);
+        Set<K> notNullKeys = keys.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        this.executeWithWriteLock("invalidateSet", () -> this.removeInBatch(notNullKeys));
+    }
+
+    /**
+     * 将全部数据写入到指定的版本，包括字典数据和树形数据。
+     *
+     * @param dataVersion 数据版本号。
+     * @param dataList    全部数据列表。
+     */
+    @Override
+    protected void writeVersion(long dataVersion, List<V> dataList) {
+        RMap<K, byte[]> newDataMap = this.getDataMap(dataVersion);
+        newDataMap.delete();
+        RListMultimap<K, byte[]> treeMap = this.getTreeMap(dataVersion);
+        treeMap.delete();
+        if (dataList.isEmpty()) {
+            return;
+        }
+        // 字典数据和树形数据共享同一份编码结果，每个对象只编码一次。
+        Map<K, byte[]> map = new HashMap<>(dataList.size());
+        Multimap<K, byte[]> treeMultimap = this.makeTreeMap(dataList, map);
+        newDataMap.putAll(map, 1000);
+        for (Map.Entry<K, Collection<byte[]>> entry : treeMultimap.asMap().entrySet()) {
+            treeMap.putAll(entry.getKey(), entry.getValue());
         }
     }
 
     /**
-     * 清空缓存。
+     * 为切换前的旧版本数据设置过期时间，包括字典数据和树形数据。
+     *
+     * @param dataVersion 旧的数据版本号。
      */
     @Override
-    public void invalidateAll() {
-        String exceptionMessage;
-        try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    dataMap.clear();
-                    allTreeMap.clear();
-                } finally {
-                    lock.writeLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [RedisTreeDictionaryCache::invalidateAll] encountered EXCEPTION [%s] for DICT [%s].",
-                    e.getClass().getSimpleName(), valueClazz.getSimpleName());
-            log.warn(exceptionMessage);
-            throw new RedisCacheAccessException(exceptionMessage, e);
+    protected void retireVersion(long dataVersion) {
+        super.retireVersion(dataVersion);
+        this.getTreeMap(dataVersion).expire(RETIRED_VERSION_TTL, TimeUnit.MILLISECONDS);
+    }
+
+    private Map<K, V> removeInBatch(Set<K> keys) {
+        long dataVersion = version.get();
+        Map<K, byte[]> oldDataMap = this.getDataMap(dataVersion).getAll(keys);
+        Map<K, V> removedMap = new HashMap<>(oldDataMap.size());
+        if (oldDataMap.isEmpty()) {
+            return removedMap;
         }
+        RBatch batch = this.createAtomicBatch();
+        RMapAsync<K, byte[]> dataMapAsync = batch.getMap(this.getDataMapName(dataVersion), storageCodec);
+        RMultimapAsync<K, byte[]> treeMapAsync = batch.getListMultimap(this.getTreeMapName(dataVersion), storageCodec);
+        for (Map.Entry<K, byte[]> entry : oldDataMap.entrySet()) {
+            V data = this.decodeValue(entry.getValue());
+            removedMap.put(entry.getKey(), data);
+            dataMapAsync.fastRemoveAsync(entry.getKey());
+            treeMapAsync.removeAsync(parentIdGetter.apply(data), entry.getValue());
+        }
+        batch.execute();
+        return removedMap;
+    }
+
+    private Multimap<K, byte[]> makeTreeMap(List<V> dataList, Map<K, byte[]> dataMap) {
+        Multimap<K, byte[]> treeMap = LinkedListMultimap.create();
+        for (V data : dataList) {
+            byte[] encodedData = valueCodec.encode(data);
+            dataMap.put(idGetter.apply(data), encodedData);
+            treeMap.put(parentIdGetter.apply(data), encodedData);
+        }
+        return treeMap;
+    }
+
+    private RListMultimap<K, byte[]> getTreeMap(long dataVersion) {
+        return redissonClient.getListMultimap(this.getTreeMapName(dataVersion), storageCodec);
+    }
+
+    private RBatch createAtomicBatch() {
+        return redissonClient.createBatch(
+                BatchOptions.defaults().executionMode(BatchOptions.ExecutionMode.IN_MEMORY_ATOMIC));
+    }
+
+    private String getTreeMapName(long dataVersion) {
+        return dictionaryName + "-TREE-DICT:" + dataVersion;
     }
 }
@@ -0,0 +1,400 @@
+package com.orange.demo.common.redis.cache;
+
+import com.alibaba.fastjson.JSON;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 两级字典数据缓存对象。一级缓存为进程内的有界本地缓存，存储反序列化后的字典对象；二级缓存为Redis中的字典Hash数据。
+ * 读操作优先访问本地缓存，未命中时直接读取Redis，且无需获取分布式锁。
+ * 写操作先通过父类更新Redis数据，再通过Redisson消息主题通知全部节点失效本地缓存中的相关数据。
+ * 为了避免消息到达前，未命中的读操作把旧数据回填到本地缓存，每次失效都会递增本地版本号，
+ * 回填前版本号发生变化的数据将被丢弃。
+ *
+ * @param <K> 字典表主键类型。
+ * @param <V> 字典表对象类型。
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+public class TwoLevelDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
+
+    /**
+     * 本地缓存的缺省最大数据量。
+     */
+    private static final long DEFAULT_MAX_SIZE = 10000L;
+    /**
+     * 本地缓存的缺省过期时间(秒)，仅用于兜底。
+     */
+    private static final long DEFAULT_EXPIRED_SECONDS = 600L;
+    /**
+     * 失效全部数据的消息内容。
+     */
+    private static final String INVALIDATE_ALL = "*";
+
+    /**
+     * 一级本地缓存，键为字典主键的字符串形式，以避免消息中的主键类型与原始类型不一致。
+     */
+    private final Cache<String, V> localCache;
+    /**
+     * 本地缓存的全部数据列表，首次调用getAll时加载，任何失效操作都会将其清空。
+     */
+    private volatile List<V> localAllList;
+    /**
+     * 本地缓存的版本号，每次失效操作后递增。
+     */
+    private final AtomicLong localVersion = new AtomicLong();
+    /**
+     * 本地缓存失效通知的消息主题。
+     */
+    private final RTopic invalidationTopic;
+
+    /**
+     * 当前对象的构造器函数。
+     *
+     * @param redissonClient Redisson的客户端对象。
+     * @param dictionaryName 字典表的名称。等同于redis hash对象的key。
+     * @param valueClazz     值对象的Class对象。
+     * @param idGetter       获取当前类主键字段值的函数对象。
+     * @param <K>            字典主键类型。
+     * @param <V>            字典对象类型
+     * @return 实例化后的两级字典缓存对象。
+     */
+    public static <K, V> TwoLevelDictionaryCache<K, V> create(
+            RedissonClient redissonClient,
+            String dictionaryName,
+            Class<V> valueClazz,
+            Function<V, K> idGetter) {
+        return create(redissonClient, dictionaryName, valueClazz, idGetter, DEFAULT_MAX_SIZE, DEFAULT_EXPIRED_SECONDS);
+    }
+
+    /**
+     * 当前对象的构造器函数。
+     *
+     * @param redissonClient Redisson的客户端对象。
+     * @param dictionaryName 字典表的名称。等同于redis hash对象的key。
+     * @param valueClazz     值对象的Class对象。
+     * @param idGetter       获取当前类主键字段值的函数对象。
+     * @param maxSize        本地缓存的最大数据量。
+     * @param expiredSeconds 本地缓存的过期时间(秒)。
+     * @param <K>            字典主键类型。
+     * @param <V>            字典对象类型
+     * @return 实例化后的两级字典缓存对象。
+     */
+    public static <K, V> TwoLevelDictionaryCache<K, V> create(
+            RedissonClient redissonClient,
+            String dictionaryName,
+            Class<V> valueClazz,
+            Function<V, K> idGetter,
+            long maxSize,
+            long expiredSeconds) {
+        if (idGetter == null) {
+            throw new IllegalArgumentException("IdGetter can't be NULL.");
+        }
+        return new TwoLevelDictionaryCache<>(
+                redissonClient, dictionaryName, valueClazz, idGetter, maxSize, expiredSeconds);
+    }
+
+    /**
+     * 当前对象的构造器函数。
+     *
+     * @param redissonClient Redisson的客户端对象。
+     * @param dictionaryName 字典表的名称。等同于redis hash对象的key。
+     * @param valueClazz     值对象的Class对象。
+     * @param idGetter       获取当前类主键字段值的函数对象。
+     * @param maxSize        本地缓存的最大数据量。
+     * @param expiredSeconds 本地缓存的过期时间(秒)。
+     * @param valueCodec     Redis中字典值的编解码对象。
+     * @param <K>            字典主键类型。
+     * @param <V>            字典对象类型
+     * @return 实例化后的两级字典缓存对象。
+     */
+    public static <K, V> TwoLevelDictionaryCache<K, V> create(
+            RedissonClient redissonClient,
+            String dictionaryName,
+            Class<V> valueClazz,
+            Function<V, K> idGetter,
+            long maxSize,
+            long expiredSeconds,
+            DictionaryValueCodec<V> valueCodec) {
+        if (idGetter == null) {
+            throw new IllegalArgumentException("IdGetter can't be NULL.");
+        }
+        if (valueCodec == null) {
+            throw new IllegalArgumentException("ValueCodec can't be NULL.");
+        }
+        return new TwoLevelDictionaryCache<>(
+                redissonClient, dictionaryName, valueClazz, idGetter, maxSize, expiredSeconds, valueCodec);
+    }
+
+    /**
+     * 构造函数。
+     *
+     * @param redissonClient Redisson的客户端对象。
+     * @param dictionaryName 字典表的名称。等同于redis hash对象的key。确保全局唯一。
+     * @param valueClazz     值对象的Class对象。
+     * @param idGetter       获取当前类主键字段值的函数对象。
+     * @param maxSize        本地缓存的最大数据量。
+     * @param expiredSeconds 本地缓存的过期时间(秒)。
+     */
+    public TwoLevelDictionaryCache(
+            RedissonClient redissonClient,
+            String dictionaryName,
+            Class<V> valueClazz,
+            Function<V, K> idGetter,
+            long maxSize,
+            long expiredSeconds) {
+        this(redissonClient, dictionaryName, valueClazz, idGetter,
+                maxSize, expiredSeconds, new FstDictionaryValueCodec<>(valueClazz));
+    }
+
+    /**
+     * 构造函数。
+     *
+     * @param redissonClient Redisson的客户端对象。
+     * @param dictionaryName 字典表的名称。等同于redis hash对象的key。确保全局唯一。
+     * @param valueClazz     值对象的Class对象。
+     * @param idGetter       获取当前类主键字段值的函数对象。
+     * @param maxSize        本地缓存的最大数据量。
+     * @param expiredSeconds 本地缓存的过期时间(秒)。
+     * @param valueCodec     Redis中字典值的编解码对象。
+     */
+    public TwoLevelDictionaryCache(
+            RedissonClient redissonClient,
+            String dictionaryName,
+            Class<V> valueClazz,
+            Function<V, K> idGetter,
+            long maxSize,
+            long expiredSeconds,
+            DictionaryValueCodec<V> valueCodec) {
+        super(redissonClient, dictionaryName, valueClazz, idGetter, valueCodec);
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expiredSeconds, TimeUnit.SECONDS)
+                .build();
+        this.invalidationTopic =
+                redissonClient.getTopic(dictionaryName + "-DICT-INVALIDATION", StringCodec.INSTANCE);
+        this.invalidationTopic.addListener(String.class, (channel, message) -> this.invalidateLocal(message));
+    }
+
+    /**
+     * 按照数据插入的顺序返回全部字典对象的列表。
+     *
+     * @return 全部字段数据列表。
+     */
+    @Override
+    public List<V> getAll() {
+        List<V> allList = localAllList;
+        if (allList != null) {
+            return new ArrayList<>(allList);
+        }
+        long loadVersion = localVersion.get();
+        Collection<byte[]> dataList = this.getDataMap(version.get()).readAllValues();
+        allList = new ArrayList<>(dataList.size());
+        for (byte[] data : dataList) {
+            allList.add(this.decodeValue(data));
+        }
+        if (loadVersion == localVersion.get()) {
+            localAllList = allList;
+            if (loadVersion != localVersion.get()) {
+                localAllList = null;
+            }
+        }
+        return new ArrayList<>(allList);
+    }
+
+    /**
+     * 获取缓存中与键列表对应的对象列表。本地缓存未命中的键，通过一次Redis批量读取获得。
+     *
+     * @param keys 主键集合。
+     * @return 对象列表。
+     */
+    @Override
+    public List<V> getInList(Set<K> keys) {
+        if (CollectionUtils.isEmpty(keys)) {
+            return new ArrayList<>();
+        }
+        List<V> resultList = new ArrayList<>(keys.size());
+        Set<K> missingKeys = null;
+        for (K key : keys) {
+            V object = localCache.getIfPresent(String.valueOf(key));
+            if (object != null) {
+                resultList.add(object);
+            } else {
+                if (missingKeys == null) {
+                    missingKeys = new HashSet<>();
+                }
+                missingKeys.add(key);
+            }
+        }
+        if (missingKeys != null) {
+            long loadVersion = localVersion.get();
+            Map<K, byte[]> dataMapFromRedis = this.getDataMap(version.get()).getAll(missingKeys);
+            Map<String, V> loadedMap = new HashMap<>(dataMapFromRedis.size());
+            dataMapFromRedis.forEach((key, data) -> {
+                V object = this.decodeValue(data);
+                loadedMap.put(String.valueOf(key), object);
+                resultList.add(object);
+            });
+            this.fillLocal(loadVersion, loadedMap);
+        }
+        return resultList;
+    }
+
+    /**
+     * 从缓存中获取指定的数据。
+     *
+     * @param id 数据的key。
+     * @return 获取到的数据，如果没有返回null。
+     */
+    @Override
+    public V get(K id) {
+        if (id == null) {
+            return null;
+        }
+        String localKey = String.valueOf(id);
+        V object = localCache.getIfPresent(localKey);
+        if (object != null) {
+            return object;
+        }
+        long loadVersion = localVersion.get();
+        byte[] data = this.getDataMap(version.get()).get(id);
+        if (data == null) {
+            return null;
+        }
+        object = this.decodeValue(data);
+        this.fillLocal(loadVersion, Collections.singletonMap(localKey, object));
+        return object;
+    }
+
+    /**
+     * 将参数List中的数据保存到缓存中，同时保证getAll返回的数据列表，与参数列表中数据项的顺序保持一致。
+     *
+     * @param dataList 待缓存的数据列表。
+     */
+    @Override
+    public void putAll(List<V> dataList) {
+        super.putAll(dataList);
+        if (CollectionUtils.isNotEmpty(dataList)) {
+            this.publishInvalidation(dataList.stream().map(idGetter).collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * 将数据存入缓存。
+     *
+     * @param id   通常为字典数据的主键。
+     * @param data 字典数据对象。
+     */
+    @Override
+    public void put(K id, V data) {
+        super.put(id, data);
+        if (id != null && data != null) {
+            this.publishInvalidation(Collections.singletonList(id));
+        }
+    }
+
+    /**
+     * 重新加载，先清空原有数据，在执行putAll的操作。
+     *
+     * @param dataList 待缓存的数据列表。
+     * @param force    true则强制刷新，如果false，当缓存中存在数据时不刷新。
+     */
+    @Override
+    public void reload(List<V> dataList, boolean force) {
+        super.reload(dataList, force);
+        this.publishInvalidation(null);
+    }
+
+    /**
+     * 删除缓存中指定的键。
+     *
+     * @param id 待删除数据的主键。
+     * @return 返回被删除的对象，如果主键不存在，返回null。
+     */
+    @Override
+    public V invalidate(K id) {
+        V object = super.invalidate(id);
+        if (id != null) {
+            this.publishInvalidation(Collections.singletonList(id));
+        }
+        return object;
+    }
+
+    /**
+     * 删除缓存中，参数列表中包含的键。
+     *
+     * @param keys 待删除数据的主键集合。
+     */
+    @Override
+    public void invalidateSet(Set<K> keys) {
+        super.invalidateSet(keys);
+        if (CollectionUtils.isNotEmpty(keys)) {
+            this.publishInvalidation(new ArrayList<>(keys));
+        }
+    }
+
+    /**
+     * 清空缓存。
+     */
+    @Override
+    public void invalidateAll() {
+        super.invalidateAll();
+        this.publishInvalidation(null);
+    }
+
+    /**
+     * 先失效当前节点的本地缓存，再通知其他节点。当前节点也会收到该消息，重复失效并无影响。
+     *
+     * @param keys 失效的主键列表，为null时表示失效全部数据。
+     */
+    private void publishInvalidation(List<K> keys) {
+        String message = keys == null ? INVALIDATE_ALL
+                : JSON.toJSONString(keys.stream().map(String::valueOf).collect(Collectors.toList()));
+        this.invalidateLocal(message);
+        try {
+            invalidationTopic.publish(message);
+        } catch (Exception e) {
+            // Redis数据已经更新成功，消息发送失败时其他节点的本地缓存会在过期后自动恢复一致。
+            log.warn("Failed to publish DICT invalidation message for DICT [{}].", valueClazz.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * 将从Redis读取的数据回填到本地缓存。读取期间发生过失效操作时放弃回填，
+     * 回填后再次检查版本号，以覆盖检查和回填之间发生失效的情况。
+     *
+     * @param loadVersion 读取Redis之前的本地版本号。
+     * @param loadedMap   从Redis读取的数据。
+     */
+    private void fillLocal(long loadVersion, Map<String, V> loadedMap) {
+        if (loadedMap.isEmpty() || loadVersion != localVersion.get()) {
+            return;
+        }
+        localCache.putAll(loadedMap);
+        if (loadVersion != localVersion.get()) {
+            localCache.invalidateAll(loadedMap.keySet());
+        }
+    }
+
+    private void invalidateLocal(String message) {
+        localVersion.incrementAndGet();
+        localAllList = null;
+        if (INVALIDATE_ALL.equals(message)) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidateAll(JSON.parseArray(message, String.class));
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.orange.demo.common.redis.config;
 
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
+import org.redisson.api.RedissonReactiveClient;
 import org.redisson.config.Config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -36,6 +37,22 @@ public class RedissonConfig {
 
     @Bean
     public RedissonClient redissonClient() {
+        return Redisson.create(makeConfig());
+    }
+
+    /**
+     * 响应式的Redisson客户端。主要用于运行在Reactor事件循环线程中的组件，如网关过滤器，以避免阻塞式的Redis调用。
+     * 仅当redis.redisson.reactiveEnabled为true时才会创建，其连接池与redissonClient相互独立。
+     *
+     * @return 响应式的Redisson客户端。
+     */
+    @Bean
+    @ConditionalOnProperty(name = "redis.redisson.reactiveEnabled", havingValue = "true")
+    public RedissonReactiveClient redissonReactiveClient() {
+        return Redisson.createReactive(makeConfig());
+    }
+
+    private Config makeConfig() {
         Config config = new Config();
         // 这里config还支持其他redis集群模式，可根据实际需求更换。
         // 比如useClusterServers()/useMasterSlaveServers()等。
@@ -45,6 +62,6 @@ public class RedissonConfig {
                 .setConnectionPoolSize(poolSize)
                 .setConnectionMinimumIdleSize(minIdle)
                 .setConnectTimeout(timeout);
-        return Redisson.create(config);
+        return config;
     }
 }
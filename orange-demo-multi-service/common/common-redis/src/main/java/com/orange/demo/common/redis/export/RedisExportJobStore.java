@@ -0,0 +1,100 @@
+package com.orange.demo.common.redis.export;
+
+import com.alibaba.fastjson.JSON;
+import com.orange.demo.common.core.export.ExportJob;
+import com.orange.demo.common.core.export.ExportJobStore;
+import com.orange.demo.common.core.util.RedisKeyUtil;
+import org.redisson.api.RBucket;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Redis的异步导出任务存储对象，多个服务实例之间共享任务状态和去重键。
+ * 任务对象以JSON字符串的形式存储，去重键的绑定和解除均为原子操作。
+ * 已生成结果文件的任务保存在以过期时间戳为分值的有序集合中，供ExportJobManager定期清理过期的结果文件。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Component
+@ConditionalOnProperty(name = "redis.redisson.enabled", havingValue = "true")
+public class RedisExportJobStore implements ExportJobStore {
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Override
+    public ExportJob get(String jobId) {
+        String jobJson = this.getBucket(RedisKeyUtil.makeExportJobKeyForRedis(jobId)).get();
+        return jobJson == null ? null : JSON.parseObject(jobJson, ExportJob.class);
+    }
+
+    @Override
+    public void save(ExportJob job, long expireSeconds) {
+        this.getBucket(RedisKeyUtil.makeExportJobKeyForRedis(job.getJobId()))
+                .set(JSON.toJSONString(job), expireSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void remove(String jobId) {
+        this.getBucket(RedisKeyUtil.makeExportJobKeyForRedis(jobId)).delete();
+    }
+
+    @Override
+    public String bindDedupKey(String dedupKey, String jobId, long expireSeconds) {
+        RBucket<String> bucket = this.getBucket(RedisKeyUtil.makeExportJobDedupKeyForRedis(dedupKey));
+        if (bucket.trySet(jobId, expireSeconds, TimeUnit.SECONDS)) {
+            return null;
+        }
+        String boundJobId = bucket.get();
+        // 已绑定的去重键恰好在两次操作之间过期时，重试一次绑定。
+        if (boundJobId == null) {
+            return bucket.trySet(jobId, expireSeconds, TimeUnit.SECONDS) ? null : bucket.get();
+        }
+        return jobId.equals(boundJobId) ? null : boundJobId;
+    }
+
+    @Override
+    public void unbindDedupKey(String dedupKey, String jobId) {
+        // 仅当仍然绑定到该任务时才删除，不会误删其他任务后续绑定的去重键。
+        this.getBucket(RedisKeyUtil.makeExportJobDedupKeyForRedis(dedupKey)).compareAndSet(jobId, null);
+    }
+
+    @Override
+    public void addResult(ExportJob job, long expireSeconds) {
+        long expireTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(expireSeconds);
+        this.getResultSet().add(expireTime, JSON.toJSONString(job));
+    }
+
+    @Override
+    public List<ExportJob> pollExpiredResults(int maxCount) {
+        RScoredSortedSet<String> resultSet = this.getResultSet();
+        Collection<String> expiredJsons =
+                resultSet.valueRange(0, true, System.currentTimeMillis(), true, 0, maxCount);
+        List<ExportJob> expiredJobList = new LinkedList<>();
+        for (String jobJson : expiredJsons) {
+            // 只有删除成功的实例才负责清理，多个实例同时清理时不会重复返回同一个任务。
+            if (resultSet.remove(jobJson)) {
+                expiredJobList.add(JSON.parseObject(jobJson, ExportJob.class));
+            }
+        }
+        return expiredJobList;
+    }
+
+    private RScoredSortedSet<String> getResultSet() {
+        return redissonClient.getScoredSortedSet(RedisKeyUtil.makeExportJobResultKeyForRedis(), StringCodec.INSTANCE);
+    }
+
+    private RBucket<String> getBucket(String key) {
+        return redissonClient.getBucket(key, StringCodec.INSTANCE);
+    }
+}